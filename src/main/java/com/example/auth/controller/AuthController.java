@@ -2,9 +2,14 @@ package com.example.auth.controller;
 
 // Implements REQ-1.1
 
+import com.example.auth.service.AuthRateLimiter;
 import com.example.auth.service.AuthService;
+import com.example.auth.service.IssuedTokens;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import java.time.Clock;
+import java.time.Duration;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -16,27 +21,48 @@ import org.springframework.web.bind.annotation.RestController;
 public class AuthController {
 
     private final AuthService authService;
+    private final AuthRateLimiter authRateLimiter;
+    private final Clock clock;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, AuthRateLimiter authRateLimiter, Clock clock) {
         this.authService = authService;
+        this.authRateLimiter = authRateLimiter;
+        this.clock = clock;
     }
 
+    // The remote address is the real client behind the load balancer only with server.forward-headers-strategy set.
     @PostMapping("/request-otp")
-    public ResponseEntity<MessageResponse> requestOtp(@Valid @RequestBody RequestOtpRequest request) {
+    public ResponseEntity<MessageResponse> requestOtp(
+            @Valid @RequestBody RequestOtpRequest request, HttpServletRequest servletRequest) {
+        authRateLimiter.checkOtpRequest(request.getPhone(), request.getDeviceId(), servletRequest.getRemoteAddr());
         authService.requestOtp(request.getPhone());
         return ResponseEntity.ok(new MessageResponse("OTP dispatched"));
     }
 
     @PostMapping("/verify")
-    public ResponseEntity<TokenResponse> verifyOtp(@Valid @RequestBody VerifyOtpRequest request) {
-        String jwt = authService.verifyOtp(request.getPhone(), request.getOtp(), request.getDeviceId());
-        return ResponseEntity.ok(new TokenResponse(jwt, request.getDeviceId()));
+    public ResponseEntity<TokenResponse> verifyOtp(
+            @Valid @RequestBody VerifyOtpRequest request, HttpServletRequest servletRequest) {
+        authRateLimiter.checkVerification(request.getPhone(), request.getDeviceId(), servletRequest.getRemoteAddr());
+        IssuedTokens tokens = authService.verifyOtp(request.getPhone(), request.getOtp(), request.getDeviceId());
+        return ResponseEntity.ok(toResponse(tokens));
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<TokenResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(toResponse(authService.refresh(request.getRefreshToken())));
+    }
+
+    private TokenResponse toResponse(IssuedTokens tokens) {
+        long expiresIn = Math.max(0, Duration.between(clock.instant(), tokens.accessExpiresAt()).toSeconds());
+        return new TokenResponse(tokens.accessToken(), tokens.refreshToken(), expiresIn, tokens.deviceId());
     }
 
     public static class RequestOtpRequest {
         @NotBlank
         private String phone;
 
+        private String deviceId;
+
         public String getPhone() {
             return phone;
         }
@@ -44,6 +70,14 @@ public class AuthController {
         public void setPhone(String phone) {
             this.phone = phone;
         }
+
+        public String getDeviceId() {
+            return deviceId;
+        }
+
+        public void setDeviceId(String deviceId) {
+            this.deviceId = deviceId;
+        }
     }
 
     public static class VerifyOtpRequest {
@@ -81,17 +115,47 @@ public class AuthController {
         }
     }
 
+    public static class RefreshTokenRequest {
+        @NotBlank
+        private String refreshToken;
+
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+
+        public void setRefreshToken(String refreshToken) {
+            this.refreshToken = refreshToken;
+        }
+    }
+
     public static class TokenResponse {
-        private final String token;
+        private final String accessToken;
+        private final String refreshToken;
+        private final long expiresIn;
         private final String deviceId;
 
-        public TokenResponse(String token, String deviceId) {
-            this.token = token;
+        public TokenResponse(String accessToken, String refreshToken, long expiresIn, String deviceId) {
+            this.accessToken = accessToken;
+            this.refreshToken = refreshToken;
+            this.expiresIn = expiresIn;
             this.deviceId = deviceId;
         }
 
+        /** Same value as {@link #getAccessToken()}, kept for clients written before refresh tokens. */
         public String getToken() {
-            return token;
+            return accessToken;
+        }
+
+        public String getAccessToken() {
+            return accessToken;
+        }
+
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+
+        public long getExpiresIn() {
+            return expiresIn;
         }
 
         public String getDeviceId() {
@@ -0,0 +1,13 @@
+package com.example.auth.exception;
+
+// Implements REQ-1.1
+
+public class InvalidTokenException extends RuntimeException {
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+
+    public InvalidTokenException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.auth.security;
+
+// Implements REQ-1.1
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mingyu.app.common.error.ApiErrorResponse;
+import com.mingyu.app.logging.LoggingConstants;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.util.StringUtils;
+
+/**
+ * Answers a request that needs authentication but carried a rejected bearer token with a 401
+ * {@code INVALID_TOKEN} body naming why the {@link JwtAuthenticationFilter} rejected it.
+ */
+public class InvalidTokenEntryPoint implements AuthenticationEntryPoint {
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidTokenEntryPoint.class);
+
+    private final ObjectMapper objectMapper;
+
+    public InvalidTokenEntryPoint(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void commence(
+            HttpServletRequest request, HttpServletResponse response, AuthenticationException authException)
+            throws IOException {
+        String message = (String) request.getAttribute(JwtAuthenticationFilter.INVALID_TOKEN_ATTRIBUTE);
+        String traceId = MDC.get(LoggingConstants.MDC_TRACE_ID);
+        if (!StringUtils.hasText(traceId)) {
+            traceId = UUID.randomUUID().toString();
+        }
+        log.warn("Trace {} INVALID_TOKEN - {}", traceId, message);
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApiErrorResponse.general(traceId, "INVALID_TOKEN", message));
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.auth.security;
+
+// Implements REQ-1.1
+
+import com.example.auth.exception.InvalidTokenException;
+import com.example.auth.token.JwtClaims;
+import com.mingyu.app.logging.LoggingConstants;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import org.slf4j.MDC;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Authenticates {@code Authorization: Bearer} tokens and exposes the verified phone and device as
+ * the request principal and as the MDC {@code userId}/{@code deviceId} used by the log pattern.
+ * Requests without a valid bearer token pass through unauthenticated and are left to the authorization
+ * rules, so open routes such as {@code /auth/refresh} still work with a stale header; a rejected token's
+ * reason is kept in {@link #INVALID_TOKEN_ATTRIBUTE} for the {@link InvalidTokenEntryPoint}.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String INVALID_TOKEN_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ".INVALID_TOKEN";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final TokenAuthenticationService tokenAuthenticationService;
+
+    public JwtAuthenticationFilter(TokenAuthenticationService tokenAuthenticationService) {
+        this.tokenAuthenticationService = tokenAuthenticationService;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        JwtClaims claims;
+        try {
+            claims = tokenAuthenticationService.authenticate(header.substring(BEARER_PREFIX.length()).trim());
+        } catch (InvalidTokenException ex) {
+            SecurityContextHolder.clearContext();
+            request.setAttribute(INVALID_TOKEN_ATTRIBUTE, ex.getMessage());
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        UsernamePasswordAuthenticationToken authentication = UsernamePasswordAuthenticationToken.authenticated(
+                claims.subject(), null, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        authentication.setDetails(claims);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        MDC.put(LoggingConstants.MDC_USER_ID, claims.subject());
+        MDC.put(LoggingConstants.MDC_DEVICE_ID, claims.deviceId());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(LoggingConstants.MDC_USER_ID);
+            MDC.remove(LoggingConstants.MDC_DEVICE_ID);
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.example.auth.security;
+
+// Implements REQ-1.1
+
+import com.example.auth.exception.InvalidTokenException;
+import com.example.auth.service.AuthService;
+import com.example.auth.token.JwtClaims;
+import com.example.auth.token.JwtCodec;
+import com.example.auth.token.TokenType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Resolves bearer tokens to verified claims. Signature checks are cached per token until it
+ * expires; revocation is consulted on every call so a device switch takes effect immediately.
+ */
+@Service
+public class TokenAuthenticationService {
+
+    private final JwtCodec jwtCodec;
+    private final AuthService authService;
+    private final Clock clock;
+    private final VerifiedTokenCache cache;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Timer hitVerificationTimer;
+    private final Timer missVerificationTimer;
+
+    public TokenAuthenticationService(
+            JwtCodec jwtCodec,
+            AuthService authService,
+            Clock clock,
+            MeterRegistry meterRegistry,
+            @Value("${auth.token.cache.max-entries:10000}") int maxCacheEntries) {
+        this.jwtCodec = jwtCodec;
+        this.authService = authService;
+        this.clock = clock;
+        this.cache = new VerifiedTokenCache(maxCacheEntries);
+        this.cacheHits = Counter.builder("auth.token.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.cacheMisses = Counter.builder("auth.token.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.hitVerificationTimer = verificationTimer(meterRegistry, "hit");
+        this.missVerificationTimer = verificationTimer(meterRegistry, "miss");
+        Gauge.builder("auth.token.cache.hit.ratio", this, TokenAuthenticationService::hitRatio)
+                .register(meterRegistry);
+        Gauge.builder("auth.token.cache.size", cache, VerifiedTokenCache::size).register(meterRegistry);
+    }
+
+    public JwtClaims authenticate(String token) {
+        long startedAt = System.nanoTime();
+        Instant now = clock.instant();
+        JwtClaims claims = cache.get(token, now);
+        boolean cached = claims != null;
+        try {
+            if (cached) {
+                cacheHits.increment();
+            } else {
+                cacheMisses.increment();
+                claims = jwtCodec.verify(token, now);
+                if (claims.type() != TokenType.ACCESS) {
+                    throw new InvalidTokenException("Only access tokens authenticate requests");
+                }
+            }
+            if (authService.isTokenIdRevoked(claims.tokenId())) {
+                cache.invalidate(token);
+                throw new InvalidTokenException("Token revoked");
+            }
+            if (!cached) {
+                cache.put(token, claims, now);
+            }
+            return claims;
+        } finally {
+            Timer timer = cached ? hitVerificationTimer : missVerificationTimer;
+            timer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private double hitRatio() {
+        double hits = cacheHits.count();
+        double total = hits + cacheMisses.count();
+        return total == 0 ? 0.0d : hits / total;
+    }
+
+    private static Timer verificationTimer(MeterRegistry meterRegistry, String cacheResult) {
+        return Timer.builder("auth.token.verification")
+                .description("Time spent authenticating a bearer token")
+                .tag("cache", cacheResult)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.auth.security;
+
+// Implements REQ-1.1
+
+import com.example.auth.token.JwtClaims;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded map from raw token to claims that already passed signature verification. Entries are
+ * dropped lazily once the token expires; when the bound is hit, expired entries go first and then
+ * an arbitrary tenth of the rest so eviction cost is amortised over many inserts.
+ */
+class VerifiedTokenCache {
+
+    private final int maxEntries;
+    private final Map<String, JwtClaims> entries = new ConcurrentHashMap<>();
+
+    VerifiedTokenCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    JwtClaims get(String token, Instant now) {
+        JwtClaims claims = entries.get(token);
+        if (claims == null) {
+            return null;
+        }
+        if (claims.isExpiredAt(now)) {
+            entries.remove(token, claims);
+            return null;
+        }
+        return claims;
+    }
+
+    void put(String token, JwtClaims claims, Instant now) {
+        if (entries.size() >= maxEntries) {
+            evict(now);
+        }
+        entries.put(token, claims);
+    }
+
+    void invalidate(String token) {
+        entries.remove(token);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evict(Instant now) {
+        entries.values().removeIf(claims -> claims.isExpiredAt(now));
+        int target = maxEntries - Math.max(1, maxEntries / 10);
+        Iterator<String> iterator = entries.keySet().iterator();
+        while (entries.size() > target && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+}
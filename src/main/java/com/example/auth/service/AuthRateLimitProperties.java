@@ -0,0 +1,130 @@
+package com.example.auth.service;
+
+// Implements REQ-1.1
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token bucket limits for the OTP endpoints, per phone, per device and per client IP. The buckets
+ * live in each JVM, even with {@code auth.store.mode=redis}, so behind N replicas a client can get up
+ * to N times every limit; size them for one instance's share of traffic. The client IP is the
+ * request's remote address, which reflects {@code X-Forwarded-For} only with
+ * {@code server.forward-headers-strategy} set.
+ */
+@Component
+@ConfigurationProperties(prefix = "auth.rate-limit")
+public class AuthRateLimitProperties {
+
+    private boolean enabled = true;
+    private final Endpoint requestOtp = new Endpoint(
+            new Limit(3, 3, Duration.ofMinutes(15)),
+            new Limit(5, 5, Duration.ofMinutes(15)),
+            new Limit(50, 50, Duration.ofMinutes(1)));
+    private final Endpoint verify = new Endpoint(
+            new Limit(5, 5, Duration.ofMinutes(5)),
+            new Limit(10, 10, Duration.ofMinutes(5)),
+            new Limit(100, 100, Duration.ofMinutes(1)));
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Endpoint getRequestOtp() {
+        return requestOtp;
+    }
+
+    public Endpoint getVerify() {
+        return verify;
+    }
+
+    public void validate() {
+        requestOtp.validate("requestOtp");
+        verify.validate("verify");
+    }
+
+    public static class Endpoint {
+
+        private final Limit phone;
+        private final Limit device;
+        private final Limit ip;
+
+        Endpoint(Limit phone, Limit device, Limit ip) {
+            this.phone = phone;
+            this.device = device;
+            this.ip = ip;
+        }
+
+        public Limit getPhone() {
+            return phone;
+        }
+
+        public Limit getDevice() {
+            return device;
+        }
+
+        public Limit getIp() {
+            return ip;
+        }
+
+        void validate(String endpoint) {
+            phone.validate(endpoint + ".phone");
+            device.validate(endpoint + ".device");
+            ip.validate(endpoint + ".ip");
+        }
+    }
+
+    public static class Limit {
+
+        private int capacity;
+        private int refillTokens;
+        private Duration refillPeriod;
+
+        Limit(int capacity, int refillTokens, Duration refillPeriod) {
+            this.capacity = capacity;
+            this.refillTokens = refillTokens;
+            this.refillPeriod = refillPeriod;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public int getRefillTokens() {
+            return refillTokens;
+        }
+
+        public void setRefillTokens(int refillTokens) {
+            this.refillTokens = refillTokens;
+        }
+
+        public Duration getRefillPeriod() {
+            return refillPeriod;
+        }
+
+        public void setRefillPeriod(Duration refillPeriod) {
+            this.refillPeriod = refillPeriod;
+        }
+
+        void validate(String name) {
+            if (capacity < 1) {
+                throw new IllegalArgumentException(name + ".capacity must be at least 1");
+            }
+            if (refillTokens < 1) {
+                throw new IllegalArgumentException(name + ".refillTokens must be at least 1");
+            }
+            if (refillPeriod == null || refillPeriod.isNegative() || refillPeriod.isZero()) {
+                throw new IllegalArgumentException(name + ".refillPeriod must be positive");
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.auth.service;
+
+// Implements REQ-1.1
+
+import com.example.auth.exception.RateLimitException;
+import com.mingyu.app.common.ratelimit.BucketSpec;
+import com.mingyu.app.common.ratelimit.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.util.List;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-phone, per-device and per-client-IP token buckets in front of the OTP endpoints. All three
+ * buckets must admit a request; tokens taken before a later bucket rejects are handed back so a
+ * flood from one IP does not drain the phone's own allowance.
+ */
+@Component
+public class AuthRateLimiter {
+
+    private final boolean enabled;
+    private final EndpointLimits requestOtp;
+    private final EndpointLimits verify;
+
+    public AuthRateLimiter(AuthRateLimitProperties properties, Clock clock, MeterRegistry meterRegistry) {
+        properties.validate();
+        this.enabled = properties.isEnabled();
+        this.requestOtp = new EndpointLimits("request_otp", properties.getRequestOtp(), clock, meterRegistry);
+        this.verify = new EndpointLimits("verify", properties.getVerify(), clock, meterRegistry);
+    }
+
+    public void checkOtpRequest(String phone, String deviceId, String clientIp) {
+        if (enabled) {
+            requestOtp.acquire(phone, deviceId, clientIp);
+        }
+    }
+
+    public void checkVerification(String phone, String deviceId, String clientIp) {
+        if (enabled) {
+            verify.acquire(phone, deviceId, clientIp);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.rate-limit.idle-sweep-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        requestOtp.evictIdle();
+        verify.evictIdle();
+    }
+
+    private static final class EndpointLimits {
+
+        private final List<Dimension> dimensions;
+
+        private EndpointLimits(
+                String endpoint, AuthRateLimitProperties.Endpoint limits, Clock clock, MeterRegistry meterRegistry) {
+            this.dimensions = List.of(
+                    new Dimension(endpoint, "ip", limits.getIp(), clock, meterRegistry),
+                    new Dimension(endpoint, "device", limits.getDevice(), clock, meterRegistry),
+                    new Dimension(endpoint, "phone", limits.getPhone(), clock, meterRegistry));
+        }
+
+        private void acquire(String phone, String deviceId, String clientIp) {
+            String[] keys = {clientIp, deviceId, phone};
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == null || keys[i].isBlank()) {
+                    continue;
+                }
+                Dimension dimension = dimensions.get(i);
+                if (!dimension.limiter.tryAcquire(keys[i])) {
+                    for (int j = 0; j < i; j++) {
+                        if (keys[j] != null && !keys[j].isBlank()) {
+                            dimensions.get(j).limiter.refund(keys[j]);
+                        }
+                    }
+                    dimension.rejected.increment();
+                    throw new RateLimitException("Too many requests, please retry later");
+                }
+            }
+        }
+
+        private void evictIdle() {
+            for (Dimension dimension : dimensions) {
+                dimension.limiter.evictIdle();
+            }
+        }
+    }
+
+    private static final class Dimension {
+
+        private final TokenBucketRateLimiter limiter;
+        private final Counter rejected;
+
+        private Dimension(
+                String endpoint,
+                String name,
+                AuthRateLimitProperties.Limit limit,
+                Clock clock,
+                MeterRegistry meterRegistry) {
+            this.limiter = new TokenBucketRateLimiter(
+                    new BucketSpec(limit.getCapacity(), limit.getRefillTokens(), limit.getRefillPeriod()), clock);
+            this.rejected = Counter.builder("auth.rate-limit.rejected")
+                    .tag("endpoint", endpoint)
+                    .tag("dimension", name)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -4,157 +4,167 @@ package com.example.auth.service;
 // Implements 1.账号与关系管理
 
 import com.example.auth.exception.InvalidOtpException;
+import com.example.auth.exception.InvalidTokenException;
 import com.example.auth.exception.RateLimitException;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.auth.store.AuthStateStore;
+import com.example.auth.store.DeviceSession;
+import com.example.auth.store.OtpRecord;
+import com.example.auth.store.OtpVerification;
+import com.example.auth.store.SessionTransition;
+import com.example.auth.token.JwtClaims;
+import com.example.auth.token.JwtCodec;
+import com.example.auth.token.TokenType;
 import java.nio.charset.StandardCharsets;
-import java.security.InvalidKeyException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Base64;
-import java.util.LinkedHashMap;
-import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import javax.crypto.Mac;
-import javax.crypto.SecretKey;
-import javax.crypto.spec.SecretKeySpec;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
 public class AuthService {
 
-    private static final String DEVICE_CLAIM = "device_id";
-    private static final String HMAC_ALGORITHM = "HmacSHA256";
-    private static final String HEADER_JSON = "{\"alg\":\"HS256\",\"typ\":\"JWT\"}";
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
-    private static final Base64.Encoder BASE64_URL_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final ThreadLocal<MessageDigest> OTP_DIGEST = ThreadLocal.withInitial(AuthService::newOtpDigest);
 
     private final OtpGenerator otpGenerator;
     private final OtpDeliveryClient otpDeliveryClient;
+    private final AuthStateStore authStateStore;
+    private final JwtCodec jwtCodec;
     private final Clock clock;
     private final Duration otpTtl;
     private final Duration rateLimitWindow;
-    private final Duration tokenTtl;
-    private final SecretKey jwtKey;
-
-    private final Map<String, OtpRecord> otpStore = new ConcurrentHashMap<>();
-    private final Map<String, Instant> otpRequestAudit = new ConcurrentHashMap<>();
-    private final Map<String, DeviceSession> activeSessions = new ConcurrentHashMap<>();
-    private final Set<String> revokedTokens = ConcurrentHashMap.newKeySet();
+    private final Duration accessTokenTtl;
+    private final Duration refreshTokenTtl;
 
     public AuthService(
             OtpGenerator otpGenerator,
             OtpDeliveryClient otpDeliveryClient,
+            AuthStateStore authStateStore,
+            JwtCodec jwtCodec,
             Clock clock,
             @Value("${auth.otp.ttl-seconds:300}") long otpTtlSeconds,
             @Value("${auth.otp.rate-limit-seconds:60}") long rateLimitSeconds,
-            @Value("${auth.token.ttl-seconds:86400}") long tokenTtlSeconds,
-            @Value("${auth.jwt.secret:ChangeMeToASecureSecretKeyChangeMe123456}") String jwtSecret) {
+            @Value("${auth.token.ttl-seconds:900}") long accessTokenTtlSeconds,
+            @Value("${auth.token.refresh-ttl-seconds:2592000}") long refreshTokenTtlSeconds) {
         this.otpGenerator = otpGenerator;
         this.otpDeliveryClient = otpDeliveryClient;
+        this.authStateStore = authStateStore;
+        this.jwtCodec = jwtCodec;
         this.clock = clock;
         this.otpTtl = Duration.ofSeconds(otpTtlSeconds);
         this.rateLimitWindow = Duration.ofSeconds(rateLimitSeconds);
-        this.tokenTtl = Duration.ofSeconds(tokenTtlSeconds);
-        this.jwtKey = new SecretKeySpec(jwtSecret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        this.accessTokenTtl = Duration.ofSeconds(accessTokenTtlSeconds);
+        this.refreshTokenTtl = Duration.ofSeconds(refreshTokenTtlSeconds);
     }
 
     public void requestOtp(String phone) {
         Instant now = clock.instant();
-        Instant last = otpRequestAudit.get(phone);
-        if (last != null && Duration.between(last, now).compareTo(rateLimitWindow) < 0) {
+        if (!authStateStore.tryAcquireOtpRequestWindow(phone, now, rateLimitWindow)) {
             throw new RateLimitException("OTP already issued within the last minute");
         }
-        otpRequestAudit.put(phone, now);
 
         String otp = otpGenerator.generate();
-        otpStore.put(phone, new OtpRecord(hashOtp(otp), now.plus(otpTtl)));
-        otpDeliveryClient.deliver(phone, otp);
+        authStateStore.saveOtp(phone, new OtpRecord(hashOtp(otp), now.plus(otpTtl)), now);
+        // If the OTP never leaves, let the caller retry without waiting out the window.
+        otpDeliveryClient.deliver(phone, otp, () -> authStateStore.releaseOtpRequestWindow(phone, now));
     }
 
-    public String verifyOtp(String phone, String otp, String deviceId) {
+    public IssuedTokens verifyOtp(String phone, String otp, String deviceId) {
         Instant now = clock.instant();
-        OtpRecord record = otpStore.get(phone);
-        if (record == null) {
-            throw new InvalidOtpException("OTP not requested for phone");
-        }
-        if (now.isAfter(record.expiresAt())) {
-            otpStore.remove(phone);
-            throw new InvalidOtpException("OTP expired");
-        }
-        if (!record.hashedOtp().equals(hashOtp(otp))) {
-            throw new InvalidOtpException("OTP mismatch");
+        JwtClaims access = issueClaims(phone, deviceId, TokenType.ACCESS, now, accessTokenTtl);
+        JwtClaims refresh = issueClaims(phone, deviceId, TokenType.REFRESH, now, refreshTokenTtl);
+        SessionTransition transition =
+                authStateStore.verifyOtpAndSwapSession(phone, hashOtp(otp), newSession(access, refresh), now);
+        if (!transition.verified()) {
+            throw new InvalidOtpException(rejectionMessage(transition.verification()));
         }
-        otpStore.remove(phone);
 
-        DeviceSession previousSession = activeSessions.get(phone);
+        DeviceSession previousSession = transition.previousSession();
         if (previousSession != null && !previousSession.deviceId().equals(deviceId)) {
-            revokedTokens.add(previousSession.jwt());
+            // The old refresh token died with its session; only its short-lived access token needs revoking.
+            authStateStore.revokeToken(previousSession.accessTokenId(), previousSession.accessExpiresAt(), now);
+        }
+        return encode(access, refresh);
+    }
+
+    /**
+     * Exchanges a refresh token for a new access/refresh pair. Each refresh token works once: the
+     * session only rotates while it still holds the presented token id.
+     */
+    public IssuedTokens refresh(String refreshToken) {
+        Instant now = clock.instant();
+        JwtClaims presented = jwtCodec.verify(refreshToken, now);
+        if (presented.type() != TokenType.REFRESH) {
+            throw new InvalidTokenException("Not a refresh token");
         }
 
-        String token = buildJwt(phone, deviceId);
-        activeSessions.put(phone, new DeviceSession(deviceId, token));
-        revokedTokens.remove(token);
-        return token;
+        String phone = presented.subject();
+        String deviceId = presented.deviceId();
+        JwtClaims access = issueClaims(phone, deviceId, TokenType.ACCESS, now, accessTokenTtl);
+        JwtClaims refresh = issueClaims(phone, deviceId, TokenType.REFRESH, now, refreshTokenTtl);
+        DeviceSession replaced =
+                authStateStore.rotateSession(phone, presented.tokenId(), newSession(access, refresh), now);
+        if (replaced == null) {
+            throw new InvalidTokenException("Refresh token is no longer active");
+        }
+        return encode(access, refresh);
     }
 
     public boolean isTokenRevoked(String token) {
-        return revokedTokens.contains(token);
+        try {
+            JwtClaims claims = jwtCodec.decode(token);
+            return authStateStore.isTokenRevoked(claims.tokenId(), clock.instant());
+        } catch (InvalidTokenException ex) {
+            // Tokens we cannot verify are treated as revoked rather than trusted.
+            return true;
+        }
     }
 
-    private String buildJwt(String phone, String deviceId) {
-        Instant issuedAt = clock.instant();
-        Instant expiresAt = issuedAt.plus(tokenTtl);
+    public boolean isTokenIdRevoked(String tokenId) {
+        return authStateStore.isTokenRevoked(tokenId, clock.instant());
+    }
 
-        Map<String, Object> payload = new LinkedHashMap<>();
-        payload.put("sub", phone);
-        payload.put(DEVICE_CLAIM, deviceId);
-        payload.put("jti", UUID.randomUUID().toString());
-        payload.put("iat", issuedAt.getEpochSecond());
-        payload.put("exp", expiresAt.getEpochSecond());
+    private static JwtClaims issueClaims(
+            String phone, String deviceId, TokenType type, Instant issuedAt, Duration ttl) {
+        return new JwtClaims(phone, deviceId, UUID.randomUUID().toString(), issuedAt, issuedAt.plus(ttl), type);
+    }
 
-        try {
-            String headerEncoded = base64UrlEncode(HEADER_JSON);
-            String payloadEncoded = base64UrlEncode(OBJECT_MAPPER.writeValueAsString(payload));
-            String signature = sign(headerEncoded + "." + payloadEncoded);
-            return headerEncoded + "." + payloadEncoded + "." + signature;
-        } catch (JsonProcessingException ex) {
-            throw new IllegalStateException("Unable to serialize JWT payload", ex);
-        }
+    private static DeviceSession newSession(JwtClaims access, JwtClaims refresh) {
+        return new DeviceSession(
+                access.deviceId(), access.tokenId(), access.expiresAt(), refresh.tokenId(), refresh.expiresAt());
     }
 
-    private static String base64UrlEncode(String value) {
-        return BASE64_URL_ENCODER.encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    private IssuedTokens encode(JwtClaims access, JwtClaims refresh) {
+        return new IssuedTokens(
+                jwtCodec.encode(access),
+                access.expiresAt(),
+                jwtCodec.encode(refresh),
+                refresh.expiresAt(),
+                access.deviceId());
     }
 
-    private String sign(String content) {
-        try {
-            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
-            mac.init(jwtKey);
-            byte[] signature = mac.doFinal(content.getBytes(StandardCharsets.UTF_8));
-            return BASE64_URL_ENCODER.encodeToString(signature);
-        } catch (NoSuchAlgorithmException | InvalidKeyException ex) {
-            throw new IllegalStateException("Unable to calculate JWT signature", ex);
-        }
+    private static String rejectionMessage(OtpVerification verification) {
+        return switch (verification) {
+            case EXPIRED -> "OTP expired";
+            case MISMATCH -> "OTP mismatch";
+            default -> "OTP not requested for phone";
+        };
     }
 
     private String hashOtp(String otp) {
+        byte[] hashedBytes = OTP_DIGEST.get().digest(otp.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(hashedBytes);
+    }
+
+    private static MessageDigest newOtpDigest() {
         try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hashedBytes = digest.digest(otp.getBytes(StandardCharsets.UTF_8));
-            return Base64.getEncoder().encodeToString(hashedBytes);
+            return MessageDigest.getInstance("SHA-256");
         } catch (NoSuchAlgorithmException ex) {
             throw new IllegalStateException("SHA-256 algorithm unavailable", ex);
         }
     }
-
-    private record OtpRecord(String hashedOtp, Instant expiresAt) {}
-
-    private record DeviceSession(String deviceId, String jwt) {}
-}
\ No newline at end of file
+}
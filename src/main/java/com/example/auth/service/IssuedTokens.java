@@ -0,0 +1,12 @@
+package com.example.auth.service;
+
+// Implements REQ-1.1
+
+import java.time.Instant;
+
+public record IssuedTokens(
+        String accessToken,
+        Instant accessExpiresAt,
+        String refreshToken,
+        Instant refreshExpiresAt,
+        String deviceId) {}
@@ -2,12 +2,34 @@ package com.example.auth.service;
 
 // Implements REQ-1.1
 
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 public interface OtpDeliveryClient {
     void deliver(String phone, String otp);
+
+    /**
+     * Delivers the OTP and runs {@code onFailure} if it never reaches the gateway, whether that is
+     * known at once or only after a queued send fails. The default runs it when {@link #deliver}
+     * throws and rethrows.
+     */
+    default void deliver(String phone, String otp, Runnable onFailure) {
+        try {
+            deliver(phone, otp);
+        } catch (RuntimeException ex) {
+            onFailure.run();
+            throw ex;
+        }
+    }
+
+    /** Gateways with a bulk API should override this; the default sends one message at a time. */
+    default void deliverBatch(List<OtpMessage> messages) {
+        for (OtpMessage message : messages) {
+            deliver(message.phone(), message.otp());
+        }
+    }
 }
 
 @Component
@@ -19,4 +41,4 @@ class LoggingOtpDeliveryClient implements OtpDeliveryClient {
     public void deliver(String phone, String otp) {
         log.info("Dispatching OTP to phone {}", phone);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,27 @@
+package com.example.auth.service;
+
+// Implements REQ-1.1
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+@Configuration
+public class OtpDeliveryConfig {
+
+    /**
+     * Puts the queue in front of the gateway so {@code AuthService} never waits on SMS delivery.
+     * The gateway is the one other {@link OtpDeliveryClient} bean; Spring never injects a bean into itself.
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "auth.otp.delivery", name = "mode", havingValue = "queued", matchIfMissing = true)
+    public QueuedOtpDeliveryClient queuedOtpDeliveryClient(
+            OtpDeliveryClient gateway,
+            OtpDeliveryProperties properties,
+            MeterRegistry meterRegistry) {
+        return new QueuedOtpDeliveryClient(gateway, properties, meterRegistry);
+    }
+}
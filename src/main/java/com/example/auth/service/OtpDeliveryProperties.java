@@ -0,0 +1,77 @@
+package com.example.auth.service;
+
+// Implements REQ-1.1
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "auth.otp.delivery")
+public class OtpDeliveryProperties {
+
+    public enum Mode {
+        DIRECT,
+        QUEUED
+    }
+
+    private Mode mode = Mode.QUEUED;
+    private int queueCapacity = 10_000;
+    private int workers = 4;
+    private int maxBatchSize = 50;
+    private long lingerMillis = 5;
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public long getLingerMillis() {
+        return lingerMillis;
+    }
+
+    public void setLingerMillis(long lingerMillis) {
+        this.lingerMillis = lingerMillis;
+    }
+
+    public void validate() {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be at least 1");
+        }
+        if (workers < 1) {
+            throw new IllegalArgumentException("workers must be at least 1");
+        }
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be at least 1");
+        }
+        if (lingerMillis < 0) {
+            throw new IllegalArgumentException("lingerMillis must not be negative");
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.auth.service;
+
+// Implements REQ-1.1
+
+public record OtpMessage(String phone, String otp) {}
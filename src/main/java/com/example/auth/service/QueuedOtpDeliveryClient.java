@@ -0,0 +1,167 @@
+package com.example.auth.service;
+
+// Implements REQ-1.1
+
+import com.example.auth.exception.RateLimitException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * Decouples OTP delivery from the request thread. {@link #deliver} only enqueues; a fixed pool of
+ * workers drains the bounded queue and hands the gateway batches of up to {@code maxBatchSize}
+ * messages, waiting at most {@code lingerMillis} for a batch to fill. A full queue is reported to
+ * the caller as a {@link RateLimitException} instead of blocking. Every message of a batch the
+ * gateway rejects has its failure callback run on the worker thread.
+ */
+public class QueuedOtpDeliveryClient implements OtpDeliveryClient, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(QueuedOtpDeliveryClient.class);
+
+    private final OtpDeliveryClient gateway;
+    private final BlockingQueue<PendingDelivery> queue;
+    private final int maxBatchSize;
+    private final long lingerNanos;
+    private final List<Thread> workers = new ArrayList<>();
+    private final Timer deliveryLatency;
+    private final DistributionSummary batchSizes;
+    private final Counter rejected;
+    private final Counter failed;
+    private volatile boolean running = true;
+
+    public QueuedOtpDeliveryClient(
+            OtpDeliveryClient gateway, OtpDeliveryProperties properties, MeterRegistry meterRegistry) {
+        this.gateway = Objects.requireNonNull(gateway, "gateway is required");
+        Objects.requireNonNull(properties, "properties is required").validate();
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.maxBatchSize = properties.getMaxBatchSize();
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(properties.getLingerMillis());
+        this.deliveryLatency = Timer.builder("auth.otp.delivery.latency")
+                .description("Time from enqueue to gateway acknowledgement")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("auth.otp.delivery.batch.size").register(meterRegistry);
+        this.rejected = Counter.builder("auth.otp.delivery.rejected").register(meterRegistry);
+        this.failed = Counter.builder("auth.otp.delivery.failed").register(meterRegistry);
+        Gauge.builder("auth.otp.delivery.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+
+        for (int i = 0; i < properties.getWorkers(); i++) {
+            Thread worker = new Thread(this::drainLoop, "otp-delivery-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    @Override
+    public void deliver(String phone, String otp) {
+        deliver(phone, otp, () -> {});
+    }
+
+    @Override
+    public void deliver(String phone, String otp, Runnable onFailure) {
+        PendingDelivery pending = new PendingDelivery(new OtpMessage(phone, otp), System.nanoTime(), onFailure);
+        if (!running || !queue.offer(pending)) {
+            rejected.increment();
+            onFailure.run();
+            throw new RateLimitException("OTP delivery is saturated, please retry shortly");
+        }
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        for (Thread worker : workers) {
+            worker.join(Duration.ofSeconds(5).toMillis());
+        }
+    }
+
+    private void drainLoop() {
+        List<PendingDelivery> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingDelivery first = running ? queue.take() : queue.poll();
+                if (first == null) {
+                    return;
+                }
+                batch.add(first);
+                fillBatch(batch);
+            } catch (InterruptedException ex) {
+                // Shutdown requested: stop waiting and flush whatever is still queued.
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                send(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void fillBatch(List<PendingDelivery> batch) throws InterruptedException {
+        queue.drainTo(batch, maxBatchSize - batch.size());
+        long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < maxBatchSize && running) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            PendingDelivery next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            queue.drainTo(batch, maxBatchSize - batch.size());
+        }
+    }
+
+    private void send(List<PendingDelivery> batch) {
+        List<OtpMessage> messages = new ArrayList<>(batch.size());
+        for (PendingDelivery pending : batch) {
+            messages.add(pending.message());
+        }
+        batchSizes.record(messages.size());
+        try {
+            gateway.deliverBatch(messages);
+        } catch (RuntimeException ex) {
+            failed.increment(messages.size());
+            log.warn("OTP gateway rejected a batch of {} message(s) - {}", messages.size(), ex.getMessage());
+            for (PendingDelivery pending : batch) {
+                runFailureCallback(pending);
+            }
+            return;
+        }
+        long deliveredAt = System.nanoTime();
+        for (PendingDelivery pending : batch) {
+            deliveryLatency.record(deliveredAt - pending.enqueuedAtNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static void runFailureCallback(PendingDelivery pending) {
+        try {
+            pending.onFailure().run();
+        } catch (RuntimeException ex) {
+            log.warn("OTP failure callback for phone {} failed - {}", pending.message().phone(), ex.getMessage());
+        }
+    }
+
+    private record PendingDelivery(OtpMessage message, long enqueuedAtNanos, Runnable onFailure) {}
+}
@@ -0,0 +1,40 @@
+package com.example.auth.store;
+
+// Implements REQ-1.1
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Holds the OTP, rate-limit, session and revocation state behind {@code AuthService}.
+ * Every method is a single atomic step so replicas sharing one store never observe
+ * half-applied transitions.
+ */
+public interface AuthStateStore {
+
+    /** Claims the OTP request window for the phone; returns false when it is still held. */
+    boolean tryAcquireOtpRequestWindow(String phone, Instant now, Duration window);
+
+    /** Gives back a window claimed at {@code acquiredAt}; a window claimed later is left alone. */
+    void releaseOtpRequestWindow(String phone, Instant acquiredAt);
+
+    void saveOtp(String phone, OtpRecord record, Instant now);
+
+    /**
+     * Consumes the OTP and, only if it matched, installs {@code session} as the phone's active
+     * session, all in one step: concurrent verifies for a phone see a single winner, and the
+     * session left behind always belongs to that winner.
+     */
+    SessionTransition verifyOtpAndSwapSession(String phone, String hashedOtp, DeviceSession session, Instant now);
+
+    /**
+     * Replaces the session only while it still carries {@code expectedRefreshTokenId}; returns the
+     * replaced session, or null when the refresh token has already been rotated or the session is gone.
+     */
+    DeviceSession rotateSession(String phone, String expectedRefreshTokenId, DeviceSession session, Instant now);
+
+    /** Records the token id as revoked until it expires; expired ids are forgotten by the store. */
+    void revokeToken(String tokenId, Instant expiresAt, Instant now);
+
+    boolean isTokenRevoked(String tokenId, Instant now);
+}
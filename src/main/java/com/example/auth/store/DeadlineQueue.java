@@ -0,0 +1,79 @@
+package com.example.auth.store;
+
+// Implements REQ-1.1
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Keys ordered by deadline in fixed-width slots, so scheduling is one skip-list lookup plus a
+ * queue append. {@link #drainDue} only visits slots whose window has fully elapsed and stops after
+ * {@code limit} keys, which lets callers spread eviction across many short slices. A key may be
+ * scheduled more than once; the evictor decides whether the entry behind it is really expired.
+ */
+public class DeadlineQueue {
+
+    private final long slotWidthMillis;
+    private final ConcurrentNavigableMap<Long, Queue<String>> slots = new ConcurrentSkipListMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    public DeadlineQueue(Duration slotWidth) {
+        Objects.requireNonNull(slotWidth, "slotWidth is required");
+        if (slotWidth.isNegative() || slotWidth.isZero()) {
+            throw new IllegalArgumentException("slotWidth must be positive");
+        }
+        this.slotWidthMillis = slotWidth.toMillis();
+    }
+
+    public void schedule(String key, Instant deadline) {
+        long slot = Math.floorDiv(deadline.toEpochMilli(), slotWidthMillis);
+        Queue<String> members;
+        do {
+            members = slots.computeIfAbsent(slot, ignored -> new ConcurrentLinkedQueue<>());
+            members.add(key);
+            pending.incrementAndGet();
+            // A concurrent drain may have detached the slot after we looked it up; append to a fresh one.
+        } while (slots.get(slot) != members);
+    }
+
+    /** Offers up to {@code limit} due keys to the evictor and returns how many it evicted. */
+    public int drainDue(Instant now, int limit, Predicate<String> evictor) {
+        long currentSlot = Math.floorDiv(now.toEpochMilli(), slotWidthMillis);
+        int examined = 0;
+        int evicted = 0;
+        Map.Entry<Long, Queue<String>> head;
+        while (examined < limit && (head = slots.firstEntry()) != null && head.getKey() < currentSlot) {
+            Queue<String> members = head.getValue();
+            String key;
+            while (examined < limit && (key = members.poll()) != null) {
+                examined++;
+                pending.decrementAndGet();
+                if (evictor.test(key)) {
+                    evicted++;
+                }
+            }
+            if (members.isEmpty()) {
+                slots.remove(head.getKey(), members);
+            }
+        }
+        return evicted;
+    }
+
+    public boolean hasDue(Instant now) {
+        Map.Entry<Long, Queue<String>> head = slots.firstEntry();
+        return head != null && head.getKey() < Math.floorDiv(now.toEpochMilli(), slotWidthMillis);
+    }
+
+    /** Scheduled keys not yet drained, including duplicates. */
+    public int size() {
+        return pending.get();
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.auth.store;
+
+// Implements REQ-1.1
+
+import java.time.Instant;
+
+/**
+ * The phone's active device login: the current access token and the refresh token that may
+ * replace it. {@code expiresAt} is the refresh token's expiry, after which the session is gone.
+ */
+public record DeviceSession(
+        String deviceId,
+        String accessTokenId,
+        Instant accessExpiresAt,
+        String refreshTokenId,
+        Instant expiresAt) {}
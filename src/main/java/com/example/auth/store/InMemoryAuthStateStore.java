@@ -0,0 +1,171 @@
+package com.example.auth.store;
+
+// Implements REQ-1.1
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Single-node store backed by per-JVM concurrent maps. Every entry is also scheduled on a
+ * {@link DeadlineQueue}; {@link InMemoryAuthStateSweeper} drains those queues so abandoned OTPs,
+ * request windows and sessions do not outlive their expiry.
+ */
+@Component
+@ConditionalOnProperty(prefix = "auth.store", name = "mode", havingValue = "memory", matchIfMissing = true)
+public class InMemoryAuthStateStore implements AuthStateStore {
+
+    private static final Duration REVOCATION_BUCKET_WIDTH = Duration.ofMinutes(1);
+    private static final Duration EXPIRY_SLOT_WIDTH = Duration.ofSeconds(1);
+
+    private final Map<String, OtpRecord> otpStore = new ConcurrentHashMap<>();
+    private final Map<String, RequestWindow> otpRequestAudit = new ConcurrentHashMap<>();
+    private final Map<String, DeviceSession> activeSessions = new ConcurrentHashMap<>();
+    private final TokenRevocationIndex revokedTokens = new TokenRevocationIndex(REVOCATION_BUCKET_WIDTH);
+    private final DeadlineQueue otpExpiries = new DeadlineQueue(EXPIRY_SLOT_WIDTH);
+    private final DeadlineQueue requestWindowExpiries = new DeadlineQueue(EXPIRY_SLOT_WIDTH);
+    private final DeadlineQueue sessionExpiries = new DeadlineQueue(EXPIRY_SLOT_WIDTH);
+
+    @Override
+    public boolean tryAcquireOtpRequestWindow(String phone, Instant now, Duration window) {
+        RequestWindow claimed = new RequestWindow(now, now.plus(window));
+        boolean[] acquired = new boolean[1];
+        otpRequestAudit.compute(phone, (key, current) -> {
+            if (current != null && now.isBefore(current.expiresAt())) {
+                return current;
+            }
+            acquired[0] = true;
+            return claimed;
+        });
+        if (acquired[0]) {
+            requestWindowExpiries.schedule(phone, claimed.expiresAt());
+        }
+        return acquired[0];
+    }
+
+    @Override
+    public void releaseOtpRequestWindow(String phone, Instant acquiredAt) {
+        otpRequestAudit.computeIfPresent(
+                phone, (key, current) -> current.acquiredAt().equals(acquiredAt) ? null : current);
+    }
+
+    @Override
+    public void saveOtp(String phone, OtpRecord record, Instant now) {
+        otpStore.put(phone, record);
+        otpExpiries.schedule(phone, record.expiresAt());
+    }
+
+    @Override
+    public SessionTransition verifyOtpAndSwapSession(
+            String phone, String hashedOtp, DeviceSession session, Instant now) {
+        OtpVerification[] outcome = {OtpVerification.NOT_REQUESTED};
+        DeviceSession[] previous = new DeviceSession[1];
+        // The session swap runs inside the OTP bin lock: only this phone is serialised, and no other
+        // path locks activeSessions before otpStore, so the nesting cannot deadlock.
+        otpStore.computeIfPresent(phone, (key, record) -> {
+            if (now.isAfter(record.expiresAt())) {
+                outcome[0] = OtpVerification.EXPIRED;
+                return null;
+            }
+            if (!record.hashedOtp().equals(hashedOtp)) {
+                outcome[0] = OtpVerification.MISMATCH;
+                return record;
+            }
+            outcome[0] = OtpVerification.VERIFIED;
+            previous[0] = activeSessions.put(phone, session);
+            return null;
+        });
+        if (outcome[0] == OtpVerification.VERIFIED) {
+            sessionExpiries.schedule(phone, session.expiresAt());
+        }
+        return new SessionTransition(outcome[0], previous[0]);
+    }
+
+    @Override
+    public DeviceSession rotateSession(
+            String phone, String expectedRefreshTokenId, DeviceSession session, Instant now) {
+        DeviceSession[] replaced = new DeviceSession[1];
+        activeSessions.computeIfPresent(phone, (key, current) -> {
+            if (!current.refreshTokenId().equals(expectedRefreshTokenId) || !now.isBefore(current.expiresAt())) {
+                return current;
+            }
+            replaced[0] = current;
+            return session;
+        });
+        if (replaced[0] != null) {
+            sessionExpiries.schedule(phone, session.expiresAt());
+        }
+        return replaced[0];
+    }
+
+    @Override
+    public void revokeToken(String tokenId, Instant expiresAt, Instant now) {
+        revokedTokens.revoke(tokenId, expiresAt, now);
+    }
+
+    @Override
+    public boolean isTokenRevoked(String tokenId, Instant now) {
+        return revokedTokens.isRevoked(tokenId, now);
+    }
+
+    public int evictExpiredOtps(Instant now, int limit) {
+        return otpExpiries.drainDue(
+                now, limit, phone -> removeIf(otpStore, phone, record -> now.isAfter(record.expiresAt())));
+    }
+
+    public int evictExpiredRequestWindows(Instant now, int limit) {
+        return requestWindowExpiries.drainDue(
+                now, limit, phone -> removeIf(otpRequestAudit, phone, window -> !now.isBefore(window.expiresAt())));
+    }
+
+    public int evictExpiredSessions(Instant now, int limit) {
+        return sessionExpiries.drainDue(
+                now, limit, phone -> removeIf(activeSessions, phone, session -> !now.isBefore(session.expiresAt())));
+    }
+
+    public int purgeRevokedTokens(Instant now) {
+        return revokedTokens.purgeExpired(now);
+    }
+
+    public boolean hasExpiredEntries(Instant now) {
+        return otpExpiries.hasDue(now) || requestWindowExpiries.hasDue(now) || sessionExpiries.hasDue(now);
+    }
+
+    public int otpCount() {
+        return otpStore.size();
+    }
+
+    public int requestWindowCount() {
+        return otpRequestAudit.size();
+    }
+
+    public int sessionCount() {
+        return activeSessions.size();
+    }
+
+    public int revokedTokenCount() {
+        return revokedTokens.size();
+    }
+
+    public int pendingExpiryCount() {
+        return otpExpiries.size() + requestWindowExpiries.size() + sessionExpiries.size();
+    }
+
+    private static <V> boolean removeIf(Map<String, V> map, String key, Predicate<V> expired) {
+        boolean[] removed = new boolean[1];
+        map.computeIfPresent(key, (ignored, value) -> {
+            if (expired.test(value)) {
+                removed[0] = true;
+                return null;
+            }
+            return value;
+        });
+        return removed[0];
+    }
+
+    private record RequestWindow(Instant acquiredAt, Instant expiresAt) {}
+}
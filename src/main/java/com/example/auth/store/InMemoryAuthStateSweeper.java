@@ -0,0 +1,93 @@
+package com.example.auth.store;
+
+// Implements REQ-1.1
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts expired entries from {@link InMemoryAuthStateStore} in slices of at most
+ * {@code sliceSize} keys per map, stopping once a run has used its time budget. Whatever is left
+ * is picked up on the next tick, so a burst of abandoned requests never turns into one long pause.
+ */
+@Component
+@ConditionalOnProperty(prefix = "auth.store", name = "mode", havingValue = "memory", matchIfMissing = true)
+public class InMemoryAuthStateSweeper {
+
+    private final InMemoryAuthStateStore store;
+    private final Clock clock;
+    private final int sliceSize;
+    private final long runBudgetNanos;
+    private final Counter otpEvictions;
+    private final Counter requestWindowEvictions;
+    private final Counter sessionEvictions;
+    private final Counter revocationEvictions;
+
+    public InMemoryAuthStateSweeper(
+            InMemoryAuthStateStore store,
+            Clock clock,
+            MeterRegistry meterRegistry,
+            @Value("${auth.store.sweep.slice-size:500}") int sliceSize,
+            @Value("${auth.store.sweep.run-budget-ms:5}") long runBudgetMillis) {
+        this.store = Objects.requireNonNull(store, "store is required");
+        this.clock = Objects.requireNonNull(clock, "clock is required");
+        if (sliceSize < 1) {
+            throw new IllegalArgumentException("sliceSize must be at least 1");
+        }
+        this.sliceSize = sliceSize;
+        this.runBudgetNanos = TimeUnit.MILLISECONDS.toNanos(runBudgetMillis);
+        this.otpEvictions = evictionCounter(meterRegistry, "otp");
+        this.requestWindowEvictions = evictionCounter(meterRegistry, "request_window");
+        this.sessionEvictions = evictionCounter(meterRegistry, "session");
+        this.revocationEvictions = evictionCounter(meterRegistry, "revoked_token");
+        registerSize(meterRegistry, "otp", InMemoryAuthStateStore::otpCount);
+        registerSize(meterRegistry, "request_window", InMemoryAuthStateStore::requestWindowCount);
+        registerSize(meterRegistry, "session", InMemoryAuthStateStore::sessionCount);
+        registerSize(meterRegistry, "revoked_token", InMemoryAuthStateStore::revokedTokenCount);
+        Gauge.builder("auth.store.expiry.backlog", store, InMemoryAuthStateStore::pendingExpiryCount)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.store.sweep.interval-ms:1000}")
+    public void sweep() {
+        sweep(clock.instant());
+    }
+
+    /** Runs slices until nothing is due or the run budget is spent; returns the entries evicted. */
+    public int sweep(Instant now) {
+        long deadline = System.nanoTime() + runBudgetNanos;
+        int evicted = record(revocationEvictions, store.purgeRevokedTokens(now));
+        do {
+            evicted += record(otpEvictions, store.evictExpiredOtps(now, sliceSize));
+            evicted += record(requestWindowEvictions, store.evictExpiredRequestWindows(now, sliceSize));
+            evicted += record(sessionEvictions, store.evictExpiredSessions(now, sliceSize));
+        } while (store.hasExpiredEntries(now) && System.nanoTime() - deadline < 0);
+        return evicted;
+    }
+
+    private static int record(Counter counter, int evicted) {
+        if (evicted > 0) {
+            counter.increment(evicted);
+        }
+        return evicted;
+    }
+
+    private static Counter evictionCounter(MeterRegistry meterRegistry, String map) {
+        return Counter.builder("auth.store.evictions").tag("map", map).register(meterRegistry);
+    }
+
+    private void registerSize(
+            MeterRegistry meterRegistry, String map, ToDoubleFunction<InMemoryAuthStateStore> size) {
+        Gauge.builder("auth.store.entries", store, size).tag("map", map).register(meterRegistry);
+    }
+}
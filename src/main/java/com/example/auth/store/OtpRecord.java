@@ -0,0 +1,7 @@
+package com.example.auth.store;
+
+// Implements REQ-1.1
+
+import java.time.Instant;
+
+public record OtpRecord(String hashedOtp, Instant expiresAt) {}
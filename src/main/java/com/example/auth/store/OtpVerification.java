@@ -0,0 +1,10 @@
+package com.example.auth.store;
+
+// Implements REQ-1.1
+
+public enum OtpVerification {
+    VERIFIED,
+    NOT_REQUESTED,
+    EXPIRED,
+    MISMATCH
+}
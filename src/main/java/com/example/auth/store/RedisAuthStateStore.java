@@ -0,0 +1,191 @@
+package com.example.auth.store;
+
+// Implements REQ-1.1
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shared store for multi-replica deployments. OTP expiry and the rate-limit window rely on
+ * native key TTLs, and every check-and-set runs as a single Lua script on the server.
+ */
+@Component
+@ConditionalOnProperty(prefix = "auth.store", name = "mode", havingValue = "redis")
+public class RedisAuthStateStore implements AuthStateStore {
+
+    private static final RedisScript<Long> SAVE_OTP_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('DEL', KEYS[1])
+            redis.call('HSET', KEYS[1], 'hash', ARGV[1], 'exp', ARGV[2])
+            redis.call('PEXPIRE', KEYS[1], ARGV[3])
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<List<Object>> VERIFY_AND_SWAP_SCRIPT = listScript("""
+            local stored = redis.call('HMGET', KEYS[1], 'hash', 'exp')
+            if not stored[1] then
+              return {0}
+            end
+            if tonumber(ARGV[2]) > tonumber(stored[2]) then
+              redis.call('DEL', KEYS[1])
+              return {1}
+            end
+            if stored[1] ~= ARGV[1] then
+              return {2}
+            end
+            redis.call('DEL', KEYS[1])
+            local previous = redis.call('GET', KEYS[2])
+            redis.call('SET', KEYS[2], ARGV[3], 'PX', ARGV[4])
+            if previous then
+              return {3, previous}
+            end
+            return {3}
+            """);
+
+    private static final RedisScript<Long> RELEASE_WINDOW_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+              return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private static final RedisScript<String> ROTATE_SESSION_SCRIPT = new DefaultRedisScript<>("""
+            local current = redis.call('GET', KEYS[1])
+            if not current or cjson.decode(current)['refreshTokenId'] ~= ARGV[1] then
+              return false
+            end
+            redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+            return current
+            """, String.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String keyPrefix;
+
+    public RedisAuthStateStore(
+            StringRedisTemplate redisTemplate,
+            ObjectMapper objectMapper,
+            @Value("${auth.store.redis.key-prefix:auth:}") String keyPrefix) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.keyPrefix = keyPrefix;
+    }
+
+    @Override
+    public boolean tryAcquireOtpRequestWindow(String phone, Instant now, Duration window) {
+        Boolean acquired = redisTemplate
+                .opsForValue()
+                .setIfAbsent(key("otp-window:", phone), Long.toString(now.toEpochMilli()), window);
+        return Boolean.TRUE.equals(acquired);
+    }
+
+    @Override
+    public void releaseOtpRequestWindow(String phone, Instant acquiredAt) {
+        redisTemplate.execute(
+                RELEASE_WINDOW_SCRIPT, List.of(key("otp-window:", phone)), Long.toString(acquiredAt.toEpochMilli()));
+    }
+
+    @Override
+    public void saveOtp(String phone, OtpRecord record, Instant now) {
+        redisTemplate.execute(
+                SAVE_OTP_SCRIPT,
+                List.of(key("otp:", phone)),
+                record.hashedOtp(),
+                Long.toString(record.expiresAt().toEpochMilli()),
+                Long.toString(remainingMillis(record.expiresAt(), now)));
+    }
+
+    @Override
+    public SessionTransition verifyOtpAndSwapSession(
+            String phone, String hashedOtp, DeviceSession session, Instant now) {
+        List<Object> result = redisTemplate.execute(
+                VERIFY_AND_SWAP_SCRIPT,
+                List.of(key("otp:", phone), key("session:", phone)),
+                hashedOtp,
+                Long.toString(now.toEpochMilli()),
+                writeSession(session),
+                Long.toString(remainingMillis(session.expiresAt(), now)));
+        if (result == null || result.isEmpty()) {
+            throw new IllegalStateException("Redis returned no result for OTP verification");
+        }
+        OtpVerification verification = toVerification(((Number) result.get(0)).longValue());
+        DeviceSession previous = result.size() > 1 ? readSession(result.get(1).toString()) : null;
+        return new SessionTransition(verification, previous);
+    }
+
+    @Override
+    public DeviceSession rotateSession(
+            String phone, String expectedRefreshTokenId, DeviceSession session, Instant now) {
+        String previous = redisTemplate.execute(
+                ROTATE_SESSION_SCRIPT,
+                List.of(key("session:", phone)),
+                expectedRefreshTokenId,
+                writeSession(session),
+                Long.toString(remainingMillis(session.expiresAt(), now)));
+        return previous == null ? null : readSession(previous);
+    }
+
+    @Override
+    public void revokeToken(String tokenId, Instant expiresAt, Instant now) {
+        if (!expiresAt.isAfter(now)) {
+            return;
+        }
+        redisTemplate
+                .opsForValue()
+                .set(key("revoked:", tokenId), "1", Duration.ofMillis(remainingMillis(expiresAt, now)));
+    }
+
+    @Override
+    public boolean isTokenRevoked(String tokenId, Instant now) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(key("revoked:", tokenId)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RedisScript<List<Object>> listScript(String script) {
+        // Lua tables come back as lists of mixed values, and List<Object> has no class literal of its own.
+        return new DefaultRedisScript<>(script, (Class<List<Object>>) (Class<?>) List.class);
+    }
+
+    private String key(String namespace, String id) {
+        // The hash tag keeps a phone's OTP and session in one cluster slot so scripts may touch both.
+        return keyPrefix + namespace + "{" + id + "}";
+    }
+
+    private static OtpVerification toVerification(long outcome) {
+        return switch ((int) outcome) {
+            case 1 -> OtpVerification.EXPIRED;
+            case 2 -> OtpVerification.MISMATCH;
+            case 3 -> OtpVerification.VERIFIED;
+            default -> OtpVerification.NOT_REQUESTED;
+        };
+    }
+
+    private long remainingMillis(Instant expiresAt, Instant now) {
+        // Redis rejects non-positive TTLs, so already-expired entries still get a one millisecond lifetime.
+        return Math.max(1L, Duration.between(now, expiresAt).toMillis());
+    }
+
+    private String writeSession(DeviceSession session) {
+        try {
+            return objectMapper.writeValueAsString(session);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unable to serialize device session", ex);
+        }
+    }
+
+    private DeviceSession readSession(String value) {
+        try {
+            return objectMapper.readValue(value, DeviceSession.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unable to deserialize device session", ex);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.auth.store;
+
+// Implements REQ-1.1
+
+/** Outcome of {@link AuthStateStore#verifyOtpAndSwapSession}; {@code previousSession} is set only when verified. */
+public record SessionTransition(OtpVerification verification, DeviceSession previousSession) {
+
+    public boolean verified() {
+        return verification == OtpVerification.VERIFIED;
+    }
+}
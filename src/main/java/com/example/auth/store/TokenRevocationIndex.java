@@ -0,0 +1,78 @@
+package com.example.auth.store;
+
+// Implements REQ-1.1
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Revoked token ids bucketed by expiry. Lookups are a single hash probe on the short {@code jti};
+ * buckets whose window has fully elapsed are dropped wholesale, so the index only ever holds
+ * tokens that could still be presented.
+ */
+public class TokenRevocationIndex {
+
+    private final long bucketWidthMillis;
+    private final Map<String, Long> expiryByTokenId = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<Long, Set<String>> buckets = new ConcurrentSkipListMap<>();
+
+    public TokenRevocationIndex(Duration bucketWidth) {
+        Objects.requireNonNull(bucketWidth, "bucketWidth is required");
+        if (bucketWidth.isNegative() || bucketWidth.isZero()) {
+            throw new IllegalArgumentException("bucketWidth must be positive");
+        }
+        this.bucketWidthMillis = bucketWidth.toMillis();
+    }
+
+    public void revoke(String tokenId, Instant expiresAt, Instant now) {
+        purgeExpired(now);
+        long expiresAtMillis = expiresAt.toEpochMilli();
+        if (expiresAtMillis <= now.toEpochMilli()) {
+            return;
+        }
+        expiryByTokenId.put(tokenId, expiresAtMillis);
+        long bucket = Math.floorDiv(expiresAtMillis, bucketWidthMillis);
+        Set<String> members;
+        do {
+            members = buckets.computeIfAbsent(bucket, key -> ConcurrentHashMap.newKeySet());
+            members.add(tokenId);
+            // A concurrent purge may have detached the bucket between lookup and insert; retry on a fresh one.
+        } while (buckets.get(bucket) != members);
+    }
+
+    public boolean isRevoked(String tokenId, Instant now) {
+        Long expiresAtMillis = expiryByTokenId.get(tokenId);
+        return expiresAtMillis != null && expiresAtMillis > now.toEpochMilli();
+    }
+
+    /** Drops every bucket whose whole window lies in the past and returns the number of evicted ids. */
+    public int purgeExpired(Instant now) {
+        long currentBucket = Math.floorDiv(now.toEpochMilli(), bucketWidthMillis);
+        int evicted = 0;
+        Map.Entry<Long, Set<String>> head;
+        while ((head = buckets.firstEntry()) != null && head.getKey() < currentBucket) {
+            if (!buckets.remove(head.getKey(), head.getValue())) {
+                continue;
+            }
+            for (String tokenId : head.getValue()) {
+                Long expiresAtMillis = expiryByTokenId.get(tokenId);
+                if (expiresAtMillis != null
+                        && Math.floorDiv(expiresAtMillis, bucketWidthMillis) == head.getKey()
+                        && expiryByTokenId.remove(tokenId, expiresAtMillis)) {
+                    evicted++;
+                }
+            }
+        }
+        return evicted;
+    }
+
+    public int size() {
+        return expiryByTokenId.size();
+    }
+}
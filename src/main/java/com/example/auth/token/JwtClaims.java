@@ -0,0 +1,17 @@
+package com.example.auth.token;
+
+// Implements REQ-1.1
+
+import java.time.Instant;
+
+public record JwtClaims(
+        String subject, String deviceId, String tokenId, Instant issuedAt, Instant expiresAt, TokenType type) {
+
+    public JwtClaims(String subject, String deviceId, String tokenId, Instant issuedAt, Instant expiresAt) {
+        this(subject, deviceId, tokenId, issuedAt, expiresAt, TokenType.ACCESS);
+    }
+
+    public boolean isExpiredAt(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+}
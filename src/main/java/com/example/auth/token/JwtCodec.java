@@ -0,0 +1,318 @@
+package com.example.auth.token;
+
+// Implements REQ-1.1
+
+import com.example.auth.exception.InvalidTokenException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Objects;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * HS256 codec for the fixed claim set issued by {@code AuthService}. Encoding writes the payload
+ * JSON, its base64url form and the signature straight into per-thread scratch buffers, reusing a
+ * per-thread {@link Mac}, so issuing a token allocates little beyond the returned string.
+ */
+@Component
+public class JwtCodec {
+
+    public static final String SUBJECT_CLAIM = "sub";
+    public static final String DEVICE_CLAIM = "device_id";
+    public static final String TOKEN_ID_CLAIM = "jti";
+    public static final String ISSUED_AT_CLAIM = "iat";
+    public static final String EXPIRES_AT_CLAIM = "exp";
+    public static final String TOKEN_USE_CLAIM = "token_use";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String HEADER_JSON = "{\"alg\":\"HS256\",\"typ\":\"JWT\"}";
+    private static final String ENCODED_HEADER = Base64.getUrlEncoder()
+            .withoutPadding()
+            .encodeToString(HEADER_JSON.getBytes(StandardCharsets.UTF_8));
+    private static final byte[] ENCODED_HEADER_BYTES = (ENCODED_HEADER + ".").getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] BASE64_URL_ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final int SIGNATURE_LENGTH = 32;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Base64.Decoder BASE64_URL_DECODER = Base64.getUrlDecoder();
+
+    private final SecretKey key;
+    private final ThreadLocal<Scratch> scratch;
+
+    public JwtCodec(@Value("${auth.jwt.secret:ChangeMeToASecureSecretKeyChangeMe123456}") String secret) {
+        Objects.requireNonNull(secret, "secret is required");
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(newMac()));
+    }
+
+    public String encode(JwtClaims claims) {
+        Scratch buffers = scratch.get();
+        int jsonLength = buffers.writePayloadJson(claims);
+
+        int payloadLength = encodedLength(jsonLength);
+        int signedLength = ENCODED_HEADER_BYTES.length + payloadLength;
+        byte[] token = buffers.token(signedLength + 1 + encodedLength(SIGNATURE_LENGTH));
+        System.arraycopy(ENCODED_HEADER_BYTES, 0, token, 0, ENCODED_HEADER_BYTES.length);
+        base64UrlEncode(buffers.json, jsonLength, token, ENCODED_HEADER_BYTES.length);
+
+        Mac mac = buffers.mac;
+        mac.update(token, 0, signedLength);
+        byte[] signature = buffers.signature;
+        try {
+            mac.doFinal(signature, 0);
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Unable to calculate JWT signature", ex);
+        }
+        token[signedLength] = '.';
+        int end = base64UrlEncode(signature, SIGNATURE_LENGTH, token, signedLength + 1);
+        return new String(token, 0, end, StandardCharsets.US_ASCII);
+    }
+
+    /** Checks structure and signature, then returns the claims without looking at expiry. */
+    public JwtClaims decode(String token) {
+        if (token == null) {
+            throw new InvalidTokenException("Token is missing");
+        }
+        int payloadStart = ENCODED_HEADER.length() + 1;
+        int signatureSeparator = token.lastIndexOf('.');
+        if (!token.startsWith(ENCODED_HEADER)
+                || token.length() <= payloadStart
+                || token.charAt(payloadStart - 1) != '.'
+                || signatureSeparator < payloadStart) {
+            throw new InvalidTokenException("Malformed token");
+        }
+
+        byte[] signature;
+        byte[] payload;
+        try {
+            signature = BASE64_URL_DECODER.decode(token.substring(signatureSeparator + 1));
+            payload = BASE64_URL_DECODER.decode(token.substring(payloadStart, signatureSeparator));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidTokenException("Malformed token encoding", ex);
+        }
+
+        Scratch buffers = scratch.get();
+        byte[] signed = buffers.token(signatureSeparator);
+        for (int i = 0; i < signatureSeparator; i++) {
+            signed[i] = (byte) token.charAt(i);
+        }
+        Mac mac = buffers.mac;
+        mac.update(signed, 0, signatureSeparator);
+        if (!MessageDigest.isEqual(mac.doFinal(), signature)) {
+            throw new InvalidTokenException("Token signature mismatch");
+        }
+        return readClaims(payload);
+    }
+
+    /** Decodes the token and additionally rejects it once {@code exp} has passed. */
+    public JwtClaims verify(String token, Instant now) {
+        JwtClaims claims = decode(token);
+        if (claims.isExpiredAt(now)) {
+            throw new InvalidTokenException("Token expired");
+        }
+        return claims;
+    }
+
+    private JwtClaims readClaims(byte[] payload) {
+        JsonNode node;
+        try {
+            node = OBJECT_MAPPER.readTree(payload);
+        } catch (IOException ex) {
+            throw new InvalidTokenException("Malformed token payload", ex);
+        }
+        if (node == null || !node.isObject()) {
+            throw new InvalidTokenException("Malformed token payload");
+        }
+        return new JwtClaims(
+                requireText(node, SUBJECT_CLAIM),
+                requireText(node, DEVICE_CLAIM),
+                requireText(node, TOKEN_ID_CLAIM),
+                Instant.ofEpochSecond(requireLong(node, ISSUED_AT_CLAIM)),
+                Instant.ofEpochSecond(requireLong(node, EXPIRES_AT_CLAIM)),
+                readTokenType(node));
+    }
+
+    private static TokenType readTokenType(JsonNode node) {
+        JsonNode value = node.get(TOKEN_USE_CLAIM);
+        // Tokens issued before token_use existed were all access tokens.
+        if (value == null) {
+            return TokenType.ACCESS;
+        }
+        if (!value.isTextual()) {
+            throw new InvalidTokenException("Token claim " + TOKEN_USE_CLAIM + " is malformed");
+        }
+        return TokenType.fromClaim(value.asText());
+    }
+
+    private static String requireText(JsonNode node, String claim) {
+        JsonNode value = node.get(claim);
+        if (value == null || !value.isTextual()) {
+            throw new InvalidTokenException("Token claim " + claim + " is missing");
+        }
+        return value.asText();
+    }
+
+    private static long requireLong(JsonNode node, String claim) {
+        JsonNode value = node.get(claim);
+        if (value == null || !value.canConvertToLong()) {
+            throw new InvalidTokenException("Token claim " + claim + " is missing");
+        }
+        return value.asLong();
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Unable to initialise JWT signer", ex);
+        }
+    }
+
+    private static int encodedLength(int length) {
+        return (length * 4 + 2) / 3;
+    }
+
+    private static int base64UrlEncode(byte[] source, int length, byte[] target, int offset) {
+        int out = offset;
+        int i = 0;
+        for (; i + 2 < length; i += 3) {
+            int bits = (source[i] & 0xff) << 16 | (source[i + 1] & 0xff) << 8 | (source[i + 2] & 0xff);
+            target[out++] = BASE64_URL_ALPHABET[bits >>> 18 & 0x3f];
+            target[out++] = BASE64_URL_ALPHABET[bits >>> 12 & 0x3f];
+            target[out++] = BASE64_URL_ALPHABET[bits >>> 6 & 0x3f];
+            target[out++] = BASE64_URL_ALPHABET[bits & 0x3f];
+        }
+        int remaining = length - i;
+        if (remaining == 1) {
+            int bits = (source[i] & 0xff) << 16;
+            target[out++] = BASE64_URL_ALPHABET[bits >>> 18 & 0x3f];
+            target[out++] = BASE64_URL_ALPHABET[bits >>> 12 & 0x3f];
+        } else if (remaining == 2) {
+            int bits = (source[i] & 0xff) << 16 | (source[i + 1] & 0xff) << 8;
+            target[out++] = BASE64_URL_ALPHABET[bits >>> 18 & 0x3f];
+            target[out++] = BASE64_URL_ALPHABET[bits >>> 12 & 0x3f];
+            target[out++] = BASE64_URL_ALPHABET[bits >>> 6 & 0x3f];
+        }
+        return out;
+    }
+
+    private static final class Scratch {
+
+        private final Mac mac;
+        private final byte[] signature = new byte[SIGNATURE_LENGTH];
+        private byte[] json = new byte[256];
+        private byte[] token = new byte[512];
+        private int position;
+
+        private Scratch(Mac mac) {
+            this.mac = mac;
+        }
+
+        private byte[] token(int capacity) {
+            if (token.length < capacity) {
+                token = new byte[Math.max(capacity, token.length * 2)];
+            }
+            return token;
+        }
+
+        private int writePayloadJson(JwtClaims claims) {
+            position = 0;
+            writeAscii("{\"" + SUBJECT_CLAIM + "\":");
+            writeString(claims.subject());
+            writeAscii(",\"" + DEVICE_CLAIM + "\":");
+            writeString(claims.deviceId());
+            writeAscii(",\"" + TOKEN_ID_CLAIM + "\":");
+            writeString(claims.tokenId());
+            writeAscii(",\"" + ISSUED_AT_CLAIM + "\":");
+            writeLong(claims.issuedAt().getEpochSecond());
+            writeAscii(",\"" + EXPIRES_AT_CLAIM + "\":");
+            writeLong(claims.expiresAt().getEpochSecond());
+            writeAscii(",\"" + TOKEN_USE_CLAIM + "\":");
+            writeString(claims.type().claimValue());
+            writeByte('}');
+            return position;
+        }
+
+        private void writeAscii(String constant) {
+            // Claim prefixes are compile-time constants, so the concatenations above fold away.
+            for (int i = 0; i < constant.length(); i++) {
+                writeByte(constant.charAt(i));
+            }
+        }
+
+        private void writeString(String value) {
+            writeByte('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    writeByte('\\');
+                    writeByte(c);
+                } else if (c < 0x20) {
+                    writeByte('\\');
+                    writeByte('u');
+                    writeByte('0');
+                    writeByte('0');
+                    writeByte(HEX_DIGITS[c >> 4]);
+                    writeByte(HEX_DIGITS[c & 0xf]);
+                } else if (c < 0x80) {
+                    writeByte(c);
+                } else if (c < 0x800) {
+                    writeByte(0xc0 | c >> 6);
+                    writeByte(0x80 | c & 0x3f);
+                } else if (Character.isHighSurrogate(c)
+                        && i + 1 < value.length()
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    writeByte(0xf0 | codePoint >> 18);
+                    writeByte(0x80 | codePoint >> 12 & 0x3f);
+                    writeByte(0x80 | codePoint >> 6 & 0x3f);
+                    writeByte(0x80 | codePoint & 0x3f);
+                } else if (Character.isSurrogate(c)) {
+                    writeByte('?');
+                } else {
+                    writeByte(0xe0 | c >> 12);
+                    writeByte(0x80 | c >> 6 & 0x3f);
+                    writeByte(0x80 | c & 0x3f);
+                }
+            }
+            writeByte('"');
+        }
+
+        private void writeLong(long value) {
+            if (value < 0) {
+                writeByte('-');
+                value = -value;
+            }
+            int start = position;
+            do {
+                writeByte('0' + (int) (value % 10));
+                value /= 10;
+            } while (value > 0);
+            for (int left = start, right = position - 1; left < right; left++, right--) {
+                byte swap = json[left];
+                json[left] = json[right];
+                json[right] = swap;
+            }
+        }
+
+        private void writeByte(int value) {
+            if (position == json.length) {
+                json = Arrays.copyOf(json, json.length * 2);
+            }
+            json[position++] = (byte) value;
+        }
+    }
+}
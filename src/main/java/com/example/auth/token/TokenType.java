@@ -0,0 +1,30 @@
+package com.example.auth.token;
+
+// Implements REQ-1.1
+
+import com.example.auth.exception.InvalidTokenException;
+
+/** Value of the {@code token_use} claim; only access tokens may authenticate API calls. */
+public enum TokenType {
+    ACCESS("access"),
+    REFRESH("refresh");
+
+    private final String claimValue;
+
+    TokenType(String claimValue) {
+        this.claimValue = claimValue;
+    }
+
+    public String claimValue() {
+        return claimValue;
+    }
+
+    public static TokenType fromClaim(String value) {
+        for (TokenType type : values()) {
+            if (type.claimValue.equals(value)) {
+                return type;
+            }
+        }
+        throw new InvalidTokenException("Unknown token_use " + value);
+    }
+}
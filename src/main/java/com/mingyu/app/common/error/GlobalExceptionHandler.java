@@ -3,6 +3,7 @@ package com.mingyu.app.common.error;
 // Implements System
 
 import com.example.auth.exception.InvalidOtpException;
+import com.example.auth.exception.InvalidTokenException;
 import com.example.auth.exception.RateLimitException;
 import com.mingyu.app.logging.LoggingConstants;
 import com.mingyu.app.notification.exception.NotificationDispatchException;
@@ -112,6 +113,12 @@ public class GlobalExceptionHandler {
         return generalClientError("INVALID_OTP", ex.getMessage(), ex);
     }
 
+    @ExceptionHandler(InvalidTokenException.class)
+    @ResponseStatus(HttpStatus.UNAUTHORIZED)
+    public ApiErrorResponse handleInvalidToken(InvalidTokenException ex) {
+        return generalClientError("INVALID_TOKEN", ex.getMessage(), ex);
+    }
+
     @ExceptionHandler(NotificationDispatchException.class)
     @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
     public ApiErrorResponse handleNotificationDispatch(NotificationDispatchException ex) {
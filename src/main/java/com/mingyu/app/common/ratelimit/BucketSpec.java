@@ -0,0 +1,30 @@
+package com.mingyu.app.common.ratelimit;
+
+// Implements System
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Token bucket shape: up to {@code capacity} requests in a burst, refilled at
+ * {@code refillTokens} per {@code refillPeriod}.
+ */
+public record BucketSpec(int capacity, int refillTokens, Duration refillPeriod) {
+
+    public BucketSpec {
+        Objects.requireNonNull(refillPeriod, "refillPeriod is required");
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        if (refillTokens < 1) {
+            throw new IllegalArgumentException("refillTokens must be at least 1");
+        }
+        if (refillPeriod.isNegative() || refillPeriod.isZero()) {
+            throw new IllegalArgumentException("refillPeriod must be positive");
+        }
+    }
+
+    long emissionIntervalNanos() {
+        return Math.max(1, refillPeriod.toNanos() / refillTokens);
+    }
+}
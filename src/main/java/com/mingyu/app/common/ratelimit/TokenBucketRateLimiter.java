@@ -0,0 +1,99 @@
+package com.mingyu.app.common.ratelimit;
+
+// Implements System
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keyed token buckets kept as one {@link AtomicLong} per key. Each bucket stores its theoretical
+ * arrival time (GCRA): a request is admitted when pushing that time forward by one emission
+ * interval keeps it within {@code capacity} intervals of now. Admission is a single CAS, so
+ * concurrent callers can never take more tokens than the bucket holds.
+ */
+public class TokenBucketRateLimiter {
+
+    private final Clock clock;
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    public TokenBucketRateLimiter(BucketSpec spec, Clock clock) {
+        Objects.requireNonNull(spec, "spec is required");
+        this.clock = Objects.requireNonNull(clock, "clock is required");
+        this.emissionIntervalNanos = spec.emissionIntervalNanos();
+        this.burstNanos = emissionIntervalNanos * spec.capacity();
+    }
+
+    public boolean tryAcquire(String key) {
+        long now = nanos(clock.instant());
+        while (true) {
+            AtomicLong bucket = buckets.computeIfAbsent(key, ignored -> new AtomicLong(now));
+            if (!admit(bucket, now)) {
+                return false;
+            }
+            // An idle sweep may have dropped the bucket we charged; charge its replacement instead.
+            if (buckets.get(key) == bucket) {
+                return true;
+            }
+        }
+    }
+
+    /** Hands back a token taken by {@link #tryAcquire} when a later check rejected the request. */
+    public void refund(String key) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            bucket.addAndGet(-emissionIntervalNanos);
+        }
+    }
+
+    /**
+     * How long until {@link #tryAcquire} could next admit {@code key}, or zero if it would now. A
+     * hint only: concurrent callers may take the token first.
+     */
+    public long nanosUntilAvailable(String key) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            return 0L;
+        }
+        long now = nanos(clock.instant());
+        return Math.max(0L, bucket.get() + emissionIntervalNanos - burstNanos - now);
+    }
+
+    /** Forgets buckets that have refilled completely; they behave exactly like absent ones. */
+    public int evictIdle() {
+        long now = nanos(clock.instant());
+        int evicted = 0;
+        for (Map.Entry<String, AtomicLong> entry : buckets.entrySet()) {
+            if (entry.getValue().get() <= now && buckets.remove(entry.getKey(), entry.getValue())) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private boolean admit(AtomicLong bucket, long now) {
+        while (true) {
+            long arrival = bucket.get();
+            long next = Math.max(arrival, now) + emissionIntervalNanos;
+            if (next - now > burstNanos) {
+                return false;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return true;
+            }
+        }
+    }
+
+    private static long nanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+}
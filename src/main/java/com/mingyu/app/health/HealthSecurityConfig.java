@@ -2,6 +2,10 @@ package com.mingyu.app.health;
 
 // Implements System
 
+import com.example.auth.security.InvalidTokenEntryPoint;
+import com.example.auth.security.JwtAuthenticationFilter;
+import com.example.auth.security.TokenAuthenticationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -17,10 +21,12 @@ import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 /**
  * Locks down /health and /actuator endpoints so only automation with the
- * configured credentials can reach them. Everything else remains unrestricted.
+ * configured credentials can reach them, and requires a verified bearer token
+ * for the /api surface. Auth endpoints remain open.
  */
 @Configuration
 @EnableWebSecurity
@@ -28,14 +34,24 @@ import org.springframework.security.web.SecurityFilterChain;
 public class HealthSecurityConfig {
 
     @Bean
-    SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    SecurityFilterChain securityFilterChain(
+            HttpSecurity http,
+            TokenAuthenticationService tokenAuthenticationService,
+            ObjectMapper objectMapper) throws Exception {
         http.csrf(AbstractHttpConfigurer::disable);
         http.formLogin(AbstractHttpConfigurer::disable);
         http.logout(AbstractHttpConfigurer::disable);
         http.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
         http.httpBasic(Customizer.withDefaults());
+        // Built here rather than as a bean so the servlet container does not register it a second time.
+        http.addFilterBefore(new JwtAuthenticationFilter(tokenAuthenticationService), BasicAuthenticationFilter.class);
+        // A rejected bearer token only fails the request where authentication is required.
+        http.exceptionHandling(exceptions -> exceptions.defaultAuthenticationEntryPointFor(
+                new InvalidTokenEntryPoint(objectMapper),
+                request -> request.getAttribute(JwtAuthenticationFilter.INVALID_TOKEN_ATTRIBUTE) != null));
         http.authorizeHttpRequests(auth -> auth
                 .requestMatchers("/health", "/actuator/**").hasRole("ACTUATOR")
+                .requestMatchers("/api/**").hasRole("USER")
                 .anyRequest().permitAll());
         return http.build();
     }
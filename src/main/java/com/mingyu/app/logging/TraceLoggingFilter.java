@@ -28,8 +28,9 @@ public class TraceLoggingFilter extends OncePerRequestFilter {
         String traceId = resolveTraceId(request);
         try {
             applyContext(LoggingConstants.MDC_TRACE_ID, traceId);
-            applyContext(LoggingConstants.MDC_USER_ID, request.getHeader(LoggingConstants.USER_ID_HEADER));
-            applyContext(LoggingConstants.MDC_DEVICE_ID, request.getHeader(LoggingConstants.DEVICE_ID_HEADER));
+            // userId/deviceId come from the verified bearer token (JwtAuthenticationFilter), never from headers.
+            MDC.remove(LoggingConstants.MDC_USER_ID);
+            MDC.remove(LoggingConstants.MDC_DEVICE_ID);
             response.setHeader(LoggingConstants.TRACE_ID_HEADER, traceId);
             filterChain.doFilter(request, response);
         } finally {
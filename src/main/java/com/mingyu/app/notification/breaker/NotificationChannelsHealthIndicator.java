@@ -0,0 +1,50 @@
+package com.mingyu.app.notification.breaker;
+
+// Implements 2.权限引导与存活看板
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports every provider circuit under {@code /actuator/health/notificationChannels}. It is DOWN
+ * only when every known circuit is open; it stays out of the readiness group on purpose, since a
+ * channel outage must not take the API out of rotation.
+ */
+@Component
+public class NotificationChannelsHealthIndicator implements HealthIndicator {
+
+    private final ProviderCircuitBreakerRegistry registry;
+
+    public NotificationChannelsHealthIndicator(ProviderCircuitBreakerRegistry registry) {
+        this.registry = Objects.requireNonNull(registry, "registry is required");
+    }
+
+    @Override
+    public Health health() {
+        List<ProviderCircuitBreaker> breakers = registry.breakers();
+        Map<String, Object> circuits = new LinkedHashMap<>();
+        int open = 0;
+        for (ProviderCircuitBreaker breaker : breakers) {
+            ProviderCircuitBreaker.State state = breaker.getState();
+            if (state == ProviderCircuitBreaker.State.OPEN) {
+                open++;
+            }
+            Map<String, Object> detail = new LinkedHashMap<>();
+            detail.put("state", state);
+            detail.put("failureRate", breaker.getFailureRate());
+            detail.put("slowCallRate", breaker.getSlowCallRate());
+            detail.put("calls", breaker.getRecordedCalls());
+            circuits.put(breaker.getName(), detail);
+        }
+        Health.Builder builder = !breakers.isEmpty() && open == breakers.size() ? Health.down() : Health.up();
+        return builder.withDetail("enabled", registry.isEnabled())
+                .withDetail("openCircuits", open)
+                .withDetail("circuits", circuits)
+                .build();
+    }
+}
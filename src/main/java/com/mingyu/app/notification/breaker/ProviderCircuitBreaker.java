@@ -0,0 +1,159 @@
+package com.mingyu.app.notification.breaker;
+
+// Implements 2.权限引导与存活看板
+
+import com.mingyu.app.notification.config.NotificationCircuitBreakerProperties;
+import java.time.Clock;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Circuit breaker for one channel provider over a sliding window of its last {@code windowSize}
+ * calls. It opens when the failure or slow-call rate crosses its threshold, rejects every call
+ * while open, and after {@code openMillis} lets {@code halfOpenProbes} calls through: all of them
+ * succeeding closes it again, any failure reopens it.
+ */
+public class ProviderCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    private final String name;
+    private final NotificationCircuitBreakerProperties properties;
+    private final Clock clock;
+    private final long slowCallNanos;
+    private final BiConsumer<ProviderCircuitBreaker, State> transitionListener;
+    private final boolean[] failedCalls;
+    private final boolean[] slowCalls;
+
+    private State state = State.CLOSED;
+    private int cursor;
+    private int recordedCalls;
+    private int failureCount;
+    private int slowCount;
+    private long openedAtMillis;
+    private int probesIssued;
+    private int probeSuccesses;
+
+    public ProviderCircuitBreaker(
+            String name,
+            NotificationCircuitBreakerProperties properties,
+            Clock clock,
+            BiConsumer<ProviderCircuitBreaker, State> transitionListener) {
+        this.name = Objects.requireNonNull(name, "name is required");
+        this.properties = Objects.requireNonNull(properties, "properties is required");
+        this.clock = Objects.requireNonNull(clock, "clock is required");
+        this.transitionListener = Objects.requireNonNull(transitionListener, "transitionListener is required");
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(properties.getSlowCallMillis());
+        this.failedCalls = new boolean[properties.getWindowSize()];
+        this.slowCalls = new boolean[properties.getWindowSize()];
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Returns whether the next call may reach the provider; a rejected call must not be recorded. */
+    public synchronized boolean tryAcquirePermission() {
+        if (!properties.isEnabled()) {
+            return true;
+        }
+        if (state == State.OPEN) {
+            if (clock.millis() - openedAtMillis < properties.getOpenMillis()) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesIssued >= properties.getHalfOpenProbes()) {
+                return false;
+            }
+            probesIssued++;
+        }
+        return true;
+    }
+
+    public void onSuccess(long durationNanos) {
+        record(false, durationNanos);
+    }
+
+    public void onError(long durationNanos) {
+        record(true, durationNanos);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized double getFailureRate() {
+        return recordedCalls == 0 ? 0.0d : (double) failureCount / recordedCalls;
+    }
+
+    public synchronized double getSlowCallRate() {
+        return recordedCalls == 0 ? 0.0d : (double) slowCount / recordedCalls;
+    }
+
+    public synchronized int getRecordedCalls() {
+        return recordedCalls;
+    }
+
+    private synchronized void record(boolean failed, long durationNanos) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        boolean slow = durationNanos >= slowCallNanos;
+        switch (state) {
+            case HALF_OPEN -> {
+                if (failed || slow) {
+                    transitionTo(State.OPEN);
+                } else if (++probeSuccesses >= properties.getHalfOpenProbes()) {
+                    transitionTo(State.CLOSED);
+                }
+            }
+            case CLOSED -> {
+                remember(failed, slow);
+                if (recordedCalls >= properties.getMinimumCalls()
+                        && (getFailureRate() >= properties.getFailureRateThreshold()
+                                || getSlowCallRate() >= properties.getSlowCallRateThreshold())) {
+                    transitionTo(State.OPEN);
+                }
+            }
+            // Calls admitted before the breaker opened say nothing about the provider now.
+            case OPEN -> { }
+        }
+    }
+
+    private void remember(boolean failed, boolean slow) {
+        if (recordedCalls == failedCalls.length) {
+            failureCount -= failedCalls[cursor] ? 1 : 0;
+            slowCount -= slowCalls[cursor] ? 1 : 0;
+        } else {
+            recordedCalls++;
+        }
+        failedCalls[cursor] = failed;
+        slowCalls[cursor] = slow;
+        failureCount += failed ? 1 : 0;
+        slowCount += slow ? 1 : 0;
+        cursor = (cursor + 1) % failedCalls.length;
+    }
+
+    private void transitionTo(State next) {
+        state = next;
+        probesIssued = 0;
+        probeSuccesses = 0;
+        if (next == State.OPEN) {
+            openedAtMillis = clock.millis();
+        }
+        if (next == State.CLOSED) {
+            cursor = 0;
+            recordedCalls = 0;
+            failureCount = 0;
+            slowCount = 0;
+        }
+        transitionListener.accept(this, next);
+    }
+}
@@ -0,0 +1,77 @@
+package com.mingyu.app.notification.breaker;
+
+// Implements 2.权限引导与存活看板
+
+import com.mingyu.app.notification.config.NotificationCircuitBreakerProperties;
+import com.mingyu.app.notification.provider.NotificationChannelProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.time.Clock;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/** One {@link ProviderCircuitBreaker} per channel provider, published as metrics as it is created. */
+@Component
+public class ProviderCircuitBreakerRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(ProviderCircuitBreakerRegistry.class);
+
+    private final NotificationCircuitBreakerProperties properties;
+    private final Clock clock;
+    private final MeterRegistry meterRegistry;
+    private final Map<NotificationChannelProvider, ProviderCircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ProviderCircuitBreakerRegistry(
+            NotificationCircuitBreakerProperties properties, Clock clock, MeterRegistry meterRegistry) {
+        this.properties = Objects.requireNonNull(properties, "properties is required");
+        this.properties.validate();
+        this.clock = Objects.requireNonNull(clock, "clock is required");
+        this.meterRegistry = Objects.requireNonNull(meterRegistry, "meterRegistry is required");
+    }
+
+    public ProviderCircuitBreaker breakerFor(NotificationChannelProvider provider) {
+        return breakers.computeIfAbsent(provider, this::register);
+    }
+
+    public List<ProviderCircuitBreaker> breakers() {
+        return List.copyOf(breakers.values());
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    private ProviderCircuitBreaker register(NotificationChannelProvider provider) {
+        String channel = String.valueOf(provider.getChannel()).toLowerCase(Locale.ROOT);
+        String name = channel + "/" + provider.getClass().getSimpleName();
+        Tags tags = Tags.of("channel", channel, "provider", provider.getClass().getSimpleName());
+        ProviderCircuitBreaker breaker = new ProviderCircuitBreaker(name, properties, clock, (source, state) -> {
+            log.warn("Circuit for notification provider {} is now {}", source.getName(), state);
+            Counter.builder("notification.circuit.transitions")
+                    .tags(tags.and("state", state.name().toLowerCase(Locale.ROOT)))
+                    .register(meterRegistry)
+                    .increment();
+        });
+        Gauge.builder("notification.circuit.state", breaker, b -> b.getState().ordinal())
+                .description("0 closed, 1 half-open, 2 open")
+                .tags(tags)
+                .register(meterRegistry);
+        Gauge.builder("notification.circuit.failure.rate", breaker, ProviderCircuitBreaker::getFailureRate)
+                .tags(tags)
+                .register(meterRegistry);
+        Gauge.builder("notification.circuit.slow.rate", breaker, ProviderCircuitBreaker::getSlowCallRate)
+                .tags(tags)
+                .register(meterRegistry);
+        return breaker;
+    }
+}
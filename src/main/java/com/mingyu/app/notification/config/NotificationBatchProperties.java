@@ -0,0 +1,72 @@
+package com.mingyu.app.notification.config;
+
+// Implements 2.权限引导与存活看板
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "notification.batch")
+public class NotificationBatchProperties {
+
+    private boolean enabled = true;
+    private int maxBatchSize = 50;
+    private long lingerMillis = 5;
+    private int flushThreads = 4;
+    private int maxQueuedBatches = 256;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public long getLingerMillis() {
+        return lingerMillis;
+    }
+
+    public void setLingerMillis(long lingerMillis) {
+        this.lingerMillis = lingerMillis;
+    }
+
+    public int getFlushThreads() {
+        return flushThreads;
+    }
+
+    public void setFlushThreads(int flushThreads) {
+        this.flushThreads = flushThreads;
+    }
+
+    public int getMaxQueuedBatches() {
+        return maxQueuedBatches;
+    }
+
+    public void setMaxQueuedBatches(int maxQueuedBatches) {
+        this.maxQueuedBatches = maxQueuedBatches;
+    }
+
+    public void validate() {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be at least 1");
+        }
+        if (lingerMillis < 0) {
+            throw new IllegalArgumentException("lingerMillis must be positive");
+        }
+        if (flushThreads < 1) {
+            throw new IllegalArgumentException("flushThreads must be at least 1");
+        }
+        if (maxQueuedBatches < 1) {
+            throw new IllegalArgumentException("maxQueuedBatches must be at least 1");
+        }
+    }
+}
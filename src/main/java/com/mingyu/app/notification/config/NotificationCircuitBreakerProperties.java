@@ -0,0 +1,108 @@
+package com.mingyu.app.notification.config;
+
+// Implements 2.权限引导与存活看板
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "notification.circuit-breaker")
+public class NotificationCircuitBreakerProperties {
+
+    private boolean enabled = true;
+    private int windowSize = 20;
+    private int minimumCalls = 5;
+    private double failureRateThreshold = 0.5d;
+    private long slowCallMillis = 5_000;
+    private double slowCallRateThreshold = 0.8d;
+    private long openMillis = 30_000;
+    private int halfOpenProbes = 2;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public void setWindowSize(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    public void setMinimumCalls(int minimumCalls) {
+        this.minimumCalls = minimumCalls;
+    }
+
+    public double getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    public void setFailureRateThreshold(double failureRateThreshold) {
+        this.failureRateThreshold = failureRateThreshold;
+    }
+
+    public long getSlowCallMillis() {
+        return slowCallMillis;
+    }
+
+    public void setSlowCallMillis(long slowCallMillis) {
+        this.slowCallMillis = slowCallMillis;
+    }
+
+    public double getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    public void setSlowCallRateThreshold(double slowCallRateThreshold) {
+        this.slowCallRateThreshold = slowCallRateThreshold;
+    }
+
+    public long getOpenMillis() {
+        return openMillis;
+    }
+
+    public void setOpenMillis(long openMillis) {
+        this.openMillis = openMillis;
+    }
+
+    public int getHalfOpenProbes() {
+        return halfOpenProbes;
+    }
+
+    public void setHalfOpenProbes(int halfOpenProbes) {
+        this.halfOpenProbes = halfOpenProbes;
+    }
+
+    public void validate() {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("windowSize must be at least 1");
+        }
+        if (minimumCalls < 1 || minimumCalls > windowSize) {
+            throw new IllegalArgumentException("minimumCalls must be between 1 and windowSize");
+        }
+        if (failureRateThreshold <= 0.0d || failureRateThreshold > 1.0d) {
+            throw new IllegalArgumentException("failureRateThreshold must be in (0, 1]");
+        }
+        if (slowCallMillis < 1) {
+            throw new IllegalArgumentException("slowCallMillis must be positive");
+        }
+        if (slowCallRateThreshold <= 0.0d || slowCallRateThreshold > 1.0d) {
+            throw new IllegalArgumentException("slowCallRateThreshold must be in (0, 1]");
+        }
+        if (openMillis < 0) {
+            throw new IllegalArgumentException("openMillis must be positive");
+        }
+        if (halfOpenProbes < 1) {
+            throw new IllegalArgumentException("halfOpenProbes must be at least 1");
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.mingyu.app.notification.config;
+
+// Implements 2.权限引导与存活看板
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "notification.dead-letter")
+public class NotificationDeadLetterProperties {
+
+    private boolean enabled = true;
+    private int maxEntries = 10_000;
+    private long maxBytes = 16L * 1024 * 1024;
+    private String spillFile;
+    private boolean replayEnabled = true;
+    private long replayIntervalMillis = 5_000;
+    private int replayBatchSize = 20;
+    private int maxReplaysInFlight = 20;
+    private long maxAgeSeconds = 60;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public String getSpillFile() {
+        return spillFile;
+    }
+
+    public void setSpillFile(String spillFile) {
+        this.spillFile = spillFile;
+    }
+
+    public boolean isReplayEnabled() {
+        return replayEnabled;
+    }
+
+    public void setReplayEnabled(boolean replayEnabled) {
+        this.replayEnabled = replayEnabled;
+    }
+
+    public long getReplayIntervalMillis() {
+        return replayIntervalMillis;
+    }
+
+    public void setReplayIntervalMillis(long replayIntervalMillis) {
+        this.replayIntervalMillis = replayIntervalMillis;
+    }
+
+    public int getReplayBatchSize() {
+        return replayBatchSize;
+    }
+
+    public void setReplayBatchSize(int replayBatchSize) {
+        this.replayBatchSize = replayBatchSize;
+    }
+
+    public int getMaxReplaysInFlight() {
+        return maxReplaysInFlight;
+    }
+
+    public void setMaxReplaysInFlight(int maxReplaysInFlight) {
+        this.maxReplaysInFlight = maxReplaysInFlight;
+    }
+
+    public long getMaxAgeSeconds() {
+        return maxAgeSeconds;
+    }
+
+    public void setMaxAgeSeconds(long maxAgeSeconds) {
+        this.maxAgeSeconds = maxAgeSeconds;
+    }
+
+    public void validate() {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("maxBytes must be positive");
+        }
+        if (replayIntervalMillis < 1) {
+            throw new IllegalArgumentException("replayIntervalMillis must be positive");
+        }
+        if (replayBatchSize < 1) {
+            throw new IllegalArgumentException("replayBatchSize must be at least 1");
+        }
+        if (maxReplaysInFlight < 1) {
+            throw new IllegalArgumentException("maxReplaysInFlight must be at least 1");
+        }
+        if (maxAgeSeconds < 1) {
+            throw new IllegalArgumentException("maxAgeSeconds must be positive");
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.mingyu.app.notification.config;
+
+// Implements 2.权限引导与存活看板
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "notification.dedup")
+public class NotificationDedupProperties {
+
+    private boolean enabled = true;
+    private long windowMillis = 30_000;
+    private int maxKeys = 100_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    public void setWindowMillis(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    public int getMaxKeys() {
+        return maxKeys;
+    }
+
+    public void setMaxKeys(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    public void validate() {
+        if (windowMillis <= 0) {
+            throw new IllegalArgumentException("windowMillis must be greater than zero");
+        }
+        if (maxKeys < 1) {
+            throw new IllegalArgumentException("maxKeys must be greater than zero");
+        }
+    }
+}
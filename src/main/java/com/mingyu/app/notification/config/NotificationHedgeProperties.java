@@ -0,0 +1,36 @@
+package com.mingyu.app.notification.config;
+
+// Implements 2.权限引导与存活看板
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "notification.hedge")
+public class NotificationHedgeProperties {
+
+    private boolean enabled = false;
+    private long delayMillis = 2_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getDelayMillis() {
+        return delayMillis;
+    }
+
+    public void setDelayMillis(long delayMillis) {
+        this.delayMillis = delayMillis;
+    }
+
+    public void validate() {
+        if (delayMillis < 0) {
+            throw new IllegalArgumentException("delayMillis must be positive");
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.mingyu.app.notification.config;
+
+// Implements 2.权限引导与存活看板
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "notification.outbox")
+public class NotificationOutboxProperties {
+
+    private boolean relayEnabled = true;
+    private int relayThreads = 2;
+    private int batchSize = 50;
+    private long pollIntervalMillis = 250;
+    private long leaseSeconds = 120;
+    private int maxAttempts = 5;
+    private long retryBackoffSeconds = 30;
+    private long retentionHours = 24;
+
+    public boolean isRelayEnabled() {
+        return relayEnabled;
+    }
+
+    public void setRelayEnabled(boolean relayEnabled) {
+        this.relayEnabled = relayEnabled;
+    }
+
+    public int getRelayThreads() {
+        return relayThreads;
+    }
+
+    public void setRelayThreads(int relayThreads) {
+        this.relayThreads = relayThreads;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getPollIntervalMillis() {
+        return pollIntervalMillis;
+    }
+
+    public void setPollIntervalMillis(long pollIntervalMillis) {
+        this.pollIntervalMillis = pollIntervalMillis;
+    }
+
+    public long getLeaseSeconds() {
+        return leaseSeconds;
+    }
+
+    public void setLeaseSeconds(long leaseSeconds) {
+        this.leaseSeconds = leaseSeconds;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public long getRetryBackoffSeconds() {
+        return retryBackoffSeconds;
+    }
+
+    public void setRetryBackoffSeconds(long retryBackoffSeconds) {
+        this.retryBackoffSeconds = retryBackoffSeconds;
+    }
+
+    public long getRetentionHours() {
+        return retentionHours;
+    }
+
+    public void setRetentionHours(long retentionHours) {
+        this.retentionHours = retentionHours;
+    }
+
+    public void validate() {
+        if (relayThreads < 1) {
+            throw new IllegalArgumentException("relayThreads must be at least 1");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1");
+        }
+        if (pollIntervalMillis < 1) {
+            throw new IllegalArgumentException("pollIntervalMillis must be positive");
+        }
+        if (leaseSeconds < 1) {
+            throw new IllegalArgumentException("leaseSeconds must be positive");
+        }
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        if (retryBackoffSeconds < 0) {
+            throw new IllegalArgumentException("retryBackoffSeconds must be positive");
+        }
+        if (retentionHours < 1) {
+            throw new IllegalArgumentException("retentionHours must be positive");
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.mingyu.app.notification.config;
+
+// Implements 2.权限引导与存活看板
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "notification.priority")
+public class NotificationPriorityProperties {
+
+    private boolean enabled = true;
+    private int workerThreads = 4;
+    private int reservedEmergencyThreads = 1;
+    private long agingMillis = 5_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    public void setWorkerThreads(int workerThreads) {
+        this.workerThreads = workerThreads;
+    }
+
+    public int getReservedEmergencyThreads() {
+        return reservedEmergencyThreads;
+    }
+
+    public void setReservedEmergencyThreads(int reservedEmergencyThreads) {
+        this.reservedEmergencyThreads = reservedEmergencyThreads;
+    }
+
+    public long getAgingMillis() {
+        return agingMillis;
+    }
+
+    public void setAgingMillis(long agingMillis) {
+        this.agingMillis = agingMillis;
+    }
+
+    public void validate() {
+        if (workerThreads < 1) {
+            throw new IllegalArgumentException("workerThreads must be at least 1");
+        }
+        if (reservedEmergencyThreads < 0) {
+            throw new IllegalArgumentException("reservedEmergencyThreads must not be negative");
+        }
+        if (agingMillis <= 0) {
+            throw new IllegalArgumentException("agingMillis must be greater than zero");
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.mingyu.app.notification.config;
+
+// Implements 2.权限引导与存活看板
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "notification.queue")
+public class NotificationQueueProperties {
+
+    private Mode mode = Mode.DIRECT;
+    private String streamKey = "notification:dispatch";
+    private String group = "notification-workers";
+    private String consumerName;
+    private int workerThreads = 2;
+    private int batchSize = 16;
+    private long blockMillis = 2_000;
+    private long claimIdleMillis = 60_000;
+    private int maxDeliveries = 5;
+    private long maxLength = 100_000;
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public String getStreamKey() {
+        return streamKey;
+    }
+
+    public void setStreamKey(String streamKey) {
+        this.streamKey = streamKey;
+    }
+
+    public String getGroup() {
+        return group;
+    }
+
+    public void setGroup(String group) {
+        this.group = group;
+    }
+
+    public String getConsumerName() {
+        return consumerName;
+    }
+
+    public void setConsumerName(String consumerName) {
+        this.consumerName = consumerName;
+    }
+
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    public void setWorkerThreads(int workerThreads) {
+        this.workerThreads = workerThreads;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getBlockMillis() {
+        return blockMillis;
+    }
+
+    public void setBlockMillis(long blockMillis) {
+        this.blockMillis = blockMillis;
+    }
+
+    public long getClaimIdleMillis() {
+        return claimIdleMillis;
+    }
+
+    public void setClaimIdleMillis(long claimIdleMillis) {
+        this.claimIdleMillis = claimIdleMillis;
+    }
+
+    public int getMaxDeliveries() {
+        return maxDeliveries;
+    }
+
+    public void setMaxDeliveries(int maxDeliveries) {
+        this.maxDeliveries = maxDeliveries;
+    }
+
+    public long getMaxLength() {
+        return maxLength;
+    }
+
+    public void setMaxLength(long maxLength) {
+        this.maxLength = maxLength;
+    }
+
+    public void validate() {
+        if (mode == null) {
+            throw new IllegalArgumentException("mode is required");
+        }
+        if (streamKey == null || streamKey.isBlank()) {
+            throw new IllegalArgumentException("streamKey is required");
+        }
+        if (group == null || group.isBlank()) {
+            throw new IllegalArgumentException("group is required");
+        }
+        if (workerThreads < 0) {
+            throw new IllegalArgumentException("workerThreads must not be negative");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1");
+        }
+        if (blockMillis < 1) {
+            throw new IllegalArgumentException("blockMillis must be positive");
+        }
+        if (claimIdleMillis < 1) {
+            throw new IllegalArgumentException("claimIdleMillis must be positive");
+        }
+        if (maxDeliveries < 1) {
+            throw new IllegalArgumentException("maxDeliveries must be at least 1");
+        }
+        if (maxLength < 1) {
+            throw new IllegalArgumentException("maxLength must be positive");
+        }
+    }
+
+    /** Where the outbox relay sends what it claims. */
+    public enum Mode {
+        /** Dispatched by the relay's own node, as before there was a queue. */
+        DIRECT,
+        /** Through an in-process stream; one node, for development and tests. */
+        MEMORY,
+        /** Through a Redis stream that workers on every node consume as one group. */
+        REDIS
+    }
+}
@@ -13,6 +13,9 @@ public class NotificationRetryProperties {
     private long initialBackoffMillis = 250;
     private double multiplier = 2.0d;
     private long maxBackoffMillis = 5_000;
+    private int schedulerThreads = 2;
+    private Jitter jitter = Jitter.DECORRELATED;
+    private final Budget budget = new Budget();
 
     public int getMaxAttempts() {
         return maxAttempts;
@@ -46,6 +49,26 @@ public class NotificationRetryProperties {
         this.maxBackoffMillis = maxBackoffMillis;
     }
 
+    public int getSchedulerThreads() {
+        return schedulerThreads;
+    }
+
+    public void setSchedulerThreads(int schedulerThreads) {
+        this.schedulerThreads = schedulerThreads;
+    }
+
+    public Jitter getJitter() {
+        return jitter;
+    }
+
+    public void setJitter(Jitter jitter) {
+        this.jitter = jitter;
+    }
+
+    public Budget getBudget() {
+        return budget;
+    }
+
     public void validate() {
         if (maxAttempts < 1) {
             throw new IllegalArgumentException("maxAttempts must be at least 1");
@@ -60,5 +83,80 @@ public class NotificationRetryProperties {
         if (multiplier < 1.0d) {
             throw new IllegalArgumentException("multiplier must be at least 1.0");
         }
+        if (schedulerThreads < 1) {
+            throw new IllegalArgumentException("schedulerThreads must be at least 1");
+        }
+        if (jitter == null) {
+            throw new IllegalArgumentException("jitter is required");
+        }
+        budget.validate();
+    }
+
+    /** How the exponential backoff is randomised so that retries from one burst do not line up. */
+    public enum Jitter {
+        /** Exactly {@code initialBackoffMillis * multiplier^(attempt - 1)}, capped. */
+        NONE,
+        /** Uniform between zero and the exponential delay. */
+        FULL,
+        /** Half the exponential delay plus a uniform share of the other half. */
+        EQUAL,
+        /** Uniform between {@code initialBackoffMillis} and three times the previous delay, capped. */
+        DECORRELATED
+    }
+
+    /**
+     * Process-wide allowance for retries: over the last {@code windowSeconds}, at most
+     * {@code percent} of first attempts plus {@code minRetriesPerSecond} for each second.
+     */
+    public static class Budget {
+
+        private boolean enabled = true;
+        private double percent = 20.0d;
+        private int minRetriesPerSecond = 10;
+        private int windowSeconds = 10;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getPercent() {
+            return percent;
+        }
+
+        public void setPercent(double percent) {
+            this.percent = percent;
+        }
+
+        public int getMinRetriesPerSecond() {
+            return minRetriesPerSecond;
+        }
+
+        public void setMinRetriesPerSecond(int minRetriesPerSecond) {
+            this.minRetriesPerSecond = minRetriesPerSecond;
+        }
+
+        public int getWindowSeconds() {
+            return windowSeconds;
+        }
+
+        public void setWindowSeconds(int windowSeconds) {
+            this.windowSeconds = windowSeconds;
+        }
+
+        void validate() {
+            if (percent < 0.0d) {
+                throw new IllegalArgumentException("budget.percent must not be negative");
+            }
+            if (minRetriesPerSecond < 0) {
+                throw new IllegalArgumentException("budget.minRetriesPerSecond must not be negative");
+            }
+            if (windowSeconds < 1) {
+                throw new IllegalArgumentException("budget.windowSeconds must be at least 1");
+            }
+        }
     }
 }
\ No newline at end of file
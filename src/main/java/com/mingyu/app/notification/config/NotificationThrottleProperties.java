@@ -0,0 +1,110 @@
+package com.mingyu.app.notification.config;
+
+// Implements 2.权限引导与存活看板
+
+import com.mingyu.app.notification.model.NotificationChannel;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Outbound quotas per channel. Channels without an entry are not throttled. An attempt that finds
+ * its channel out of tokens waits for the next one if that is at most {@code maxWaitMillis} away,
+ * otherwise the channel is given up as throttled for that dispatch.
+ */
+@Component
+@ConfigurationProperties(prefix = "notification.throttle")
+public class NotificationThrottleProperties {
+
+    private boolean enabled = true;
+    private long maxWaitMillis = 2_000;
+    private final Map<NotificationChannel, Limit> channels = new EnumMap<>(NotificationChannel.class);
+
+    public NotificationThrottleProperties() {
+        channels.put(NotificationChannel.PUSH, new Limit(500, 500, Duration.ofSeconds(1)));
+        channels.put(NotificationChannel.SMS, new Limit(20, 20, Duration.ofSeconds(1)));
+        channels.put(NotificationChannel.WEBHOOK, new Limit(100, 100, Duration.ofSeconds(1)));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    public void setMaxWaitMillis(long maxWaitMillis) {
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    public Map<NotificationChannel, Limit> getChannels() {
+        return channels;
+    }
+
+    public void validate() {
+        if (maxWaitMillis < 0) {
+            throw new IllegalArgumentException("maxWaitMillis must be positive");
+        }
+        channels.forEach((channel, limit) -> limit.validate("channels." + channel));
+    }
+
+    public static class Limit {
+
+        private int capacity;
+        private int refillTokens;
+        private Duration refillPeriod;
+
+        public Limit() {
+            this(1, 1, Duration.ofSeconds(1));
+        }
+
+        public Limit(int capacity, int refillTokens, Duration refillPeriod) {
+            this.capacity = capacity;
+            this.refillTokens = refillTokens;
+            this.refillPeriod = refillPeriod;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public int getRefillTokens() {
+            return refillTokens;
+        }
+
+        public void setRefillTokens(int refillTokens) {
+            this.refillTokens = refillTokens;
+        }
+
+        public Duration getRefillPeriod() {
+            return refillPeriod;
+        }
+
+        public void setRefillPeriod(Duration refillPeriod) {
+            this.refillPeriod = refillPeriod;
+        }
+
+        void validate(String name) {
+            if (capacity < 1) {
+                throw new IllegalArgumentException(name + ".capacity must be at least 1");
+            }
+            if (refillTokens < 1) {
+                throw new IllegalArgumentException(name + ".refillTokens must be at least 1");
+            }
+            if (refillPeriod == null || refillPeriod.isNegative() || refillPeriod.isZero()) {
+                throw new IllegalArgumentException(name + ".refillPeriod must be positive");
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.mingyu.app.notification.config;
+
+// Implements 2.权限引导与存活看板
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "notification.webhook")
+public class NotificationWebhookProperties {
+
+    private boolean http2 = true;
+    private long connectTimeoutMillis = 2_000;
+    private long requestTimeoutMillis = 5_000;
+    private int maxConcurrentPerHost = 16;
+    private int maxQueuedPerHost = 256;
+
+    public boolean isHttp2() {
+        return http2;
+    }
+
+    public void setHttp2(boolean http2) {
+        this.http2 = http2;
+    }
+
+    public long getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    public void setConnectTimeoutMillis(long connectTimeoutMillis) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+    }
+
+    public long getRequestTimeoutMillis() {
+        return requestTimeoutMillis;
+    }
+
+    public void setRequestTimeoutMillis(long requestTimeoutMillis) {
+        this.requestTimeoutMillis = requestTimeoutMillis;
+    }
+
+    public int getMaxConcurrentPerHost() {
+        return maxConcurrentPerHost;
+    }
+
+    public void setMaxConcurrentPerHost(int maxConcurrentPerHost) {
+        this.maxConcurrentPerHost = maxConcurrentPerHost;
+    }
+
+    public int getMaxQueuedPerHost() {
+        return maxQueuedPerHost;
+    }
+
+    public void setMaxQueuedPerHost(int maxQueuedPerHost) {
+        this.maxQueuedPerHost = maxQueuedPerHost;
+    }
+
+    public void validate() {
+        if (connectTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("connectTimeoutMillis must be greater than zero");
+        }
+        if (requestTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("requestTimeoutMillis must be greater than zero");
+        }
+        if (maxConcurrentPerHost < 1) {
+            throw new IllegalArgumentException("maxConcurrentPerHost must be at least 1");
+        }
+        if (maxQueuedPerHost < 0) {
+            throw new IllegalArgumentException("maxQueuedPerHost must not be negative");
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.mingyu.app.notification.deadletter;
+
+// Implements 2.权限引导与存活看板
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A notification every channel failed to deliver, kept in its stored JSON form (see
+ * {@link com.mingyu.app.notification.service.NotificationRequestCodec}) so its size is known and
+ * it can be spilled to disk as-is.
+ */
+public record NotificationDeadLetter(
+        String traceId, String payload, String lastError, Instant deadLetteredAt, int replays) {
+
+    public NotificationDeadLetter {
+        Objects.requireNonNull(traceId, "traceId is required");
+        Objects.requireNonNull(payload, "payload is required");
+        Objects.requireNonNull(deadLetteredAt, "deadLetteredAt is required");
+    }
+
+    /** The same letter after one more failed replay. */
+    NotificationDeadLetter failedAgain(String error) {
+        return new NotificationDeadLetter(traceId, payload, error, deadLetteredAt, replays + 1);
+    }
+
+    /** Rough heap cost, counted against {@code maxBytes}. */
+    long weight() {
+        return 64L + payload.length() + (lastError == null ? 0 : lastError.length()) + traceId.length();
+    }
+}
@@ -0,0 +1,26 @@
+package com.mingyu.app.notification.deadletter;
+
+// Implements 2.权限引导与存活看板
+
+import java.util.Map;
+import java.util.Objects;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/** Dead letter depth and age under {@code /actuator/deadletters}. */
+@Component
+@Endpoint(id = "deadletters")
+public class NotificationDeadLetterEndpoint {
+
+    private final NotificationDeadLetterQueue queue;
+
+    public NotificationDeadLetterEndpoint(NotificationDeadLetterQueue queue) {
+        this.queue = Objects.requireNonNull(queue, "queue is required");
+    }
+
+    @ReadOperation
+    public Map<String, Object> deadLetters() {
+        return queue.describe();
+    }
+}
@@ -0,0 +1,375 @@
+package com.mingyu.app.notification.deadletter;
+
+// Implements 2.权限引导与存活看板
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mingyu.app.notification.config.NotificationDeadLetterProperties;
+import com.mingyu.app.notification.model.NotificationDispatchRequest;
+import com.mingyu.app.notification.service.NotificationRequestCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Notifications the outbox gave up on, held in memory up to {@code maxEntries} and
+ * {@code maxBytes}. Past either cap the oldest letters are evicted: appended to
+ * {@code spillFile} when one is configured, dropped otherwise. Letters in memory are handed out
+ * oldest first. Spilled letters are older still but wait until memory has drained; they are then
+ * read back in spill order, at most the caps' worth at a time, from an offset kept beside the file
+ * so they also carry across a restart. File I/O runs outside the queue's monitor.
+ */
+@Component
+public class NotificationDeadLetterQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationDeadLetterQueue.class);
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final Path spillFile;
+    private final Path spillOffsetFile;
+    private final Object spillLock = new Object();
+    private final NotificationRequestCodec codec;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final Deque<NotificationDeadLetter> letters = new ArrayDeque<>();
+    private long bytes;
+    private long spilled;
+    private long spillReadOffset;
+    private final Counter added;
+    private final Counter dropped;
+    private final Counter spilledOut;
+    private final Counter replayed;
+    private final Counter expired;
+
+    @Autowired
+    public NotificationDeadLetterQueue(
+            NotificationDeadLetterProperties properties,
+            NotificationRequestCodec codec,
+            ObjectMapper objectMapper,
+            Clock clock,
+            MeterRegistry meterRegistry) {
+        Objects.requireNonNull(properties, "properties is required").validate();
+        this.codec = Objects.requireNonNull(codec, "codec is required");
+        this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper is required");
+        this.clock = Objects.requireNonNull(clock, "clock is required");
+        Objects.requireNonNull(meterRegistry, "meterRegistry is required");
+        this.enabled = properties.isEnabled();
+        this.maxEntries = properties.getMaxEntries();
+        this.maxBytes = properties.getMaxBytes();
+        String file = properties.getSpillFile();
+        this.spillFile = enabled && file != null && !file.isBlank() ? Path.of(file.trim()) : null;
+        this.spillOffsetFile = spillFile == null ? null : spillFile.resolveSibling(spillFile.getFileName() + ".offset");
+        this.spillReadOffset = loadSpillReadOffset();
+        this.spilled = countSpilled();
+        this.added = outcome(meterRegistry, "added");
+        this.dropped = outcome(meterRegistry, "dropped");
+        this.spilledOut = outcome(meterRegistry, "spilled");
+        this.replayed = outcome(meterRegistry, "replayed");
+        this.expired = outcome(meterRegistry, "expired");
+        Gauge.builder("notification.deadletter.depth", this, NotificationDeadLetterQueue::depth)
+                .description("Dead letters waiting for replay, in memory and spilled")
+                .register(meterRegistry);
+        Gauge.builder("notification.deadletter.oldest.age", this, queue -> queue.oldestAge().toMillis() / 1_000.0d)
+                .description("Seconds the oldest in-memory dead letter has waited")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void add(NotificationDispatchRequest request, String traceId, String error) {
+        if (!enabled) {
+            return;
+        }
+        offer(new NotificationDeadLetter(traceId, codec.encode(request), error, clock.instant(), 0));
+        added.increment();
+        log.warn("Trace [{}] {} notification dead-lettered: {}", traceId, request.getEventType(), error);
+    }
+
+    /** The next letter, or null when there is none. */
+    public NotificationDeadLetter poll() {
+        synchronized (this) {
+            if (!letters.isEmpty() || spilled == 0) {
+                return takeFirst();
+            }
+        }
+        readBackSpilled();
+        synchronized (this) {
+            return takeFirst();
+        }
+    }
+
+    public NotificationDispatchRequest decode(NotificationDeadLetter letter) {
+        return codec.decode(letter.payload());
+    }
+
+    /** Puts a letter whose replay failed back at the end of the line. */
+    public void requeue(NotificationDeadLetter letter, String error) {
+        offer(letter.failedAgain(error));
+    }
+
+    public void recordReplayed(NotificationDeadLetter letter) {
+        replayed.increment();
+        log.info("Trace [{}] dead letter delivered after {} replay(s)", letter.traceId(), letter.replays() + 1);
+    }
+
+    public void recordExpired(NotificationDeadLetter letter) {
+        expired.increment();
+        log.warn("Trace [{}] dead letter expired after {} replay(s): {}",
+                letter.traceId(), letter.replays(), letter.lastError());
+    }
+
+    public synchronized boolean isEmpty() {
+        return letters.isEmpty() && spilled == 0;
+    }
+
+    public synchronized int depth() {
+        return letters.size() + (int) Math.min(Integer.MAX_VALUE, spilled);
+    }
+
+    /** Depth, memory use, age and lifetime outcome counts, for the actuator endpoint. */
+    public Map<String, Object> describe() {
+        Map<String, Object> details = new LinkedHashMap<>();
+        synchronized (this) {
+            details.put("enabled", enabled);
+            details.put("inMemory", letters.size());
+            details.put("spilled", spilled);
+            details.put("bytes", bytes);
+            details.put("maxBytes", maxBytes);
+            details.put("oldestAgeSeconds", oldestAge().toSeconds());
+            details.put("oldestDeadLetteredAt", letters.isEmpty() ? null : letters.peekFirst().deadLetteredAt());
+        }
+        details.put("added", (long) added.count());
+        details.put("replayed", (long) replayed.count());
+        details.put("expired", (long) expired.count());
+        details.put("spilledTotal", (long) spilledOut.count());
+        details.put("dropped", (long) dropped.count());
+        return details;
+    }
+
+    synchronized Duration oldestAge() {
+        NotificationDeadLetter oldest = letters.peekFirst();
+        if (oldest == null) {
+            return Duration.ZERO;
+        }
+        Duration age = Duration.between(oldest.deadLetteredAt(), clock.instant());
+        return age.isNegative() ? Duration.ZERO : age;
+    }
+
+    private synchronized NotificationDeadLetter takeFirst() {
+        NotificationDeadLetter letter = letters.pollFirst();
+        if (letter != null) {
+            bytes -= letter.weight();
+        }
+        return letter;
+    }
+
+    private void offer(NotificationDeadLetter letter) {
+        List<NotificationDeadLetter> evicted = new ArrayList<>();
+        synchronized (this) {
+            letters.addLast(letter);
+            bytes += letter.weight();
+            while (letters.size() > maxEntries || (bytes > maxBytes && letters.size() > 1)) {
+                NotificationDeadLetter oldest = letters.pollFirst();
+                bytes -= oldest.weight();
+                evicted.add(oldest);
+            }
+        }
+        if (!evicted.isEmpty()) {
+            spillOrDrop(evicted);
+        }
+    }
+
+    private void spillOrDrop(List<NotificationDeadLetter> evicted) {
+        if (spillFile != null) {
+            try {
+                List<String> lines = new ArrayList<>(evicted.size());
+                for (NotificationDeadLetter letter : evicted) {
+                    lines.add(toLine(letter));
+                }
+                synchronized (spillLock) {
+                    Files.write(spillFile, lines, StandardCharsets.UTF_8,
+                            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                    synchronized (this) {
+                        spilled += evicted.size();
+                    }
+                }
+                spilledOut.increment(evicted.size());
+                return;
+            } catch (IOException | UncheckedIOException ex) {
+                log.error("Failed to spill {} dead letter(s) to {}", evicted.size(), spillFile, ex);
+            }
+        }
+        dropped.increment(evicted.size());
+        evicted.forEach(letter -> log.error("Trace [{}] dead letter dropped, queue is full", letter.traceId()));
+    }
+
+    /**
+     * Streams the next spilled letters, up to the caps, from the read offset into memory ahead of
+     * anything added meanwhile. Only the in-memory hand-over takes the queue's monitor. The file is
+     * emptied once every letter in it has been read back.
+     */
+    private void readBackSpilled() {
+        synchronized (spillLock) {
+            synchronized (this) {
+                if (!letters.isEmpty() || spilled == 0) {
+                    return;
+                }
+            }
+            List<NotificationDeadLetter> read = new ArrayList<>();
+            long readBytes = 0;
+            long offset = spillReadOffset;
+            int lines = 0;
+            try (InputStream in = new BufferedInputStream(
+                    Channels.newInputStream(FileChannel.open(spillFile).position(offset)))) {
+                ByteArrayOutputStream line = new ByteArrayOutputStream();
+                int next;
+                while (read.size() < maxEntries && readBytes < maxBytes && (next = in.read()) != -1) {
+                    if (next != '\n') {
+                        line.write(next);
+                        continue;
+                    }
+                    offset += line.size() + 1L;
+                    String text = line.toString(StandardCharsets.UTF_8).trim();
+                    line.reset();
+                    if (text.isEmpty()) {
+                        continue;
+                    }
+                    lines++;
+                    try {
+                        NotificationDeadLetter letter = fromLine(text);
+                        read.add(letter);
+                        readBytes += letter.weight();
+                    } catch (RuntimeException ex) {
+                        log.error("Skipping unreadable spilled dead letter", ex);
+                    }
+                }
+            } catch (IOException ex) {
+                log.error("Failed to read dead letters back from {}", spillFile, ex);
+                return;
+            }
+            synchronized (this) {
+                for (int i = read.size() - 1; i >= 0; i--) {
+                    letters.addFirst(read.get(i));
+                }
+                bytes += readBytes;
+                spilled = Math.max(0L, spilled - lines);
+            }
+            advanceSpillReadOffset(offset);
+        }
+    }
+
+    /** Called with {@code spillLock} held. */
+    private void advanceSpillReadOffset(long offset) {
+        try {
+            if (offset >= Files.size(spillFile)) {
+                try (FileChannel channel = FileChannel.open(spillFile, StandardOpenOption.WRITE)) {
+                    channel.truncate(0L);
+                }
+                spillReadOffset = 0L;
+                Files.deleteIfExists(spillOffsetFile);
+                return;
+            }
+            spillReadOffset = offset;
+            Files.writeString(spillOffsetFile, Long.toString(offset), StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            // Letters now in memory would be read a second time after a restart; better twice than never.
+            log.error("Failed to record the read offset of dead letter spill file {}", spillFile, ex);
+        }
+    }
+
+    private long loadSpillReadOffset() {
+        if (spillOffsetFile == null || !Files.exists(spillOffsetFile) || !Files.exists(spillFile)) {
+            return 0L;
+        }
+        try {
+            long offset = Long.parseLong(Files.readString(spillOffsetFile, StandardCharsets.UTF_8).trim());
+            return offset >= 0 && offset <= Files.size(spillFile) ? offset : 0L;
+        } catch (IOException | NumberFormatException ex) {
+            log.error("Failed to read the offset of dead letter spill file {}, reading it from the start",
+                    spillFile, ex);
+            return 0L;
+        }
+    }
+
+    private long countSpilled() {
+        if (spillFile == null || !Files.exists(spillFile)) {
+            return 0L;
+        }
+        try (BufferedReader reader = new BufferedReader(Channels.newReader(
+                FileChannel.open(spillFile).position(spillReadOffset), StandardCharsets.UTF_8))) {
+            return reader.lines().filter(line -> !line.isBlank()).count();
+        } catch (IOException | UncheckedIOException ex) {
+            log.error("Failed to read dead letter spill file {}", spillFile, ex);
+            return 0L;
+        }
+    }
+
+    private String toLine(NotificationDeadLetter letter) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("traceId", letter.traceId());
+        json.put("deadLetteredAt", letter.deadLetteredAt().toString());
+        json.put("replays", letter.replays());
+        json.put("lastError", letter.lastError());
+        json.put("payload", letter.payload());
+        try {
+            return objectMapper.writeValueAsString(json);
+        } catch (JsonProcessingException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private NotificationDeadLetter fromLine(String line) {
+        Map<String, Object> json;
+        try {
+            json = objectMapper.readValue(line, MAP_TYPE);
+        } catch (JsonProcessingException exception) {
+            throw new IllegalArgumentException("Malformed dead letter", exception);
+        }
+        return new NotificationDeadLetter(
+                (String) json.get("traceId"),
+                (String) json.get("payload"),
+                (String) json.get("lastError"),
+                Instant.parse((String) json.get("deadLetteredAt")),
+                json.get("replays") instanceof Number replays ? replays.intValue() : 0);
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("notification.deadletter.letters")
+                .description("Dead letters by what became of them")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
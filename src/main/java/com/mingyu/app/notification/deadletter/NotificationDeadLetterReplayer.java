@@ -0,0 +1,145 @@
+package com.mingyu.app.notification.deadletter;
+
+// Implements 2.权限引导与存活看板
+
+import com.mingyu.app.notification.breaker.ProviderCircuitBreaker;
+import com.mingyu.app.notification.breaker.ProviderCircuitBreakerRegistry;
+import com.mingyu.app.notification.config.NotificationDeadLetterProperties;
+import com.mingyu.app.notification.model.NotificationDispatchRequest;
+import com.mingyu.app.notification.model.NotificationPriority;
+import com.mingyu.app.notification.scheduling.NotificationPriorityExecutor;
+import com.mingyu.app.notification.service.NotificationDeduplicator;
+import com.mingyu.app.notification.service.NotificationDispatcherService;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Re-drives dead letters every {@code replayIntervalMillis}, at most {@code replayBatchSize} per
+ * round and {@code maxReplaysInFlight} at once. A round is skipped while every provider circuit is
+ * open or live dispatches are queued for a worker, so replays only use spare capacity. After a
+ * failed replay the next round sends a single probe, and full rounds resume once one succeeds.
+ * Letters go out with the trigger time they were dead-lettered with, so the dispatcher's invocation
+ * window still applies: a letter whose event happened more than {@code maxAgeSeconds} ago, at most
+ * {@link NotificationDispatcherService#MAX_TRIGGER_DELAY}, is expired rather than sent.
+ */
+@Component
+public class NotificationDeadLetterReplayer {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationDeadLetterReplayer.class);
+
+    private final NotificationDeadLetterQueue queue;
+    private final NotificationDeduplicator deduplicator;
+    private final ProviderCircuitBreakerRegistry circuitBreakers;
+    private final NotificationPriorityExecutor priorityExecutor;
+    private final NotificationDeadLetterProperties properties;
+    private final Clock clock;
+    private final Duration maxAge;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile boolean probing;
+
+    public NotificationDeadLetterReplayer(
+            NotificationDeadLetterQueue queue,
+            NotificationDeduplicator deduplicator,
+            ProviderCircuitBreakerRegistry circuitBreakers,
+            NotificationPriorityExecutor priorityExecutor,
+            NotificationDeadLetterProperties properties,
+            Clock clock) {
+        this.queue = Objects.requireNonNull(queue, "queue is required");
+        this.deduplicator = Objects.requireNonNull(deduplicator, "deduplicator is required");
+        this.circuitBreakers = Objects.requireNonNull(circuitBreakers, "circuitBreakers is required");
+        this.priorityExecutor = Objects.requireNonNull(priorityExecutor, "priorityExecutor is required");
+        this.properties = Objects.requireNonNull(properties, "properties is required");
+        this.properties.validate();
+        this.maxAge = Duration.ofSeconds(properties.getMaxAgeSeconds());
+        if (maxAge.compareTo(NotificationDispatcherService.MAX_TRIGGER_DELAY) > 0) {
+            throw new IllegalArgumentException("maxAgeSeconds must not exceed the dispatcher's "
+                    + NotificationDispatcherService.MAX_TRIGGER_DELAY.toSeconds() + "s invocation window");
+        }
+        this.clock = Objects.requireNonNull(clock, "clock is required");
+    }
+
+    @Scheduled(fixedDelayString = "${notification.dead-letter.replay-interval-millis:5000}")
+    public void scheduledReplay() {
+        try {
+            replayOnce();
+        } catch (RuntimeException ex) {
+            log.error("Dead letter replay round failed", ex);
+        }
+    }
+
+    /** @return the number of letters sent for replay this round */
+    public int replayOnce() {
+        if (!properties.isReplayEnabled() || !queue.isEnabled() || queue.isEmpty()) {
+            return 0;
+        }
+        if (allCircuitsOpen() || liveWorkQueued()) {
+            return 0;
+        }
+        int permits = Math.min(probing ? 1 : properties.getReplayBatchSize(),
+                properties.getMaxReplaysInFlight() - inFlight.get());
+        Instant now = clock.instant();
+        int sent = 0;
+        while (sent < permits) {
+            NotificationDeadLetter letter = queue.poll();
+            if (letter == null) {
+                break;
+            }
+            NotificationDispatchRequest request;
+            try {
+                request = queue.decode(letter);
+            } catch (RuntimeException ex) {
+                log.error("Trace [{}] dead letter has an unreadable payload", letter.traceId(), ex);
+                queue.recordExpired(letter);
+                continue;
+            }
+            if (Duration.between(request.getOriginallyTriggeredAt(), now).compareTo(maxAge) > 0) {
+                queue.recordExpired(letter);
+                continue;
+            }
+            replay(letter, request);
+            sent++;
+        }
+        return sent;
+    }
+
+    private void replay(NotificationDeadLetter letter, NotificationDispatchRequest request) {
+        inFlight.incrementAndGet();
+        deduplicator.dispatchAsync(request, letter.traceId()).whenComplete((result, error) -> {
+            inFlight.decrementAndGet();
+            if (error == null) {
+                probing = false;
+                queue.recordReplayed(letter);
+            } else {
+                probing = true;
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                queue.requeue(letter, String.valueOf(cause.getMessage()));
+            }
+        });
+    }
+
+    private boolean allCircuitsOpen() {
+        List<ProviderCircuitBreaker> breakers = circuitBreakers.breakers();
+        return !breakers.isEmpty()
+                && breakers.stream().allMatch(breaker -> breaker.getState() == ProviderCircuitBreaker.State.OPEN);
+    }
+
+    private boolean liveWorkQueued() {
+        if (!priorityExecutor.isEnabled()) {
+            return false;
+        }
+        for (NotificationPriority priority : NotificationPriority.values()) {
+            if (priorityExecutor.queued(priority) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,11 @@
+package com.mingyu.app.notification.exception;
+
+// Implements 2.权限引导与存活看板
+
+/** Dispatch gave up because the request's delivery budget ran out before any channel confirmed. */
+public class NotificationDeadlineExceededException extends NotificationDispatchException {
+
+    public NotificationDeadlineExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,26 @@
+package com.mingyu.app.notification.exception;
+
+// Implements 2.权限引导与存活看板
+
+import com.mingyu.app.notification.model.NotificationChannel;
+
+/** A channel's outbound quota was exhausted; nothing was sent and no retry attempt was spent. */
+public class NotificationThrottledException extends NotificationDeliveryException {
+
+    private final NotificationChannel channel;
+    private final long retryAfterMillis;
+
+    public NotificationThrottledException(NotificationChannel channel, long retryAfterMillis) {
+        super("Channel " + channel + " is throttled, capacity expected in " + retryAfterMillis + " ms");
+        this.channel = channel;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public NotificationChannel getChannel() {
+        return channel;
+    }
+
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
@@ -0,0 +1,96 @@
+package com.mingyu.app.notification.metrics;
+
+// Implements 2.权限引导与存活看板
+
+import com.mingyu.app.notification.model.NotificationChannel;
+import com.mingyu.app.notification.model.NotificationEventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Dispatch meters, all registered up front per channel or event type so that recording is a map
+ * lookup by enum and a primitive update, with nothing allocated per notification.
+ */
+@Component
+public class NotificationDispatchMetrics {
+
+    private final Map<NotificationChannel, Timer> sendSuccess = new EnumMap<>(NotificationChannel.class);
+    private final Map<NotificationChannel, Timer> sendFailure = new EnumMap<>(NotificationChannel.class);
+    private final Map<NotificationChannel, DistributionSummary> attempts = new EnumMap<>(NotificationChannel.class);
+    private final Map<NotificationChannel, Timer> backoff = new EnumMap<>(NotificationChannel.class);
+    private final Map<NotificationEventType, Timer> deliveryLag = new EnumMap<>(NotificationEventType.class);
+    private final Map<NotificationEventType, Counter> windowViolations = new EnumMap<>(NotificationEventType.class);
+
+    @Autowired
+    public NotificationDispatchMetrics(MeterRegistry meterRegistry) {
+        Objects.requireNonNull(meterRegistry, "meterRegistry is required");
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            String tag = channel.name().toLowerCase(Locale.ROOT);
+            sendSuccess.put(channel, sendTimer(meterRegistry, tag, "success"));
+            sendFailure.put(channel, sendTimer(meterRegistry, tag, "failure"));
+            attempts.put(channel, DistributionSummary.builder("notification.dispatch.attempts")
+                    .description("Attempts a delivered notification needed on its channel")
+                    .tag("channel", tag)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry));
+            backoff.put(channel, Timer.builder("notification.dispatch.backoff")
+                    .description("Backoff waited between attempts")
+                    .tag("channel", tag)
+                    .register(meterRegistry));
+        }
+        for (NotificationEventType eventType : NotificationEventType.values()) {
+            String tag = eventType.name().toLowerCase(Locale.ROOT);
+            deliveryLag.put(eventType, Timer.builder("notification.dispatch.delivery.lag")
+                    .description("Time from the triggering event to confirmed delivery")
+                    .tag("event", tag)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry));
+            windowViolations.put(eventType, Counter.builder("notification.dispatch.window.violations")
+                    .description("Requests refused for arriving after the invocation window")
+                    .tag("event", tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    public void recordSend(NotificationChannel channel, long elapsedNanos, boolean delivered) {
+        (delivered ? sendSuccess : sendFailure).get(channel).record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordDelivered(
+            NotificationChannel channel,
+            NotificationEventType eventType,
+            int attempt,
+            Instant triggeredAt,
+            Instant deliveredAt) {
+        attempts.get(channel).record(attempt);
+        long lagMillis = Math.max(0L, deliveredAt.toEpochMilli() - triggeredAt.toEpochMilli());
+        deliveryLag.get(eventType).record(lagMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void recordBackoff(NotificationChannel channel, long backoffMillis) {
+        backoff.get(channel).record(backoffMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void recordWindowViolation(NotificationEventType eventType) {
+        windowViolations.get(eventType).increment();
+    }
+
+    private static Timer sendTimer(MeterRegistry meterRegistry, String channel, String outcome) {
+        return Timer.builder("notification.dispatch.send.latency")
+                .description("Time spent in the channel provider per attempt")
+                .tag("channel", channel)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+}
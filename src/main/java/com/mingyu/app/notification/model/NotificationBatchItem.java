@@ -0,0 +1,24 @@
+package com.mingyu.app.notification.model;
+
+// Implements 2.权限引导与存活看板
+
+import java.util.Objects;
+
+public final class NotificationBatchItem {
+
+    private final NotificationDispatchRequest request;
+    private final String traceId;
+
+    public NotificationBatchItem(NotificationDispatchRequest request, String traceId) {
+        this.request = Objects.requireNonNull(request, "request is required");
+        this.traceId = Objects.requireNonNull(traceId, "traceId is required");
+    }
+
+    public NotificationDispatchRequest getRequest() {
+        return request;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+}
@@ -0,0 +1,34 @@
+package com.mingyu.app.notification.model;
+
+// Implements 2.权限引导与存活看板
+
+import com.mingyu.app.notification.exception.NotificationDeliveryException;
+import java.util.Objects;
+
+/** Result of one item of a {@code sendBatch} call; outcomes are returned in item order. */
+public final class NotificationBatchOutcome {
+
+    private static final NotificationBatchOutcome DELIVERED = new NotificationBatchOutcome(null);
+
+    private final NotificationDeliveryException error;
+
+    private NotificationBatchOutcome(NotificationDeliveryException error) {
+        this.error = error;
+    }
+
+    public static NotificationBatchOutcome delivered() {
+        return DELIVERED;
+    }
+
+    public static NotificationBatchOutcome failed(NotificationDeliveryException error) {
+        return new NotificationBatchOutcome(Objects.requireNonNull(error, "error is required"));
+    }
+
+    public boolean isDelivered() {
+        return error == null;
+    }
+
+    public NotificationDeliveryException getError() {
+        return error;
+    }
+}
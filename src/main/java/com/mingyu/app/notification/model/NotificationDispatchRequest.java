@@ -2,7 +2,9 @@ package com.mingyu.app.notification.model;
 
 // Implements 2.权限引导与存活看板
 
+import java.time.Duration;
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -10,6 +12,8 @@ import java.util.Objects;
 
 public final class NotificationDispatchRequest {
 
+    public static final String ORIGINALLY_TRIGGERED_AT = "originallyTriggeredAt";
+
     private final NotificationEventType eventType;
     private final NotificationRecipient recipient;
     private final Instant triggeredAt;
@@ -44,6 +48,39 @@ public final class NotificationDispatchRequest {
         return attributes;
     }
 
+    /** When the event happened, which for a restamped request is its {@value #ORIGINALLY_TRIGGERED_AT}. */
+    public Instant getOriginallyTriggeredAt() {
+        if (attributes.get(ORIGINALLY_TRIGGERED_AT) instanceof String original) {
+            try {
+                return Instant.parse(original);
+            } catch (DateTimeParseException ignored) {
+                // Not one we wrote; the trigger time is the best we have.
+            }
+        }
+        return triggeredAt;
+    }
+
+    /**
+     * This request, or, once it is older than {@code window}, a copy triggered at {@code now}. A
+     * request picked up late, after a crash, a retry backoff or a wait in a queue, would otherwise
+     * be refused by the dispatcher's invocation window; telling the monitor late beats never
+     * telling them. The first trigger time is kept in {@value #ORIGINALLY_TRIGGERED_AT}, which is
+     * what delivery lag is measured from.
+     */
+    public NotificationDispatchRequest restampedIfOlderThan(Duration window, Instant now) {
+        if (Duration.between(triggeredAt, now).compareTo(window) <= 0) {
+            return this;
+        }
+        return builder()
+                .eventType(eventType)
+                .recipient(recipient)
+                .message(message)
+                .attributes(attributes)
+                .attribute(ORIGINALLY_TRIGGERED_AT, getOriginallyTriggeredAt().toString())
+                .triggeredAt(now)
+                .build();
+    }
+
     public static Builder builder() {
         return new Builder();
     }
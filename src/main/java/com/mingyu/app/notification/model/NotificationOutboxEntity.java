@@ -0,0 +1,199 @@
+package com.mingyu.app.notification.model;
+
+// Implements 2.权限引导与存活看板
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import java.time.Instant;
+
+/**
+ * A notification written in the same transaction as the state change that caused it. Rows stay
+ * {@code PENDING} until a relay delivers them; a claimed row is hidden from other relays by pushing
+ * {@code availableAt} out by the lease, so a relay that dies mid-batch only delays its rows.
+ */
+@Entity
+@Table(
+        name = "notification_outbox",
+        indexes = {
+                @Index(name = "idx_outbox_status_available", columnList = "status,available_at")
+        }
+)
+@TableName("notification_outbox")
+public class NotificationOutboxEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    @Column(name = "trace_id", nullable = false, length = 64)
+    @TableField("trace_id")
+    private String traceId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 32)
+    @TableField("event_type")
+    private NotificationEventType eventType;
+
+    @Column(name = "payload_json", nullable = false, columnDefinition = "TEXT")
+    @TableField("payload_json")
+    private String payloadJson;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    @TableField("status")
+    private NotificationOutboxStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    @TableField("attempts")
+    private int attempts;
+
+    @Column(name = "available_at", nullable = false)
+    @TableField("available_at")
+    private Instant availableAt;
+
+    @Column(name = "claimed_by", length = 64)
+    @TableField("claimed_by")
+    private String claimedBy;
+
+    @Column(name = "last_error", length = 512)
+    @TableField("last_error")
+    private String lastError;
+
+    @Column(name = "dispatched_at")
+    @TableField("dispatched_at")
+    private Instant dispatchedAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @TableField("created_at")
+    private Instant createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    @TableField("updated_at")
+    private Instant updatedAt;
+
+    @PrePersist
+    private void onCreate() {
+        Instant now = Instant.now();
+        if (createdAt == null) {
+            createdAt = now;
+        }
+        if (updatedAt == null) {
+            updatedAt = now;
+        }
+    }
+
+    @PreUpdate
+    private void onUpdate() {
+        updatedAt = Instant.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public void setTraceId(String traceId) {
+        this.traceId = traceId;
+    }
+
+    public NotificationEventType getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(NotificationEventType eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getPayloadJson() {
+        return payloadJson;
+    }
+
+    public void setPayloadJson(String payloadJson) {
+        this.payloadJson = payloadJson;
+    }
+
+    public NotificationOutboxStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(NotificationOutboxStatus status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getAvailableAt() {
+        return availableAt;
+    }
+
+    public void setAvailableAt(Instant availableAt) {
+        this.availableAt = availableAt;
+    }
+
+    public String getClaimedBy() {
+        return claimedBy;
+    }
+
+    public void setClaimedBy(String claimedBy) {
+        this.claimedBy = claimedBy;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public Instant getDispatchedAt() {
+        return dispatchedAt;
+    }
+
+    public void setDispatchedAt(Instant dispatchedAt) {
+        this.dispatchedAt = dispatchedAt;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,9 @@
+package com.mingyu.app.notification.model;
+
+// Implements 2.权限引导与存活看板
+
+public enum NotificationOutboxStatus {
+    PENDING,
+    DELIVERED,
+    FAILED
+}
@@ -0,0 +1,18 @@
+package com.mingyu.app.notification.model;
+
+// Implements 2.权限引导与存活看板
+
+/** Dispatch priority classes, most urgent first. */
+public enum NotificationPriority {
+    EMERGENCY,
+    HIGH,
+    NORMAL;
+
+    public static NotificationPriority of(NotificationEventType eventType) {
+        return switch (eventType) {
+            case EMERGENCY_PING -> EMERGENCY;
+            case PERMISSION_LOSS, HEARTBEAT_FAILURE -> HIGH;
+            case BEHAVIOR_ALERT -> NORMAL;
+        };
+    }
+}
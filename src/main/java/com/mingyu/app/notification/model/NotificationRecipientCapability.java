@@ -0,0 +1,23 @@
+package com.mingyu.app.notification.model;
+
+// Implements 2.权限引导与存活看板
+
+import java.util.function.Function;
+
+/** Contact details a recipient may carry; providers declare which ones they need. */
+public enum NotificationRecipientCapability {
+    DEVICE_TOKEN(NotificationRecipient::getDeviceToken),
+    PHONE_NUMBER(NotificationRecipient::getPhoneNumber),
+    WEBHOOK_URL(NotificationRecipient::getWebhookUrl);
+
+    private final Function<NotificationRecipient, String> accessor;
+
+    NotificationRecipientCapability(Function<NotificationRecipient, String> accessor) {
+        this.accessor = accessor;
+    }
+
+    public boolean isPresentOn(NotificationRecipient recipient) {
+        String value = accessor.apply(recipient);
+        return value != null && !value.isBlank();
+    }
+}
@@ -0,0 +1,31 @@
+package com.mingyu.app.notification.provider;
+
+// Implements 2.权限引导与存活看板
+
+import com.mingyu.app.notification.exception.NotificationDeliveryException;
+import com.mingyu.app.notification.model.NotificationDispatchRequest;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * A provider whose gateway call is non-blocking. Asynchronous dispatch uses {@link #sendAsync}
+ * directly, so no dispatcher thread waits on the network; {@link #send} blocks on it for the
+ * synchronous path.
+ */
+public interface AsyncNotificationChannelProvider extends NotificationChannelProvider {
+
+    /** Completes when the gateway has accepted the notification, or exceptionally with the reason it did not. */
+    CompletableFuture<Void> sendAsync(NotificationDispatchRequest request, String traceId);
+
+    @Override
+    default void send(NotificationDispatchRequest request, String traceId) {
+        try {
+            sendAsync(request, traceId).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof NotificationDeliveryException deliveryException) {
+                throw deliveryException;
+            }
+            throw new NotificationDeliveryException("Channel " + getChannel() + " failed", ex.getCause());
+        }
+    }
+}
@@ -2,8 +2,13 @@ package com.mingyu.app.notification.provider;
 
 // Implements 2.权限引导与存活看板
 
+import com.mingyu.app.notification.exception.NotificationDeliveryException;
+import com.mingyu.app.notification.model.NotificationBatchItem;
+import com.mingyu.app.notification.model.NotificationBatchOutcome;
 import com.mingyu.app.notification.model.NotificationChannel;
 import com.mingyu.app.notification.model.NotificationDispatchRequest;
+import java.util.ArrayList;
+import java.util.List;
 
 public interface NotificationChannelProvider {
 
@@ -14,4 +19,31 @@ public interface NotificationChannelProvider {
     }
 
     void send(NotificationDispatchRequest request, String traceId);
-}
\ No newline at end of file
+
+    /**
+     * Delivers several notifications in one round trip and returns one outcome per item, in item
+     * order. Providers whose gateway has a batch endpoint should override this; the default sends
+     * the items one by one, and once the calling thread is interrupted fails the rest unsent.
+     * Throwing fails every item of the batch.
+     */
+    default List<NotificationBatchOutcome> sendBatch(List<NotificationBatchItem> items) {
+        List<NotificationBatchOutcome> outcomes = new ArrayList<>(items.size());
+        for (NotificationBatchItem item : items) {
+            if (Thread.currentThread().isInterrupted()) {
+                outcomes.add(NotificationBatchOutcome.failed(new NotificationDeliveryException(
+                        "Channel " + getChannel() + " batch was interrupted before this item was sent")));
+                continue;
+            }
+            try {
+                send(item.getRequest(), item.getTraceId());
+                outcomes.add(NotificationBatchOutcome.delivered());
+            } catch (NotificationDeliveryException ex) {
+                outcomes.add(NotificationBatchOutcome.failed(ex));
+            } catch (RuntimeException ex) {
+                outcomes.add(NotificationBatchOutcome.failed(new NotificationDeliveryException(
+                        "Channel " + getChannel() + " failed with " + ex.getClass().getSimpleName(), ex)));
+            }
+        }
+        return outcomes;
+    }
+}
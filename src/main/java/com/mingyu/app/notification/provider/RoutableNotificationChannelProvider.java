@@ -0,0 +1,23 @@
+package com.mingyu.app.notification.provider;
+
+// Implements 2.权限引导与存活看板
+
+import com.mingyu.app.notification.model.NotificationEventType;
+import com.mingyu.app.notification.model.NotificationRecipientCapability;
+import java.util.Set;
+
+/**
+ * A provider that declares up front what it can deliver, so the dispatcher routes to it from a
+ * table built once at startup and never calls {@link #supports} for it. Providers that only
+ * implement {@link NotificationChannelProvider} are still asked {@link #supports} on every request.
+ */
+public interface RoutableNotificationChannelProvider extends NotificationChannelProvider {
+
+    /** Event types this provider handles; must not change after startup. */
+    Set<NotificationEventType> getSupportedEventTypes();
+
+    /** Contact details a recipient must have for this provider to reach it. */
+    default Set<NotificationRecipientCapability> getRequiredCapabilities() {
+        return Set.of();
+    }
+}
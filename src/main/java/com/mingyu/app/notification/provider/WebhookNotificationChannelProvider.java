@@ -0,0 +1,209 @@
+package com.mingyu.app.notification.provider;
+
+// Implements 2.权限引导与存活看板
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mingyu.app.notification.config.NotificationWebhookProperties;
+import com.mingyu.app.notification.exception.NotificationDeliveryException;
+import com.mingyu.app.notification.model.NotificationChannel;
+import com.mingyu.app.notification.model.NotificationDispatchRequest;
+import com.mingyu.app.notification.model.NotificationEventType;
+import com.mingyu.app.notification.model.NotificationRecipient;
+import com.mingyu.app.notification.model.NotificationRecipientCapability;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Posts notifications as JSON to the recipient's webhook URL through one shared {@link HttpClient},
+ * so connections are kept alive and, where the endpoint speaks HTTP/2, multiplexed. At most
+ * {@code maxConcurrentPerHost} requests are in flight per host; further ones wait in a bounded
+ * per-host queue without holding a thread, and fail straight away once that queue is full.
+ */
+@Component
+public class WebhookNotificationChannelProvider
+        implements RoutableNotificationChannelProvider, AsyncNotificationChannelProvider {
+
+    private static final Set<NotificationEventType> EVENT_TYPES =
+            Set.copyOf(EnumSet.allOf(NotificationEventType.class));
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final Duration requestTimeout;
+    private final int maxConcurrentPerHost;
+    private final int maxQueuedPerHost;
+    private final ConcurrentMap<String, HostSlots> hosts = new ConcurrentHashMap<>();
+
+    @Autowired
+    public WebhookNotificationChannelProvider(NotificationWebhookProperties properties, ObjectMapper objectMapper) {
+        Objects.requireNonNull(properties, "properties is required").validate();
+        this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper is required");
+        this.requestTimeout = Duration.ofMillis(properties.getRequestTimeoutMillis());
+        this.maxConcurrentPerHost = properties.getMaxConcurrentPerHost();
+        this.maxQueuedPerHost = properties.getMaxQueuedPerHost();
+        this.httpClient = HttpClient.newBuilder()
+                .version(properties.isHttp2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(properties.getConnectTimeoutMillis()))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    @Override
+    public NotificationChannel getChannel() {
+        return NotificationChannel.WEBHOOK;
+    }
+
+    @Override
+    public Set<NotificationEventType> getSupportedEventTypes() {
+        return EVENT_TYPES;
+    }
+
+    @Override
+    public Set<NotificationRecipientCapability> getRequiredCapabilities() {
+        return Set.of(NotificationRecipientCapability.WEBHOOK_URL);
+    }
+
+    @Override
+    public boolean supports(NotificationDispatchRequest request) {
+        return NotificationRecipientCapability.WEBHOOK_URL.isPresentOn(request.getRecipient());
+    }
+
+    @Override
+    public CompletableFuture<Void> sendAsync(NotificationDispatchRequest request, String traceId) {
+        URI target;
+        HttpRequest httpRequest;
+        try {
+            target = targetOf(request.getRecipient());
+            httpRequest = HttpRequest.newBuilder(target)
+                    .timeout(requestTimeout)
+                    .header("Content-Type", "application/json")
+                    .header("X-Trace-Id", traceId)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(encode(request, traceId)))
+                    .build();
+        } catch (NotificationDeliveryException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+        String host = (target.getScheme() + "://" + target.getHost()).toLowerCase(Locale.ROOT) + ":" + target.getPort();
+        HostSlots slots = hosts.computeIfAbsent(host, ignored -> new HostSlots());
+        CompletableFuture<Void> delivered = new CompletableFuture<>();
+        boolean accepted = slots.offer(() -> call(slots, target, httpRequest, delivered));
+        if (!accepted) {
+            delivered.completeExceptionally(new NotificationDeliveryException(
+                    "Webhook " + target.getHost() + " has " + maxQueuedPerHost + " requests waiting already"));
+        }
+        return delivered;
+    }
+
+    private void call(HostSlots slots, URI target, HttpRequest httpRequest, CompletableFuture<Void> delivered) {
+        CompletableFuture<HttpResponse<Void>> response;
+        try {
+            response = httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.discarding());
+        } catch (RuntimeException ex) {
+            response = CompletableFuture.failedFuture(ex);
+        }
+        // A caller that stops waiting (the dispatch deadline) aborts the exchange as well.
+        CompletableFuture<HttpResponse<Void>> exchange = response;
+        delivered.whenComplete((ignored, error) -> {
+            if (delivered.isCancelled()) {
+                exchange.cancel(true);
+            }
+        });
+        exchange.whenComplete((answer, error) -> {
+            slots.release();
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                delivered.completeExceptionally(new NotificationDeliveryException(
+                        "Webhook " + target.getHost() + " failed with " + cause.getClass().getSimpleName(), cause));
+            } else if (answer.statusCode() / 100 != 2) {
+                delivered.completeExceptionally(new NotificationDeliveryException(
+                        "Webhook " + target.getHost() + " answered " + answer.statusCode()));
+            } else {
+                delivered.complete(null);
+            }
+        });
+    }
+
+    private static URI targetOf(NotificationRecipient recipient) {
+        URI target;
+        try {
+            target = URI.create(recipient.getWebhookUrl().trim());
+        } catch (IllegalArgumentException | NullPointerException ex) {
+            throw new NotificationDeliveryException("Invalid webhook URL", ex);
+        }
+        String scheme = target.getScheme();
+        if (!("http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme)) || target.getHost() == null) {
+            throw new NotificationDeliveryException("Webhook URL must be an absolute http(s) URL");
+        }
+        return target;
+    }
+
+    private byte[] encode(NotificationDispatchRequest request, String traceId) {
+        NotificationRecipient recipient = request.getRecipient();
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("traceId", traceId);
+        json.put("eventType", request.getEventType().name());
+        json.put("triggeredAt", request.getTriggeredAt().toString());
+        json.put("monitorUserId", recipient.getMonitorUserId());
+        json.put("monitoredUserId", recipient.getMonitoredUserId());
+        json.put("message", request.getMessage());
+        json.put("attributes", request.getAttributes());
+        try {
+            return objectMapper.writeValueAsBytes(json);
+        } catch (JsonProcessingException exception) {
+            throw new NotificationDeliveryException("Failed to serialize webhook payload", exception);
+        }
+    }
+
+    /** Concurrency slots for one host; waiting requests are callbacks, not parked threads. */
+    private final class HostSlots {
+
+        private final Deque<Runnable> waiting = new ArrayDeque<>();
+        private int inFlight;
+
+        /** Starts {@code call} now if a slot is free, queues it otherwise; false if the queue is full. */
+        boolean offer(Runnable call) {
+            synchronized (this) {
+                if (inFlight >= maxConcurrentPerHost) {
+                    if (waiting.size() >= maxQueuedPerHost) {
+                        return false;
+                    }
+                    waiting.addLast(call);
+                    return true;
+                }
+                inFlight++;
+            }
+            call.run();
+            return true;
+        }
+
+        /** Hands the slot to the next waiting call, if any. */
+        void release() {
+            Runnable next;
+            synchronized (this) {
+                next = waiting.pollFirst();
+                if (next == null) {
+                    inFlight--;
+                    return;
+                }
+            }
+            next.run();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.mingyu.app.notification.queue;
+
+// Implements 2.权限引导与存活看板
+
+import com.mingyu.app.notification.config.NotificationQueueProperties;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Single-process stand-in for {@link RedisNotificationStream} with the same consumer-group
+ * semantics: entries are capped at {@code maxLength}, each group tracks what it has delivered and
+ * what is still pending per consumer, and idle pending entries can be claimed. Nothing survives a
+ * restart, so it only suits development and tests.
+ */
+@Component
+@ConditionalOnProperty(prefix = "notification.queue", name = "mode", havingValue = "memory")
+public class InMemoryNotificationStream implements NotificationStream {
+
+    private final long maxLength;
+    private final Clock clock;
+    private final NavigableMap<Long, Entry> entries = new TreeMap<>();
+    private final Map<String, Group> groups = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private long lastSequence;
+
+    public InMemoryNotificationStream(NotificationQueueProperties properties, Clock clock) {
+        Objects.requireNonNull(properties, "properties is required").validate();
+        this.maxLength = properties.getMaxLength();
+        this.clock = Objects.requireNonNull(clock, "clock is required");
+    }
+
+    @Override
+    public String append(String traceId, String payload) {
+        lock.lock();
+        try {
+            long sequence = ++lastSequence;
+            entries.put(sequence, new Entry(sequence, traceId, payload));
+            while (entries.size() > maxLength) {
+                entries.pollFirstEntry();
+            }
+            appended.signalAll();
+            return idOf(sequence);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void createGroup(String group) {
+        lock.lock();
+        try {
+            groups.putIfAbsent(group, new Group());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<NotificationStreamEntry> read(String group, String consumer, int count, Duration block)
+            throws InterruptedException {
+        long remainingNanos = block.toNanos();
+        lock.lockInterruptibly();
+        try {
+            Group state = group(group);
+            while (true) {
+                List<NotificationStreamEntry> delivered = new ArrayList<>();
+                for (Entry entry : entries.tailMap(state.lastDelivered, false).values()) {
+                    if (delivered.size() == count) {
+                        break;
+                    }
+                    state.lastDelivered = entry.sequence;
+                    state.pending.put(entry.sequence, new Pending(consumer, clock.millis(), 1));
+                    delivered.add(entry.toStreamEntry(1));
+                }
+                if (!delivered.isEmpty() || remainingNanos <= 0) {
+                    return delivered;
+                }
+                remainingNanos = appended.awaitNanos(remainingNanos);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<NotificationStreamEntry> claimIdle(String group, String consumer, Duration minIdle, int count) {
+        lock.lock();
+        try {
+            Group state = group(group);
+            long now = clock.millis();
+            List<NotificationStreamEntry> claimed = new ArrayList<>();
+            Iterator<Map.Entry<Long, Pending>> pending = state.pending.entrySet().iterator();
+            while (pending.hasNext() && claimed.size() < count) {
+                Map.Entry<Long, Pending> next = pending.next();
+                if (now - next.getValue().deliveredAtMillis < minIdle.toMillis()) {
+                    continue;
+                }
+                Entry entry = entries.get(next.getKey());
+                if (entry == null) {
+                    // Trimmed away while pending, as Redis does; nothing left to deliver.
+                    pending.remove();
+                    continue;
+                }
+                long deliveries = next.getValue().deliveries + 1;
+                next.setValue(new Pending(consumer, now, deliveries));
+                claimed.add(entry.toStreamEntry(deliveries));
+            }
+            return claimed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void acknowledge(String group, List<String> ids) {
+        lock.lock();
+        try {
+            Group state = group(group);
+            for (String id : ids) {
+                state.pending.remove(sequenceOf(id));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long pending(String group) {
+        lock.lock();
+        try {
+            return group(group).pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Entries currently held, acknowledged or not. */
+    public int length() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Group group(String group) {
+        Group state = groups.get(group);
+        if (state == null) {
+            throw new IllegalStateException("No consumer group " + group);
+        }
+        return state;
+    }
+
+    private static String idOf(long sequence) {
+        return sequence + "-0";
+    }
+
+    private static long sequenceOf(String id) {
+        int dash = id.indexOf('-');
+        return Long.parseLong(dash < 0 ? id : id.substring(0, dash));
+    }
+
+    private record Entry(long sequence, String traceId, String payload) {
+
+        NotificationStreamEntry toStreamEntry(long deliveries) {
+            return new NotificationStreamEntry(idOf(sequence), traceId, payload, deliveries);
+        }
+    }
+
+    private record Pending(String consumer, long deliveredAtMillis, long deliveries) {}
+
+    private static final class Group {
+
+        private long lastDelivered;
+        private final Map<Long, Pending> pending = new LinkedHashMap<>();
+    }
+}
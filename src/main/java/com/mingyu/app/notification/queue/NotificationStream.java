@@ -0,0 +1,32 @@
+package com.mingyu.app.notification.queue;
+
+// Implements 2.权限引导与存活看板
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * An append-only log of serialized dispatch requests, read through consumer groups: each entry
+ * goes to one consumer of a group and stays pending for it until acknowledged, so entries held by
+ * a consumer that died can be claimed by another.
+ */
+public interface NotificationStream {
+
+    /** Appends an entry and returns its id. */
+    String append(String traceId, String payload);
+
+    /** Creates {@code group} at the start of the stream; does nothing if it already exists. */
+    void createGroup(String group);
+
+    /** Up to {@code count} entries no consumer of the group has seen, waiting up to {@code block} for one. */
+    List<NotificationStreamEntry> read(String group, String consumer, int count, Duration block)
+            throws InterruptedException;
+
+    /** Takes over up to {@code count} entries left unacknowledged by any consumer for at least {@code minIdle}. */
+    List<NotificationStreamEntry> claimIdle(String group, String consumer, Duration minIdle, int count);
+
+    void acknowledge(String group, List<String> ids);
+
+    /** Entries delivered to the group and not yet acknowledged. */
+    long pending(String group);
+}
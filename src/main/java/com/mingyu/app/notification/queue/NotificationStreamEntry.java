@@ -0,0 +1,10 @@
+package com.mingyu.app.notification.queue;
+
+// Implements 2.权限引导与存活看板
+
+/**
+ * One entry as a consumer received it. {@code deliveries} counts this delivery, so it is 1 the
+ * first time an entry is read and grows each time it is claimed after a consumer failed to
+ * acknowledge it.
+ */
+public record NotificationStreamEntry(String id, String traceId, String payload, long deliveries) {}
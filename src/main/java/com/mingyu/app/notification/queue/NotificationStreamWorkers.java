@@ -0,0 +1,226 @@
+package com.mingyu.app.notification.queue;
+
+// Implements 2.权限引导与存活看板
+
+import com.mingyu.app.notification.config.NotificationQueueProperties;
+import com.mingyu.app.notification.deadletter.NotificationDeadLetterQueue;
+import com.mingyu.app.notification.model.NotificationDispatchRequest;
+import com.mingyu.app.notification.service.NotificationDeduplicator;
+import com.mingyu.app.notification.service.NotificationDispatcherService;
+import com.mingyu.app.notification.service.NotificationRequestCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consumes the {@link NotificationStream} as one member of its consumer group, so every node
+ * running workers takes a share of what the outbox relays append. An entry is acknowledged once
+ * dispatched; a failed one stays pending and is claimed again, by any node, after
+ * {@code claimIdleMillis}, which is also how entries held by a crashed node get delivered. An
+ * entry that fails its {@code maxDeliveries}-th delivery goes to the
+ * {@link NotificationDeadLetterQueue}. Does nothing without a stream, or with
+ * {@code workerThreads} set to 0 on a node that should only produce.
+ */
+@Component
+public class NotificationStreamWorkers implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationStreamWorkers.class);
+
+    private final NotificationStream stream;
+    private final NotificationDeduplicator deduplicator;
+    private final NotificationDeadLetterQueue deadLetters;
+    private final NotificationRequestCodec codec;
+    private final NotificationQueueProperties properties;
+    private final Clock clock;
+    private final String consumerPrefix;
+    private final Counter acknowledged;
+    private final Counter retried;
+    private final Counter deadLettered;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    public NotificationStreamWorkers(
+            @Nullable NotificationStream stream,
+            NotificationDeduplicator deduplicator,
+            NotificationDeadLetterQueue deadLetters,
+            NotificationRequestCodec codec,
+            NotificationQueueProperties properties,
+            Clock clock,
+            MeterRegistry meterRegistry) {
+        this.stream = stream;
+        this.deduplicator = Objects.requireNonNull(deduplicator, "deduplicator is required");
+        this.deadLetters = Objects.requireNonNull(deadLetters, "deadLetters is required");
+        this.codec = Objects.requireNonNull(codec, "codec is required");
+        this.properties = Objects.requireNonNull(properties, "properties is required");
+        this.properties.validate();
+        this.clock = Objects.requireNonNull(clock, "clock is required");
+        Objects.requireNonNull(meterRegistry, "meterRegistry is required");
+        String name = properties.getConsumerName();
+        this.consumerPrefix = name != null && !name.isBlank()
+                ? name.trim()
+                : "worker-" + UUID.randomUUID().toString().substring(0, 8);
+        this.acknowledged = outcome(meterRegistry, "acknowledged");
+        this.retried = outcome(meterRegistry, "retried");
+        this.deadLettered = outcome(meterRegistry, "dead_lettered");
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running || stream == null || properties.getWorkerThreads() == 0) {
+            return;
+        }
+        stream.createGroup(properties.getGroup());
+        running = true;
+        for (int i = 1; i <= properties.getWorkerThreads(); i++) {
+            String consumer = consumerPrefix + "-" + i;
+            Thread worker = new Thread(() -> runWorker(consumer), "notification-stream-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        workers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Takes one batch for {@code consumer}, new entries or, with {@code claim}, entries left idle
+     * by other consumers, dispatches it and acknowledges what was delivered or dead-lettered.
+     *
+     * @return the number of entries taken
+     */
+    public int consumeOnce(String consumer, boolean claim) throws InterruptedException {
+        String group = properties.getGroup();
+        List<NotificationStreamEntry> entries = claim
+                ? stream.claimIdle(group, consumer, Duration.ofMillis(properties.getClaimIdleMillis()),
+                        properties.getBatchSize())
+                : stream.read(group, consumer, properties.getBatchSize(),
+                        Duration.ofMillis(properties.getBlockMillis()));
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        Instant now = clock.instant();
+        Queue<String> done = new ConcurrentLinkedQueue<>();
+        List<CompletableFuture<?>> inFlight = new ArrayList<>(entries.size());
+        for (NotificationStreamEntry entry : entries) {
+            NotificationDispatchRequest request;
+            try {
+                request = codec.decode(entry.payload());
+            } catch (RuntimeException ex) {
+                log.error("Stream entry {} (trace {}) has an unreadable payload", entry.id(), entry.traceId(), ex);
+                done.add(entry.id());
+                continue;
+            }
+            if (entry.deliveries() > properties.getMaxDeliveries()) {
+                // Its consumer died on the last allowed delivery, so the failure was never seen.
+                deadLetter(entry, request, "Not acknowledged after " + (entry.deliveries() - 1) + " deliveries");
+                done.add(entry.id());
+                continue;
+            }
+            inFlight.add(deduplicator
+                    .dispatchAsync(request.restampedIfOlderThan(NotificationDispatcherService.MAX_TRIGGER_DELAY, now),
+                            entry.traceId())
+                    .whenComplete((result, error) -> {
+                        if (error == null) {
+                            acknowledged.increment();
+                            done.add(entry.id());
+                            return;
+                        }
+                        Throwable cause = error.getCause() != null ? error.getCause() : error;
+                        if (entry.deliveries() >= properties.getMaxDeliveries()) {
+                            deadLetter(entry, request, String.valueOf(cause.getMessage()));
+                            done.add(entry.id());
+                        } else {
+                            retried.increment();
+                            log.warn("Trace [{}] stream entry {} failed on delivery {}, left pending: {}",
+                                    entry.traceId(), entry.id(), entry.deliveries(), cause.getMessage());
+                        }
+                    }));
+        }
+        try {
+            // Past claimIdleMillis another consumer may take the entries over anyway.
+            CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new))
+                    .get(properties.getClaimIdleMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ignored) {
+            // Individual failures were handled above.
+        } catch (TimeoutException ex) {
+            log.warn("Stream consumer {} stopped waiting on {} entr(ies) after the claim idle time", consumer,
+                    entries.size() - done.size());
+        }
+        stream.acknowledge(group, List.copyOf(done));
+        return entries.size();
+    }
+
+    private void deadLetter(NotificationStreamEntry entry, NotificationDispatchRequest request, String error) {
+        deadLettered.increment();
+        deadLetters.add(request, entry.traceId(), error);
+    }
+
+    private void runWorker(String consumer) {
+        long nextClaimMillis = 0;
+        while (running) {
+            try {
+                long now = clock.millis();
+                if (now >= nextClaimMillis) {
+                    nextClaimMillis = now + properties.getClaimIdleMillis();
+                    consumeOnce(consumer, true);
+                }
+                consumeOnce(consumer, false);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Stream consumer {} failed to consume a batch", consumer, ex);
+                try {
+                    Thread.sleep(properties.getBlockMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("notification.queue.entries")
+                .description("Stream entries consumed by what became of them")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,149 @@
+package com.mingyu.app.notification.queue;
+
+// Implements 2.权限引导与存活看板
+
+import com.mingyu.app.notification.config.NotificationQueueProperties;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link NotificationStream} on a Redis stream. Appends trim the stream to about
+ * {@code maxLength} entries; reads are {@code XREADGROUP}, and idle entries are found with
+ * {@code XPENDING} and taken over with {@code XCLAIM}, which also yields their delivery count.
+ */
+@Component
+@ConditionalOnProperty(prefix = "notification.queue", name = "mode", havingValue = "redis")
+public class RedisNotificationStream implements NotificationStream {
+
+    private static final String TRACE_ID = "traceId";
+    private static final String PAYLOAD = "payload";
+
+    private final StringRedisTemplate redisTemplate;
+    private final String streamKey;
+    private final long maxLength;
+
+    public RedisNotificationStream(StringRedisTemplate redisTemplate, NotificationQueueProperties properties) {
+        this.redisTemplate = Objects.requireNonNull(redisTemplate, "redisTemplate is required");
+        Objects.requireNonNull(properties, "properties is required").validate();
+        this.streamKey = properties.getStreamKey();
+        this.maxLength = properties.getMaxLength();
+    }
+
+    @Override
+    public String append(String traceId, String payload) {
+        Map<byte[], byte[]> fields = new LinkedHashMap<>();
+        fields.put(bytes(TRACE_ID), bytes(traceId));
+        fields.put(bytes(PAYLOAD), bytes(payload));
+        MapRecord<byte[], byte[], byte[]> record = MapRecord.create(bytes(streamKey), fields);
+        // One round trip for append and trim; "~" lets Redis trim whole nodes only, which is cheap.
+        XAddOptions options = XAddOptions.maxlen(maxLength).approximateTrimming(true);
+        RecordId id = redisTemplate.execute(
+                (RedisCallback<RecordId>) connection -> connection.streamCommands().xAdd(record, options));
+        return Objects.requireNonNull(id, "XADD returned no id").getValue();
+    }
+
+    @Override
+    public void createGroup(String group) {
+        try {
+            redisTemplate.execute((RedisCallback<String>) connection ->
+                    connection.streamCommands().xGroupCreate(bytes(streamKey), group, ReadOffset.from("0-0"), true));
+        } catch (DataAccessException ex) {
+            if (!String.valueOf(ex.getMessage()).contains("BUSYGROUP")) {
+                throw ex;
+            }
+        }
+    }
+
+    @Override
+    public List<NotificationStreamEntry> read(String group, String consumer, int count, Duration block) {
+        List<MapRecord<String, Object, Object>> records = readGroup(
+                Consumer.from(group, consumer), StreamReadOptions.empty().count(count).block(block));
+        List<NotificationStreamEntry> entries = new ArrayList<>(records == null ? 0 : records.size());
+        if (records != null) {
+            records.forEach(record -> entries.add(toEntry(record, 1)));
+        }
+        return entries;
+    }
+
+    @Override
+    public List<NotificationStreamEntry> claimIdle(String group, String consumer, Duration minIdle, int count) {
+        StreamOperations<String, Object, Object> operations = operations();
+        PendingMessages pending = operations.pending(streamKey, group, Range.unbounded(), count);
+        Map<String, Long> deliveries = new HashMap<>();
+        List<RecordId> idle = new ArrayList<>();
+        for (PendingMessage message : pending) {
+            if (message.getElapsedTimeSinceLastDelivery().compareTo(minIdle) >= 0) {
+                idle.add(message.getId());
+                deliveries.put(message.getIdAsString(), message.getTotalDeliveryCount());
+            }
+        }
+        if (idle.isEmpty()) {
+            return List.of();
+        }
+        // XCLAIM re-checks the idle time, so an entry another consumer claimed meanwhile is skipped.
+        List<MapRecord<String, Object, Object>> claimed =
+                operations.claim(streamKey, group, consumer, minIdle, idle.toArray(RecordId[]::new));
+        List<NotificationStreamEntry> entries = new ArrayList<>(claimed.size());
+        for (MapRecord<String, Object, Object> record : claimed) {
+            entries.add(toEntry(record, deliveries.getOrDefault(record.getId().getValue(), 0L) + 1));
+        }
+        return entries;
+    }
+
+    @Override
+    public void acknowledge(String group, List<String> ids) {
+        if (!ids.isEmpty()) {
+            operations().acknowledge(streamKey, group, ids.toArray(String[]::new));
+        }
+    }
+
+    @Override
+    public long pending(String group) {
+        return operations().pending(streamKey, group).getTotalPendingMessages();
+    }
+
+    // StreamOperations#read only takes varargs offsets, and a one-element StreamOffset<String>[] is safe.
+    @SuppressWarnings("unchecked")
+    private List<MapRecord<String, Object, Object>> readGroup(Consumer consumer, StreamReadOptions options) {
+        return operations().read(consumer, options, StreamOffset.create(streamKey, ReadOffset.lastConsumed()));
+    }
+
+    private StreamOperations<String, Object, Object> operations() {
+        return redisTemplate.opsForStream();
+    }
+
+    private static NotificationStreamEntry toEntry(MapRecord<String, Object, Object> record, long deliveries) {
+        Map<Object, Object> fields = record.getValue();
+        return new NotificationStreamEntry(
+                record.getId().getValue(),
+                (String) fields.get(TRACE_ID),
+                (String) fields.get(PAYLOAD),
+                deliveries);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
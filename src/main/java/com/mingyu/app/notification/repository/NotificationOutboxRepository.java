@@ -0,0 +1,75 @@
+package com.mingyu.app.notification.repository;
+
+// Implements 2.权限引导与存活看板
+
+import com.mingyu.app.notification.model.NotificationOutboxEntity;
+import com.mingyu.app.notification.model.NotificationOutboxStatus;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutboxEntity, Long> {
+
+    /** Locks up to {@code limit} due rows, skipping rows another relay has locked instead of waiting on them. */
+    @Query(
+            value = """
+                    SELECT * FROM notification_outbox
+                    WHERE status = 'PENDING' AND available_at <= :now
+                    ORDER BY available_at, id
+                    LIMIT :limit
+                    FOR UPDATE SKIP LOCKED
+                    """,
+            nativeQuery = true)
+    List<NotificationOutboxEntity> lockDueBatch(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("""
+            UPDATE NotificationOutboxEntity o
+            SET o.attempts = o.attempts + 1, o.availableAt = :leaseEnd, o.claimedBy = :relayId, o.updatedAt = :now
+            WHERE o.id IN :ids
+            """)
+    int markClaimed(
+            @Param("ids") Collection<Long> ids,
+            @Param("relayId") String relayId,
+            @Param("leaseEnd") Instant leaseEnd,
+            @Param("now") Instant now);
+
+    /** Moves the lease end of rows {@code relayId} still holds without counting another attempt. */
+    @Modifying
+    @Query("""
+            UPDATE NotificationOutboxEntity o
+            SET o.availableAt = :leaseEnd, o.updatedAt = :now
+            WHERE o.id IN :ids AND o.claimedBy = :relayId
+              AND o.status = com.mingyu.app.notification.model.NotificationOutboxStatus.PENDING
+            """)
+    int extendLease(
+            @Param("ids") Collection<Long> ids,
+            @Param("relayId") String relayId,
+            @Param("leaseEnd") Instant leaseEnd,
+            @Param("now") Instant now);
+
+    @Modifying
+    @Query("""
+            UPDATE NotificationOutboxEntity o
+            SET o.status = :status, o.dispatchedAt = :dispatchedAt, o.lastError = null, o.updatedAt = :dispatchedAt
+            WHERE o.id IN :ids
+            """)
+    int markDispatched(
+            @Param("ids") Collection<Long> ids,
+            @Param("status") NotificationOutboxStatus status,
+            @Param("dispatchedAt") Instant dispatchedAt);
+
+    @Modifying
+    @Query("""
+            DELETE FROM NotificationOutboxEntity o
+            WHERE o.status = com.mingyu.app.notification.model.NotificationOutboxStatus.DELIVERED
+              AND o.dispatchedAt < :before
+            """)
+    int purgeDeliveredBefore(@Param("before") Instant before);
+
+    long countByStatus(NotificationOutboxStatus status);
+}
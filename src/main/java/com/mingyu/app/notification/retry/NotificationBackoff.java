@@ -0,0 +1,61 @@
+package com.mingyu.app.notification.retry;
+
+// Implements 2.权限引导与存活看板
+
+import com.mingyu.app.notification.config.NotificationRetryProperties;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * Delay before the next attempt on a channel, following {@link NotificationRetryProperties#getJitter()}.
+ * Properties are read on every call, so changes apply to the next retry.
+ */
+public final class NotificationBackoff {
+
+    private final NotificationRetryProperties properties;
+    private final Supplier<RandomGenerator> random;
+
+    public NotificationBackoff(NotificationRetryProperties properties) {
+        this(properties, ThreadLocalRandom::current);
+    }
+
+    NotificationBackoff(NotificationRetryProperties properties, Supplier<RandomGenerator> random) {
+        this.properties = Objects.requireNonNull(properties, "properties is required");
+        this.random = Objects.requireNonNull(random, "random is required");
+    }
+
+    /**
+     * @param attempt the attempt that just failed, counting from 1
+     * @param previousDelayMillis the delay that preceded it, or 0 before the first retry
+     */
+    public long nextDelayMillis(int attempt, long previousDelayMillis) {
+        long exponential = exponentialMillis(attempt);
+        return switch (properties.getJitter()) {
+            case NONE -> exponential;
+            case FULL -> uniform(0L, exponential);
+            case EQUAL -> exponential / 2 + uniform(0L, exponential - exponential / 2);
+            case DECORRELATED -> {
+                long base = properties.getInitialBackoffMillis();
+                long cap = properties.getMaxBackoffMillis();
+                long previous = Math.max(base, previousDelayMillis);
+                yield uniform(base, previous > cap / 3 ? cap : previous * 3);
+            }
+        };
+    }
+
+    private long exponentialMillis(int attempt) {
+        double exponent = Math.max(0, attempt - 1);
+        double rawDelay = properties.getInitialBackoffMillis() * Math.pow(properties.getMultiplier(), exponent);
+        long boundedDelay = (long) Math.min(rawDelay, properties.getMaxBackoffMillis());
+        return Math.max(0L, boundedDelay);
+    }
+
+    private long uniform(long lowerMillis, long upperMillis) {
+        if (upperMillis <= lowerMillis) {
+            return lowerMillis;
+        }
+        return random.get().nextLong(lowerMillis, upperMillis + 1);
+    }
+}
@@ -0,0 +1,94 @@
+package com.mingyu.app.notification.retry;
+
+// Implements 2.权限引导与存活看板
+
+import com.mingyu.app.notification.config.NotificationRetryProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.util.Objects;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Process-wide cap on retries, shared by every channel: within a sliding window of
+ * {@code windowSeconds}, retries may not exceed {@code percent} of the first attempts made in it
+ * plus a floor of {@code minRetriesPerSecond} per second. While a gateway is down, retries then
+ * add at most that fraction to its load instead of multiplying it by {@code maxAttempts}.
+ */
+@Component
+public class NotificationRetryBudget {
+
+    private final boolean enabled;
+    private final double ratio;
+    private final long floor;
+    private final int windowSeconds;
+    private final Clock clock;
+    private final long[] slotSeconds;
+    private final long[] firstAttempts;
+    private final long[] retries;
+    private final Counter exhausted;
+
+    @Autowired
+    public NotificationRetryBudget(NotificationRetryProperties properties, Clock clock, MeterRegistry meterRegistry) {
+        Objects.requireNonNull(properties, "properties is required").validate();
+        this.clock = Objects.requireNonNull(clock, "clock is required");
+        Objects.requireNonNull(meterRegistry, "meterRegistry is required");
+        NotificationRetryProperties.Budget budget = properties.getBudget();
+        this.enabled = budget.isEnabled();
+        this.ratio = budget.getPercent() / 100.0d;
+        this.windowSeconds = budget.getWindowSeconds();
+        this.floor = (long) budget.getMinRetriesPerSecond() * windowSeconds;
+        this.slotSeconds = new long[windowSeconds];
+        this.firstAttempts = new long[windowSeconds];
+        this.retries = new long[windowSeconds];
+        this.exhausted = Counter.builder("notification.retry.budget.exhausted")
+                .description("Retries not made because the retry budget was spent")
+                .register(meterRegistry);
+    }
+
+    /** Counts a first attempt on some channel, which earns {@code percent} of a retry. */
+    public void recordFirstAttempt() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            firstAttempts[slot(clock.millis() / 1_000L)]++;
+        }
+    }
+
+    /** Takes one retry from the budget; false, with nothing taken, when it is spent. */
+    public boolean tryAcquireRetry() {
+        if (!enabled) {
+            return true;
+        }
+        synchronized (this) {
+            long second = clock.millis() / 1_000L;
+            int current = slot(second);
+            long attempted = 0L;
+            long retried = 0L;
+            for (int i = 0; i < windowSeconds; i++) {
+                if (second - slotSeconds[i] < windowSeconds) {
+                    attempted += firstAttempts[i];
+                    retried += retries[i];
+                }
+            }
+            if (retried < floor + ratio * attempted) {
+                retries[current]++;
+                return true;
+            }
+        }
+        exhausted.increment();
+        return false;
+    }
+
+    private int slot(long second) {
+        int index = (int) Math.floorMod(second, (long) windowSeconds);
+        if (slotSeconds[index] != second) {
+            slotSeconds[index] = second;
+            firstAttempts[index] = 0L;
+            retries[index] = 0L;
+        }
+        return index;
+    }
+}
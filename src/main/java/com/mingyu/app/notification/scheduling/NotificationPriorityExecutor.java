@@ -0,0 +1,202 @@
+package com.mingyu.app.notification.scheduling;
+
+// Implements 2.权限引导与存活看板
+
+import com.mingyu.app.notification.config.NotificationPriorityProperties;
+import com.mingyu.app.notification.model.NotificationPriority;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs dispatch attempts from one FIFO queue per {@link NotificationPriority}. General workers
+ * always take emergency work first; between the other classes, every {@code agingMillis} a task
+ * has waited lifts it one class, so a steady stream of high-priority alerts cannot starve normal
+ * ones. Reserved workers only ever run emergency work, so an emergency ping starts promptly even
+ * when every general worker is busy with a backlog.
+ */
+@Component
+public class NotificationPriorityExecutor implements DisposableBean {
+
+    private final boolean enabled;
+    private final long agingNanos;
+    private final Map<NotificationPriority, Deque<QueuedTask>> queues = new EnumMap<>(NotificationPriority.class);
+    private final Map<NotificationPriority, Timer> queueWait = new EnumMap<>(NotificationPriority.class);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+    private final Condition emergencyAvailable = lock.newCondition();
+    private final List<Thread> workers = new ArrayList<>();
+    private boolean shutdown;
+
+    @Autowired
+    public NotificationPriorityExecutor(NotificationPriorityProperties properties, MeterRegistry meterRegistry) {
+        Objects.requireNonNull(properties, "properties is required").validate();
+        Objects.requireNonNull(meterRegistry, "meterRegistry is required");
+        this.enabled = properties.isEnabled();
+        this.agingNanos = TimeUnit.MILLISECONDS.toNanos(properties.getAgingMillis());
+        for (NotificationPriority priority : NotificationPriority.values()) {
+            Deque<QueuedTask> queue = new ArrayDeque<>();
+            queues.put(priority, queue);
+            String tag = priority.name().toLowerCase(Locale.ROOT);
+            queueWait.put(priority, Timer.builder("notification.dispatch.queue.wait")
+                    .description("Time a dispatch attempt waited for a worker")
+                    .tag("priority", tag)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry));
+            Gauge.builder("notification.dispatch.queue.depth", this, executor -> executor.queued(priority))
+                    .tag("priority", tag)
+                    .register(meterRegistry);
+        }
+        if (enabled) {
+            for (int i = 1; i <= properties.getWorkerThreads(); i++) {
+                startWorker("notification-worker-" + i, false);
+            }
+            for (int i = 1; i <= properties.getReservedEmergencyThreads(); i++) {
+                startWorker("notification-emergency-" + i, true);
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Future<?> submit(NotificationPriority priority, Runnable task) {
+        Objects.requireNonNull(priority, "priority is required");
+        FutureTask<Void> future = new FutureTask<>(Objects.requireNonNull(task, "task is required"), null);
+        lock.lock();
+        try {
+            if (!enabled || shutdown) {
+                throw new RejectedExecutionException("Notification executor is not accepting work");
+            }
+            queues.get(priority).addLast(new QueuedTask(priority, future, System.nanoTime()));
+            if (priority == NotificationPriority.EMERGENCY) {
+                emergencyAvailable.signal();
+            }
+            workAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+        return future;
+    }
+
+    public int queued(NotificationPriority priority) {
+        lock.lock();
+        try {
+            return queues.get(priority).size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        lock.lock();
+        try {
+            shutdown = true;
+            for (Deque<QueuedTask> queue : queues.values()) {
+                queue.forEach(queued -> queued.task.cancel(false));
+                queue.clear();
+            }
+            workAvailable.signalAll();
+            emergencyAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        workers.forEach(Thread::interrupt);
+    }
+
+    private void startWorker(String name, boolean reserved) {
+        Thread worker = new Thread(() -> runWorker(reserved), name);
+        worker.setDaemon(true);
+        workers.add(worker);
+        worker.start();
+    }
+
+    private void runWorker(boolean reserved) {
+        while (true) {
+            QueuedTask next;
+            try {
+                next = take(reserved);
+            } catch (InterruptedException ex) {
+                return;
+            }
+            if (next == null) {
+                return;
+            }
+            if (next.task.isCancelled()) {
+                continue;
+            }
+            queueWait.get(next.priority).record(System.nanoTime() - next.enqueuedNanos, TimeUnit.NANOSECONDS);
+            // FutureTask keeps any exception for the submitter; the worker carries on.
+            next.task.run();
+            // A task cancelled with interruption may leave the flag behind; it was meant for the
+            // task, not the worker. Shutdown is still seen through the shutdown flag.
+            Thread.interrupted();
+        }
+    }
+
+    private QueuedTask take(boolean reserved) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (!shutdown) {
+                QueuedTask next = reserved
+                        ? queues.get(NotificationPriority.EMERGENCY).pollFirst()
+                        : pollNext(System.nanoTime());
+                if (next != null) {
+                    return next;
+                }
+                (reserved ? emergencyAvailable : workAvailable).await();
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private QueuedTask pollNext(long now) {
+        Deque<QueuedTask> emergency = queues.get(NotificationPriority.EMERGENCY);
+        if (!emergency.isEmpty()) {
+            return emergency.pollFirst();
+        }
+        Deque<QueuedTask> chosen = null;
+        long chosenRank = Long.MAX_VALUE;
+        long chosenEnqueuedNanos = Long.MAX_VALUE;
+        for (NotificationPriority priority : NotificationPriority.values()) {
+            if (priority == NotificationPriority.EMERGENCY) {
+                continue;
+            }
+            Deque<QueuedTask> queue = queues.get(priority);
+            QueuedTask head = queue.peekFirst();
+            if (head == null) {
+                continue;
+            }
+            long rank = priority.ordinal() - (now - head.enqueuedNanos) / agingNanos;
+            if (rank < chosenRank || (rank == chosenRank && head.enqueuedNanos - chosenEnqueuedNanos < 0)) {
+                chosen = queue;
+                chosenRank = rank;
+                chosenEnqueuedNanos = head.enqueuedNanos;
+            }
+        }
+        return chosen == null ? null : chosen.pollFirst();
+    }
+
+    private record QueuedTask(NotificationPriority priority, FutureTask<Void> task, long enqueuedNanos) {}
+}
@@ -0,0 +1,223 @@
+package com.mingyu.app.notification.service;
+
+// Implements 2.权限引导与存活看板
+
+import com.mingyu.app.notification.config.NotificationBatchProperties;
+import com.mingyu.app.notification.exception.NotificationDeliveryException;
+import com.mingyu.app.notification.model.NotificationBatchItem;
+import com.mingyu.app.notification.model.NotificationBatchOutcome;
+import com.mingyu.app.notification.model.NotificationDispatchRequest;
+import com.mingyu.app.notification.provider.NotificationChannelProvider;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collects sends bound for the same provider for up to {@code lingerMillis}, or until
+ * {@code maxBatchSize} of them are waiting, and hands them to {@link NotificationChannelProvider#sendBatch}
+ * in one call. Each caller gets back a future for its own item. The linger timers run on the
+ * scheduler it is given, but the blocking {@code sendBatch} calls run on its own
+ * {@code flushThreads}, so a slow provider never holds up the timers sharing that scheduler; a
+ * batch that finds {@code maxQueuedBatches} already waiting for a flush thread fails at once.
+ * Cancelling an item's future withdraws it: it is left out if its batch has not been sent yet,
+ * and once every item of a batch in flight is cancelled the {@code sendBatch} call is interrupted.
+ */
+class NotificationBatchCoalescer {
+
+    private final NotificationBatchProperties properties;
+    private final ScheduledExecutorService timer;
+    private final ExecutorService flushExecutor;
+    private final Map<NotificationChannelProvider, ProviderQueue> queues = new ConcurrentHashMap<>();
+
+    NotificationBatchCoalescer(NotificationBatchProperties properties, ScheduledExecutorService timer) {
+        this.properties = Objects.requireNonNull(properties, "properties is required");
+        this.properties.validate();
+        this.timer = Objects.requireNonNull(timer, "timer is required");
+        this.flushExecutor = newFlushExecutor(properties);
+    }
+
+    CompletableFuture<Void> submit(
+            NotificationChannelProvider provider, NotificationDispatchRequest request, String traceId) {
+        PendingSend pending = new PendingSend(new NotificationBatchItem(request, traceId));
+        queues.computeIfAbsent(provider, ProviderQueue::new).add(pending);
+        return pending.delivered;
+    }
+
+    void shutdown() {
+        flushExecutor.shutdownNow();
+    }
+
+    private static ExecutorService newFlushExecutor(NotificationBatchProperties properties) {
+        AtomicInteger sequence = new AtomicInteger();
+        return new ThreadPoolExecutor(properties.getFlushThreads(), properties.getFlushThreads(), 0L,
+                TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(properties.getMaxQueuedBatches()), runnable -> {
+                    Thread thread = new Thread(runnable, "notification-batch-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    private static final class PendingSend {
+
+        private final NotificationBatchItem item;
+        private final CompletableFuture<Void> delivered = new CompletableFuture<>();
+
+        private PendingSend(NotificationBatchItem item) {
+            this.item = item;
+        }
+    }
+
+    /** The thread sending a batch, until every item of it has been withdrawn or the call returns. */
+    private static final class RunningBatch {
+
+        private final Thread runner = Thread.currentThread();
+        private int remaining;
+        private boolean finished;
+
+        private RunningBatch(int items) {
+            this.remaining = items;
+        }
+
+        private synchronized void withdraw() {
+            if (--remaining == 0 && !finished) {
+                runner.interrupt();
+            }
+        }
+
+        private synchronized void finish() {
+            finished = true;
+            // An interrupt meant for this batch must not reach the next one this thread sends.
+            Thread.interrupted();
+        }
+    }
+
+    private final class ProviderQueue {
+
+        private final NotificationChannelProvider provider;
+        private List<PendingSend> pending = new ArrayList<>();
+        // Identifies the batch a linger timer was armed for, so a stale timer never flushes a newer batch early.
+        private long generation;
+
+        private ProviderQueue(NotificationChannelProvider provider) {
+            this.provider = provider;
+        }
+
+        private void add(PendingSend send) {
+            List<PendingSend> full = null;
+            long armFor = -1;
+            synchronized (this) {
+                pending.add(send);
+                if (pending.size() >= properties.getMaxBatchSize()) {
+                    full = takeBatch();
+                } else if (pending.size() == 1) {
+                    armFor = generation;
+                }
+            }
+            if (full != null) {
+                submitFlush(full);
+            } else if (armFor >= 0) {
+                long batchGeneration = armFor;
+                try {
+                    timer.schedule(() -> flushLingering(batchGeneration), properties.getLingerMillis(),
+                            TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException ex) {
+                    failAll(drainIfCurrent(batchGeneration), ex);
+                }
+            }
+        }
+
+        private void flushLingering(long batchGeneration) {
+            List<PendingSend> batch = drainIfCurrent(batchGeneration);
+            if (batch != null) {
+                submitFlush(batch);
+            }
+        }
+
+        private synchronized List<PendingSend> drainIfCurrent(long batchGeneration) {
+            return generation == batchGeneration && !pending.isEmpty() ? takeBatch() : null;
+        }
+
+        private List<PendingSend> takeBatch() {
+            List<PendingSend> batch = pending;
+            pending = new ArrayList<>();
+            generation++;
+            return batch;
+        }
+
+        private void submitFlush(List<PendingSend> batch) {
+            try {
+                flushExecutor.execute(() -> flush(batch));
+            } catch (RejectedExecutionException ex) {
+                failAll(batch, ex);
+            }
+        }
+
+        private void flush(List<PendingSend> queued) {
+            List<PendingSend> batch = new ArrayList<>(queued.size());
+            List<NotificationBatchItem> items = new ArrayList<>(queued.size());
+            for (PendingSend send : queued) {
+                if (!send.delivered.isDone()) {
+                    batch.add(send);
+                    items.add(send.item);
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            RunningBatch running = new RunningBatch(batch.size());
+            for (PendingSend send : batch) {
+                send.delivered.whenComplete((ignored, error) -> {
+                    if (error instanceof CancellationException) {
+                        running.withdraw();
+                    }
+                });
+            }
+            List<NotificationBatchOutcome> outcomes;
+            try {
+                outcomes = provider.sendBatch(items);
+            } catch (RuntimeException ex) {
+                failAll(batch, ex);
+                return;
+            } finally {
+                running.finish();
+            }
+            if (outcomes == null || outcomes.size() != batch.size()) {
+                failAll(batch, new NotificationDeliveryException("Channel " + provider.getChannel()
+                        + " returned " + (outcomes == null ? 0 : outcomes.size()) + " outcomes for "
+                        + batch.size() + " items"));
+                return;
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                NotificationBatchOutcome outcome = outcomes.get(i);
+                if (outcome != null && outcome.isDelivered()) {
+                    batch.get(i).delivered.complete(null);
+                } else {
+                    batch.get(i).delivered.completeExceptionally(outcome != null
+                            ? outcome.getError()
+                            : new NotificationDeliveryException("Channel " + provider.getChannel()
+                                    + " returned no outcome for item " + i));
+                }
+            }
+        }
+
+        private void failAll(List<PendingSend> batch, RuntimeException error) {
+            if (batch == null) {
+                return;
+            }
+            for (PendingSend send : batch) {
+                send.delivered.completeExceptionally(error);
+            }
+        }
+    }
+}
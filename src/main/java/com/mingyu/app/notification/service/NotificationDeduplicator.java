@@ -0,0 +1,155 @@
+package com.mingyu.app.notification.service;
+
+// Implements 2.权限引导与存活看板
+
+import com.mingyu.app.notification.config.NotificationDedupProperties;
+import com.mingyu.app.notification.model.NotificationDispatchRequest;
+import com.mingyu.app.notification.model.NotificationDispatchResult;
+import com.mingyu.app.notification.model.NotificationEventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Sits in front of {@link NotificationDispatcherService} and collapses identical requests (same
+ * monitor, monitored user and event type) that arrive within the dedup window into the first one:
+ * duplicates are not sent again and complete with the first request's outcome. A failed dispatch
+ * closes its window so the next request is sent. {@link NotificationEventType#EMERGENCY_PING} is
+ * never deduplicated. When the key index is full of live windows, requests pass straight through.
+ */
+@Service
+public class NotificationDeduplicator {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationDeduplicator.class);
+
+    private static final long MAX_SWEEP_INTERVAL_MILLIS = 1_000;
+
+    private final NotificationDispatcherService dispatcherService;
+    private final NotificationDedupProperties properties;
+    private final Clock clock;
+    private final Map<DedupKey, Window> windows = new ConcurrentHashMap<>();
+    private final Map<NotificationEventType, Counter> suppressed = new EnumMap<>(NotificationEventType.class);
+    private final Counter overflow;
+    private final AtomicLong lastSweepMillis = new AtomicLong();
+
+    public NotificationDeduplicator(
+            NotificationDispatcherService dispatcherService,
+            NotificationDedupProperties properties,
+            Clock clock,
+            MeterRegistry meterRegistry) {
+        this.dispatcherService = Objects.requireNonNull(dispatcherService, "dispatcherService is required");
+        this.properties = Objects.requireNonNull(properties, "properties is required");
+        this.properties.validate();
+        this.clock = Objects.requireNonNull(clock, "clock is required");
+        Objects.requireNonNull(meterRegistry, "meterRegistry is required");
+        for (NotificationEventType eventType : NotificationEventType.values()) {
+            suppressed.put(eventType, Counter.builder("notification.dedup.suppressed")
+                    .tag("event", eventType.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+        this.overflow = Counter.builder("notification.dedup.overflow")
+                .description("Requests dispatched without dedup because the key index was full")
+                .register(meterRegistry);
+        Gauge.builder("notification.dedup.keys", windows, Map::size).register(meterRegistry);
+    }
+
+    public CompletableFuture<NotificationDispatchResult> dispatchAsync(
+            NotificationDispatchRequest request, String traceId) {
+        Objects.requireNonNull(request, "request is required");
+        if (!properties.isEnabled() || request.getEventType() == NotificationEventType.EMERGENCY_PING) {
+            return dispatcherService.dispatchAsync(request, traceId);
+        }
+        DedupKey key = DedupKey.of(request);
+        long now = clock.millis();
+        while (true) {
+            Window current = windows.get(key);
+            if (current != null && now < current.expiresAtMillis) {
+                suppressed.get(request.getEventType()).increment();
+                return current.result.copy();
+            }
+            if (current == null && windows.size() >= properties.getMaxKeys() && !makeRoom(now)) {
+                overflow.increment();
+                return dispatcherService.dispatchAsync(request, traceId);
+            }
+            Window opened = new Window(now + properties.getWindowMillis());
+            boolean claimed = current == null
+                    ? windows.putIfAbsent(key, opened) == null
+                    : windows.replace(key, current, opened);
+            if (claimed) {
+                send(key, opened, request, traceId);
+                return opened.result.copy();
+            }
+        }
+    }
+
+    /** Drops windows that have closed; also runs inline, rate limited, when the index fills up. */
+    @Scheduled(fixedDelayString = "${notification.dedup.window-millis:30000}")
+    public void evictExpired() {
+        long now = clock.millis();
+        lastSweepMillis.set(now);
+        windows.values().removeIf(window -> now >= window.expiresAtMillis);
+    }
+
+    int trackedKeys() {
+        return windows.size();
+    }
+
+    private void send(DedupKey key, Window window, NotificationDispatchRequest request, String traceId) {
+        CompletableFuture<NotificationDispatchResult> dispatch;
+        try {
+            dispatch = dispatcherService.dispatchAsync(request, traceId);
+        } catch (RuntimeException ex) {
+            dispatch = CompletableFuture.failedFuture(ex);
+        }
+        dispatch.whenComplete((result, error) -> {
+            if (error != null) {
+                windows.remove(key, window);
+                window.result.completeExceptionally(error);
+            } else {
+                window.result.complete(result);
+            }
+        });
+    }
+
+    private boolean makeRoom(long now) {
+        long last = lastSweepMillis.get();
+        long interval = Math.min(MAX_SWEEP_INTERVAL_MILLIS, properties.getWindowMillis());
+        if (now - last >= interval && lastSweepMillis.compareAndSet(last, now)) {
+            windows.values().removeIf(window -> now >= window.expiresAtMillis);
+            log.debug("Dedup index was full, {} windows remain after eviction", windows.size());
+        }
+        return windows.size() < properties.getMaxKeys();
+    }
+
+    private record DedupKey(Long monitorUserId, Long monitoredUserId, NotificationEventType eventType) {
+
+        static DedupKey of(NotificationDispatchRequest request) {
+            return new DedupKey(
+                    request.getRecipient().getMonitorUserId(),
+                    request.getRecipient().getMonitoredUserId(),
+                    request.getEventType());
+        }
+    }
+
+    private static final class Window {
+
+        private final long expiresAtMillis;
+        private final CompletableFuture<NotificationDispatchResult> result = new CompletableFuture<>();
+
+        private Window(long expiresAtMillis) {
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
@@ -2,118 +2,186 @@ package com.mingyu.app.notification.service;
 
 // Implements 2.权限引导与存活看板
 
+import com.mingyu.app.notification.breaker.ProviderCircuitBreaker;
+import com.mingyu.app.notification.breaker.ProviderCircuitBreakerRegistry;
+import com.mingyu.app.notification.config.NotificationBatchProperties;
+import com.mingyu.app.notification.config.NotificationHedgeProperties;
 import com.mingyu.app.notification.config.NotificationRetryProperties;
+import com.mingyu.app.notification.exception.NotificationDeadlineExceededException;
 import com.mingyu.app.notification.exception.NotificationDeliveryException;
 import com.mingyu.app.notification.exception.NotificationDispatchException;
+import com.mingyu.app.notification.exception.NotificationThrottledException;
+import com.mingyu.app.notification.metrics.NotificationDispatchMetrics;
 import com.mingyu.app.notification.model.NotificationChannel;
 import com.mingyu.app.notification.model.NotificationDispatchRequest;
 import com.mingyu.app.notification.model.NotificationDispatchResult;
+import com.mingyu.app.notification.model.NotificationPriority;
+import com.mingyu.app.notification.provider.AsyncNotificationChannelProvider;
 import com.mingyu.app.notification.provider.NotificationChannelProvider;
-import com.mingyu.app.notification.support.Sleeper;
+import com.mingyu.app.notification.retry.NotificationBackoff;
+import com.mingyu.app.notification.retry.NotificationRetryBudget;
+import com.mingyu.app.notification.scheduling.NotificationPriorityExecutor;
+import com.mingyu.app.notification.throttle.NotificationChannelThrottle;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 import org.springframework.stereotype.Service;
 
 @Service
-public class NotificationDispatcherService {
+public class NotificationDispatcherService implements DisposableBean {
 
-    private static final Duration MAX_TRIGGER_DELAY = Duration.ofSeconds(60);
+    public static final Duration MAX_TRIGGER_DELAY = Duration.ofSeconds(60);
 
     private static final Logger log = LoggerFactory.getLogger(NotificationDispatcherService.class);
 
     private final List<NotificationChannelProvider> channelProviders;
+    private final NotificationRoutingTable routingTable;
     private final NotificationRetryProperties retryProperties;
+    private final NotificationBackoff backoff;
+    private final NotificationRetryBudget retryBudget;
+    private final NotificationHedgeProperties hedgeProperties;
+    private final ProviderCircuitBreakerRegistry circuitBreakers;
     private final Clock clock;
-    private final Sleeper sleeper;
+    private final ScheduledExecutorService retryScheduler;
+    private final ScheduledExecutorService deadlineTimer;
+    private final NotificationBatchCoalescer batchCoalescer;
+    private final NotificationPriorityExecutor priorityExecutor;
+    private final NotificationChannelThrottle throttle;
+    private final NotificationDispatchMetrics metrics;
 
+    @Autowired
     public NotificationDispatcherService(
             List<NotificationChannelProvider> channelProviders,
             NotificationRetryProperties retryProperties,
-            Clock clock,
-            Sleeper sleeper) {
+            NotificationHedgeProperties hedgeProperties,
+            ProviderCircuitBreakerRegistry circuitBreakers,
+            NotificationBatchProperties batchProperties,
+            NotificationPriorityExecutor priorityExecutor,
+            NotificationChannelThrottle throttle,
+            NotificationDispatchMetrics metrics,
+            NotificationRetryBudget retryBudget,
+            Clock clock) {
         this.channelProviders = sortProviders(channelProviders);
+        this.routingTable = new NotificationRoutingTable(this.channelProviders);
         this.retryProperties = Objects.requireNonNull(retryProperties, "retryProperties is required");
         this.retryProperties.validate();
+        this.hedgeProperties = Objects.requireNonNull(hedgeProperties, "hedgeProperties is required");
+        this.hedgeProperties.validate();
+        this.circuitBreakers = Objects.requireNonNull(circuitBreakers, "circuitBreakers is required");
         this.clock = Objects.requireNonNull(clock, "clock is required");
-        this.sleeper = Objects.requireNonNull(sleeper, "sleeper is required");
+        this.retryScheduler = newScheduler("notification-dispatch-", retryProperties.getSchedulerThreads());
+        // Its own thread, so a provider call blocking every scheduler thread cannot hold a deadline back.
+        this.deadlineTimer = newScheduler("notification-deadline-", 1);
+        Objects.requireNonNull(batchProperties, "batchProperties is required");
+        this.batchCoalescer =
+                batchProperties.isEnabled() ? new NotificationBatchCoalescer(batchProperties, retryScheduler) : null;
+        this.priorityExecutor = Objects.requireNonNull(priorityExecutor, "priorityExecutor is required");
+        this.throttle = Objects.requireNonNull(throttle, "throttle is required");
+        this.metrics = Objects.requireNonNull(metrics, "metrics is required");
+        this.retryBudget = Objects.requireNonNull(retryBudget, "retryBudget is required");
+        this.backoff = new NotificationBackoff(this.retryProperties);
     }
 
-    public NotificationDispatchResult dispatch(NotificationDispatchRequest request, String traceId) {
+    /**
+     * Tries each supporting channel in order, retrying with backoff, until one confirms. Every
+     * attempt runs on the retry scheduler and backoff is a scheduled delay, so the caller never
+     * blocks. Everything happens before the request's deadline, {@code triggeredAt} plus
+     * {@link #MAX_TRIGGER_DELAY}: a retry or the next channel is only tried if it can start in
+     * time, and whatever is still running when the deadline passes is interrupted. With hedging
+     * enabled, the next supporting channel also starts whenever the channels already running have
+     * not confirmed within the hedge delay; the first success wins and the remaining attempts are
+     * cancelled. With batching enabled, attempts bound for the same provider are coalesced into
+     * {@link NotificationChannelProvider#sendBatch} calls, except for
+     * {@link AsyncNotificationChannelProvider}s, which are handed each attempt without blocking a
+     * worker. With the priority executor enabled, attempts run on its workers in
+     * {@link NotificationPriority} order and the retry scheduler only keeps time. An attempt whose
+     * channel is out of quota is deferred until the throttle has a token, without spending a
+     * retry; if that is too far away the channel is given up with a
+     * {@link NotificationThrottledException}. Failures complete the future with a
+     * {@link NotificationDispatchException}; once the deadline passes, with a
+     * {@link NotificationDeadlineExceededException}.
+     */
+    public CompletableFuture<NotificationDispatchResult> dispatchAsync(
+            NotificationDispatchRequest request, String traceId) {
         NotificationDispatchRequest safeRequest = Objects.requireNonNull(request, "request is required");
         String safeTraceId = traceId == null || traceId.isBlank() ? UUID.randomUUID().toString() : traceId;
-        guardTriggerWindow(safeRequest.getTriggeredAt(), safeTraceId);
-
-        if (channelProviders.isEmpty()) {
-            throw new NotificationDispatchException("No notification channel providers configured");
-        }
-
-        NotificationDeliveryException lastError = null;
-        boolean providerMatched = false;
-
-        for (NotificationChannelProvider provider : channelProviders) {
-            if (!provider.supports(safeRequest)) {
-                continue;
+        try {
+            guardTriggerWindow(safeRequest, safeTraceId);
+            if (channelProviders.isEmpty()) {
+                throw new NotificationDispatchException("No notification channel providers configured");
             }
-
-            providerMatched = true;
-            NotificationChannel channel =
-                    Objects.requireNonNull(provider.getChannel(), "Notification channel must not be null");
-
-            for (int attempt = 1; attempt <= retryProperties.getMaxAttempts(); attempt++) {
-                try {
-                    provider.send(safeRequest, safeTraceId);
-                    log.info(
-                            "Trace [{}] delivered {} notification via {} after {} attempt(s)",
-                            safeTraceId,
-                            safeRequest.getEventType(),
-                            channel,
-                            attempt);
-                    return NotificationDispatchResult.success(channel, attempt, safeTraceId, clock.instant());
-                } catch (RuntimeException ex) {
-                    lastError = asDeliveryException(channel, ex);
-                    log.warn(
-                            "Trace [{}] attempt {}/{} failed on channel {} - {}",
-                            safeTraceId,
-                            attempt,
-                            retryProperties.getMaxAttempts(),
-                            channel,
-                            lastError.getMessage());
-                    if (attempt < retryProperties.getMaxAttempts()) {
-                        waitForNextAttempt(channel, attempt);
-                    }
-                }
+            List<NotificationChannelProvider> candidates = routingTable.select(safeRequest);
+            if (candidates.isEmpty()) {
+                throw new NotificationDispatchException(
+                        "No notification channel provider can handle event " + safeRequest.getEventType(), null);
             }
+            AsyncDispatch dispatch =
+                    new AsyncDispatch(safeRequest, safeTraceId, candidates, deadlineNanos(safeRequest));
+            dispatch.armDeadline();
+            dispatch.startNextLane();
+            return dispatch.result;
+        } catch (NotificationDispatchException ex) {
+            return CompletableFuture.failedFuture(ex);
         }
+    }
 
-        if (!providerMatched) {
-            throw new NotificationDispatchException(
-                    "No notification channel provider can handle event " + safeRequest.getEventType(), lastError);
+    @Override
+    public void destroy() {
+        retryScheduler.shutdownNow();
+        deadlineTimer.shutdownNow();
+        if (batchCoalescer != null) {
+            batchCoalescer.shutdown();
         }
+    }
 
-        if (lastError == null) {
-            lastError = new NotificationDeliveryException("All channels failed without providing an error");
+    /**
+     * Blocking form of {@link #dispatchAsync}: waits for the dispatch to finish and throws what it
+     * failed with, a {@link NotificationDispatchException} or its
+     * {@link NotificationDeadlineExceededException} subtype.
+     */
+    public NotificationDispatchResult dispatch(NotificationDispatchRequest request, String traceId) {
+        try {
+            return dispatchAsync(request, traceId).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw ex;
         }
-
-        throw new NotificationDispatchException(
-                "Unable to deliver notification for trace " + safeTraceId, lastError);
     }
 
-    private void guardTriggerWindow(Instant triggeredAt, String traceId) {
-        Instant safeTriggeredAt = Objects.requireNonNull(triggeredAt, "triggeredAt is required");
+    private void guardTriggerWindow(NotificationDispatchRequest request, String traceId) {
+        Instant safeTriggeredAt = Objects.requireNonNull(request.getTriggeredAt(), "triggeredAt is required");
         Instant now = clock.instant();
         Duration delay = Duration.between(safeTriggeredAt, now);
         if (delay.isNegative()) {
             return;
         }
         if (delay.compareTo(MAX_TRIGGER_DELAY) > 0) {
+            metrics.recordWindowViolation(request.getEventType());
             throw new NotificationDispatchException(
                     "Trace "
                             + traceId
@@ -124,26 +192,59 @@ public class NotificationDispatcherService {
         }
     }
 
-    private void waitForNextAttempt(NotificationChannel channel, int attempt) {
-        long sleepMillis = computeBackoffMillis(attempt);
-        if (sleepMillis <= 0) {
-            return;
+    private static NotificationDeliveryException skipOpenCircuit(
+            NotificationChannel channel, String traceId, NotificationDeliveryException lastError) {
+        log.warn("Trace [{}] skipping channel {} - circuit open", traceId, channel);
+        return lastError != null ? lastError : new NotificationDeliveryException("Circuit open for channel " + channel);
+    }
+
+    /**
+     * When the request's delivery budget runs out, on the {@link System#nanoTime} scale: its
+     * {@code triggeredAt} plus {@link #MAX_TRIGGER_DELAY}. A {@code triggeredAt} ahead of this
+     * host's clock counts as now.
+     */
+    private long deadlineNanos(NotificationDispatchRequest request) {
+        Instant now = clock.instant();
+        Instant triggeredAt = request.getTriggeredAt().isAfter(now) ? now : request.getTriggeredAt();
+        return System.nanoTime() + Duration.between(now, triggeredAt.plus(MAX_TRIGGER_DELAY)).toNanos();
+    }
+
+    private static NotificationDeadlineExceededException deadlineExceeded(
+            String traceId, NotificationDeliveryException lastError) {
+        return new NotificationDeadlineExceededException(
+                "Trace " + traceId + " ran out of its " + MAX_TRIGGER_DELAY.toSeconds() + "s delivery budget",
+                lastError);
+    }
+
+    private static long toMillisRoundedUp(long nanos) {
+        return (nanos + 999_999L) / 1_000_000L;
+    }
+
+    /**
+     * Whether a retry after {@code delayMillis} can still start before the deadline and fits in
+     * the retry budget; a retry that passes is charged to the budget.
+     */
+    private boolean mayRetry(NotificationChannel channel, String traceId, long delayMillis, long deadlineNanos) {
+        if (System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis) - deadlineNanos >= 0) {
+            log.warn("Trace [{}] no time left to retry channel {}", traceId, channel);
+            return false;
         }
-        try {
-            sleeper.sleep(sleepMillis);
-        } catch (InterruptedException interruptedException) {
-            Thread.currentThread().interrupt();
-            throw new NotificationDispatchException(
-                    "Retry interrupted for channel " + channel + " on attempt " + (attempt + 1), interruptedException);
+        if (!retryBudget.tryAcquireRetry()) {
+            log.warn("Trace [{}] retry budget spent, not retrying channel {}", traceId, channel);
+            return false;
         }
+        return true;
     }
 
-    private long computeBackoffMillis(int attempt) {
-        double exponent = Math.max(0, attempt - 1);
-        double rawDelay =
-                retryProperties.getInitialBackoffMillis() * Math.pow(retryProperties.getMultiplier(), exponent);
-        long boundedDelay = (long) Math.min(rawDelay, retryProperties.getMaxBackoffMillis());
-        return Math.max(0L, boundedDelay);
+    private static ScheduledExecutorService newScheduler(String namePrefix, int threads) {
+        AtomicInteger sequence = new AtomicInteger();
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(threads, runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
     }
 
     private NotificationDeliveryException asDeliveryException(NotificationChannel channel, RuntimeException exception) {
@@ -162,4 +263,252 @@ public class NotificationDispatcherService {
         AnnotationAwareOrderComparator.sort(copy);
         return List.copyOf(copy);
     }
-}
\ No newline at end of file
+
+    /**
+     * One asynchronous dispatch. Each supporting provider is a lane that retries on its own; lanes
+     * start in provider order, either when the previous lane gives up or, when hedging, once the
+     * hedge delay passes without a success. Whatever is still running when the deadline passes is
+     * cancelled, interrupting providers blocked in a call.
+     */
+    private final class AsyncDispatch {
+
+        private final NotificationDispatchRequest request;
+        private final String traceId;
+        private final NotificationPriority priority;
+        private final List<NotificationChannelProvider> candidates;
+        private final long deadlineNanos;
+        private final long[] laneBackoffMillis;
+        private final CompletableFuture<NotificationDispatchResult> result = new CompletableFuture<>();
+        private final Queue<Future<?>> pendingTasks = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger startedLanes = new AtomicInteger();
+        private final AtomicInteger runningLanes = new AtomicInteger();
+        private final AtomicBoolean delivered = new AtomicBoolean();
+        private volatile NotificationDeliveryException lastError;
+
+        private AsyncDispatch(
+                NotificationDispatchRequest request,
+                String traceId,
+                List<NotificationChannelProvider> candidates,
+                long deadlineNanos) {
+            this.request = request;
+            this.traceId = traceId;
+            this.priority = NotificationPriority.of(request.getEventType());
+            this.candidates = candidates;
+            this.deadlineNanos = deadlineNanos;
+            this.laneBackoffMillis = new long[candidates.size()];
+            // Whoever completes the result, stop every attempt and hedge timer still queued. Only
+            // the deadline interrupts attempts already running; anywhere else the completing
+            // thread may be one of them.
+            result.whenComplete((ignored, error) -> {
+                boolean interrupt = error instanceof NotificationDeadlineExceededException;
+                Future<?> task;
+                while ((task = pendingTasks.poll()) != null) {
+                    task.cancel(interrupt);
+                }
+            });
+        }
+
+        private void armDeadline() {
+            try {
+                Future<?> timer = deadlineTimer.schedule(
+                        () -> result.completeExceptionally(deadlineExceeded(traceId, lastError)),
+                        deadlineNanos - System.nanoTime(),
+                        TimeUnit.NANOSECONDS);
+                result.whenComplete((ignored, error) -> timer.cancel(false));
+            } catch (RejectedExecutionException ex) {
+                result.completeExceptionally(new NotificationDispatchException(
+                        "Dispatcher is shutting down, trace " + traceId + " was not delivered", null));
+            }
+        }
+
+        private boolean fitsBeforeDeadline(long delayNanos) {
+            return System.nanoTime() + delayNanos - deadlineNanos < 0;
+        }
+
+        private void startNextLane() {
+            // Count the lane as running before claiming it, so a lane giving up concurrently never
+            // sees zero running lanes while this one is about to start.
+            runningLanes.incrementAndGet();
+            int lane;
+            do {
+                lane = startedLanes.get();
+                if (lane >= candidates.size()) {
+                    releaseLane();
+                    return;
+                }
+            } while (!startedLanes.compareAndSet(lane, lane + 1));
+            int startedLane = lane;
+            schedule(() -> attempt(startedLane, 1), 0L);
+            if (hedgeProperties.isEnabled() && startedLane + 1 < candidates.size()) {
+                schedule(() -> {
+                    if (startedLanes.get() == startedLane + 1) {
+                        log.info("Trace [{}] hedging to channel #{} after {} ms",
+                                traceId, startedLane + 2, hedgeProperties.getDelayMillis());
+                        startNextLane();
+                    }
+                }, hedgeProperties.getDelayMillis());
+            }
+        }
+
+        private void releaseLane() {
+            if (runningLanes.decrementAndGet() == 0 && startedLanes.get() >= candidates.size()) {
+                result.completeExceptionally(new NotificationDispatchException(
+                        "Unable to deliver notification for trace " + traceId, lastError));
+            }
+        }
+
+        private void schedule(Runnable task, long delayMillis) {
+            if (result.isDone()) {
+                return;
+            }
+            Runnable guarded = () -> {
+                try {
+                    task.run();
+                } catch (RuntimeException ex) {
+                    // The executor would swallow this and leave the caller waiting forever.
+                    result.completeExceptionally(ex);
+                }
+            };
+            try {
+                if (!priorityExecutor.isEnabled()) {
+                    track(retryScheduler.schedule(guarded, delayMillis, TimeUnit.MILLISECONDS));
+                } else if (delayMillis <= 0) {
+                    track(priorityExecutor.submit(priority, guarded));
+                } else {
+                    track(retryScheduler.schedule(() -> schedule(task, 0L), delayMillis, TimeUnit.MILLISECONDS));
+                }
+            } catch (RejectedExecutionException ex) {
+                result.completeExceptionally(new NotificationDispatchException(
+                        "Dispatcher is shutting down, trace " + traceId + " was not delivered", lastError));
+            }
+        }
+
+        private void track(Future<?> task) {
+            pendingTasks.add(task);
+            pendingTasks.removeIf(Future::isDone);
+        }
+
+        private void attempt(int lane, int attempt) {
+            attempt(lane, attempt, 0L);
+        }
+
+        private void attempt(int lane, int attempt, long throttledNanos) {
+            if (result.isDone()) {
+                return;
+            }
+            NotificationChannelProvider provider = candidates.get(lane);
+            NotificationChannel channel =
+                    Objects.requireNonNull(provider.getChannel(), "Notification channel must not be null");
+            long waitNanos;
+            try {
+                waitNanos = throttle.acquire(channel, throttledNanos);
+            } catch (NotificationThrottledException ex) {
+                lastError = ex;
+                log.warn("Trace [{}] skipping channel {} - {}", traceId, channel, ex.getMessage());
+                startNextLane();
+                releaseLane();
+                return;
+            }
+            if (waitNanos > 0 && !fitsBeforeDeadline(waitNanos)) {
+                lastError = new NotificationThrottledException(channel, toMillisRoundedUp(waitNanos));
+                log.warn("Trace [{}] skipping channel {} - {}", traceId, channel, lastError.getMessage());
+                startNextLane();
+                releaseLane();
+                return;
+            }
+            if (waitNanos > 0) {
+                schedule(() -> attempt(lane, attempt, throttledNanos + waitNanos), toMillisRoundedUp(waitNanos));
+                return;
+            }
+            ProviderCircuitBreaker breaker = circuitBreakers.breakerFor(provider);
+            if (!breaker.tryAcquirePermission()) {
+                lastError = skipOpenCircuit(channel, traceId, lastError);
+                startNextLane();
+                releaseLane();
+                return;
+            }
+            if (attempt == 1) {
+                retryBudget.recordFirstAttempt();
+            }
+            long startedAt = System.nanoTime();
+            CompletableFuture<Void> sent;
+            if (provider instanceof AsyncNotificationChannelProvider asyncProvider) {
+                // Non-blocking providers manage their own connections; batching would only add delay.
+                try {
+                    sent = asyncProvider.sendAsync(request, traceId);
+                    track(sent);
+                } catch (RuntimeException ex) {
+                    sent = CompletableFuture.failedFuture(ex);
+                }
+            } else if (batchCoalescer != null) {
+                sent = batchCoalescer.submit(provider, request, traceId);
+                track(sent);
+            } else {
+                try {
+                    provider.send(request, traceId);
+                    sent = CompletableFuture.completedFuture(null);
+                } catch (RuntimeException ex) {
+                    sent = CompletableFuture.failedFuture(ex);
+                }
+            }
+            sent.whenComplete((ignored, error) -> {
+                try {
+                    onSent(lane, attempt, channel, breaker, System.nanoTime() - startedAt, error);
+                } catch (RuntimeException ex) {
+                    result.completeExceptionally(ex);
+                }
+            });
+        }
+
+        private void onSent(
+                int lane,
+                int attempt,
+                NotificationChannel channel,
+                ProviderCircuitBreaker breaker,
+                long elapsedNanos,
+                Throwable error) {
+            if (error == null) {
+                breaker.onSuccess(elapsedNanos);
+                metrics.recordSend(channel, elapsedNanos, true);
+                Instant deliveredAt = clock.instant();
+                // Only the first lane to confirm counts, and it is recorded before the caller can see it.
+                if (!result.isDone() && delivered.compareAndSet(false, true)) {
+                    metrics.recordDelivered(channel, request.getEventType(), attempt,
+                            request.getOriginallyTriggeredAt(), deliveredAt);
+                    log.info(
+                            "Trace [{}] delivered {} notification via {} after {} attempt(s)",
+                            traceId,
+                            request.getEventType(),
+                            channel,
+                            attempt);
+                    result.complete(NotificationDispatchResult.success(channel, attempt, traceId, deliveredAt));
+                }
+                return;
+            }
+            breaker.onError(elapsedNanos);
+            metrics.recordSend(channel, elapsedNanos, false);
+            lastError = asDeliveryException(channel, error instanceof RuntimeException runtime
+                    ? runtime
+                    : new IllegalStateException(error));
+            log.warn(
+                    "Trace [{}] attempt {}/{} failed on channel {} - {}",
+                    traceId,
+                    attempt,
+                    retryProperties.getMaxAttempts(),
+                    channel,
+                    lastError.getMessage());
+            if (attempt < retryProperties.getMaxAttempts()
+                    && breaker.getState() != ProviderCircuitBreaker.State.OPEN) {
+                long backoffMillis = backoff.nextDelayMillis(attempt, laneBackoffMillis[lane]);
+                if (mayRetry(channel, traceId, backoffMillis, deadlineNanos)) {
+                    laneBackoffMillis[lane] = backoffMillis;
+                    metrics.recordBackoff(channel, backoffMillis);
+                    schedule(() -> attempt(lane, attempt + 1), backoffMillis);
+                    return;
+                }
+            }
+            startNextLane();
+            releaseLane();
+        }
+    }
+}
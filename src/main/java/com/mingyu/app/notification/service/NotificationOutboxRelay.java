@@ -0,0 +1,245 @@
+package com.mingyu.app.notification.service;
+
+// Implements 2.权限引导与存活看板
+
+import com.mingyu.app.notification.config.NotificationOutboxProperties;
+import com.mingyu.app.notification.deadletter.NotificationDeadLetterQueue;
+import com.mingyu.app.notification.model.NotificationDispatchRequest;
+import com.mingyu.app.notification.model.NotificationDispatchResult;
+import com.mingyu.app.notification.model.NotificationOutboxEntity;
+import com.mingyu.app.notification.queue.NotificationStream;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves outbox rows to the dispatcher. Each worker thread claims a batch in a short transaction,
+ * dispatches it with no transaction or connection held, then records the outcomes; concurrent
+ * workers, in this process or another, never claim the same row. Rows the outbox gives up on
+ * after their last attempt go to the {@link NotificationDeadLetterQueue}. With a
+ * {@link NotificationStream} configured the relay only appends claimed rows to the stream and
+ * leaves dispatching to the {@code NotificationStreamWorkers} of every node.
+ */
+@Component
+public class NotificationOutboxRelay implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationOutboxRelay.class);
+
+    private final NotificationOutboxService outboxService;
+    private final NotificationDeduplicator deduplicator;
+    private final NotificationDeadLetterQueue deadLetters;
+    private final NotificationStream stream;
+    private final NotificationOutboxProperties properties;
+    private final Clock clock;
+    private final String instanceId = UUID.randomUUID().toString().substring(0, 8);
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    /** A null {@code stream} dispatches claimed rows from this node, as in direct mode. */
+    public NotificationOutboxRelay(
+            NotificationOutboxService outboxService,
+            NotificationDeduplicator deduplicator,
+            NotificationDeadLetterQueue deadLetters,
+            @Nullable NotificationStream stream,
+            NotificationOutboxProperties properties,
+            Clock clock) {
+        this.stream = stream;
+        this.outboxService = Objects.requireNonNull(outboxService, "outboxService is required");
+        this.deduplicator = Objects.requireNonNull(deduplicator, "deduplicator is required");
+        this.deadLetters = Objects.requireNonNull(deadLetters, "deadLetters is required");
+        this.properties = Objects.requireNonNull(properties, "properties is required");
+        this.properties.validate();
+        this.clock = Objects.requireNonNull(clock, "clock is required");
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running || !properties.isRelayEnabled()) {
+            return;
+        }
+        running = true;
+        for (int i = 1; i <= properties.getRelayThreads(); i++) {
+            String relayId = "relay-" + instanceId + "-" + i;
+            Thread worker = new Thread(() -> runWorker(relayId), "notification-outbox-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        workers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Claims one batch for {@code relayId}, dispatches it and records every outcome that arrives
+     * within the lease. Rows still in flight when the lease ends get one more lease, which outlasts
+     * the dispatcher's {@link NotificationDispatcherService#MAX_TRIGGER_DELAY} once the lease is at
+     * least half of it, and have their outcome recorded as soon as it arrives, so no other relay
+     * dispatches them again in the meantime.
+     *
+     * @return the number of rows claimed
+     */
+    public int relayOnce(String relayId) throws InterruptedException {
+        List<NotificationOutboxEntity> rows = outboxService.claimDue(relayId, properties.getBatchSize());
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        if (stream != null) {
+            return appendToStream(relayId, rows);
+        }
+        Instant now = clock.instant();
+        Map<Long, Dispatched> dispatched = new LinkedHashMap<>();
+        for (NotificationOutboxEntity row : rows) {
+            Long id = row.getId();
+            NotificationDispatchRequest request;
+            try {
+                request = outboxService.decode(row)
+                        .restampedIfOlderThan(NotificationDispatcherService.MAX_TRIGGER_DELAY, now);
+            } catch (RuntimeException ex) {
+                log.error("Outbox row {} (trace {}) has an unreadable payload", id, row.getTraceId(), ex);
+                outboxService.markFailed(id, "Unreadable payload: " + ex.getMessage(), false);
+                continue;
+            }
+            dispatched.put(id, new Dispatched(row.getTraceId(), request,
+                    deduplicator.dispatchAsync(request, row.getTraceId())));
+        }
+        try {
+            CompletableFuture.allOf(dispatched.values().stream()
+                            .map(Dispatched::outcome)
+                            .toArray(CompletableFuture[]::new))
+                    .get(properties.getLeaseSeconds(), TimeUnit.SECONDS);
+        } catch (ExecutionException | TimeoutException ignored) {
+            // Each row's outcome is read below.
+        }
+        List<Long> delivered = new ArrayList<>(dispatched.size());
+        List<Long> late = new ArrayList<>();
+        dispatched.forEach((id, given) -> {
+            if (!given.outcome().isDone()) {
+                late.add(id);
+                return;
+            }
+            Throwable error = given.outcome().handle((result, failure) -> failure).join();
+            if (error == null) {
+                delivered.add(id);
+            } else {
+                recordFailure(id, given, error);
+            }
+        });
+        outboxService.markDelivered(delivered);
+        if (!late.isEmpty()) {
+            log.warn("Outbox relay {} extends the lease of {} row(s) still in flight", relayId, late.size());
+            outboxService.extendLease(late, relayId);
+            for (Long id : late) {
+                Dispatched given = dispatched.get(id);
+                given.outcome().whenComplete((result, error) -> {
+                    if (error == null) {
+                        outboxService.markDelivered(List.of(id));
+                    } else {
+                        recordFailure(id, given, error);
+                    }
+                });
+            }
+        }
+        return rows.size();
+    }
+
+    private void recordFailure(Long id, Dispatched given, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        String message = String.valueOf(cause.getMessage());
+        if (outboxService.markFailed(id, message, true)) {
+            deadLetters.add(given.request(), given.traceId(), message);
+        }
+    }
+
+    /**
+     * Hands every claimed row to the stream. A row counts as delivered once appended; from then on
+     * the stream's consumer group retries it and dead-letters it when it keeps failing.
+     */
+    private int appendToStream(String relayId, List<NotificationOutboxEntity> rows) {
+        List<Long> appended = new ArrayList<>(rows.size());
+        for (NotificationOutboxEntity row : rows) {
+            try {
+                stream.append(row.getTraceId(), row.getPayloadJson());
+                appended.add(row.getId());
+            } catch (RuntimeException ex) {
+                log.warn("Outbox relay {} failed to append row {} (trace {}) to the stream", relayId,
+                        row.getId(), row.getTraceId(), ex);
+                String error = "Stream append failed: " + ex.getMessage();
+                if (outboxService.markFailed(row.getId(), error, true)) {
+                    deadLetters.add(outboxService.decode(row), row.getTraceId(), error);
+                }
+            }
+        }
+        outboxService.markDelivered(appended);
+        return rows.size();
+    }
+
+    @Scheduled(cron = "0 17 * * * *")
+    public void purgeDelivered() {
+        int purged = outboxService.purgeDelivered();
+        if (purged > 0) {
+            log.info("Purged {} delivered outbox row(s)", purged);
+        }
+    }
+
+    private void runWorker(String relayId) {
+        while (running) {
+            try {
+                if (relayOnce(relayId) == 0) {
+                    Thread.sleep(properties.getPollIntervalMillis());
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Outbox relay {} failed to relay a batch", relayId, ex);
+                try {
+                    Thread.sleep(properties.getPollIntervalMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private record Dispatched(
+            String traceId,
+            NotificationDispatchRequest request,
+            CompletableFuture<NotificationDispatchResult> outcome) {}
+}
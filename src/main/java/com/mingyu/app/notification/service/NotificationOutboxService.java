@@ -0,0 +1,124 @@
+package com.mingyu.app.notification.service;
+
+// Implements 2.权限引导与存活看板
+
+import com.mingyu.app.notification.config.NotificationOutboxProperties;
+import com.mingyu.app.notification.model.NotificationDispatchRequest;
+import com.mingyu.app.notification.model.NotificationOutboxEntity;
+import com.mingyu.app.notification.model.NotificationOutboxStatus;
+import com.mingyu.app.notification.repository.NotificationOutboxRepository;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Transactional
+public class NotificationOutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 512;
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationRequestCodec codec;
+    private final NotificationOutboxProperties properties;
+    private final Clock clock;
+
+    public NotificationOutboxService(
+            NotificationOutboxRepository outboxRepository,
+            NotificationRequestCodec codec,
+            NotificationOutboxProperties properties,
+            Clock clock) {
+        this.outboxRepository = Objects.requireNonNull(outboxRepository, "outboxRepository is required");
+        this.codec = Objects.requireNonNull(codec, "codec is required");
+        this.properties = Objects.requireNonNull(properties, "properties is required");
+        this.properties.validate();
+        this.clock = Objects.requireNonNull(clock, "clock is required");
+    }
+
+    /**
+     * Records the notification in the caller's transaction, so it is stored exactly when the state
+     * change that caused it commits. Calling this outside a transaction is a bug and fails fast.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public NotificationOutboxEntity enqueue(NotificationDispatchRequest request, String traceId) {
+        NotificationDispatchRequest safeRequest = Objects.requireNonNull(request, "request is required");
+        NotificationOutboxEntity row = new NotificationOutboxEntity();
+        row.setTraceId(traceId == null || traceId.isBlank() ? UUID.randomUUID().toString() : traceId);
+        row.setEventType(safeRequest.getEventType());
+        row.setPayloadJson(codec.encode(safeRequest));
+        row.setStatus(NotificationOutboxStatus.PENDING);
+        row.setAvailableAt(clock.instant());
+        return outboxRepository.save(row);
+    }
+
+    /**
+     * Claims up to {@code limit} due rows for {@code relayId}. Rows locked by a concurrent claim are
+     * skipped rather than waited on; claimed rows stay invisible to other relays for the lease.
+     */
+    public List<NotificationOutboxEntity> claimDue(String relayId, int limit) {
+        Instant now = clock.instant();
+        Instant leaseEnd = now.plusSeconds(properties.getLeaseSeconds());
+        List<NotificationOutboxEntity> rows = outboxRepository.lockDueBatch(now, limit);
+        if (!rows.isEmpty()) {
+            // One statement for the whole batch instead of a dirty-checked update per row.
+            List<Long> ids = rows.stream().map(NotificationOutboxEntity::getId).toList();
+            outboxRepository.markClaimed(ids, relayId, leaseEnd, now);
+        }
+        return rows;
+    }
+
+    /** Keeps rows {@code relayId} is still dispatching invisible to other relays for another lease. */
+    public void extendLease(Collection<Long> ids, String relayId) {
+        if (!ids.isEmpty()) {
+            Instant now = clock.instant();
+            outboxRepository.extendLease(ids, relayId, now.plusSeconds(properties.getLeaseSeconds()), now);
+        }
+    }
+
+    public void markDelivered(Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            outboxRepository.markDispatched(ids, NotificationOutboxStatus.DELIVERED, clock.instant());
+        }
+    }
+
+    /**
+     * Schedules another attempt, or gives the row up once it is not retryable or out of attempts.
+     *
+     * @return true if the row was given up
+     */
+    public boolean markFailed(Long id, String error, boolean retryable) {
+        return outboxRepository.findById(id).map(row -> {
+            row.setLastError(truncate(error));
+            row.setClaimedBy(null);
+            if (retryable && row.getAttempts() < properties.getMaxAttempts()) {
+                Duration backoff = Duration.ofSeconds(properties.getRetryBackoffSeconds()).multipliedBy(row.getAttempts());
+                row.setAvailableAt(clock.instant().plus(backoff));
+                return false;
+            }
+            row.setStatus(NotificationOutboxStatus.FAILED);
+            return true;
+        }).orElse(false);
+    }
+
+    public int purgeDelivered() {
+        return outboxRepository.purgeDeliveredBefore(
+                clock.instant().minus(Duration.ofHours(properties.getRetentionHours())));
+    }
+
+    public NotificationDispatchRequest decode(NotificationOutboxEntity row) {
+        return codec.decode(row.getPayloadJson());
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,82 @@
+package com.mingyu.app.notification.service;
+
+// Implements 2.权限引导与存活看板
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mingyu.app.notification.model.NotificationDispatchRequest;
+import com.mingyu.app.notification.model.NotificationEventType;
+import com.mingyu.app.notification.model.NotificationRecipient;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import org.springframework.stereotype.Component;
+
+/**
+ * JSON form of a {@link NotificationDispatchRequest} for storage. Attribute values go through JSON
+ * as-is, so numbers come back as the narrowest JSON number type rather than their original class.
+ */
+@Component
+public class NotificationRequestCodec {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper;
+
+    public NotificationRequestCodec(ObjectMapper objectMapper) {
+        this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper is required");
+    }
+
+    public String encode(NotificationDispatchRequest request) {
+        NotificationRecipient recipient = request.getRecipient();
+        Map<String, Object> recipientJson = new LinkedHashMap<>();
+        recipientJson.put("monitorUserId", recipient.getMonitorUserId());
+        recipientJson.put("monitoredUserId", recipient.getMonitoredUserId());
+        recipientJson.put("deviceToken", recipient.getDeviceToken());
+        recipientJson.put("phoneNumber", recipient.getPhoneNumber());
+        recipientJson.put("webhookUrl", recipient.getWebhookUrl());
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("eventType", request.getEventType().name());
+        json.put("triggeredAt", request.getTriggeredAt().toString());
+        json.put("message", request.getMessage());
+        json.put("recipient", recipientJson);
+        json.put("attributes", request.getAttributes());
+        try {
+            return objectMapper.writeValueAsString(json);
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException("Failed to serialize notification request", exception);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public NotificationDispatchRequest decode(String payload) {
+        Map<String, Object> json;
+        try {
+            json = objectMapper.readValue(payload, MAP_TYPE);
+        } catch (JsonProcessingException exception) {
+            throw new IllegalArgumentException("Malformed notification payload", exception);
+        }
+        Map<String, Object> recipientJson = (Map<String, Object>) json.getOrDefault("recipient", Map.of());
+        NotificationRecipient recipient = NotificationRecipient.builder()
+                .monitorUserId(asLong(recipientJson.get("monitorUserId")))
+                .monitoredUserId(asLong(recipientJson.get("monitoredUserId")))
+                .deviceToken((String) recipientJson.get("deviceToken"))
+                .phoneNumber((String) recipientJson.get("phoneNumber"))
+                .webhookUrl((String) recipientJson.get("webhookUrl"))
+                .build();
+        return NotificationDispatchRequest.builder()
+                .eventType(NotificationEventType.valueOf((String) json.get("eventType")))
+                .triggeredAt(Instant.parse((String) json.get("triggeredAt")))
+                .message((String) json.get("message"))
+                .recipient(recipient)
+                .attributes((Map<String, Object>) json.get("attributes"))
+                .build();
+    }
+
+    private static Long asLong(Object value) {
+        return value instanceof Number number ? number.longValue() : null;
+    }
+}
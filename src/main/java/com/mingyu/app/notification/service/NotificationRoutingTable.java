@@ -0,0 +1,116 @@
+package com.mingyu.app.notification.service;
+
+// Implements 2.权限引导与存活看板
+
+import com.mingyu.app.notification.model.NotificationDispatchRequest;
+import com.mingyu.app.notification.model.NotificationEventType;
+import com.mingyu.app.notification.model.NotificationRecipient;
+import com.mingyu.app.notification.model.NotificationRecipientCapability;
+import com.mingyu.app.notification.provider.NotificationChannelProvider;
+import com.mingyu.app.notification.provider.RoutableNotificationChannelProvider;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Providers for every event type and combination of recipient contact details, in dispatch order,
+ * computed once. {@link RoutableNotificationChannelProvider}s sit only in the buckets they declared
+ * and are never asked {@link NotificationChannelProvider#supports}; other providers sit in every
+ * bucket and are asked per request.
+ */
+final class NotificationRoutingTable {
+
+    private static final NotificationRecipientCapability[] CAPABILITIES = NotificationRecipientCapability.values();
+
+    private final Map<NotificationEventType, Bucket[]> buckets = new EnumMap<>(NotificationEventType.class);
+
+    NotificationRoutingTable(List<NotificationChannelProvider> orderedProviders) {
+        for (NotificationEventType eventType : NotificationEventType.values()) {
+            Bucket[] byCapabilities = new Bucket[1 << CAPABILITIES.length];
+            for (int mask = 0; mask < byCapabilities.length; mask++) {
+                byCapabilities[mask] = Bucket.of(orderedProviders, eventType, mask);
+            }
+            buckets.put(eventType, byCapabilities);
+        }
+    }
+
+    /**
+     * Routes that may take {@code request}, in dispatch order. Callers that stop at the first
+     * delivery check {@link Route#accepts} as they go, so undeclared providers further down are
+     * never asked.
+     */
+    List<Route> routes(NotificationDispatchRequest request) {
+        return bucketFor(request).routes;
+    }
+
+    /** Providers that can take {@code request}, in dispatch order. The result must not be modified. */
+    List<NotificationChannelProvider> select(NotificationDispatchRequest request) {
+        Bucket bucket = bucketFor(request);
+        if (bucket.allDeclared) {
+            return bucket.providers;
+        }
+        List<NotificationChannelProvider> selected = new ArrayList<>(bucket.routes.size());
+        for (Route route : bucket.routes) {
+            if (route.accepts(request)) {
+                selected.add(route.provider());
+            }
+        }
+        return selected;
+    }
+
+    private Bucket bucketFor(NotificationDispatchRequest request) {
+        return buckets.get(request.getEventType())[maskOf(request.getRecipient())];
+    }
+
+    private static int maskOf(NotificationRecipient recipient) {
+        int mask = 0;
+        for (NotificationRecipientCapability capability : CAPABILITIES) {
+            if (capability.isPresentOn(recipient)) {
+                mask |= 1 << capability.ordinal();
+            }
+        }
+        return mask;
+    }
+
+    record Route(NotificationChannelProvider provider, boolean declared) {
+
+        boolean accepts(NotificationDispatchRequest request) {
+            return declared || provider.supports(request);
+        }
+    }
+
+    private static final class Bucket {
+
+        private final List<Route> routes;
+        private final List<NotificationChannelProvider> providers;
+        private final boolean allDeclared;
+
+        private Bucket(List<Route> routes) {
+            this.routes = List.copyOf(routes);
+            this.providers = routes.stream().map(Route::provider).toList();
+            this.allDeclared = routes.stream().allMatch(Route::declared);
+        }
+
+        private static Bucket of(List<NotificationChannelProvider> ordered, NotificationEventType eventType, int mask) {
+            List<Route> routes = new ArrayList<>();
+            for (NotificationChannelProvider provider : ordered) {
+                if (!(provider instanceof RoutableNotificationChannelProvider routable)) {
+                    routes.add(new Route(provider, false));
+                } else if (routable.getSupportedEventTypes().contains(eventType) && reachable(routable, mask)) {
+                    routes.add(new Route(provider, true));
+                }
+            }
+            return new Bucket(routes);
+        }
+
+        private static boolean reachable(RoutableNotificationChannelProvider provider, int mask) {
+            for (NotificationRecipientCapability capability : provider.getRequiredCapabilities()) {
+                if ((mask & (1 << capability.ordinal())) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.mingyu.app.notification.throttle;
+
+// Implements 2.权限引导与存活看板
+
+import com.mingyu.app.common.ratelimit.BucketSpec;
+import com.mingyu.app.common.ratelimit.TokenBucketRateLimiter;
+import com.mingyu.app.notification.config.NotificationThrottleProperties;
+import com.mingyu.app.notification.exception.NotificationThrottledException;
+import com.mingyu.app.notification.model.NotificationChannel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-channel outbound token buckets, checked before every provider call so a burst is spread
+ * over the gateway's quota instead of coming back as rejections that burn retry attempts.
+ */
+@Component
+public class NotificationChannelThrottle {
+
+    private final boolean enabled;
+    private final long maxWaitNanos;
+    private final Map<NotificationChannel, TokenBucketRateLimiter> limiters = new EnumMap<>(NotificationChannel.class);
+    private final Map<NotificationChannel, Counter> admitted = new EnumMap<>(NotificationChannel.class);
+    private final Map<NotificationChannel, Counter> deferred = new EnumMap<>(NotificationChannel.class);
+    private final Map<NotificationChannel, Counter> rejected = new EnumMap<>(NotificationChannel.class);
+
+    @Autowired
+    public NotificationChannelThrottle(
+            NotificationThrottleProperties properties, Clock clock, MeterRegistry meterRegistry) {
+        Objects.requireNonNull(properties, "properties is required").validate();
+        Objects.requireNonNull(clock, "clock is required");
+        Objects.requireNonNull(meterRegistry, "meterRegistry is required");
+        this.enabled = properties.isEnabled();
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(properties.getMaxWaitMillis());
+        properties.getChannels().forEach((channel, limit) -> limiters.put(channel, new TokenBucketRateLimiter(
+                new BucketSpec(limit.getCapacity(), limit.getRefillTokens(), limit.getRefillPeriod()), clock)));
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            String tag = channel.name().toLowerCase(Locale.ROOT);
+            admitted.put(channel, Counter.builder("notification.throttle.admitted")
+                    .tag("channel", tag)
+                    .register(meterRegistry));
+            deferred.put(channel, Counter.builder("notification.throttle.throttled")
+                    .tag("channel", tag)
+                    .tag("outcome", "deferred")
+                    .register(meterRegistry));
+            rejected.put(channel, Counter.builder("notification.throttle.throttled")
+                    .tag("channel", tag)
+                    .tag("outcome", "rejected")
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Takes a token for {@code channel}. Returns zero when the call may go ahead, or how many
+     * nanoseconds to wait before asking again when the next token is close enough that an attempt
+     * which has already waited {@code waitedNanos} stays within {@code maxWaitMillis}.
+     *
+     * @throws NotificationThrottledException when the channel has no capacity within that budget
+     */
+    public long acquire(NotificationChannel channel, long waitedNanos) {
+        TokenBucketRateLimiter limiter = enabled ? limiters.get(channel) : null;
+        if (limiter == null || limiter.tryAcquire(channel.name())) {
+            admitted.get(channel).increment();
+            return 0L;
+        }
+        // Never hand back zero for a refused token, or the caller would spin.
+        long waitNanos = Math.max(1L, limiter.nanosUntilAvailable(channel.name()));
+        if (waitedNanos + waitNanos <= maxWaitNanos) {
+            deferred.get(channel).increment();
+            return waitNanos;
+        }
+        rejected.get(channel).increment();
+        throw new NotificationThrottledException(channel, TimeUnit.NANOSECONDS.toMillis(waitNanos) + 1);
+    }
+}
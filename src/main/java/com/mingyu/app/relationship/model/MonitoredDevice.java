@@ -0,0 +1,6 @@
+package com.mingyu.app.relationship.model;
+
+// Implements 6.开发者核心逻辑
+
+/** A device watched through an active relationship, with the user who watches it. */
+public record MonitoredDevice(DeviceEntity device, Long monitorUserId) {}
@@ -3,7 +3,9 @@ package com.mingyu.app.relationship.repository;
 // Implements 1.账号与关系管理
 // Implements 6.开发者核心逻辑
 
+import com.mingyu.app.relationship.model.MonitoredDevice;
 import com.mingyu.app.relationship.model.RelationshipEntity;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -30,4 +32,50 @@ public interface RelationshipRepository extends JpaRepository<RelationshipEntity
             WHERE r.status = com.mingyu.app.relationship.model.RelationshipStatus.ACTIVE
             """)
     List<RelationshipEntity> findAllActiveRelationships();
+
+    /**
+     * Devices on either side of an active relationship whose heartbeat state is due to change:
+     * healthy ones never seen or last seen before {@code staleBefore}, and lost ones seen since.
+     * Each comes with the other side of the relationship as its monitor. Every branch is a single
+     * range on {@code idx_devices_heartbeat}, so the statement starts from the few devices that
+     * change rather than from every active relationship.
+     */
+    @Query("""
+            SELECT new com.mingyu.app.relationship.model.MonitoredDevice(d, r.initiatorUserId)
+            FROM DeviceEntity d JOIN RelationshipEntity r ON r.partnerUserId = d.userId
+            WHERE d.heartbeatState = com.mingyu.app.relationship.model.DeviceHeartbeatState.HEALTHY
+              AND d.lastSeenAt IS NULL
+              AND r.status = com.mingyu.app.relationship.model.RelationshipStatus.ACTIVE
+            UNION ALL
+            SELECT new com.mingyu.app.relationship.model.MonitoredDevice(d, r.initiatorUserId)
+            FROM DeviceEntity d JOIN RelationshipEntity r ON r.partnerUserId = d.userId
+            WHERE d.heartbeatState = com.mingyu.app.relationship.model.DeviceHeartbeatState.HEALTHY
+              AND d.lastSeenAt < :staleBefore
+              AND r.status = com.mingyu.app.relationship.model.RelationshipStatus.ACTIVE
+            UNION ALL
+            SELECT new com.mingyu.app.relationship.model.MonitoredDevice(d, r.initiatorUserId)
+            FROM DeviceEntity d JOIN RelationshipEntity r ON r.partnerUserId = d.userId
+            WHERE d.heartbeatState = com.mingyu.app.relationship.model.DeviceHeartbeatState.LOST
+              AND d.lastSeenAt >= :staleBefore
+              AND r.status = com.mingyu.app.relationship.model.RelationshipStatus.ACTIVE
+            UNION ALL
+            SELECT new com.mingyu.app.relationship.model.MonitoredDevice(d, r.partnerUserId)
+            FROM DeviceEntity d JOIN RelationshipEntity r ON r.initiatorUserId = d.userId
+            WHERE d.heartbeatState = com.mingyu.app.relationship.model.DeviceHeartbeatState.HEALTHY
+              AND d.lastSeenAt IS NULL
+              AND r.status = com.mingyu.app.relationship.model.RelationshipStatus.ACTIVE
+            UNION ALL
+            SELECT new com.mingyu.app.relationship.model.MonitoredDevice(d, r.partnerUserId)
+            FROM DeviceEntity d JOIN RelationshipEntity r ON r.initiatorUserId = d.userId
+            WHERE d.heartbeatState = com.mingyu.app.relationship.model.DeviceHeartbeatState.HEALTHY
+              AND d.lastSeenAt < :staleBefore
+              AND r.status = com.mingyu.app.relationship.model.RelationshipStatus.ACTIVE
+            UNION ALL
+            SELECT new com.mingyu.app.relationship.model.MonitoredDevice(d, r.partnerUserId)
+            FROM DeviceEntity d JOIN RelationshipEntity r ON r.initiatorUserId = d.userId
+            WHERE d.heartbeatState = com.mingyu.app.relationship.model.DeviceHeartbeatState.LOST
+              AND d.lastSeenAt >= :staleBefore
+              AND r.status = com.mingyu.app.relationship.model.RelationshipStatus.ACTIVE
+            """)
+    List<MonitoredDevice> findMonitoredDevicesChangingState(@Param("staleBefore") Instant staleBefore);
 }
\ No newline at end of file
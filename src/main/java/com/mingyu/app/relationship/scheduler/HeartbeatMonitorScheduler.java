@@ -5,10 +5,10 @@ package com.mingyu.app.relationship.scheduler;
 import com.mingyu.app.notification.model.NotificationDispatchRequest;
 import com.mingyu.app.notification.model.NotificationEventType;
 import com.mingyu.app.notification.model.NotificationRecipient;
-import com.mingyu.app.notification.service.NotificationDispatcherService;
+import com.mingyu.app.notification.service.NotificationOutboxService;
 import com.mingyu.app.relationship.model.DeviceEntity;
 import com.mingyu.app.relationship.model.DeviceHeartbeatState;
-import com.mingyu.app.relationship.model.RelationshipEntity;
+import com.mingyu.app.relationship.model.MonitoredDevice;
 import com.mingyu.app.relationship.repository.DeviceRepository;
 import com.mingyu.app.relationship.repository.RelationshipRepository;
 import java.time.Clock;
@@ -31,43 +31,35 @@ public class HeartbeatMonitorScheduler {
 
     private final RelationshipRepository relationshipRepository;
     private final DeviceRepository deviceRepository;
-    private final NotificationDispatcherService notificationDispatcherService;
+    private final NotificationOutboxService notificationOutboxService;
     private final Clock clock;
 
     public HeartbeatMonitorScheduler(
             RelationshipRepository relationshipRepository,
             DeviceRepository deviceRepository,
-            NotificationDispatcherService notificationDispatcherService,
+            NotificationOutboxService notificationOutboxService,
             Clock clock) {
         this.relationshipRepository =
                 Objects.requireNonNull(relationshipRepository, "relationshipRepository is required");
         this.deviceRepository = Objects.requireNonNull(deviceRepository, "deviceRepository is required");
-        this.notificationDispatcherService =
-                Objects.requireNonNull(notificationDispatcherService, "notificationDispatcherService is required");
+        this.notificationOutboxService =
+                Objects.requireNonNull(notificationOutboxService, "notificationOutboxService is required");
         this.clock = Objects.requireNonNull(clock, "clock is required");
     }
 
+    /**
+     * One set-based query finds the devices whose heartbeat state changes this tick; devices that
+     * stay healthy, the vast majority, are never loaded.
+     */
     @Scheduled(cron = "0 * * * * *")
     @Transactional
     public void monitorHeartbeats() {
         Instant now = clock.instant();
-        List<RelationshipEntity> relationships = relationshipRepository.findAllActiveRelationships();
-        if (relationships.isEmpty()) {
-            return;
-        }
-        for (RelationshipEntity relationship : relationships) {
-            evaluateDevice(relationship.getInitiatorUserId(), relationship.getPartnerUserId(), now);
-            evaluateDevice(relationship.getPartnerUserId(), relationship.getInitiatorUserId(), now);
-        }
-    }
-
-    private void evaluateDevice(Long monitoredUserId, Long monitorUserId, Instant now) {
-        if (monitoredUserId == null || monitorUserId == null) {
-            return;
+        List<MonitoredDevice> changing =
+                relationshipRepository.findMonitoredDevicesChangingState(now.minus(HEARTBEAT_STALE_THRESHOLD));
+        for (MonitoredDevice monitored : changing) {
+            handleDevice(monitored.device(), monitored.monitorUserId(), now);
         }
-        deviceRepository
-                .findByUserId(monitoredUserId)
-                .ifPresent(device -> handleDevice(device, monitorUserId, now));
     }
 
     private void handleDevice(DeviceEntity device, Long monitorUserId, Instant now) {
@@ -97,11 +89,9 @@ public class HeartbeatMonitorScheduler {
         }
         device.setHeartbeatState(DeviceHeartbeatState.LOST);
         deviceRepository.save(device);
-        notificationDispatcherService.dispatch(buildRequest(device, monitorUserId, now), null);
-        log.warn(
-                "Escalated heartbeat loss for device {} to monitor {}",
-                device.getDeviceIdentifier(),
-                monitorUserId);
+        // Committed together with the LOST state; the outbox relay delivers it after the tick's transaction.
+        notificationOutboxService.enqueue(buildRequest(device, monitorUserId, now), null);
+        log.warn("Escalated heartbeat loss for device {} to monitor {}", device.getDeviceIdentifier(), monitorUserId);
     }
 
     private NotificationDispatchRequest buildRequest(DeviceEntity device, Long monitorUserId, Instant now) {
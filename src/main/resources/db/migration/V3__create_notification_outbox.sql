@@ -0,0 +1,17 @@
+-- Implements 2.权限引导与存活看板
+
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    trace_id VARCHAR(64) NOT NULL,
+    event_type VARCHAR(32) NOT NULL,
+    payload_json TEXT NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    available_at TIMESTAMP(6) NOT NULL,
+    claimed_by VARCHAR(64),
+    last_error VARCHAR(512),
+    dispatched_at TIMESTAMP(6) NULL,
+    created_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    updated_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6),
+    KEY idx_outbox_status_available (status, available_at)
+);
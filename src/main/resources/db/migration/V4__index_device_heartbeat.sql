@@ -0,0 +1,10 @@
+-- Implements 6.开发者核心逻辑
+
+-- DeviceEntity has mapped heartbeat_state since the heartbeat monitor was added; V1 never created it.
+ALTER TABLE devices
+    ADD COLUMN heartbeat_state VARCHAR(16) NOT NULL DEFAULT 'HEALTHY';
+
+-- The monitor tick reads three ranges of this index (healthy and never seen, healthy and last seen
+-- before the stale cutoff, lost and seen since) and joins each device to its relationship through
+-- idx_relationship_initiator or idx_relationship_partner.
+CREATE INDEX idx_devices_heartbeat ON devices (heartbeat_state, last_seen_at);
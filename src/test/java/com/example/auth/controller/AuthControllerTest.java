@@ -32,6 +32,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.TestPropertySource;
@@ -84,6 +85,17 @@ class AuthControllerTest {
         performOtpRequest("+15555555555").andExpect(status().isTooManyRequests());
     }
 
+    @Test
+    void verifyIsThrottledPerPhoneAfterRepeatedGuesses() throws Exception {
+        when(otpGenerator.generate()).thenReturn("123456");
+        performOtpRequest("+15550002222").andExpect(status().isOk());
+
+        for (int attempt = 0; attempt < 5; attempt++) {
+            performVerify("+15550002222", "000000", "device-" + attempt).andExpect(status().isBadRequest());
+        }
+        performVerify("+15550002222", "123456", "device-x").andExpect(status().isTooManyRequests());
+    }
+
     @Test
     void verifyOtpReturnsJwtBoundToDevice() throws Exception {
         when(otpGenerator.generate()).thenReturn("654321");
@@ -124,12 +136,68 @@ class AuthControllerTest {
         assertFalse(authService.isTokenRevoked(secondToken));
     }
 
+    @Test
+    void refreshRotatesTokensAndRejectsReplayedRefreshToken() throws Exception {
+        when(otpGenerator.generate()).thenReturn("333333");
+        performOtpRequest("+15550003333").andExpect(status().isOk());
+        JsonNode issued = objectMapper.readTree(performVerify("+15550003333", "333333", "device-r")
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString());
+        assertEquals(issued.get("token").asText(), issued.get("accessToken").asText());
+        assertEquals(3600, issued.get("expiresIn").asLong());
+        String refreshToken = issued.get("refreshToken").asText();
+
+        mutableClock.plusSeconds(60);
+        JsonNode rotated = objectMapper.readTree(performRefresh(refreshToken)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString());
+
+        assertEquals("device-r", readTokenPayload(rotated.get("accessToken").asText()).get("device_id").asText());
+        assertFalse(refreshToken.equals(rotated.get("refreshToken").asText()));
+        performRefresh(refreshToken).andExpect(status().isUnauthorized());
+        performRefresh(issued.get("accessToken").asText()).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void refreshSucceedsWhenTheExpiredAccessTokenIsStillSentAsBearer() throws Exception {
+        when(otpGenerator.generate()).thenReturn("444444");
+        performOtpRequest("+15550004444").andExpect(status().isOk());
+        JsonNode issued = objectMapper.readTree(performVerify("+15550004444", "444444", "device-e")
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString());
+
+        mutableClock.plusSeconds(3601);
+        mockMvc.perform(post("/auth/refresh")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + issued.get("accessToken").asText())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"" + issued.get("refreshToken").asText() + "\"}"))
+                .andExpect(status().isOk());
+    }
+
+    private ResultActions performRefresh(String refreshToken) throws Exception {
+        return mockMvc.perform(post("/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\":\"" + refreshToken + "\"}"));
+    }
+
     private ResultActions performOtpRequest(String phone) throws Exception {
         return mockMvc.perform(post("/auth/request-otp")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content("{\"phone\":\"" + phone + "\"}"));
     }
 
+    private ResultActions performVerify(String phone, String otp, String deviceId) throws Exception {
+        return mockMvc.perform(post("/auth/verify")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"phone\":\"" + phone + "\",\"otp\":\"" + otp + "\",\"deviceId\":\"" + deviceId + "\"}"));
+    }
+
     private String extractToken(MvcResult result) throws Exception {
         JsonNode node = objectMapper.readTree(result.getResponse().getContentAsString());
         return node.get("token").asText();
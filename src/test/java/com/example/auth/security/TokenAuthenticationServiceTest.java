@@ -0,0 +1,103 @@
+package com.example.auth.security;
+
+// Implements REQ-1.1
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import com.example.auth.exception.InvalidTokenException;
+import com.example.auth.service.AuthService;
+import com.example.auth.token.JwtClaims;
+import com.example.auth.token.JwtCodec;
+import com.example.auth.token.TokenType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class TokenAuthenticationServiceTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Mock
+    private AuthService authService;
+
+    @Mock
+    private Clock clock;
+
+    private final JwtCodec jwtCodec = new JwtCodec("TestSecretKeyForJwtSignatures1234567890");
+    private SimpleMeterRegistry meterRegistry;
+    private TokenAuthenticationService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new TokenAuthenticationService(jwtCodec, authService, clock, meterRegistry, 2);
+    }
+
+    @Test
+    void repeatedTokenIsServedFromCacheButStillCheckedForRevocation() {
+        when(clock.instant()).thenReturn(NOW);
+        String token = jwtCodec.encode(claims("jti-1", NOW.plusSeconds(600)));
+        when(authService.isTokenIdRevoked("jti-1")).thenReturn(false, false, true);
+
+        assertEquals("+15551234567", service.authenticate(token).subject());
+        assertEquals("device-1", service.authenticate(token).deviceId());
+        assertThrows(InvalidTokenException.class, () -> service.authenticate(token));
+
+        assertEquals(2.0d / 3.0d, meterRegistry.get("auth.token.cache.hit.ratio").gauge().value(), 0.0001d);
+        assertEquals(3L, meterRegistry.get("auth.token.verification").timers().stream()
+                .mapToLong(timer -> timer.count())
+                .sum());
+    }
+
+    @Test
+    void cachedClaimsAreNotServedAfterExpiry() {
+        String token = jwtCodec.encode(claims("jti-1", NOW.plusSeconds(60)));
+        when(clock.instant()).thenReturn(NOW, NOW.plusSeconds(60));
+
+        service.authenticate(token);
+
+        assertThrows(InvalidTokenException.class, () -> service.authenticate(token));
+    }
+
+    @Test
+    void rejectsForgedTokensWithoutConsultingRevocation() {
+        when(clock.instant()).thenReturn(NOW);
+        String token = new JwtCodec("AnotherSecretKeyForJwtSignatures12345678")
+                .encode(claims("jti-1", NOW.plusSeconds(600)));
+
+        assertThrows(InvalidTokenException.class, () -> service.authenticate(token));
+    }
+
+    @Test
+    void refreshTokensCannotAuthenticateRequests() {
+        when(clock.instant()).thenReturn(NOW);
+        String refreshToken = jwtCodec.encode(new JwtClaims(
+                "+15551234567", "device-1", "jti-r", NOW.minusSeconds(1), NOW.plusSeconds(600), TokenType.REFRESH));
+
+        assertThrows(InvalidTokenException.class, () -> service.authenticate(refreshToken));
+        assertEquals(0.0d, meterRegistry.get("auth.token.cache.size").gauge().value());
+    }
+
+    @Test
+    void cacheStaysWithinConfiguredBound() {
+        when(clock.instant()).thenReturn(NOW);
+        for (int i = 0; i < 10; i++) {
+            service.authenticate(jwtCodec.encode(claims("jti-" + i, NOW.plusSeconds(600))));
+        }
+
+        assertTrue(meterRegistry.get("auth.token.cache.size").gauge().value() <= 2.0d);
+    }
+
+    private JwtClaims claims(String tokenId, Instant expiresAt) {
+        return new JwtClaims("+15551234567", "device-1", tokenId, NOW.minusSeconds(1), expiresAt);
+    }
+}
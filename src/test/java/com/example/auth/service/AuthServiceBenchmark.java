@@ -0,0 +1,102 @@
+package com.example.auth.service;
+
+// Implements REQ-1.1
+
+import com.example.auth.store.AuthStateStore;
+import com.example.auth.store.InMemoryAuthStateStore;
+import com.example.auth.store.RedisAuthStateStore;
+import com.example.auth.token.JwtCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Compares the single-node and shared store modes under concurrent request/verify load.
+ * The redis mode expects a server at REDIS_HOST/REDIS_PORT (see docker-compose.yml).
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.auth.service.AuthServiceBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@Threads(8)
+public class AuthServiceBenchmark {
+
+    private static final String OTP = "123456";
+
+    @Param({"memory", "redis"})
+    public String mode;
+
+    private final AtomicLong phoneSequence = new AtomicLong();
+    private LettuceConnectionFactory connectionFactory;
+    private AuthService authService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        AuthStateStore store = "redis".equals(mode) ? redisStore() : new InMemoryAuthStateStore();
+        authService = new AuthService(
+                () -> OTP,
+                (phone, otp) -> {},
+                store,
+                new JwtCodec("BenchmarkSecretKeyForJwtSignatures123456"),
+                Clock.systemUTC(),
+                300,
+                60,
+                900,
+                2_592_000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+
+    @Benchmark
+    public IssuedTokens requestAndVerify() {
+        String phone = "+1555" + phoneSequence.incrementAndGet();
+        authService.requestOtp(phone);
+        return authService.verifyOtp(phone, OTP, "device-" + phone);
+    }
+
+    private AuthStateStore redisStore() {
+        String host = System.getenv().getOrDefault("REDIS_HOST", "localhost");
+        int port = Integer.parseInt(System.getenv().getOrDefault("REDIS_PORT", "6379"));
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(host, port));
+        connectionFactory.afterPropertiesSet();
+        StringRedisTemplate template = new StringRedisTemplate(connectionFactory);
+        template.afterPropertiesSet();
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        return new RedisAuthStateStore(template, objectMapper, "bench:auth:" + System.nanoTime() + ":");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AuthServiceBenchmark.class.getSimpleName()).build()).run();
+    }
+}
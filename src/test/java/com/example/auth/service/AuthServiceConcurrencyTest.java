@@ -0,0 +1,74 @@
+package com.example.auth.service;
+
+// Implements REQ-1.1
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.example.auth.exception.InvalidOtpException;
+import com.example.auth.store.InMemoryAuthStateStore;
+import com.example.auth.token.JwtCodec;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class AuthServiceConcurrencyTest {
+
+    private static final String OTP = "123456";
+    private static final int THREADS = 8;
+
+    private final Clock clock = Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneOffset.UTC);
+    private final AuthService authService = new AuthService(
+            () -> OTP, (phone, otp) -> {}, new InMemoryAuthStateStore(),
+            new JwtCodec("TestSecretKeyForJwtSignatures1234567890"), clock, 300, 60, 900, 3600);
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentVerifiesForOnePhoneHaveExactlyOneWinnerWhoseSessionSurvives() throws Exception {
+        for (int round = 0; round < 500; round++) {
+            String phone = "+1555" + round;
+            authService.requestOtp(phone);
+
+            CyclicBarrier barrier = new CyclicBarrier(THREADS);
+            List<Future<IssuedTokens>> attempts = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                String deviceId = "device-" + t;
+                attempts.add(executor.submit(() -> {
+                    barrier.await();
+                    try {
+                        return authService.verifyOtp(phone, OTP, deviceId);
+                    } catch (InvalidOtpException ex) {
+                        return null;
+                    }
+                }));
+            }
+
+            List<IssuedTokens> winners = new ArrayList<>();
+            for (Future<IssuedTokens> attempt : attempts) {
+                IssuedTokens tokens = attempt.get(10, TimeUnit.SECONDS);
+                if (tokens != null) {
+                    winners.add(tokens);
+                }
+            }
+            assertEquals(1, winners.size(), "round " + round);
+            IssuedTokens winner = winners.get(0);
+            assertFalse(authService.isTokenRevoked(winner.accessToken()));
+            // The stored session must be the winner's: its refresh token is the one that rotates.
+            assertEquals(winner.deviceId(), authService.refresh(winner.refreshToken()).deviceId());
+        }
+    }
+}
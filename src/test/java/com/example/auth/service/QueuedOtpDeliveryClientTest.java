@@ -0,0 +1,166 @@
+package com.example.auth.service;
+
+// Implements REQ-1.1
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.auth.exception.RateLimitException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class QueuedOtpDeliveryClientTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<List<OtpMessage>> batches = new CopyOnWriteArrayList<>();
+    private QueuedOtpDeliveryClient client;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (client != null) {
+            client.destroy();
+        }
+    }
+
+    @Test
+    void deliversQueuedMessagesInBatches() throws Exception {
+        CountDownLatch delivered = new CountDownLatch(20);
+        client = new QueuedOtpDeliveryClient(gateway(messages -> {
+            batches.add(List.copyOf(messages));
+            messages.forEach(message -> delivered.countDown());
+        }), properties(100, 1, 10, 50), meterRegistry);
+
+        for (int i = 0; i < 20; i++) {
+            client.deliver("+1555000" + i, "123456");
+        }
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertTrue(batches.size() < 20, "messages should have been coalesced");
+        assertTrue(batches.stream().allMatch(batch -> batch.size() <= 10));
+        client.destroy();
+        assertEquals(20, meterRegistry.get("auth.otp.delivery.latency").timer().count());
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch gatewayBusy = new CountDownLatch(1);
+        client = new QueuedOtpDeliveryClient(gateway(messages -> {
+            gatewayBusy.countDown();
+            await(release);
+        }), properties(2, 1, 1, 0), meterRegistry);
+
+        client.deliver("+15550000001", "111111");
+        assertTrue(gatewayBusy.await(5, TimeUnit.SECONDS));
+        client.deliver("+15550000002", "222222");
+        client.deliver("+15550000003", "333333");
+
+        assertThrows(RateLimitException.class, () -> client.deliver("+15550000004", "444444"));
+        assertEquals(2.0, meterRegistry.get("auth.otp.delivery.queue.depth").gauge().value());
+        assertEquals(1.0, meterRegistry.get("auth.otp.delivery.rejected").counter().count());
+        release.countDown();
+    }
+
+    @Test
+    void gatewayFailureIsCountedAndWorkerKeepsRunning() throws Exception {
+        CountDownLatch secondBatch = new CountDownLatch(1);
+        List<String> attempts = new ArrayList<>();
+        client = new QueuedOtpDeliveryClient(gateway(messages -> {
+            synchronized (attempts) {
+                attempts.add(messages.get(0).phone());
+                if (attempts.size() == 1) {
+                    throw new IllegalStateException("gateway down");
+                }
+            }
+            secondBatch.countDown();
+        }), properties(10, 1, 1, 0), meterRegistry);
+
+        client.deliver("+15550000001", "111111");
+        client.deliver("+15550000002", "222222");
+
+        assertTrue(secondBatch.await(5, TimeUnit.SECONDS));
+        assertEquals(1.0, meterRegistry.get("auth.otp.delivery.failed").counter().count());
+    }
+
+    @Test
+    void failedOrRejectedMessagesRunTheirFailureCallbacks() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch gatewayBusy = new CountDownLatch(1);
+        CountDownLatch batchFailed = new CountDownLatch(1);
+        List<String> failures = new CopyOnWriteArrayList<>();
+        client = new QueuedOtpDeliveryClient(gateway(messages -> {
+            gatewayBusy.countDown();
+            await(release);
+            throw new IllegalStateException("gateway down");
+        }), properties(1, 1, 1, 0), meterRegistry);
+
+        client.deliver("+15550000001", "111111", () -> {
+            failures.add("+15550000001");
+            batchFailed.countDown();
+        });
+        assertTrue(gatewayBusy.await(5, TimeUnit.SECONDS));
+        client.deliver("+15550000002", "222222", () -> failures.add("+15550000002"));
+        assertThrows(RateLimitException.class,
+                () -> client.deliver("+15550000003", "333333", () -> failures.add("+15550000003")));
+        assertEquals(List.of("+15550000003"), failures);
+
+        release.countDown();
+        assertTrue(batchFailed.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("+15550000003", "+15550000001"), failures.subList(0, 2));
+    }
+
+    @Test
+    void shutdownFlushesPendingMessages() throws Exception {
+        List<OtpMessage> delivered = new CopyOnWriteArrayList<>();
+        client = new QueuedOtpDeliveryClient(gateway(delivered::addAll), properties(100, 2, 5, 1000),
+                meterRegistry);
+
+        for (int i = 0; i < 12; i++) {
+            client.deliver("+1555000" + i, "123456");
+        }
+        client.destroy();
+
+        assertEquals(12, delivered.size());
+        assertThrows(RateLimitException.class, () -> client.deliver("+15559999999", "123456"));
+        client = null;
+    }
+
+    private static OtpDeliveryProperties properties(int capacity, int workers, int maxBatchSize, long lingerMillis) {
+        OtpDeliveryProperties properties = new OtpDeliveryProperties();
+        properties.setQueueCapacity(capacity);
+        properties.setWorkers(workers);
+        properties.setMaxBatchSize(maxBatchSize);
+        properties.setLingerMillis(lingerMillis);
+        return properties;
+    }
+
+    private static OtpDeliveryClient gateway(Consumer<List<OtpMessage>> batchHandler) {
+        return new OtpDeliveryClient() {
+            @Override
+            public void deliver(String phone, String otp) {
+                throw new UnsupportedOperationException("batches only");
+            }
+
+            @Override
+            public void deliverBatch(List<OtpMessage> messages) {
+                batchHandler.accept(messages);
+            }
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.auth.store;
+
+// Implements REQ-1.1
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class InMemoryAuthStateStoreTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final InMemoryAuthStateStore store = new InMemoryAuthStateStore();
+
+    @Test
+    void otpRequestWindowIsGrantedOncePerWindow() throws Exception {
+        List<Boolean> outcomes = runConcurrently(16,
+                () -> store.tryAcquireOtpRequestWindow("+15550000001", NOW, Duration.ofSeconds(60)));
+
+        assertEquals(1, outcomes.stream().filter(Boolean::booleanValue).count());
+        assertTrue(store.tryAcquireOtpRequestWindow("+15550000001", NOW.plusSeconds(60), Duration.ofSeconds(60)));
+    }
+
+    @Test
+    void otpIsConsumedExactlyOnceUnderContention() throws Exception {
+        store.saveOtp("+15550000002", new OtpRecord("hash", NOW.plusSeconds(300)), NOW);
+
+        List<SessionTransition> outcomes = runConcurrently(16, () -> store.verifyOtpAndSwapSession(
+                "+15550000002", "hash", session("device-a", Thread.currentThread().getName()), NOW));
+
+        assertEquals(1, outcomes.stream().filter(SessionTransition::verified).count());
+        assertEquals(OtpVerification.NOT_REQUESTED,
+                store.verifyOtpAndSwapSession("+15550000002", "hash", session("device-a", "late"), NOW).verification());
+    }
+
+    @Test
+    void mismatchKeepsOtpAndExpiryRemovesIt() {
+        store.saveOtp("+15550000003", new OtpRecord("hash", NOW.plusSeconds(300)), NOW);
+
+        assertEquals(OtpVerification.MISMATCH, verify("+15550000003", "other", NOW));
+        assertEquals(OtpVerification.EXPIRED, verify("+15550000003", "hash", NOW.plusSeconds(301)));
+        assertEquals(OtpVerification.NOT_REQUESTED, verify("+15550000003", "hash", NOW));
+        assertNull(store.rotateSession("+15550000003", "refresh-x", session("device-a", "y"), NOW));
+    }
+
+    @Test
+    void verifiedOtpSwapsInTheSessionAndReturnsThePreviousOne() {
+        DeviceSession first = session("device-a", "a");
+        DeviceSession second = session("device-b", "b");
+
+        assertNull(signIn("+15550000004", first).previousSession());
+        assertEquals(first, signIn("+15550000004", second).previousSession());
+
+        store.revokeToken(first.accessTokenId(), first.accessExpiresAt(), NOW);
+        assertTrue(store.isTokenRevoked("access-a", NOW));
+        assertFalse(store.isTokenRevoked("access-b", NOW));
+        assertFalse(store.isTokenRevoked("access-a", first.accessExpiresAt()));
+    }
+
+    @Test
+    void refreshTokenRotatesExactlyOnceUnderContention() throws Exception {
+        DeviceSession initial = session("device-a", "0");
+        signIn("+15550000005", initial);
+
+        List<DeviceSession> outcomes = runConcurrently(16, () -> store.rotateSession(
+                "+15550000005", "refresh-0", session("device-a", Thread.currentThread().getName()), NOW));
+
+        assertEquals(1, outcomes.stream().filter(initial::equals).count());
+        assertEquals(15, outcomes.stream().filter(Objects::isNull).count());
+        assertNull(store.rotateSession("+15550000005", "refresh-0", session("device-a", "late"), NOW));
+    }
+
+    private SessionTransition signIn(String phone, DeviceSession session) {
+        store.saveOtp(phone, new OtpRecord("hash", NOW.plusSeconds(300)), NOW);
+        SessionTransition transition = store.verifyOtpAndSwapSession(phone, "hash", session, NOW);
+        assertTrue(transition.verified());
+        return transition;
+    }
+
+    private OtpVerification verify(String phone, String hashedOtp, Instant now) {
+        return store.verifyOtpAndSwapSession(phone, hashedOtp, session("device-a", "x"), now).verification();
+    }
+
+    private static DeviceSession session(String deviceId, String suffix) {
+        return new DeviceSession(
+                deviceId, "access-" + suffix, NOW.plusSeconds(900), "refresh-" + suffix, NOW.plusSeconds(3600));
+    }
+
+    private <T> List<T> runConcurrently(int threads, Callable<T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
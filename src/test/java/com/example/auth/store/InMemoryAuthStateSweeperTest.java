@@ -0,0 +1,118 @@
+package com.example.auth.store;
+
+// Implements REQ-1.1
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+
+class InMemoryAuthStateSweeperTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+    private static final Duration OTP_TTL = Duration.ofMinutes(5);
+    private static final Duration REQUEST_WINDOW = Duration.ofMinutes(1);
+
+    private final InMemoryAuthStateStore store = new InMemoryAuthStateStore();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void evictsAbandonedOtpAndWindowOnlyAfterExpiry() {
+        InMemoryAuthStateSweeper sweeper = sweeper(100, 1_000);
+        abandonRequest("+15550000001", NOW);
+
+        assertEquals(0, sweeper.sweep(NOW.plus(REQUEST_WINDOW).minusSeconds(1)));
+        assertEquals(1, sweeper.sweep(NOW.plus(REQUEST_WINDOW).plusSeconds(1)));
+        assertEquals(1, store.otpCount());
+        assertEquals(0, store.requestWindowCount());
+
+        assertEquals(1, sweeper.sweep(NOW.plus(OTP_TTL).plusSeconds(1)));
+        assertEquals(0, store.otpCount());
+        assertEquals(1.0, meterRegistry.get("auth.store.evictions").tag("map", "otp").counter().count());
+        assertEquals(0.0, meterRegistry.get("auth.store.entries").tag("map", "otp").gauge().value());
+    }
+
+    @Test
+    void reissuedOtpIsNotEvictedByItsPredecessorsDeadline() {
+        InMemoryAuthStateSweeper sweeper = sweeper(100, 1_000);
+        store.saveOtp("+15550000002", new OtpRecord("first", NOW.plus(OTP_TTL)), NOW);
+        Instant reissuedAt = NOW.plus(Duration.ofMinutes(4));
+        store.saveOtp("+15550000002", new OtpRecord("second", reissuedAt.plus(OTP_TTL)), reissuedAt);
+
+        sweeper.sweep(NOW.plus(OTP_TTL).plusSeconds(1));
+
+        Instant verifiedAt = NOW.plus(OTP_TTL).plusSeconds(1);
+        DeviceSession session = new DeviceSession("device-a", "access-a", verifiedAt.plusSeconds(900),
+                "refresh-a", verifiedAt.plusSeconds(3600));
+        assertEquals(OtpVerification.VERIFIED,
+                store.verifyOtpAndSwapSession("+15550000002", "second", session, verifiedAt).verification());
+    }
+
+    @Test
+    void sweepWithoutBudgetEvictsOneSlicePerMap() {
+        InMemoryAuthStateSweeper sweeper = sweeper(10, 0);
+        for (int i = 0; i < 50; i++) {
+            store.saveOtp("+1555100" + i, new OtpRecord("hash", NOW.plusSeconds(1)), NOW);
+        }
+        Instant later = NOW.plusSeconds(5);
+
+        assertEquals(10, sweeper.sweep(later));
+        assertEquals(40, store.otpCount());
+        int runs = 1;
+        while (store.hasExpiredEntries(later)) {
+            sweeper.sweep(later);
+            runs++;
+        }
+        assertEquals(5, runs);
+        assertEquals(0, store.otpCount());
+        assertEquals(0, store.pendingExpiryCount());
+    }
+
+    @Test
+    void millionAbandonedRequestsStayBoundedByLiveEntries() {
+        InMemoryAuthStateSweeper sweeper = sweeper(10_000, 10_000);
+        Duration spacing = Duration.ofMillis(2);
+        int maxOtps = 0;
+        int maxWindows = 0;
+        int maxBacklog = 0;
+        Instant clock = NOW;
+        for (int i = 0; i < 1_000_000; i++) {
+            abandonRequest("+86" + (13_000_000_000L + i), clock);
+            clock = clock.plus(spacing);
+            if (i % 1_000 == 999) {
+                sweeper.sweep(clock);
+                maxOtps = Math.max(maxOtps, store.otpCount());
+                maxWindows = Math.max(maxWindows, store.requestWindowCount());
+                maxBacklog = Math.max(maxBacklog, store.pendingExpiryCount());
+            }
+        }
+
+        // Live entries are bounded by TTL / spacing (plus one sweep interval and one slot of slack).
+        long liveOtps = OTP_TTL.dividedBy(spacing);
+        long liveWindows = REQUEST_WINDOW.dividedBy(spacing);
+        assertTrue(maxOtps <= liveOtps + 2_000, "otp entries peaked at " + maxOtps);
+        assertTrue(maxWindows <= liveWindows + 2_000, "request windows peaked at " + maxWindows);
+        assertTrue(maxBacklog <= liveOtps + liveWindows + 4_000, "expiry backlog peaked at " + maxBacklog);
+
+        sweeper.sweep(clock.plus(OTP_TTL).plusSeconds(2));
+        assertEquals(0, store.otpCount());
+        assertEquals(0, store.requestWindowCount());
+        assertEquals(0, store.pendingExpiryCount());
+        assertEquals(1_000_000.0, meterRegistry.get("auth.store.evictions").tag("map", "otp").counter().count());
+    }
+
+    private void abandonRequest(String phone, Instant at) {
+        store.tryAcquireOtpRequestWindow(phone, at, REQUEST_WINDOW);
+        store.saveOtp(phone, new OtpRecord("hash", at.plus(OTP_TTL)), at);
+    }
+
+    private InMemoryAuthStateSweeper sweeper(int sliceSize, long runBudgetMillis) {
+        return new InMemoryAuthStateSweeper(
+                store, Clock.fixed(NOW, ZoneOffset.UTC), meterRegistry, sliceSize, runBudgetMillis);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.auth.store;
+
+// Implements REQ-1.1
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class RedisAuthStateStoreTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+    private static final String PHONE = "+15550000001";
+    private static final String OTP_KEY = "auth:otp:{" + PHONE + "}";
+    private static final String SESSION_KEY = "auth:session:{" + PHONE + "}";
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private RedisAuthStateStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new RedisAuthStateStore(redisTemplate, objectMapper, "auth:");
+    }
+
+    @Test
+    void saveOtpPassesHashExpiryAndTtlUnderThePhonesHashTag() {
+        store.saveOtp(PHONE, new OtpRecord("hash", NOW.plusSeconds(300)), NOW);
+
+        verify(redisTemplate).execute(any(), eq(List.of(OTP_KEY)),
+                eq("hash"), eq(Long.toString(NOW.plusSeconds(300).toEpochMilli())), eq("300000"));
+    }
+
+    @Test
+    void releaseWindowOnlyDeletesTheWindowItAcquired() {
+        store.releaseOtpRequestWindow(PHONE, NOW);
+
+        verify(redisTemplate).execute(any(), eq(List.of("auth:otp-window:{" + PHONE + "}")),
+                eq(Long.toString(NOW.toEpochMilli())));
+    }
+
+    @Test
+    void verifyAndSwapTouchesOtpAndSessionInOneSlotAndReadsBackThePreviousSession() throws Exception {
+        DeviceSession previous = session("device-a", "refresh-a");
+        DeviceSession next = session("device-b", "refresh-b");
+        ArgumentCaptor<Object> written = ArgumentCaptor.forClass(Object.class);
+        when(redisTemplate.execute(any(), eq(List.of(OTP_KEY, SESSION_KEY)),
+                eq("hash"), eq(Long.toString(NOW.toEpochMilli())), written.capture(),
+                eq(Long.toString(Duration.ofDays(30).toMillis()))))
+                .thenReturn(List.of(3L, objectMapper.writeValueAsString(previous)));
+
+        SessionTransition transition = store.verifyOtpAndSwapSession(PHONE, "hash", next, NOW);
+
+        assertEquals(new SessionTransition(OtpVerification.VERIFIED, previous), transition);
+        assertEquals(next, objectMapper.readValue((String) written.getValue(), DeviceSession.class));
+    }
+
+    @Test
+    void verifyAndSwapMapsScriptOutcomes() {
+        when(redisTemplate.execute(
+                        any(), eq(List.of(OTP_KEY, SESSION_KEY)), any(), any(), any(), any()))
+                .thenReturn(List.of(0L), List.of(1L), List.of(2L));
+
+        assertEquals(OtpVerification.NOT_REQUESTED, outcome("hash"));
+        assertEquals(OtpVerification.EXPIRED, outcome("hash"));
+        assertEquals(OtpVerification.MISMATCH, outcome("other"));
+    }
+
+    @Test
+    void rotateSessionChecksTheRefreshTokenAndKeepsAtLeastAMillisecondTtl() {
+        DeviceSession expired = new DeviceSession("device-a", "access-a", NOW, "refresh-b", NOW.minusSeconds(1));
+
+        assertNull(store.rotateSession(PHONE, "refresh-a", expired, NOW));
+
+        verify(redisTemplate).execute(any(), eq(List.of(SESSION_KEY)),
+                eq("refresh-a"), any(), eq("1"));
+    }
+
+    private OtpVerification outcome(String hashedOtp) {
+        return store.verifyOtpAndSwapSession(PHONE, hashedOtp, session("device-b", "refresh-b"), NOW).verification();
+    }
+
+    private static DeviceSession session(String deviceId, String refreshTokenId) {
+        return new DeviceSession(deviceId, "access-" + deviceId, NOW.plus(Duration.ofMinutes(15)), refreshTokenId,
+                NOW.plus(Duration.ofDays(30)));
+    }
+}
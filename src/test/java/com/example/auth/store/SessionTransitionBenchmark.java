@@ -0,0 +1,83 @@
+package com.example.auth.store;
+
+// Implements REQ-1.1
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Throughput of the combined OTP-consume + session-swap transition with every thread working on
+ * its own phones. The main method repeats the run for 1, 2, 4 ... N threads so the output shows
+ * whether unrelated phones scale or contend on shared state.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class SessionTransitionBenchmark {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+    private static final OtpRecord OTP = new OtpRecord("hash", NOW.plusSeconds(300));
+    private static final DeviceSession SESSION =
+            new DeviceSession("device", "access", NOW.plusSeconds(900), "refresh", NOW.plusSeconds(3600));
+
+    private final AtomicLong threadIds = new AtomicLong();
+    private InMemoryAuthStateStore store;
+
+    @Setup(Level.Iteration)
+    public void resetStore() {
+        // Deadlines never come due at a fixed instant, so start each iteration with empty expiry queues.
+        store = new InMemoryAuthStateStore();
+    }
+
+    @State(Scope.Thread)
+    public static class PhoneSequence {
+
+        private String prefix;
+        private long next;
+
+        @Setup
+        public void setUp(SessionTransitionBenchmark benchmark) {
+            prefix = "+86" + benchmark.threadIds.incrementAndGet() + "-";
+        }
+
+        private String nextPhone() {
+            // A bounded pool per thread keeps the maps at a steady size instead of growing all run.
+            return prefix + (next++ & 1023);
+        }
+    }
+
+    @Benchmark
+    public SessionTransition verifyAndSwap(PhoneSequence phones) {
+        String phone = phones.nextPhone();
+        store.saveOtp(phone, OTP, NOW);
+        return store.verifyOtpAndSwapSession(phone, "hash", SESSION, NOW);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            new Runner(new OptionsBuilder()
+                    .include(SessionTransitionBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build()).run();
+        }
+    }
+}
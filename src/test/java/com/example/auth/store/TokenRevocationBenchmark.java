@@ -0,0 +1,94 @@
+package com.example.auth.store;
+
+// Implements REQ-1.1
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Steady-state revocation set for a node seeing {@code switchesPerSecond} device switches, with
+ * access tokens living {@code accessTtlMinutes}. Setup prints the resulting set size and retained
+ * heap; the benchmarks measure the per-request revocation lookup and the cost of a revoke.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class TokenRevocationBenchmark {
+
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Param({"15", "1440"})
+    public int accessTtlMinutes;
+
+    @Param({"5"})
+    public int switchesPerSecond;
+
+    private InMemoryAuthStateStore store;
+    private Instant now;
+    private Duration accessTtl;
+    private long sequence;
+
+    @Setup
+    public void setUp() {
+        accessTtl = Duration.ofMinutes(accessTtlMinutes);
+        long heapBefore = usedHeap();
+        store = new InMemoryAuthStateStore();
+        long seconds = accessTtl.toSeconds();
+        for (long second = 0; second < seconds; second++) {
+            Instant at = START.plusSeconds(second);
+            for (int i = 0; i < switchesPerSecond; i++) {
+                store.revokeToken("jti-" + sequence++, at.plus(accessTtl), at);
+            }
+        }
+        now = START.plus(accessTtl);
+        store.purgeRevokedTokens(now);
+        System.out.printf("%n[revocation] ttl=%dmin switches/s=%d entries=%d retainedHeap=%.1fMiB%n",
+                accessTtlMinutes, switchesPerSecond, store.revokedTokenCount(),
+                (usedHeap() - heapBefore) / (1024.0 * 1024.0));
+    }
+
+    @Benchmark
+    public boolean lookupLiveToken() {
+        return store.isTokenRevoked("jti-live", now);
+    }
+
+    @Benchmark
+    public boolean lookupRevokedToken() {
+        return store.isTokenRevoked("jti-" + (sequence - 1), now);
+    }
+
+    @Benchmark
+    public void revokeOnDeviceSwitch() {
+        store.revokeToken("jti-" + sequence++, now.plus(accessTtl), now);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TokenRevocationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.auth.store;
+
+// Implements REQ-1.1
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+class TokenRevocationIndexTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final TokenRevocationIndex index = new TokenRevocationIndex(Duration.ofMinutes(1));
+
+    @Test
+    void revokedTokenStopsMatchingOnceExpired() {
+        index.revoke("jti-1", NOW.plusSeconds(90), NOW);
+
+        assertTrue(index.isRevoked("jti-1", NOW.plusSeconds(89)));
+        assertFalse(index.isRevoked("jti-1", NOW.plusSeconds(90)));
+        assertFalse(index.isRevoked("jti-2", NOW));
+    }
+
+    @Test
+    void alreadyExpiredTokensAreNotTracked() {
+        index.revoke("jti-1", NOW.minusSeconds(1), NOW);
+
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void purgeDropsWholeBucketsOnlyAfterTheirWindowPasses() {
+        index.revoke("jti-1", NOW.plusSeconds(10), NOW);
+        index.revoke("jti-2", NOW.plusSeconds(50), NOW);
+        index.revoke("jti-3", NOW.plusSeconds(70), NOW);
+
+        assertEquals(0, index.purgeExpired(NOW.plusSeconds(55)));
+        assertEquals(2, index.purgeExpired(NOW.plusSeconds(60)));
+        assertEquals(1, index.size());
+        assertTrue(index.isRevoked("jti-3", NOW.plusSeconds(60)));
+    }
+
+    @Test
+    void sizeStaysBoundedByLiveRevocationsOnLongRunningNode() {
+        Duration tokenTtl = Duration.ofMinutes(15);
+        Instant clock = NOW;
+        int maxSize = 0;
+        for (int i = 0; i < 200_000; i++) {
+            clock = clock.plusMillis(100);
+            index.revoke("jti-" + i, clock.plus(tokenTtl), clock);
+            maxSize = Math.max(maxSize, index.size());
+        }
+
+        // 15 minutes of revocations at 10/s plus at most one bucket of already-expired ids.
+        assertTrue(maxSize <= (15 + 1) * 60 * 10, "index grew to " + maxSize);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.auth.token;
+
+// Implements REQ-1.1
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares token issue cost of {@link JwtCodec} against the previous map + ObjectMapper +
+ * {@code Mac.getInstance} implementation of {@code AuthService.buildJwt}. The main method
+ * attaches the GC profiler so {@code gc.alloc.rate.norm} reports bytes allocated per token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtCodecBenchmark {
+
+    private static final String SECRET = "BenchmarkSecretKeyForJwtSignatures123456";
+
+    private JwtCodec codec;
+    private LegacyJwtBuilder legacy;
+    private JwtClaims claims;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        codec = new JwtCodec(SECRET);
+        legacy = new LegacyJwtBuilder(SECRET);
+        Instant issuedAt = Instant.parse("2024-01-01T00:00:00Z");
+        claims = new JwtClaims(
+                "+15551234567", "device-1", UUID.randomUUID().toString(), issuedAt, issuedAt.plusSeconds(3600));
+        token = codec.encode(claims);
+    }
+
+    @Benchmark
+    public String legacyBuildJwt() {
+        return legacy.build(claims);
+    }
+
+    @Benchmark
+    public String codecEncode() {
+        return codec.encode(claims);
+    }
+
+    @Benchmark
+    public JwtClaims codecDecode() {
+        return codec.decode(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtCodecBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build())
+                .run();
+    }
+
+    /** Verbatim copy of the pre-codec token builder kept as the benchmark baseline. */
+    static final class LegacyJwtBuilder {
+
+        private static final String HMAC_ALGORITHM = "HmacSHA256";
+        private static final String HEADER_JSON = "{\"alg\":\"HS256\",\"typ\":\"JWT\"}";
+        private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+        private static final Base64.Encoder BASE64_URL_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+        private final SecretKey jwtKey;
+
+        LegacyJwtBuilder(String secret) {
+            this.jwtKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        }
+
+        String build(JwtClaims claims) {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("sub", claims.subject());
+            payload.put("device_id", claims.deviceId());
+            payload.put("jti", claims.tokenId());
+            payload.put("iat", claims.issuedAt().getEpochSecond());
+            payload.put("exp", claims.expiresAt().getEpochSecond());
+            try {
+                String headerEncoded = base64UrlEncode(HEADER_JSON);
+                String payloadEncoded = base64UrlEncode(OBJECT_MAPPER.writeValueAsString(payload));
+                String signature = sign(headerEncoded + "." + payloadEncoded);
+                return headerEncoded + "." + payloadEncoded + "." + signature;
+            } catch (JsonProcessingException ex) {
+                throw new IllegalStateException("Unable to serialize JWT payload", ex);
+            }
+        }
+
+        private static String base64UrlEncode(String value) {
+            return BASE64_URL_ENCODER.encodeToString(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private String sign(String content) {
+            try {
+                Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+                mac.init(jwtKey);
+                return BASE64_URL_ENCODER.encodeToString(mac.doFinal(content.getBytes(StandardCharsets.UTF_8)));
+            } catch (GeneralSecurityException ex) {
+                throw new IllegalStateException("Unable to calculate JWT signature", ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.auth.token;
+
+// Implements REQ-1.1
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.auth.exception.InvalidTokenException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.Test;
+
+class JwtCodecTest {
+
+    private static final Instant ISSUED_AT = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final JwtCodec codec = new JwtCodec("TestSecretKeyForJwtSignatures1234567890");
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void encodedTokenRoundTripsThroughVerifier() {
+        JwtClaims claims = claims("+15551234567", "device-1");
+
+        JwtClaims decoded = codec.verify(codec.encode(claims), ISSUED_AT.plusSeconds(10));
+
+        assertEquals(claims, decoded);
+    }
+
+    @Test
+    void payloadIsStandardJsonWithEscapedValues() throws Exception {
+        String deviceId = "dev\"ice\\1\né中😀";
+        String token = codec.encode(claims("+15551234567", deviceId));
+
+        String[] parts = token.split("\\.");
+        assertEquals(3, parts.length);
+        JsonNode header = objectMapper.readTree(Base64.getUrlDecoder().decode(parts[0]));
+        JsonNode payload = objectMapper.readTree(Base64.getUrlDecoder().decode(parts[1]));
+        assertEquals("HS256", header.get("alg").asText());
+        assertEquals(deviceId, payload.get("device_id").asText());
+        assertEquals(ISSUED_AT.getEpochSecond(), payload.get("iat").asLong());
+        assertEquals(deviceId, codec.decode(token).deviceId());
+    }
+
+    @Test
+    void tokenUseClaimRoundTripsAndDefaultsToAccess() throws Exception {
+        JwtClaims refresh = new JwtClaims("+15551234567", "device-1", "jti-refresh", ISSUED_AT,
+                ISSUED_AT.plusSeconds(3600), TokenType.REFRESH);
+        String token = codec.encode(refresh);
+
+        JsonNode payload = objectMapper.readTree(Base64.getUrlDecoder().decode(token.split("\\.")[1]));
+        assertEquals("refresh", payload.get("token_use").asText());
+        assertEquals(TokenType.REFRESH, codec.decode(token).type());
+
+        String legacy = sign(token.split("\\.")[0], "{\"sub\":\"+1555\",\"device_id\":\"d\",\"jti\":\"j\","
+                + "\"iat\":1704067200,\"exp\":1704070800}");
+        assertEquals(TokenType.ACCESS, codec.decode(legacy).type());
+    }
+
+    @Test
+    void rejectsTamperedPayload() {
+        String token = codec.encode(claims("+15551234567", "device-1"));
+        String[] parts = token.split("\\.");
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8)
+                        .replace("+15551234567", "+15550000000")
+                        .getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(InvalidTokenException.class,
+                () -> codec.decode(parts[0] + "." + forgedPayload + "." + parts[2]));
+    }
+
+    @Test
+    void rejectsForeignSignatureKeyAndUnexpectedHeader() {
+        String foreign = new JwtCodec("AnotherSecretKeyForJwtSignatures12345678").encode(claims("+1555", "d"));
+        String unsigned = "eyJhbGciOiJub25lIn0." + foreign.split("\\.")[1] + ".";
+
+        assertThrows(InvalidTokenException.class, () -> codec.decode(foreign));
+        assertThrows(InvalidTokenException.class, () -> codec.decode(unsigned));
+        assertThrows(InvalidTokenException.class, () -> codec.decode("not-a-token"));
+    }
+
+    @Test
+    void verifyRejectsExpiredToken() {
+        String token = codec.encode(claims("+15551234567", "device-1"));
+
+        assertThrows(InvalidTokenException.class, () -> codec.verify(token, ISSUED_AT.plusSeconds(3600)));
+    }
+
+    private static String sign(String encodedHeader, String payloadJson) throws Exception {
+        String signingInput = encodedHeader + "." + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(payloadJson.getBytes(StandardCharsets.UTF_8));
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec("TestSecretKeyForJwtSignatures1234567890".getBytes(StandardCharsets.UTF_8),
+                "HmacSHA256"));
+        byte[] signature = mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+        return signingInput + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+    }
+
+    private JwtClaims claims(String phone, String deviceId) {
+        return new JwtClaims(
+                phone, deviceId, "4b1a2f4e-0d7c-4d7e-9d8c-2f1f6d3c9a10", ISSUED_AT, ISSUED_AT.plusSeconds(3600));
+    }
+}
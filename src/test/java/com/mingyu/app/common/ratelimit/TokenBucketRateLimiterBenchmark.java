@@ -0,0 +1,68 @@
+package com.mingyu.app.common.ratelimit;
+
+// Implements System
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Admission throughput of one limiter shared by 16 threads flooding {@code keys} phone numbers.
+ * {@code admitting} buckets refill faster than they are drained, so every call takes the CAS path;
+ * otherwise each bucket empties at once and almost every call is a rejection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(16)
+@Fork(1)
+public class TokenBucketRateLimiterBenchmark {
+
+    @Param({"20", "10000"})
+    public int keys;
+
+    @Param({"true", "false"})
+    public boolean admitting;
+
+    private TokenBucketRateLimiter limiter;
+    private String[] phones;
+
+    @Setup
+    public void setUp() {
+        BucketSpec spec = admitting
+                ? new BucketSpec(Integer.MAX_VALUE, 1, Duration.ofNanos(1))
+                : new BucketSpec(50, 1, Duration.ofHours(1));
+        limiter = new TokenBucketRateLimiter(spec, Clock.systemUTC());
+        phones = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            phones[i] = "phone-" + i;
+        }
+    }
+
+    @Benchmark
+    public boolean tryAcquire() {
+        return limiter.tryAcquire(phones[ThreadLocalRandom.current().nextInt(keys)]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TokenBucketRateLimiterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,129 @@
+package com.mingyu.app.common.ratelimit;
+
+// Implements System
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.mingyu.app.support.MutableClock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketRateLimiterTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final MutableClock clock = new MutableClock(NOW);
+
+    @Test
+    void admitsBurstThenRefillsAtSustainedRate() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(new BucketSpec(3, 1, Duration.ofSeconds(10)), clock);
+
+        assertTrue(limiter.tryAcquire("phone"));
+        assertTrue(limiter.tryAcquire("phone"));
+        assertTrue(limiter.tryAcquire("phone"));
+        assertFalse(limiter.tryAcquire("phone"));
+        assertTrue(limiter.tryAcquire("other-phone"));
+
+        clock.advance(Duration.ofSeconds(9));
+        assertFalse(limiter.tryAcquire("phone"));
+        clock.advance(Duration.ofSeconds(1));
+        assertTrue(limiter.tryAcquire("phone"));
+        assertFalse(limiter.tryAcquire("phone"));
+    }
+
+    @Test
+    void refundReturnsOneToken() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(new BucketSpec(1, 1, Duration.ofMinutes(1)), clock);
+
+        assertTrue(limiter.tryAcquire("ip"));
+        limiter.refund("ip");
+
+        assertTrue(limiter.tryAcquire("ip"));
+        assertFalse(limiter.tryAcquire("ip"));
+    }
+
+    @Test
+    void reportsTimeUntilNextTokenOnceEmpty() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(new BucketSpec(2, 1, Duration.ofSeconds(10)), clock);
+
+        assertEquals(0L, limiter.nanosUntilAvailable("sms"));
+        limiter.tryAcquire("sms");
+        assertEquals(0L, limiter.nanosUntilAvailable("sms"));
+        limiter.tryAcquire("sms");
+        assertEquals(Duration.ofSeconds(10).toNanos(), limiter.nanosUntilAvailable("sms"));
+
+        clock.advance(Duration.ofSeconds(4));
+        assertEquals(Duration.ofSeconds(6).toNanos(), limiter.nanosUntilAvailable("sms"));
+        clock.advance(Duration.ofSeconds(6));
+        assertEquals(0L, limiter.nanosUntilAvailable("sms"));
+        assertTrue(limiter.tryAcquire("sms"));
+    }
+
+    @Test
+    void evictIdleForgetsOnlyFullyRefilledBuckets() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(new BucketSpec(2, 1, Duration.ofSeconds(1)), clock);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+        limiter.tryAcquire("b");
+
+        clock.advance(Duration.ofSeconds(1));
+
+        assertEquals(1, limiter.evictIdle());
+        assertEquals(1, limiter.size());
+        assertFalse(limiter.tryAcquire("b") && limiter.tryAcquire("b"));
+    }
+
+    @Test
+    void concurrentFloodNeverOverAdmits() throws Exception {
+        int capacity = 50;
+        int keys = 20;
+        int threads = 16;
+        int attemptsPerThread = 25_000;
+        TokenBucketRateLimiter limiter =
+                new TokenBucketRateLimiter(new BucketSpec(capacity, 1, Duration.ofHours(1)), clock);
+        AtomicInteger[] admitted = new AtomicInteger[keys];
+        for (int i = 0; i < keys; i++) {
+            admitted[i] = new AtomicInteger();
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        int key = (i + offset) % keys;
+                        if (limiter.tryAcquire("phone-" + key)) {
+                            admitted[key].incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (AtomicInteger count : admitted) {
+            assertEquals(capacity, count.get());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.mingyu.app.notification.breaker;
+
+// Implements 2.权限引导与存活看板
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.mingyu.app.notification.config.NotificationCircuitBreakerProperties;
+import com.mingyu.app.support.MutableClock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ProviderCircuitBreakerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private NotificationCircuitBreakerProperties properties;
+    private MutableClock clock;
+    private List<ProviderCircuitBreaker.State> transitions;
+    private ProviderCircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        properties = new NotificationCircuitBreakerProperties();
+        properties.setWindowSize(10);
+        properties.setMinimumCalls(4);
+        properties.setFailureRateThreshold(0.5d);
+        properties.setSlowCallMillis(1_000);
+        properties.setSlowCallRateThreshold(0.5d);
+        properties.setOpenMillis(30_000);
+        properties.setHalfOpenProbes(2);
+        clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        transitions = new ArrayList<>();
+        breaker = new ProviderCircuitBreaker("push/test", properties, clock, (source, state) -> transitions.add(state));
+    }
+
+    @Test
+    void staysClosedUntilMinimumCallsThenOpensAtFailureThreshold() {
+        breaker.onError(FAST);
+        breaker.onError(FAST);
+        breaker.onError(FAST);
+        assertEquals(ProviderCircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.onSuccess(FAST);
+        assertEquals(ProviderCircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(0.75d, breaker.getFailureRate());
+        assertFalse(breaker.tryAcquirePermission());
+        assertEquals(List.of(ProviderCircuitBreaker.State.OPEN), transitions);
+    }
+
+    @Test
+    void oldOutcomesSlideOutOfTheWindow() {
+        for (int i = 0; i < 4; i++) {
+            breaker.onSuccess(FAST);
+            breaker.onError(FAST);
+            breaker.onSuccess(FAST);
+        }
+        // 4 failures in 12 calls, of which the window holds the last 10: 3 failures.
+        assertEquals(10, breaker.getRecordedCalls());
+        assertEquals(0.3d, breaker.getFailureRate(), 1e-9);
+        assertEquals(ProviderCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void opensOnSlowCallsEvenWhenTheySucceed() {
+        long slow = TimeUnit.MILLISECONDS.toNanos(1_500);
+        breaker.onSuccess(slow);
+        breaker.onSuccess(slow);
+        breaker.onSuccess(FAST);
+        breaker.onSuccess(FAST);
+
+        assertEquals(ProviderCircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(0.0d, breaker.getFailureRate());
+    }
+
+    @Test
+    void halfOpenAdmitsLimitedProbesAndClosesWhenTheyAllSucceed() {
+        tripOpen();
+        clock.advance(Duration.ofMillis(properties.getOpenMillis() - 1));
+        assertFalse(breaker.tryAcquirePermission());
+
+        clock.advance(Duration.ofMillis(1));
+        assertTrue(breaker.tryAcquirePermission());
+        assertTrue(breaker.tryAcquirePermission());
+        assertFalse(breaker.tryAcquirePermission());
+        assertEquals(ProviderCircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        breaker.onSuccess(FAST);
+        breaker.onSuccess(FAST);
+
+        assertEquals(ProviderCircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getRecordedCalls());
+        assertTrue(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    void failedProbeReopensForAnotherFullInterval() {
+        tripOpen();
+        clock.advance(Duration.ofMillis(properties.getOpenMillis()));
+        assertTrue(breaker.tryAcquirePermission());
+
+        breaker.onError(FAST);
+
+        assertEquals(ProviderCircuitBreaker.State.OPEN, breaker.getState());
+        clock.advance(Duration.ofMillis(properties.getOpenMillis() - 1));
+        assertFalse(breaker.tryAcquirePermission());
+        assertEquals(
+                List.of(ProviderCircuitBreaker.State.OPEN,
+                        ProviderCircuitBreaker.State.HALF_OPEN,
+                        ProviderCircuitBreaker.State.OPEN),
+                transitions);
+    }
+
+    @Test
+    void disabledBreakerNeverRejects() {
+        properties.setEnabled(false);
+        tripOpen();
+
+        assertEquals(ProviderCircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquirePermission());
+    }
+
+    private void tripOpen() {
+        for (int i = 0; i < properties.getMinimumCalls(); i++) {
+            breaker.onError(FAST);
+        }
+    }
+}
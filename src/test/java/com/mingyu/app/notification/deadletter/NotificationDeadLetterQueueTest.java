@@ -0,0 +1,178 @@
+package com.mingyu.app.notification.deadletter;
+
+// Implements 2.权限引导与存活看板
+
+import static com.mingyu.app.notification.support.NotificationRequests.heartbeatLost;
+import static com.mingyu.app.notification.support.NotificationRequests.pushRecipient;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mingyu.app.notification.config.NotificationDeadLetterProperties;
+import com.mingyu.app.notification.model.NotificationDispatchRequest;
+import com.mingyu.app.notification.model.NotificationEventType;
+import com.mingyu.app.notification.service.NotificationRequestCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class NotificationDeadLetterQueueTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T10:00:00Z");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final NotificationRequestCodec codec = new NotificationRequestCodec(objectMapper);
+    private NotificationDeadLetterProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        properties = new NotificationDeadLetterProperties();
+        properties.setMaxEntries(3);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void oldestLettersAreEvictedPastTheEntryCap() {
+        NotificationDeadLetterQueue queue = queue(NOW);
+        for (int i = 1; i <= 5; i++) {
+            queue.add(request(i), "trace-" + i, "all channels down");
+        }
+
+        assertEquals(3, queue.depth());
+        assertEquals("trace-3", queue.poll().traceId());
+        assertEquals("trace-4", queue.poll().traceId());
+        assertEquals("trace-5", queue.poll().traceId());
+        assertNull(queue.poll());
+        assertEquals(2.0d, outcome("dropped"));
+    }
+
+    @Test
+    void byteCapEvictsEvenBelowTheEntryCap() {
+        properties.setMaxEntries(100);
+        properties.setMaxBytes(1_000);
+        NotificationDeadLetterQueue queue = queue(NOW);
+        for (int i = 1; i <= 10; i++) {
+            queue.add(request(i), "trace-" + i, "all channels down");
+        }
+
+        Map<String, Object> details = queue.describe();
+        assertTrue((Long) details.get("bytes") <= 1_000L, "bytes " + details.get("bytes"));
+        assertTrue(queue.depth() < 10);
+        assertEquals("trace-10", lastOf(queue).traceId());
+    }
+
+    @Test
+    void evictedLettersSpillToFileAndComeBackOnceMemoryIsEmpty() throws Exception {
+        Path spill = tempDir.resolve("dead-letters.jsonl");
+        properties.setSpillFile(spill.toString());
+        NotificationDeadLetterQueue queue = queue(NOW);
+        for (int i = 1; i <= 5; i++) {
+            queue.add(request(i), "trace-" + i, "all channels down");
+        }
+        assertEquals(2, Files.readAllLines(spill).size());
+        assertEquals(5, queue.depth());
+        // A new process picks up what is on disk.
+        assertEquals(2, queue(NOW).depth());
+
+        for (int i = 3; i <= 5; i++) {
+            assertEquals("trace-" + i, queue.poll().traceId());
+        }
+        NotificationDeadLetter restored = queue.poll();
+        assertEquals("trace-1", restored.traceId());
+        assertEquals("all channels down", restored.lastError());
+        assertEquals(NotificationEventType.HEARTBEAT_FAILURE, queue.decode(restored).getEventType());
+        assertEquals("trace-2", queue.poll().traceId());
+        assertTrue(queue.isEmpty());
+        assertTrue(Files.readAllLines(spill).isEmpty());
+    }
+
+    @Test
+    void spillFileIsReadBackAChunkAtATimeFromWhereTheLastReadStopped() throws Exception {
+        Path spill = tempDir.resolve("dead-letters.jsonl");
+        properties.setSpillFile(spill.toString());
+        NotificationDeadLetterQueue queue = queue(NOW);
+        for (int i = 1; i <= 9; i++) {
+            queue.add(request(i), "trace-" + i, "all channels down");
+        }
+        for (int i = 7; i <= 9; i++) {
+            assertEquals("trace-" + i, queue.poll().traceId());
+        }
+
+        assertEquals("trace-1", queue.poll().traceId());
+        queue.add(request(10), "trace-10", "all channels down");
+
+        Map<String, Object> details = queue.describe();
+        assertEquals(3, details.get("inMemory"));
+        assertEquals(3L, details.get("spilled"));
+        assertEquals(6, Files.readAllLines(spill).size());
+        // A new process skips what was already read back.
+        assertEquals(3, queue(NOW).depth());
+
+        for (String traceId : new String[] {"trace-2", "trace-3", "trace-10", "trace-4", "trace-5", "trace-6"}) {
+            assertEquals(traceId, queue.poll().traceId());
+        }
+        assertTrue(queue.isEmpty());
+        assertTrue(Files.readAllLines(spill).isEmpty());
+        assertTrue(Files.notExists(tempDir.resolve("dead-letters.jsonl.offset")));
+    }
+
+    @Test
+    void describeReportsDepthAgeAndOutcomes() {
+        NotificationDeadLetterQueue queue = queue(NOW);
+        queue.add(request(1), "trace-1", "down");
+        NotificationDeadLetterQueue later = new NotificationDeadLetterQueue(properties, codec, objectMapper,
+                Clock.fixed(NOW.plusSeconds(90), ZoneOffset.UTC), new SimpleMeterRegistry());
+        later.requeue(queue.poll(), "still down");
+
+        Map<String, Object> details = later.describe();
+
+        assertEquals(1, details.get("inMemory"));
+        assertEquals(90L, details.get("oldestAgeSeconds"));
+        assertEquals(1, later.poll().replays());
+        assertEquals(1.0d, outcome("added"));
+    }
+
+    @Test
+    void disabledQueueKeepsNothing() {
+        properties.setEnabled(false);
+        NotificationDeadLetterQueue queue = queue(NOW);
+
+        queue.add(request(1), "trace-1", "down");
+
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+    }
+
+    private NotificationDeadLetterQueue queue(Instant now) {
+        return new NotificationDeadLetterQueue(
+                properties, codec, objectMapper, Clock.fixed(now, ZoneOffset.UTC), meterRegistry);
+    }
+
+    private static NotificationDeadLetter lastOf(NotificationDeadLetterQueue queue) {
+        NotificationDeadLetter last = null;
+        for (NotificationDeadLetter next = queue.poll(); next != null; next = queue.poll()) {
+            last = next;
+        }
+        return last;
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.get("notification.deadletter.letters").tag("outcome", outcome).counter().count();
+    }
+
+    private static NotificationDispatchRequest request(long monitoredUserId) {
+        return heartbeatLost(NOW).recipient(pushRecipient(monitoredUserId)).build();
+    }
+}
@@ -0,0 +1,147 @@
+package com.mingyu.app.notification.deadletter;
+
+// Implements 2.权限引导与存活看板
+
+import static com.mingyu.app.notification.support.NotificationRequests.heartbeatLost;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mingyu.app.notification.breaker.ProviderCircuitBreaker;
+import com.mingyu.app.notification.breaker.ProviderCircuitBreakerRegistry;
+import com.mingyu.app.notification.config.NotificationDeadLetterProperties;
+import com.mingyu.app.notification.exception.NotificationDispatchException;
+import com.mingyu.app.notification.model.NotificationChannel;
+import com.mingyu.app.notification.model.NotificationDispatchRequest;
+import com.mingyu.app.notification.model.NotificationDispatchResult;
+import com.mingyu.app.notification.model.NotificationPriority;
+import com.mingyu.app.notification.scheduling.NotificationPriorityExecutor;
+import com.mingyu.app.notification.service.NotificationDeduplicator;
+import com.mingyu.app.notification.service.NotificationRequestCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationDeadLetterReplayerTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T10:00:00Z");
+
+    @Mock
+    private NotificationDeduplicator deduplicator;
+
+    @Mock
+    private ProviderCircuitBreakerRegistry circuitBreakers;
+
+    @Mock
+    private NotificationPriorityExecutor priorityExecutor;
+
+    private final Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+    private NotificationDeadLetterProperties properties;
+    private NotificationDeadLetterQueue queue;
+    private NotificationDeadLetterReplayer replayer;
+
+    @BeforeEach
+    void setUp() {
+        properties = new NotificationDeadLetterProperties();
+        properties.setReplayBatchSize(2);
+        ObjectMapper objectMapper = new ObjectMapper();
+        queue = new NotificationDeadLetterQueue(properties, new NotificationRequestCodec(objectMapper), objectMapper,
+                clock, new SimpleMeterRegistry());
+        replayer = new NotificationDeadLetterReplayer(
+                queue, deduplicator, circuitBreakers, priorityExecutor, properties, clock);
+    }
+
+    @Test
+    void replaysOneBatchWithTheOriginalTriggerTime() {
+        Instant triggeredAt = NOW.minusSeconds(30);
+        for (int i = 1; i <= 3; i++) {
+            queue.add(heartbeatLost(triggeredAt).build(), "trace-" + i, "all channels down");
+        }
+        when(deduplicator.dispatchAsync(any(), anyString())).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(NotificationDispatchResult.success(
+                        NotificationChannel.PUSH, 1, invocation.getArgument(1), NOW)));
+
+        assertEquals(2, replayer.replayOnce());
+
+        ArgumentCaptor<NotificationDispatchRequest> captor = ArgumentCaptor.forClass(NotificationDispatchRequest.class);
+        verify(deduplicator).dispatchAsync(captor.capture(), eq("trace-1"));
+        assertEquals(triggeredAt, captor.getValue().getTriggeredAt());
+        assertEquals(1, queue.depth());
+    }
+
+    @Test
+    void lettersPastTheTriggerWindowExpireWithoutDispatch() {
+        queue.add(heartbeatLost(NOW.minusSeconds(61)).build(), "trace-old", "all channels down");
+
+        assertEquals(0, replayer.replayOnce());
+
+        verify(deduplicator, never()).dispatchAsync(any(), any());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void rejectsMaxAgeBeyondTheTriggerWindow() {
+        properties.setMaxAgeSeconds(61);
+
+        assertThrows(IllegalArgumentException.class, () -> new NotificationDeadLetterReplayer(
+                queue, deduplicator, circuitBreakers, priorityExecutor, properties, clock));
+    }
+
+    @Test
+    void waitsWhileEveryCircuitIsOpen() {
+        ProviderCircuitBreaker open = mock(ProviderCircuitBreaker.class);
+        when(open.getState()).thenReturn(ProviderCircuitBreaker.State.OPEN);
+        when(circuitBreakers.breakers()).thenReturn(List.of(open));
+        queue.add(heartbeatLost(NOW).build(), "trace-1", "all channels down");
+
+        assertEquals(0, replayer.replayOnce());
+
+        verify(deduplicator, never()).dispatchAsync(any(), any());
+        assertEquals(1, queue.depth());
+    }
+
+    @Test
+    void yieldsToQueuedLiveTraffic() {
+        when(priorityExecutor.isEnabled()).thenReturn(true);
+        when(priorityExecutor.queued(NotificationPriority.EMERGENCY)).thenReturn(3);
+        queue.add(heartbeatLost(NOW).build(), "trace-1", "all channels down");
+
+        assertEquals(0, replayer.replayOnce());
+
+        verify(deduplicator, never()).dispatchAsync(any(), any());
+    }
+
+    @Test
+    void failedReplayIsRequeuedAndNextRoundOnlyProbes() {
+        for (int i = 1; i <= 4; i++) {
+            queue.add(heartbeatLost(NOW).build(), "trace-" + i, "all channels down");
+        }
+        when(deduplicator.dispatchAsync(any(), anyString())).thenReturn(CompletableFuture.failedFuture(
+                new NotificationDispatchException("Unable to deliver notification", null)));
+
+        assertEquals(2, replayer.replayOnce());
+        assertEquals(1, replayer.replayOnce());
+
+        verify(deduplicator, times(3)).dispatchAsync(any(), anyString());
+        assertEquals(4, queue.depth());
+    }
+}
@@ -0,0 +1,65 @@
+package com.mingyu.app.notification.metrics;
+
+// Implements 2.权限引导与存活看板
+
+import com.mingyu.app.notification.model.NotificationChannel;
+import com.mingyu.app.notification.model.NotificationEventType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Cost of the meters one delivered notification records: a failed and a successful send, one
+ * backoff and the delivery itself. Run with the GC profiler (as {@link #main} does) and check that
+ * {@code gc.alloc.rate.norm} stays at zero bytes per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotificationDispatchMetricsBenchmark {
+
+    private NotificationDispatchMetrics metrics;
+    private Instant triggeredAt;
+    private Instant deliveredAt;
+
+    @Setup
+    public void setUp() {
+        metrics = new NotificationDispatchMetrics(new SimpleMeterRegistry());
+        triggeredAt = Instant.parse("2024-01-01T00:00:00Z");
+        deliveredAt = triggeredAt.plusMillis(1_250);
+    }
+
+    @Benchmark
+    public void recordDeliveryAfterOneRetry() {
+        metrics.recordSend(NotificationChannel.PUSH, 42_000_000L, false);
+        metrics.recordBackoff(NotificationChannel.PUSH, 250L);
+        metrics.recordSend(NotificationChannel.PUSH, 38_000_000L, true);
+        metrics.recordDelivered(
+                NotificationChannel.PUSH, NotificationEventType.HEARTBEAT_FAILURE, 2, triggeredAt, deliveredAt);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                        .include(NotificationDispatchMetricsBenchmark.class.getSimpleName())
+                        .addProfiler(GCProfiler.class)
+                        .build())
+                .run();
+    }
+}
@@ -0,0 +1,198 @@
+package com.mingyu.app.notification.provider;
+
+// Implements 2.权限引导与存活看板
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mingyu.app.notification.config.NotificationWebhookProperties;
+import com.mingyu.app.notification.exception.NotificationDeliveryException;
+import com.mingyu.app.notification.model.NotificationDispatchRequest;
+import com.mingyu.app.notification.model.NotificationEventType;
+import com.mingyu.app.notification.model.NotificationRecipient;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpTimeoutException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class WebhookNotificationChannelProviderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicReference<Handler> handler = new AtomicReference<>(exchange -> respond(exchange, 204));
+    private ExecutorService serverExecutor;
+    private HttpServer server;
+    private NotificationWebhookProperties properties;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        serverExecutor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/hook", exchange -> handler.get().handle(exchange));
+        server.setExecutor(serverExecutor);
+        server.start();
+        properties = new NotificationWebhookProperties();
+        properties.setRequestTimeoutMillis(2_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void postsJsonPayloadWithTraceHeader() throws Exception {
+        AtomicReference<String> traceHeader = new AtomicReference<>();
+        AtomicReference<byte[]> body = new AtomicReference<>();
+        handler.set(exchange -> {
+            traceHeader.set(exchange.getRequestHeaders().getFirst("X-Trace-Id"));
+            body.set(exchange.getRequestBody().readAllBytes());
+            respond(exchange, 204);
+        });
+
+        assertNull(provider().sendAsync(request(), "trace-hook").get(5, TimeUnit.SECONDS));
+
+        assertEquals("trace-hook", traceHeader.get());
+        JsonNode json = objectMapper.readTree(body.get());
+        assertEquals("PERMISSION_LOSS", json.get("eventType").asText());
+        assertEquals(20L, json.get("monitoredUserId").asLong());
+        assertEquals("Permission revoked", json.get("message").asText());
+    }
+
+    @Test
+    void nonSuccessStatusFailsDelivery() {
+        handler.set(exchange -> respond(exchange, 503));
+
+        ExecutionException failure = assertThrows(
+                ExecutionException.class, () -> provider().sendAsync(request(), "trace-503").get(5, TimeUnit.SECONDS));
+
+        assertInstanceOf(NotificationDeliveryException.class, failure.getCause());
+        assertTrue(failure.getCause().getMessage().contains("503"));
+    }
+
+    @Test
+    void slowEndpointTimesOut() {
+        CountDownLatch release = new CountDownLatch(1);
+        handler.set(exchange -> {
+            await(release);
+            respond(exchange, 204);
+        });
+        properties.setRequestTimeoutMillis(200);
+
+        try {
+            NotificationDeliveryException failure = assertThrows(
+                    NotificationDeliveryException.class, () -> provider().send(request(), "trace-slow"));
+            assertInstanceOf(HttpTimeoutException.class, failure.getCause());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void requestsBeyondHostLimitWaitForAFreeSlot() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        handler.set(exchange -> {
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            await(release);
+            inFlight.decrementAndGet();
+            respond(exchange, 204);
+        });
+        properties.setMaxConcurrentPerHost(2);
+        WebhookNotificationChannelProvider provider = provider();
+
+        List<CompletableFuture<Void>> sends = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            sends.add(provider.sendAsync(request(), "trace-" + i));
+        }
+        Thread.sleep(200);
+        assertEquals(2, peak.get());
+        release.countDown();
+
+        CompletableFuture.allOf(sends.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+        assertEquals(2, peak.get());
+    }
+
+    @Test
+    void fullHostQueueFailsImmediately() {
+        CountDownLatch release = new CountDownLatch(1);
+        handler.set(exchange -> {
+            await(release);
+            respond(exchange, 204);
+        });
+        properties.setMaxConcurrentPerHost(1);
+        properties.setMaxQueuedPerHost(1);
+        WebhookNotificationChannelProvider provider = provider();
+
+        try {
+            CompletableFuture<Void> running = provider.sendAsync(request(), "trace-1");
+            CompletableFuture<Void> queued = provider.sendAsync(request(), "trace-2");
+            CompletableFuture<Void> rejected = provider.sendAsync(request(), "trace-3");
+
+            assertTrue(rejected.isCompletedExceptionally());
+            assertTrue(!running.isDone() && !queued.isDone());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private WebhookNotificationChannelProvider provider() {
+        return new WebhookNotificationChannelProvider(properties, objectMapper);
+    }
+
+    private NotificationDispatchRequest request() {
+        NotificationRecipient recipient = NotificationRecipient.builder()
+                .monitorUserId(10L)
+                .monitoredUserId(20L)
+                .webhookUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/hook")
+                .build();
+        return NotificationDispatchRequest.builder()
+                .eventType(NotificationEventType.PERMISSION_LOSS)
+                .recipient(recipient)
+                .triggeredAt(Instant.parse("2024-01-01T10:00:00Z"))
+                .message("Permission revoked")
+                .build();
+    }
+
+    private static void respond(HttpExchange exchange, int status) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+
+        void handle(HttpExchange exchange) throws IOException;
+    }
+}
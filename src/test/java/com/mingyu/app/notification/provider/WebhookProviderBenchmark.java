@@ -0,0 +1,113 @@
+package com.mingyu.app.notification.provider;
+
+// Implements 2.权限引导与存活看板
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mingyu.app.notification.config.NotificationWebhookProperties;
+import com.mingyu.app.notification.model.NotificationDispatchRequest;
+import com.mingyu.app.notification.model.NotificationEventType;
+import com.mingyu.app.notification.model.NotificationRecipient;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Webhook deliveries per second against a local endpoint that answers 204 at once, in waves of
+ * {@value #WAVE} concurrent sends. {@code shared} goes through one provider and so one pooled
+ * client; {@code perCall} builds a fresh provider for every send, which is what opening a
+ * connection per notification costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class WebhookProviderBenchmark {
+
+    private static final int WAVE = 32;
+
+    @Param({"shared", "perCall"})
+    public String client;
+
+    private ExecutorService serverExecutor;
+    private HttpServer server;
+    private NotificationWebhookProperties properties;
+    private ObjectMapper objectMapper;
+    private WebhookNotificationChannelProvider sharedProvider;
+    private NotificationDispatchRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        serverExecutor = Executors.newFixedThreadPool(8);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        server.createContext("/hook", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.setExecutor(serverExecutor);
+        server.start();
+        properties = new NotificationWebhookProperties();
+        properties.setMaxConcurrentPerHost(WAVE);
+        objectMapper = new ObjectMapper();
+        sharedProvider = new WebhookNotificationChannelProvider(properties, objectMapper);
+        NotificationRecipient recipient = NotificationRecipient.builder()
+                .monitorUserId(10L)
+                .monitoredUserId(20L)
+                .webhookUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/hook")
+                .build();
+        request = NotificationDispatchRequest.builder()
+                .eventType(NotificationEventType.HEARTBEAT_FAILURE)
+                .recipient(recipient)
+                .triggeredAt(Instant.now())
+                .message("Device offline")
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(WAVE)
+    public void deliver() {
+        CompletableFuture<?>[] sends = new CompletableFuture<?>[WAVE];
+        for (int i = 0; i < WAVE; i++) {
+            WebhookNotificationChannelProvider provider = "shared".equals(client)
+                    ? sharedProvider
+                    : new WebhookNotificationChannelProvider(properties, objectMapper);
+            sends[i] = provider.sendAsync(request, "bench");
+        }
+        CompletableFuture.allOf(sends).join();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(WebhookProviderBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,102 @@
+package com.mingyu.app.notification.queue;
+
+// Implements 2.权限引导与存活看板
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.mingyu.app.notification.config.NotificationQueueProperties;
+import com.mingyu.app.support.MutableClock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class InMemoryNotificationStreamTest {
+
+    private static final String GROUP = "workers";
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+    private NotificationQueueProperties properties;
+    private InMemoryNotificationStream stream;
+
+    @BeforeEach
+    void setUp() {
+        properties = new NotificationQueueProperties();
+        properties.setMaxLength(10);
+        stream = new InMemoryNotificationStream(properties, clock);
+        stream.createGroup(GROUP);
+    }
+
+    @Test
+    void eachEntryGoesToOneConsumerOfTheGroup() throws InterruptedException {
+        for (int i = 1; i <= 3; i++) {
+            stream.append("trace-" + i, "payload-" + i);
+        }
+
+        List<NotificationStreamEntry> first = stream.read(GROUP, "a", 2, Duration.ZERO);
+        List<NotificationStreamEntry> second = stream.read(GROUP, "b", 2, Duration.ZERO);
+
+        assertEquals(List.of("trace-1", "trace-2"), first.stream().map(NotificationStreamEntry::traceId).toList());
+        assertEquals(List.of("trace-3"), second.stream().map(NotificationStreamEntry::traceId).toList());
+        assertEquals(1, second.get(0).deliveries());
+        assertTrue(stream.read(GROUP, "a", 2, Duration.ZERO).isEmpty());
+        assertEquals(3, stream.pending(GROUP));
+    }
+
+    @Test
+    void acknowledgedEntriesLeaveThePendingList() throws InterruptedException {
+        stream.append("trace-1", "payload-1");
+        stream.append("trace-2", "payload-2");
+        List<NotificationStreamEntry> read = stream.read(GROUP, "a", 10, Duration.ZERO);
+
+        stream.acknowledge(GROUP, List.of(read.get(0).id()));
+
+        assertEquals(1, stream.pending(GROUP));
+    }
+
+    @Test
+    void entriesIdleLongEnoughAreClaimedWithTheirDeliveryCount() throws InterruptedException {
+        stream.append("trace-1", "payload-1");
+        stream.read(GROUP, "crashed", 10, Duration.ZERO);
+
+        assertTrue(stream.claimIdle(GROUP, "b", Duration.ofSeconds(30), 10).isEmpty());
+
+        clock.advance(Duration.ofSeconds(30));
+        List<NotificationStreamEntry> claimed = stream.claimIdle(GROUP, "b", Duration.ofSeconds(30), 10);
+
+        assertEquals(1, claimed.size());
+        assertEquals("trace-1", claimed.get(0).traceId());
+        assertEquals(2, claimed.get(0).deliveries());
+        assertTrue(stream.claimIdle(GROUP, "c", Duration.ofSeconds(30), 10).isEmpty());
+    }
+
+    @Test
+    void blockingReadWakesUpOnAppend() throws InterruptedException {
+        Thread producer = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            stream.append("trace-1", "payload-1");
+        });
+        producer.start();
+
+        List<NotificationStreamEntry> read = stream.read(GROUP, "a", 10, Duration.ofSeconds(5));
+        producer.join();
+
+        assertEquals(1, read.size());
+    }
+
+    @Test
+    void trimsOldestEntriesPastMaxLength() throws InterruptedException {
+        for (int i = 1; i <= 15; i++) {
+            stream.append("trace-" + i, "payload-" + i);
+        }
+
+        assertEquals(10, stream.length());
+        assertEquals("trace-6", stream.read(GROUP, "a", 1, Duration.ZERO).get(0).traceId());
+    }
+}
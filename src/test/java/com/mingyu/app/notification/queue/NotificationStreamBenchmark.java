@@ -0,0 +1,162 @@
+package com.mingyu.app.notification.queue;
+
+// Implements 2.权限引导与存活看板
+
+import static com.mingyu.app.notification.support.NotificationRequests.deviceHeartbeatLost;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mingyu.app.notification.config.NotificationDeadLetterProperties;
+import com.mingyu.app.notification.config.NotificationDedupProperties;
+import com.mingyu.app.notification.config.NotificationQueueProperties;
+import com.mingyu.app.notification.config.NotificationRetryProperties;
+import com.mingyu.app.notification.deadletter.NotificationDeadLetterQueue;
+import com.mingyu.app.notification.model.NotificationChannel;
+import com.mingyu.app.notification.model.NotificationDispatchRequest;
+import com.mingyu.app.notification.provider.NotificationChannelProvider;
+import com.mingyu.app.notification.service.NotificationDeduplicator;
+import com.mingyu.app.notification.service.NotificationDispatcherBuilder;
+import com.mingyu.app.notification.service.NotificationDispatcherService;
+import com.mingyu.app.notification.service.NotificationRequestCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Time to drain {@code burst} stream entries with {@code consumers} worker nodes in one consumer
+ * group. Each node has its own dispatcher with two dispatch threads and a provider that takes
+ * {@code sendMillis} per call, so a node's capacity is bounded the way a real instance's is;
+ * divide {@code burst} by the mean for group throughput. Uses {@link InMemoryNotificationStream},
+ * so the Redis round trips of a real deployment are not part of the figure.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotificationStreamBenchmark {
+
+    @Param({"1", "2", "4"})
+    public int consumers;
+
+    @Param({"400"})
+    public int burst;
+
+    @Param({"5"})
+    public long sendMillis;
+
+    private final Semaphore received = new Semaphore(0);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final NotificationRequestCodec codec = new NotificationRequestCodec(objectMapper);
+    private final List<NotificationDispatcherService> dispatchers = new ArrayList<>();
+    private final List<NotificationStreamWorkers> nodes = new ArrayList<>();
+    private InMemoryNotificationStream stream;
+    private List<String> payloads;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        NotificationQueueProperties properties = new NotificationQueueProperties();
+        properties.setWorkerThreads(1);
+        properties.setBlockMillis(50);
+        properties.setMaxLength(burst * 4L);
+        stream = new InMemoryNotificationStream(properties, Clock.systemUTC());
+        // Every invocation reuses the same recipients; dedup would collapse later bursts into the first.
+        NotificationDedupProperties dedupProperties = new NotificationDedupProperties();
+        dedupProperties.setEnabled(false);
+        for (int i = 1; i <= consumers; i++) {
+            NotificationRetryProperties retryProperties = new NotificationRetryProperties();
+            retryProperties.setSchedulerThreads(2);
+            NotificationDispatcherService dispatcher =
+                    NotificationDispatcherBuilder.dispatcher(List.of(new SlowProvider(received, sendMillis)))
+                            .retryProperties(retryProperties)
+                            .build();
+            NotificationDeduplicator deduplicator = new NotificationDeduplicator(
+                    dispatcher, dedupProperties, Clock.systemUTC(), new SimpleMeterRegistry());
+            properties.setConsumerName("node-" + i);
+            NotificationDeadLetterQueue deadLetters = new NotificationDeadLetterQueue(
+                    new NotificationDeadLetterProperties(), codec, objectMapper, Clock.systemUTC(),
+                    new SimpleMeterRegistry());
+            NotificationStreamWorkers node = new NotificationStreamWorkers(stream, deduplicator, deadLetters, codec,
+                    properties, Clock.systemUTC(), new SimpleMeterRegistry());
+            node.start();
+            dispatchers.add(dispatcher);
+            nodes.add(node);
+        }
+        payloads = new ArrayList<>(burst);
+    }
+
+    @Setup(Level.Invocation)
+    public void encodeBurst() {
+        // Encoded here so the relay's work is not timed, and restamped so no request ages out.
+        payloads.clear();
+        Instant now = Instant.now();
+        for (int i = 0; i < burst; i++) {
+            payloads.add(codec.encode(deviceHeartbeatLost(now, i)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        nodes.forEach(NotificationStreamWorkers::stop);
+        dispatchers.forEach(NotificationDispatcherService::destroy);
+    }
+
+    @Benchmark
+    public void appendAndDrain() throws InterruptedException {
+        for (int i = 0; i < payloads.size(); i++) {
+            stream.append("trace-" + i, payloads.get(i));
+        }
+        received.acquire(burst);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(NotificationStreamBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /** Stands in for a push gateway: one blocking call of {@code sendMillis} per notification. */
+    private static final class SlowProvider implements NotificationChannelProvider {
+
+        private final Semaphore received;
+        private final long sendMillis;
+
+        private SlowProvider(Semaphore received, long sendMillis) {
+            this.received = received;
+            this.sendMillis = sendMillis;
+        }
+
+        @Override
+        public NotificationChannel getChannel() {
+            return NotificationChannel.PUSH;
+        }
+
+        @Override
+        public void send(NotificationDispatchRequest request, String traceId) {
+            try {
+                Thread.sleep(sendMillis);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            received.release();
+        }
+    }
+}
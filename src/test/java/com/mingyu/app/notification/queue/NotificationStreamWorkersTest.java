@@ -0,0 +1,134 @@
+package com.mingyu.app.notification.queue;
+
+// Implements 2.权限引导与存活看板
+
+import static com.mingyu.app.notification.support.NotificationRequests.heartbeatLost;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mingyu.app.notification.config.NotificationDeadLetterProperties;
+import com.mingyu.app.notification.config.NotificationQueueProperties;
+import com.mingyu.app.notification.deadletter.NotificationDeadLetterQueue;
+import com.mingyu.app.notification.exception.NotificationDispatchException;
+import com.mingyu.app.notification.model.NotificationChannel;
+import com.mingyu.app.notification.model.NotificationDispatchRequest;
+import com.mingyu.app.notification.model.NotificationDispatchResult;
+import com.mingyu.app.notification.service.NotificationDeduplicator;
+import com.mingyu.app.notification.service.NotificationRequestCodec;
+import com.mingyu.app.support.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationStreamWorkersTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T10:00:00Z");
+
+    @Mock
+    private NotificationDeduplicator deduplicator;
+
+    private final MutableClock clock = new MutableClock(NOW);
+    private final NotificationRequestCodec codec = new NotificationRequestCodec(new ObjectMapper());
+    private NotificationQueueProperties properties;
+    private InMemoryNotificationStream stream;
+    private NotificationDeadLetterQueue deadLetters;
+    private NotificationStreamWorkers workers;
+
+    @BeforeEach
+    void setUp() {
+        properties = new NotificationQueueProperties();
+        properties.setClaimIdleMillis(30_000);
+        properties.setMaxDeliveries(2);
+        stream = new InMemoryNotificationStream(properties, clock);
+        stream.createGroup(properties.getGroup());
+        ObjectMapper objectMapper = new ObjectMapper();
+        deadLetters = new NotificationDeadLetterQueue(new NotificationDeadLetterProperties(), codec, objectMapper,
+                clock, new SimpleMeterRegistry());
+        workers = new NotificationStreamWorkers(
+                stream, deduplicator, deadLetters, codec, properties, clock, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void deliveredEntriesAreAcknowledgedAndLateOnesRestamped() throws InterruptedException {
+        Instant triggeredAt = NOW.minusSeconds(600);
+        stream.append("trace-1", codec.encode(heartbeatLost(triggeredAt).build()));
+        when(deduplicator.dispatchAsync(any(), anyString())).thenReturn(succeeded());
+
+        assertEquals(1, workers.consumeOnce("a", false));
+
+        ArgumentCaptor<NotificationDispatchRequest> captor = ArgumentCaptor.forClass(NotificationDispatchRequest.class);
+        verify(deduplicator).dispatchAsync(captor.capture(), eq("trace-1"));
+        assertEquals(NOW, captor.getValue().getTriggeredAt());
+        assertEquals(triggeredAt, captor.getValue().getOriginallyTriggeredAt());
+        assertEquals(0, stream.pending(properties.getGroup()));
+    }
+
+    @Test
+    void failedEntryStaysPendingUntilAnotherConsumerClaimsIt() throws InterruptedException {
+        stream.append("trace-1", codec.encode(heartbeatLost(NOW).build()));
+        when(deduplicator.dispatchAsync(any(), anyString())).thenReturn(failed(), succeeded());
+
+        workers.consumeOnce("a", false);
+        assertEquals(1, stream.pending(properties.getGroup()));
+        assertEquals(0, workers.consumeOnce("b", true));
+
+        clock.advance(Duration.ofSeconds(30));
+        assertEquals(1, workers.consumeOnce("b", true));
+
+        assertEquals(0, stream.pending(properties.getGroup()));
+        assertTrue(deadLetters.isEmpty());
+    }
+
+    @Test
+    void entryFailingItsLastDeliveryIsDeadLettered() throws InterruptedException {
+        stream.append("trace-1", codec.encode(heartbeatLost(NOW).build()));
+        when(deduplicator.dispatchAsync(any(), anyString())).thenReturn(failed());
+
+        workers.consumeOnce("a", false);
+        clock.advance(Duration.ofSeconds(30));
+        workers.consumeOnce("b", true);
+
+        assertEquals(0, stream.pending(properties.getGroup()));
+        assertEquals(1, deadLetters.depth());
+        assertEquals("trace-1", deadLetters.poll().traceId());
+    }
+
+    @Test
+    void entryWhoseConsumersKeptCrashingIsDeadLetteredWithoutDispatch() throws InterruptedException {
+        stream.append("trace-1", codec.encode(heartbeatLost(NOW).build()));
+        stream.read(properties.getGroup(), "crashed-1", 10, Duration.ZERO);
+        clock.advance(Duration.ofSeconds(30));
+        stream.claimIdle(properties.getGroup(), "crashed-2", Duration.ofSeconds(30), 10);
+        clock.advance(Duration.ofSeconds(30));
+
+        assertEquals(1, workers.consumeOnce("b", true));
+
+        verify(deduplicator, never()).dispatchAsync(any(), any());
+        assertEquals(0, stream.pending(properties.getGroup()));
+        assertEquals(1, deadLetters.depth());
+    }
+
+    private static CompletableFuture<NotificationDispatchResult> succeeded() {
+        return CompletableFuture.completedFuture(
+                NotificationDispatchResult.success(NotificationChannel.PUSH, 1, "trace-1", NOW));
+    }
+
+    private static CompletableFuture<NotificationDispatchResult> failed() {
+        return CompletableFuture.failedFuture(new NotificationDispatchException("Unable to deliver notification", null));
+    }
+}
@@ -0,0 +1,84 @@
+package com.mingyu.app.notification.queue;
+
+// Implements 2.权限引导与存活看板
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mingyu.app.notification.config.NotificationQueueProperties;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class RedisNotificationStreamTest {
+
+    private static final String STREAM = "notification:dispatch";
+    private static final String GROUP = "workers";
+    private static final Duration MIN_IDLE = Duration.ofMinutes(1);
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private StreamOperations<String, Object, Object> operations;
+
+    private RedisNotificationStream stream;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.<Object, Object>opsForStream()).thenReturn(operations);
+        stream = new RedisNotificationStream(redisTemplate, new NotificationQueueProperties());
+    }
+
+    @Test
+    void claimsOnlyIdleEntriesAndCountsTheClaimAsADelivery() {
+        when(operations.pending(STREAM, GROUP, Range.unbounded(), 10L)).thenReturn(new PendingMessages(GROUP, List.of(
+                pending("1-0", Duration.ofMinutes(2), 1),
+                pending("2-0", Duration.ofSeconds(10), 3),
+                pending("3-0", Duration.ofMinutes(5), 4))));
+        // 3-0 went to another consumer between XPENDING and XCLAIM, so only 1-0 comes back.
+        when(operations.claim(STREAM, GROUP, "node-b", MIN_IDLE, RecordId.of("1-0"), RecordId.of("3-0")))
+                .thenReturn(List.of(record("1-0", "trace-1", "payload-1")));
+
+        List<NotificationStreamEntry> entries = stream.claimIdle(GROUP, "node-b", MIN_IDLE, 10);
+
+        assertEquals(List.of(new NotificationStreamEntry("1-0", "trace-1", "payload-1", 2)), entries);
+    }
+
+    @Test
+    void skipsXclaimWhenNothingHasBeenIdleLongEnough() {
+        when(operations.pending(STREAM, GROUP, Range.unbounded(), 10L)).thenReturn(new PendingMessages(GROUP, List.of(
+                pending("1-0", Duration.ofSeconds(59), 1))));
+
+        assertTrue(stream.claimIdle(GROUP, "node-b", MIN_IDLE, 10).isEmpty());
+
+        verify(operations, never()).claim(any(), any(), any(), any(), any(RecordId[].class));
+    }
+
+    private static PendingMessage pending(String id, Duration idle, long deliveries) {
+        return new PendingMessage(RecordId.of(id), Consumer.from(GROUP, "node-a"), idle, deliveries);
+    }
+
+    private static MapRecord<String, Object, Object> record(String id, String traceId, String payload) {
+        return MapRecord.create(STREAM, Map.<Object, Object>of("traceId", traceId, "payload", payload))
+                .withId(RecordId.of(id));
+    }
+}
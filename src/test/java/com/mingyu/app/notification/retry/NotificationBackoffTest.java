@@ -0,0 +1,70 @@
+package com.mingyu.app.notification.retry;
+
+// Implements 2.权限引导与存活看板
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.mingyu.app.notification.config.NotificationRetryProperties;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NotificationBackoffTest {
+
+    private final Random random = new Random(42L);
+    private NotificationRetryProperties properties;
+    private NotificationBackoff backoff;
+
+    @BeforeEach
+    void setUp() {
+        properties = new NotificationRetryProperties();
+        properties.setInitialBackoffMillis(100);
+        properties.setMaxBackoffMillis(1_000);
+        properties.setMultiplier(2.0d);
+        backoff = new NotificationBackoff(properties, () -> random);
+    }
+
+    @Test
+    void noJitterIsPlainCappedExponential() {
+        properties.setJitter(NotificationRetryProperties.Jitter.NONE);
+
+        assertEquals(100L, backoff.nextDelayMillis(1, 0L));
+        assertEquals(200L, backoff.nextDelayMillis(2, 100L));
+        assertEquals(400L, backoff.nextDelayMillis(3, 200L));
+        assertEquals(1_000L, backoff.nextDelayMillis(5, 800L));
+    }
+
+    @Test
+    void fullAndEqualJitterStayUnderTheExponentialDelay() {
+        for (int i = 0; i < 1_000; i++) {
+            properties.setJitter(NotificationRetryProperties.Jitter.FULL);
+            long full = backoff.nextDelayMillis(3, 0L);
+            assertTrue(full >= 0L && full <= 400L, "full " + full);
+
+            properties.setJitter(NotificationRetryProperties.Jitter.EQUAL);
+            long equal = backoff.nextDelayMillis(3, 0L);
+            assertTrue(equal >= 200L && equal <= 400L, "equal " + equal);
+        }
+    }
+
+    @Test
+    void decorrelatedJitterGrowsFromThePreviousDelayAndSpreadsRetries() {
+        properties.setJitter(NotificationRetryProperties.Jitter.DECORRELATED);
+        Set<Long> firstRetries = new HashSet<>();
+        for (int i = 0; i < 1_000; i++) {
+            long first = backoff.nextDelayMillis(1, 0L);
+            assertTrue(first >= 100L && first <= 300L, "first " + first);
+            firstRetries.add(first);
+
+            long next = backoff.nextDelayMillis(2, first);
+            assertTrue(next >= 100L && next <= Math.min(1_000L, first * 3), "next " + next);
+
+            assertTrue(backoff.nextDelayMillis(6, 900L) <= 1_000L);
+        }
+        // Callers failing together must not come back together.
+        assertTrue(firstRetries.size() > 100, "distinct delays " + firstRetries.size());
+    }
+}
@@ -0,0 +1,93 @@
+package com.mingyu.app.notification.retry;
+
+// Implements 2.权限引导与存活看板
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.mingyu.app.notification.config.NotificationRetryProperties;
+import com.mingyu.app.support.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NotificationRetryBudgetTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+    private NotificationRetryProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new NotificationRetryProperties();
+        properties.getBudget().setPercent(10.0d);
+        properties.getBudget().setMinRetriesPerSecond(0);
+        properties.getBudget().setWindowSeconds(10);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void retriesAreCappedAtAShareOfFirstAttempts() {
+        NotificationRetryBudget budget = new NotificationRetryBudget(properties, clock, meterRegistry);
+        for (int i = 0; i < 100; i++) {
+            budget.recordFirstAttempt();
+        }
+
+        assertEquals(10, acquire(budget, 50));
+        assertEquals(40.0d, meterRegistry.get("notification.retry.budget.exhausted").counter().count());
+    }
+
+    @Test
+    void floorAllowsRetriesWhenTrafficIsLow() {
+        properties.getBudget().setMinRetriesPerSecond(2);
+        NotificationRetryBudget budget = new NotificationRetryBudget(properties, clock, meterRegistry);
+
+        assertEquals(20, acquire(budget, 50));
+    }
+
+    @Test
+    void spentBudgetIsReturnedOnceTheWindowMovesOn() {
+        NotificationRetryBudget budget = new NotificationRetryBudget(properties, clock, meterRegistry);
+        for (int i = 0; i < 10; i++) {
+            budget.recordFirstAttempt();
+        }
+        assertTrue(budget.tryAcquireRetry());
+        assertFalse(budget.tryAcquireRetry());
+
+        // Attempts still in the window keep counting; the retry spent on them does too.
+        clock.advance(Duration.ofSeconds(5));
+        for (int i = 0; i < 10; i++) {
+            budget.recordFirstAttempt();
+        }
+        assertTrue(budget.tryAcquireRetry());
+        assertFalse(budget.tryAcquireRetry());
+
+        clock.advance(Duration.ofSeconds(10));
+        assertFalse(budget.tryAcquireRetry());
+        for (int i = 0; i < 10; i++) {
+            budget.recordFirstAttempt();
+        }
+        assertTrue(budget.tryAcquireRetry());
+    }
+
+    @Test
+    void disabledBudgetAllowsEveryRetry() {
+        properties.getBudget().setEnabled(false);
+        NotificationRetryBudget budget = new NotificationRetryBudget(properties, clock, meterRegistry);
+
+        assertEquals(50, acquire(budget, 50));
+    }
+
+    private static int acquire(NotificationRetryBudget budget, int tries) {
+        int granted = 0;
+        for (int i = 0; i < tries; i++) {
+            if (budget.tryAcquireRetry()) {
+                granted++;
+            }
+        }
+        return granted;
+    }
+}
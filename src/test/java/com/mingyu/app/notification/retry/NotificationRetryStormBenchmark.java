@@ -0,0 +1,138 @@
+package com.mingyu.app.notification.retry;
+
+// Implements 2.权限引导与存活看板
+
+import com.mingyu.app.notification.config.NotificationRetryProperties;
+import com.mingyu.app.support.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Simulated, in virtual time, load on a notification gateway that is down from
+ * {@value #OUTAGE_START_MILLIS} ms to {@value #OUTAGE_END_MILLIS} ms while the heartbeat sweep
+ * raises {@value #PER_TICK} notifications in the first {@value #SWEEP_MILLIS} ms of every second.
+ * Failed calls are retried with the real {@link NotificationBackoff} and, when {@code budget} is
+ * {@code on}, only as far as the real {@link NotificationRetryBudget} allows. Reports the
+ * gateway's peak request rate (its busiest second) and its total calls; the benchmark time itself
+ * is only the cost of the simulation. The run is seeded, so one measured iteration is enough.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 1)
+@Fork(1)
+public class NotificationRetryStormBenchmark {
+
+    private static final int TICKS = 30;
+    private static final int PER_TICK = 500;
+    private static final long SWEEP_MILLIS = 50L;
+    private static final long OUTAGE_START_MILLIS = 5_000L;
+    private static final long OUTAGE_END_MILLIS = 20_000L;
+
+    @Param({"NONE", "DECORRELATED"})
+    public NotificationRetryProperties.Jitter jitter;
+
+    @Param({"off", "on"})
+    public String budget;
+
+    private NotificationRetryProperties properties;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        properties = new NotificationRetryProperties();
+        properties.setMaxAttempts(4);
+        properties.setInitialBackoffMillis(200);
+        properties.setMaxBackoffMillis(3_000);
+        properties.setMultiplier(2.0d);
+        properties.setJitter(jitter);
+        properties.getBudget().setEnabled("on".equals(budget));
+    }
+
+    @Benchmark
+    public void outage(Load load) {
+        Random random = new Random(7L);
+        MutableClock clock = new MutableClock(Instant.EPOCH);
+        NotificationBackoff backoff = new NotificationBackoff(properties, () -> random);
+        NotificationRetryBudget retryBudget = new NotificationRetryBudget(properties, clock, new SimpleMeterRegistry());
+        PriorityQueue<Call> calls = new PriorityQueue<>();
+        for (int tick = 0; tick < TICKS; tick++) {
+            for (int i = 0; i < PER_TICK; i++) {
+                calls.add(new Call(tick * 1_000L + random.nextLong(SWEEP_MILLIS), 1, 0L));
+            }
+        }
+        int[] perSecond = new int[TICKS + 60];
+        while (!calls.isEmpty()) {
+            Call call = calls.poll();
+            clock.set(Instant.ofEpochMilli(call.atMillis));
+            if (call.attempt == 1) {
+                retryBudget.recordFirstAttempt();
+            }
+            load.gatewayCalls++;
+            perSecond[(int) Math.min(perSecond.length - 1, call.atMillis / 1_000L)]++;
+            boolean down = call.atMillis >= OUTAGE_START_MILLIS && call.atMillis < OUTAGE_END_MILLIS;
+            if (!down || call.attempt == properties.getMaxAttempts()) {
+                continue;
+            }
+            long delayMillis = backoff.nextDelayMillis(call.attempt, call.previousDelayMillis);
+            if (!retryBudget.tryAcquireRetry()) {
+                load.retriesDropped++;
+                continue;
+            }
+            load.retries++;
+            calls.add(new Call(call.atMillis + delayMillis, call.attempt + 1, delayMillis));
+        }
+        for (int count : perSecond) {
+            load.peakPerSecond = Math.max(load.peakPerSecond, count);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(NotificationRetryStormBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Load {
+
+        public long peakPerSecond;
+        public long gatewayCalls;
+        public long retries;
+        public long retriesDropped;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            peakPerSecond = 0;
+            gatewayCalls = 0;
+            retries = 0;
+            retriesDropped = 0;
+        }
+    }
+
+    private record Call(long atMillis, int attempt, long previousDelayMillis) implements Comparable<Call> {
+
+        @Override
+        public int compareTo(Call other) {
+            return Long.compare(atMillis, other.atMillis);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.mingyu.app.notification.scheduling;
+
+// Implements 2.权限引导与存活看板
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.mingyu.app.notification.config.NotificationPriorityProperties;
+import com.mingyu.app.notification.model.NotificationPriority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NotificationPriorityExecutorTest {
+
+    private NotificationPriorityProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationPriorityExecutor executor;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        properties = new NotificationPriorityProperties();
+        properties.setWorkerThreads(1);
+        properties.setReservedEmergencyThreads(0);
+        properties.setAgingMillis(60_000);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (executor != null) {
+            executor.destroy();
+        }
+    }
+
+    @Test
+    void reservedWorkerRunsEmergencyWhileGeneralWorkersAreBusy() throws Exception {
+        properties.setReservedEmergencyThreads(1);
+        executor = new NotificationPriorityExecutor(properties, meterRegistry);
+        CountDownLatch blocked = blockGeneralWorker();
+
+        Future<?> emergency = executor.submit(NotificationPriority.EMERGENCY, () -> {});
+
+        emergency.get(1, TimeUnit.SECONDS);
+        assertEquals(1L, blocked.getCount());
+    }
+
+    @Test
+    void generalWorkerTakesMostUrgentClassFirst() throws Exception {
+        executor = new NotificationPriorityExecutor(properties, meterRegistry);
+        blockGeneralWorker();
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        Future<?> normal = executor.submit(NotificationPriority.NORMAL, () -> order.add("normal"));
+        executor.submit(NotificationPriority.HIGH, () -> order.add("high-1"));
+        executor.submit(NotificationPriority.EMERGENCY, () -> order.add("emergency"));
+        executor.submit(NotificationPriority.HIGH, () -> order.add("high-2"));
+        release.countDown();
+        normal.get(1, TimeUnit.SECONDS);
+
+        assertEquals(List.of("emergency", "high-1", "high-2", "normal"), order);
+    }
+
+    @Test
+    void agedNormalTaskOvertakesFreshHighTask() throws Exception {
+        properties.setAgingMillis(50);
+        executor = new NotificationPriorityExecutor(properties, meterRegistry);
+        blockGeneralWorker();
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        executor.submit(NotificationPriority.NORMAL, () -> order.add("normal"));
+        Thread.sleep(150);
+        Future<?> high = executor.submit(NotificationPriority.HIGH, () -> order.add("high"));
+        release.countDown();
+        high.get(1, TimeUnit.SECONDS);
+
+        assertEquals(List.of("normal", "high"), order);
+    }
+
+    @Test
+    void recordsQueueWaitPerClass() throws Exception {
+        executor = new NotificationPriorityExecutor(properties, meterRegistry);
+
+        executor.submit(NotificationPriority.HIGH, () -> {}).get(1, TimeUnit.SECONDS);
+        executor.submit(NotificationPriority.HIGH, () -> {}).get(1, TimeUnit.SECONDS);
+
+        assertEquals(2L, meterRegistry.get("notification.dispatch.queue.wait").tag("priority", "high").timer().count());
+        assertEquals(0L, meterRegistry.get("notification.dispatch.queue.wait").tag("priority", "emergency").timer().count());
+    }
+
+    @Test
+    void rejectsWorkWhenDisabledOrShutDown() {
+        properties.setEnabled(false);
+        NotificationPriorityExecutor disabled = new NotificationPriorityExecutor(properties, meterRegistry);
+        assertFalse(disabled.isEnabled());
+        assertThrows(RejectedExecutionException.class, () -> disabled.submit(NotificationPriority.HIGH, () -> {}));
+
+        properties.setEnabled(true);
+        executor = new NotificationPriorityExecutor(properties, meterRegistry);
+        executor.destroy();
+        assertTrue(executor.isEnabled());
+        assertThrows(RejectedExecutionException.class, () -> executor.submit(NotificationPriority.EMERGENCY, () -> {}));
+    }
+
+    private CountDownLatch blockGeneralWorker() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        executor.submit(NotificationPriority.HIGH, () -> {
+            started.countDown();
+            awaitQuietly(release);
+            blocked.countDown();
+        });
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        return blocked;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.mingyu.app.notification.service;
+
+// Implements 2.权限引导与存活看板
+
+import static com.mingyu.app.notification.support.NotificationRequests.heartbeatLost;
+
+import com.mingyu.app.notification.config.NotificationBatchProperties;
+import com.mingyu.app.notification.model.NotificationBatchItem;
+import com.mingyu.app.notification.model.NotificationBatchOutcome;
+import com.mingyu.app.notification.model.NotificationChannel;
+import com.mingyu.app.notification.model.NotificationDispatchRequest;
+import com.mingyu.app.notification.provider.NotificationChannelProvider;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Notifications delivered per second when {@value #ESCALATIONS} devices go stale in the same tick,
+ * against a stub push gateway that costs {@code gatewayLatencyMillis} per round trip whatever the
+ * batch size. {@code single} sends one request per round trip, {@code batched} coalesces them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotificationBatchBenchmark {
+
+    private static final int ESCALATIONS = 200;
+
+    @Param({"single", "batched"})
+    public String mode;
+
+    @Param({"1", "5"})
+    public long gatewayLatencyMillis;
+
+    private NotificationDispatcherService dispatcher;
+    private NotificationDispatchRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        NotificationBatchProperties batchProperties = new NotificationBatchProperties();
+        batchProperties.setEnabled("batched".equals(mode));
+        batchProperties.setMaxBatchSize(50);
+        batchProperties.setLingerMillis(5);
+        dispatcher = NotificationDispatcherBuilder.dispatcher(List.of(new StubGateway(gatewayLatencyMillis)))
+                .batchProperties(batchProperties)
+                .build();
+    }
+
+    @Setup(Level.Iteration)
+    public void refreshTrigger() {
+        // The dispatcher refuses triggers older than the 60 s window.
+        request = heartbeatLost(Instant.now()).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dispatcher.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ESCALATIONS)
+    public void escalateTick() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[ESCALATIONS];
+        for (int i = 0; i < ESCALATIONS; i++) {
+            futures[i] = dispatcher.dispatchAsync(request, "trace-" + i);
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(NotificationBatchBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static final class StubGateway implements NotificationChannelProvider {
+
+        private final long latencyNanos;
+
+        private StubGateway(long latencyMillis) {
+            this.latencyNanos = TimeUnit.MILLISECONDS.toNanos(latencyMillis);
+        }
+
+        @Override
+        public NotificationChannel getChannel() {
+            return NotificationChannel.PUSH;
+        }
+
+        @Override
+        public void send(NotificationDispatchRequest request, String traceId) {
+            LockSupport.parkNanos(latencyNanos);
+        }
+
+        @Override
+        public List<NotificationBatchOutcome> sendBatch(List<NotificationBatchItem> items) {
+            LockSupport.parkNanos(latencyNanos);
+            return Collections.nCopies(items.size(), NotificationBatchOutcome.delivered());
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.mingyu.app.notification.service;
+
+// Implements 2.权限引导与存活看板
+
+import static com.mingyu.app.notification.support.NotificationRequests.heartbeatLost;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.mingyu.app.notification.config.NotificationBatchProperties;
+import com.mingyu.app.notification.exception.NotificationDeliveryException;
+import com.mingyu.app.notification.model.NotificationBatchItem;
+import com.mingyu.app.notification.model.NotificationBatchOutcome;
+import com.mingyu.app.notification.model.NotificationChannel;
+import com.mingyu.app.notification.model.NotificationDispatchRequest;
+import com.mingyu.app.notification.model.NotificationDispatchResult;
+import com.mingyu.app.notification.provider.NotificationChannelProvider;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NotificationBatchCoalescerTest {
+
+    private NotificationBatchProperties properties;
+    private ScheduledExecutorService executor;
+    private final List<NotificationBatchCoalescer> coalescers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        properties = new NotificationBatchProperties();
+        properties.setMaxBatchSize(3);
+        properties.setLingerMillis(20);
+        executor = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        coalescers.forEach(NotificationBatchCoalescer::shutdown);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void fullBatchIsSentWithoutWaitingForTheLinger() throws Exception {
+        properties.setLingerMillis(60_000);
+        BatchingProvider provider = new BatchingProvider(items -> delivered(items.size()));
+        NotificationBatchCoalescer coalescer = coalescer();
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            futures.add(coalescer.submit(provider, heartbeatLost(Instant.now()).build(), "trace-" + i));
+        }
+
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        assertEquals(List.of(3), provider.batchSizes);
+        assertEquals(List.of("trace-0", "trace-1", "trace-2"), provider.traceIds);
+    }
+
+    @Test
+    void partialBatchIsSentOnceTheLingerExpires() throws Exception {
+        BatchingProvider provider = new BatchingProvider(items -> delivered(items.size()));
+        NotificationBatchCoalescer coalescer = coalescer();
+
+        CompletableFuture<Void> first = coalescer.submit(provider, heartbeatLost(Instant.now()).build(), "trace-a");
+        CompletableFuture<Void> second = coalescer.submit(provider, heartbeatLost(Instant.now()).build(), "trace-b");
+
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+        assertEquals(List.of(2), provider.batchSizes);
+    }
+
+    @Test
+    void perItemOutcomesCompleteTheMatchingCaller() throws Exception {
+        NotificationDeliveryException rejected = new NotificationDeliveryException("token unregistered");
+        BatchingProvider provider = new BatchingProvider(items ->
+                List.of(NotificationBatchOutcome.delivered(), NotificationBatchOutcome.failed(rejected)));
+        NotificationBatchCoalescer coalescer = coalescer();
+
+        CompletableFuture<Void> ok = coalescer.submit(provider, heartbeatLost(Instant.now()).build(), "trace-ok");
+        CompletableFuture<Void> bad = coalescer.submit(provider, heartbeatLost(Instant.now()).build(), "trace-bad");
+
+        ok.get(5, TimeUnit.SECONDS);
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> bad.get(5, TimeUnit.SECONDS));
+        assertSame(rejected, failure.getCause());
+    }
+
+    @Test
+    void failingBatchCallFailsEveryItem() {
+        BatchingProvider provider = new BatchingProvider(items -> {
+            throw new NotificationDeliveryException("gateway unreachable");
+        });
+        NotificationBatchCoalescer coalescer = coalescer();
+
+        CompletableFuture<Void> first = coalescer.submit(provider, heartbeatLost(Instant.now()).build(), "trace-1");
+        CompletableFuture<Void> second = coalescer.submit(provider, heartbeatLost(Instant.now()).build(), "trace-2");
+
+        for (CompletableFuture<Void> future : List.of(first, second)) {
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+            assertEquals("gateway unreachable", failure.getCause().getMessage());
+        }
+    }
+
+    @Test
+    void blockedBatchDoesNotHoldUpTheScheduler() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        BatchingProvider provider = new BatchingProvider(items -> {
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return delivered(items.size());
+        });
+        NotificationBatchCoalescer coalescer = coalescer();
+
+        CompletableFuture<Void> stuck = coalescer.submit(provider, heartbeatLost(Instant.now()).build(), "trace-stuck");
+        // The linger timer has fired and handed the batch over once the provider is called.
+        while (provider.batchSizes.isEmpty()) {
+            Thread.sleep(5);
+        }
+
+        try {
+            assertEquals("fired", executor.schedule(() -> "fired", 0, TimeUnit.MILLISECONDS).get(1, TimeUnit.SECONDS));
+            assertFalse(stuck.isDone());
+        } finally {
+            release.countDown();
+        }
+        stuck.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void itemCancelledBeforeItsBatchIsSentIsLeftOut() throws Exception {
+        properties.setLingerMillis(60_000);
+        BatchingProvider provider = new BatchingProvider(items -> delivered(items.size()));
+        NotificationBatchCoalescer coalescer = coalescer();
+
+        CompletableFuture<Void> withdrawn = coalescer.submit(provider, heartbeatLost(Instant.now()).build(), "trace-withdrawn");
+        withdrawn.cancel(true);
+        CompletableFuture<Void> second = coalescer.submit(provider, heartbeatLost(Instant.now()).build(), "trace-2");
+        CompletableFuture<Void> third = coalescer.submit(provider, heartbeatLost(Instant.now()).build(), "trace-3");
+
+        CompletableFuture.allOf(second, third).get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("trace-2", "trace-3"), provider.traceIds);
+    }
+
+    @Test
+    void batchEveryCallerGaveUpOnIsInterrupted() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        BatchingProvider provider = new BatchingProvider(items -> {
+            try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException ex) {
+                interrupted.countDown();
+                Thread.currentThread().interrupt();
+            }
+            return delivered(items.size());
+        });
+        NotificationBatchCoalescer coalescer = coalescer();
+
+        CompletableFuture<Void> first = coalescer.submit(provider, heartbeatLost(Instant.now()).build(), "trace-1");
+        CompletableFuture<Void> second = coalescer.submit(provider, heartbeatLost(Instant.now()).build(), "trace-2");
+        while (provider.batchSizes.isEmpty()) {
+            Thread.sleep(5);
+        }
+        first.cancel(true);
+        assertFalse(interrupted.await(100, TimeUnit.MILLISECONDS));
+        second.cancel(true);
+
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void interruptedDefaultSendBatchFailsTheRestUnsent() {
+        List<String> sent = new ArrayList<>();
+        NotificationChannelProvider provider = new NotificationChannelProvider() {
+            @Override
+            public NotificationChannel getChannel() {
+                return NotificationChannel.SMS;
+            }
+
+            @Override
+            public void send(NotificationDispatchRequest request, String traceId) {
+                sent.add(traceId);
+                // A gateway call that saw the interrupt restores it before giving up.
+                Thread.currentThread().interrupt();
+                throw new NotificationDeliveryException("interrupted");
+            }
+        };
+
+        List<NotificationBatchOutcome> outcomes;
+        try {
+            outcomes = provider.sendBatch(List.of(
+                    new NotificationBatchItem(heartbeatLost(Instant.now()).build(), "trace-1"),
+                    new NotificationBatchItem(heartbeatLost(Instant.now()).build(), "trace-2")));
+        } finally {
+            Thread.interrupted();
+        }
+
+        assertEquals(List.of("trace-1"), sent);
+        assertEquals(2, outcomes.size());
+        assertFalse(outcomes.get(1).isDelivered());
+    }
+
+    @Test
+    void defaultSendBatchFallsBackToSingleSends() {
+        List<String> sent = new ArrayList<>();
+        NotificationChannelProvider provider = new NotificationChannelProvider() {
+            @Override
+            public NotificationChannel getChannel() {
+                return NotificationChannel.SMS;
+            }
+
+            @Override
+            public void send(NotificationDispatchRequest request, String traceId) {
+                if ("trace-2".equals(traceId)) {
+                    throw new IllegalStateException("carrier error");
+                }
+                sent.add(traceId);
+            }
+        };
+
+        List<NotificationBatchOutcome> outcomes = provider.sendBatch(List.of(
+                new NotificationBatchItem(heartbeatLost(Instant.now()).build(), "trace-1"),
+                new NotificationBatchItem(heartbeatLost(Instant.now()).build(), "trace-2")));
+
+        assertEquals(List.of("trace-1"), sent);
+        assertEquals(2, outcomes.size());
+        assertFalse(outcomes.get(1).isDelivered());
+        assertEquals("Channel SMS failed with IllegalStateException", outcomes.get(1).getError().getMessage());
+    }
+
+    @Test
+    void dispatcherCoalescesConcurrentEscalationsIntoOneBatch() throws Exception {
+        properties.setMaxBatchSize(10);
+        properties.setLingerMillis(50);
+        BatchingProvider provider = new BatchingProvider(items -> delivered(items.size()));
+        NotificationDispatcherService dispatcher =
+                NotificationDispatcherBuilder.dispatcher(List.of(provider)).batchProperties(properties).build();
+        try {
+            List<CompletableFuture<NotificationDispatchResult>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                futures.add(dispatcher.dispatchAsync(heartbeatLost(Instant.now()).build(), "trace-" + i));
+            }
+
+            for (CompletableFuture<NotificationDispatchResult> future : futures) {
+                assertEquals(NotificationChannel.PUSH, future.get(5, TimeUnit.SECONDS).getChannel());
+            }
+            assertEquals(List.of(10), provider.batchSizes);
+        } finally {
+            dispatcher.destroy();
+        }
+    }
+
+    private NotificationBatchCoalescer coalescer() {
+        NotificationBatchCoalescer coalescer = new NotificationBatchCoalescer(properties, executor);
+        coalescers.add(coalescer);
+        return coalescer;
+    }
+
+    private static List<NotificationBatchOutcome> delivered(int count) {
+        List<NotificationBatchOutcome> outcomes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            outcomes.add(NotificationBatchOutcome.delivered());
+        }
+        return outcomes;
+    }
+
+    private static final class BatchingProvider implements NotificationChannelProvider {
+
+        private final Function<List<NotificationBatchItem>, List<NotificationBatchOutcome>> gateway;
+        private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        private final List<String> traceIds = new CopyOnWriteArrayList<>();
+
+        private BatchingProvider(Function<List<NotificationBatchItem>, List<NotificationBatchOutcome>> gateway) {
+            this.gateway = gateway;
+        }
+
+        @Override
+        public NotificationChannel getChannel() {
+            return NotificationChannel.PUSH;
+        }
+
+        @Override
+        public void send(NotificationDispatchRequest request, String traceId) {
+            throw new AssertionError("batched provider should not receive single sends");
+        }
+
+        @Override
+        public List<NotificationBatchOutcome> sendBatch(List<NotificationBatchItem> items) {
+            batchSizes.add(items.size());
+            items.forEach(item -> traceIds.add(item.getTraceId()));
+            return gateway.apply(items);
+        }
+    }
+}
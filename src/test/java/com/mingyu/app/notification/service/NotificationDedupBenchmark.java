@@ -0,0 +1,134 @@
+package com.mingyu.app.notification.service;
+
+// Implements 2.权限引导与存活看板
+
+import com.mingyu.app.notification.config.NotificationDedupProperties;
+import com.mingyu.app.notification.config.NotificationHedgeProperties;
+import com.mingyu.app.notification.config.NotificationRetryProperties;
+import com.mingyu.app.notification.metrics.NotificationDispatchMetrics;
+import com.mingyu.app.notification.model.NotificationChannel;
+import com.mingyu.app.notification.model.NotificationDispatchRequest;
+import com.mingyu.app.notification.model.NotificationDispatchResult;
+import com.mingyu.app.notification.model.NotificationEventType;
+import com.mingyu.app.notification.model.NotificationRecipient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Events per second through {@link NotificationDeduplicator} in front of a dispatcher that completes
+ * immediately, so only the key index is measured. {@code distinctKeys} sets how many
+ * monitor/monitored/event combinations the stream cycles through; with {@code windowMillis = 1}
+ * nearly every event opens a new window, with the 30 s default nearly every event is suppressed.
+ * Add {@code -t N} to measure contention on the index from N producer threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotificationDedupBenchmark {
+
+    @Param({"16", "65536"})
+    public int distinctKeys;
+
+    @Param({"1", "30000"})
+    public long windowMillis;
+
+    private NotificationDispatcherService dispatcher;
+    private NotificationDeduplicator deduplicator;
+    private NotificationDispatchRequest[] requests;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        NotificationDispatchResult delivered =
+                NotificationDispatchResult.success(NotificationChannel.PUSH, 1, "bench", Instant.now());
+        Clock clock = Clock.systemUTC();
+        dispatcher = new NotificationDispatcherService(
+                List.of(),
+                new NotificationRetryProperties(),
+                new NotificationHedgeProperties(),
+                NotificationDispatcherBuilder.noCircuitBreakers(clock),
+                NotificationDispatcherBuilder.noBatching(),
+                NotificationDispatcherBuilder.noPriorityExecutor(),
+                NotificationDispatcherBuilder.noThrottle(clock),
+                new NotificationDispatchMetrics(new SimpleMeterRegistry()),
+                NotificationDispatcherBuilder.noRetryBudget(clock),
+                clock) {
+            @Override
+            public CompletableFuture<NotificationDispatchResult> dispatchAsync(
+                    NotificationDispatchRequest request, String traceId) {
+                return CompletableFuture.completedFuture(delivered);
+            }
+        };
+        NotificationDedupProperties properties = new NotificationDedupProperties();
+        properties.setWindowMillis(windowMillis);
+        deduplicator =
+                new NotificationDeduplicator(dispatcher, properties, Clock.systemUTC(), new SimpleMeterRegistry());
+
+        NotificationEventType[] eventTypes = {
+            NotificationEventType.PERMISSION_LOSS,
+            NotificationEventType.HEARTBEAT_FAILURE,
+            NotificationEventType.BEHAVIOR_ALERT
+        };
+        requests = new NotificationDispatchRequest[distinctKeys];
+        for (int i = 0; i < distinctKeys; i++) {
+            NotificationRecipient recipient = NotificationRecipient.builder()
+                    .monitorUserId(10L + i / 64)
+                    .monitoredUserId(20L + i % 64)
+                    .deviceToken("push-" + i)
+                    .build();
+            requests[i] = NotificationDispatchRequest.builder()
+                    .eventType(eventTypes[i % eventTypes.length])
+                    .recipient(recipient)
+                    .triggeredAt(Instant.now())
+                    .message("Permission revoked")
+                    .build();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dispatcher.destroy();
+    }
+
+    @Benchmark
+    public CompletableFuture<NotificationDispatchResult> dispatch(Cursor cursor) {
+        return deduplicator.dispatchAsync(requests[cursor.next(distinctKeys)], "bench");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(NotificationDedupBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int position;
+
+        int next(int bound) {
+            position = position + 1 == bound ? 0 : position + 1;
+            return position;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.mingyu.app.notification.service;
+
+// Implements 2.权限引导与存活看板
+
+import static com.mingyu.app.notification.support.NotificationRequests.heartbeatLost;
+import static com.mingyu.app.notification.support.NotificationRequests.pushRecipient;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mingyu.app.notification.config.NotificationDedupProperties;
+import com.mingyu.app.notification.exception.NotificationDispatchException;
+import com.mingyu.app.notification.model.NotificationChannel;
+import com.mingyu.app.notification.model.NotificationDispatchRequest;
+import com.mingyu.app.notification.model.NotificationDispatchResult;
+import com.mingyu.app.notification.model.NotificationEventType;
+import com.mingyu.app.support.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationDeduplicatorTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T10:00:00Z");
+
+    @Mock
+    private NotificationDispatcherService dispatcherService;
+
+    private NotificationDedupProperties properties;
+    private MutableClock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationDeduplicator deduplicator;
+
+    @BeforeEach
+    void setUp() {
+        properties = new NotificationDedupProperties();
+        properties.setWindowMillis(10_000);
+        properties.setMaxKeys(2);
+        clock = new MutableClock(NOW);
+        meterRegistry = new SimpleMeterRegistry();
+        deduplicator = new NotificationDeduplicator(dispatcherService, properties, clock, meterRegistry);
+    }
+
+    @Test
+    void duplicatesWithinWindowShareTheFirstDispatch() {
+        CompletableFuture<NotificationDispatchResult> pending = new CompletableFuture<>();
+        when(dispatcherService.dispatchAsync(any(), eq("trace-1"))).thenReturn(pending);
+
+        CompletableFuture<NotificationDispatchResult> first =
+                deduplicator.dispatchAsync(request(NotificationEventType.PERMISSION_LOSS, 20L), "trace-1");
+        clock.advance(Duration.ofSeconds(5));
+        CompletableFuture<NotificationDispatchResult> second =
+                deduplicator.dispatchAsync(request(NotificationEventType.PERMISSION_LOSS, 20L), "trace-2");
+        assertFalse(second.isDone());
+
+        NotificationDispatchResult result = NotificationDispatchResult.success(NotificationChannel.PUSH, 1, "trace-1", NOW);
+        pending.complete(result);
+
+        assertSame(result, first.join());
+        assertSame(result, second.join());
+        verify(dispatcherService, times(1)).dispatchAsync(any(), any());
+        assertEquals(1.0d, suppressed(NotificationEventType.PERMISSION_LOSS));
+    }
+
+    @Test
+    void requestAfterWindowClosesIsSentAgain() {
+        when(dispatcherService.dispatchAsync(any(), any())).thenReturn(completed());
+
+        deduplicator.dispatchAsync(request(NotificationEventType.HEARTBEAT_FAILURE, 20L), "trace-1");
+        clock.advance(Duration.ofSeconds(10));
+        deduplicator.dispatchAsync(request(NotificationEventType.HEARTBEAT_FAILURE, 20L), "trace-2");
+
+        verify(dispatcherService).dispatchAsync(any(), eq("trace-1"));
+        verify(dispatcherService).dispatchAsync(any(), eq("trace-2"));
+        assertEquals(0.0d, suppressed(NotificationEventType.HEARTBEAT_FAILURE));
+    }
+
+    @Test
+    void keyIncludesMonitoredUserAndEventType() {
+        when(dispatcherService.dispatchAsync(any(), any())).thenReturn(completed());
+
+        deduplicator.dispatchAsync(request(NotificationEventType.PERMISSION_LOSS, 20L), "trace-1");
+        deduplicator.dispatchAsync(request(NotificationEventType.PERMISSION_LOSS, 21L), "trace-2");
+        deduplicator.dispatchAsync(request(NotificationEventType.BEHAVIOR_ALERT, 20L), "trace-3");
+
+        verify(dispatcherService, times(3)).dispatchAsync(any(), any());
+    }
+
+    @Test
+    void emergencyPingIsNeverSuppressed() {
+        when(dispatcherService.dispatchAsync(any(), any())).thenReturn(completed());
+
+        deduplicator.dispatchAsync(request(NotificationEventType.EMERGENCY_PING, 20L), "trace-1");
+        deduplicator.dispatchAsync(request(NotificationEventType.EMERGENCY_PING, 20L), "trace-2");
+
+        verify(dispatcherService, times(2)).dispatchAsync(any(), any());
+        assertEquals(0, deduplicator.trackedKeys());
+    }
+
+    @Test
+    void failedDispatchClosesTheWindow() {
+        when(dispatcherService.dispatchAsync(any(), eq("trace-1")))
+                .thenReturn(CompletableFuture.failedFuture(new NotificationDispatchException("all channels down")));
+        when(dispatcherService.dispatchAsync(any(), eq("trace-2"))).thenReturn(completed());
+
+        CompletableFuture<NotificationDispatchResult> first =
+                deduplicator.dispatchAsync(request(NotificationEventType.PERMISSION_LOSS, 20L), "trace-1");
+        CompletableFuture<NotificationDispatchResult> retry =
+                deduplicator.dispatchAsync(request(NotificationEventType.PERMISSION_LOSS, 20L), "trace-2");
+
+        assertTrue(first.isCompletedExceptionally());
+        assertEquals("trace-2", retry.join().getTraceId());
+        assertEquals(0.0d, suppressed(NotificationEventType.PERMISSION_LOSS));
+    }
+
+    @Test
+    void fullIndexEvictsClosedWindowsThenPassesThrough() {
+        when(dispatcherService.dispatchAsync(any(), any())).thenReturn(completed());
+
+        deduplicator.dispatchAsync(request(NotificationEventType.PERMISSION_LOSS, 20L), "trace-1");
+        clock.advance(Duration.ofSeconds(10));
+        deduplicator.dispatchAsync(request(NotificationEventType.PERMISSION_LOSS, 21L), "trace-2");
+        deduplicator.dispatchAsync(request(NotificationEventType.PERMISSION_LOSS, 22L), "trace-3");
+        assertEquals(2, deduplicator.trackedKeys());
+
+        deduplicator.dispatchAsync(request(NotificationEventType.PERMISSION_LOSS, 23L), "trace-4");
+        deduplicator.dispatchAsync(request(NotificationEventType.PERMISSION_LOSS, 23L), "trace-5");
+
+        verify(dispatcherService, times(5)).dispatchAsync(any(), any());
+        assertEquals(2, deduplicator.trackedKeys());
+        assertEquals(2.0d, meterRegistry.get("notification.dedup.overflow").counter().count());
+    }
+
+    private double suppressed(NotificationEventType eventType) {
+        return meterRegistry.get("notification.dedup.suppressed")
+                .tag("event", eventType.name().toLowerCase())
+                .counter()
+                .count();
+    }
+
+    private static CompletableFuture<NotificationDispatchResult> completed() {
+        return CompletableFuture.completedFuture(
+                NotificationDispatchResult.success(NotificationChannel.PUSH, 1, "trace-2", NOW));
+    }
+
+    private static NotificationDispatchRequest request(NotificationEventType eventType, long monitoredUserId) {
+        return heartbeatLost(NOW).eventType(eventType).recipient(pushRecipient(monitoredUserId)).build();
+    }
+}
@@ -0,0 +1,139 @@
+package com.mingyu.app.notification.service;
+
+// Implements 2.权限引导与存活看板
+
+import com.mingyu.app.notification.breaker.ProviderCircuitBreakerRegistry;
+import com.mingyu.app.notification.config.NotificationBatchProperties;
+import com.mingyu.app.notification.config.NotificationCircuitBreakerProperties;
+import com.mingyu.app.notification.config.NotificationHedgeProperties;
+import com.mingyu.app.notification.config.NotificationPriorityProperties;
+import com.mingyu.app.notification.config.NotificationRetryProperties;
+import com.mingyu.app.notification.config.NotificationThrottleProperties;
+import com.mingyu.app.notification.metrics.NotificationDispatchMetrics;
+import com.mingyu.app.notification.provider.NotificationChannelProvider;
+import com.mingyu.app.notification.retry.NotificationRetryBudget;
+import com.mingyu.app.notification.scheduling.NotificationPriorityExecutor;
+import com.mingyu.app.notification.throttle.NotificationChannelThrottle;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.util.List;
+
+/**
+ * Builds {@link NotificationDispatcherService}s for tests and benchmarks. Only what a test sets is
+ * switched on: breakers, batching, the priority executor, the throttle and the retry budget
+ * default to off, metrics go to a private registry, and the clock is the system clock.
+ */
+public final class NotificationDispatcherBuilder {
+
+    private final List<NotificationChannelProvider> providers;
+    private NotificationRetryProperties retryProperties = new NotificationRetryProperties();
+    private NotificationHedgeProperties hedgeProperties = new NotificationHedgeProperties();
+    private ProviderCircuitBreakerRegistry circuitBreakers;
+    private NotificationBatchProperties batchProperties;
+    private NotificationPriorityExecutor priorityExecutor;
+    private NotificationChannelThrottle throttle;
+    private NotificationDispatchMetrics metrics;
+    private NotificationRetryBudget retryBudget;
+    private Clock clock = Clock.systemUTC();
+
+    private NotificationDispatcherBuilder(List<NotificationChannelProvider> providers) {
+        this.providers = providers;
+    }
+
+    public static NotificationDispatcherBuilder dispatcher(List<? extends NotificationChannelProvider> providers) {
+        return new NotificationDispatcherBuilder(List.copyOf(providers));
+    }
+
+    public NotificationDispatcherBuilder retryProperties(NotificationRetryProperties retryProperties) {
+        this.retryProperties = retryProperties;
+        return this;
+    }
+
+    public NotificationDispatcherBuilder hedgeProperties(NotificationHedgeProperties hedgeProperties) {
+        this.hedgeProperties = hedgeProperties;
+        return this;
+    }
+
+    public NotificationDispatcherBuilder circuitBreakers(ProviderCircuitBreakerRegistry circuitBreakers) {
+        this.circuitBreakers = circuitBreakers;
+        return this;
+    }
+
+    public NotificationDispatcherBuilder batchProperties(NotificationBatchProperties batchProperties) {
+        this.batchProperties = batchProperties;
+        return this;
+    }
+
+    public NotificationDispatcherBuilder priorityExecutor(NotificationPriorityExecutor priorityExecutor) {
+        this.priorityExecutor = priorityExecutor;
+        return this;
+    }
+
+    public NotificationDispatcherBuilder throttle(NotificationChannelThrottle throttle) {
+        this.throttle = throttle;
+        return this;
+    }
+
+    public NotificationDispatcherBuilder metrics(NotificationDispatchMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    public NotificationDispatcherBuilder retryBudget(NotificationRetryBudget retryBudget) {
+        this.retryBudget = retryBudget;
+        return this;
+    }
+
+    public NotificationDispatcherBuilder clock(Clock clock) {
+        this.clock = clock;
+        return this;
+    }
+
+    public NotificationDispatcherService build() {
+        return new NotificationDispatcherService(
+                providers,
+                retryProperties,
+                hedgeProperties,
+                circuitBreakers != null ? circuitBreakers : noCircuitBreakers(clock),
+                batchProperties != null ? batchProperties : noBatching(),
+                priorityExecutor != null ? priorityExecutor : noPriorityExecutor(),
+                throttle != null ? throttle : noThrottle(clock),
+                metrics != null ? metrics : new NotificationDispatchMetrics(new SimpleMeterRegistry()),
+                retryBudget != null ? retryBudget : noRetryBudget(clock),
+                clock);
+    }
+
+    /** Breakers that always stay closed. */
+    public static ProviderCircuitBreakerRegistry noCircuitBreakers(Clock clock) {
+        NotificationCircuitBreakerProperties properties = new NotificationCircuitBreakerProperties();
+        properties.setEnabled(false);
+        return new ProviderCircuitBreakerRegistry(properties, clock, new SimpleMeterRegistry());
+    }
+
+    public static NotificationBatchProperties noBatching() {
+        NotificationBatchProperties properties = new NotificationBatchProperties();
+        properties.setEnabled(false);
+        return properties;
+    }
+
+    /** Accepts nothing, so attempts stay on the dispatcher's own scheduler. */
+    public static NotificationPriorityExecutor noPriorityExecutor() {
+        NotificationPriorityProperties properties = new NotificationPriorityProperties();
+        properties.setEnabled(false);
+        return new NotificationPriorityExecutor(properties, new SimpleMeterRegistry());
+    }
+
+    /** Admits every call. */
+    public static NotificationChannelThrottle noThrottle(Clock clock) {
+        NotificationThrottleProperties properties = new NotificationThrottleProperties();
+        properties.setEnabled(false);
+        return new NotificationChannelThrottle(properties, clock, new SimpleMeterRegistry());
+    }
+
+    /** Allows every retry. */
+    public static NotificationRetryBudget noRetryBudget(Clock clock) {
+        NotificationRetryProperties properties = new NotificationRetryProperties();
+        properties.getBudget().setEnabled(false);
+        return new NotificationRetryBudget(properties, clock, new SimpleMeterRegistry());
+    }
+}
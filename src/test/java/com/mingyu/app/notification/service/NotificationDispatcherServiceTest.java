@@ -3,35 +3,65 @@ package com.mingyu.app.notification.service;
 // Implements 2.权限引导与存活看板
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import com.mingyu.app.notification.breaker.ProviderCircuitBreaker;
+import com.mingyu.app.notification.breaker.ProviderCircuitBreakerRegistry;
+import com.mingyu.app.notification.config.NotificationBatchProperties;
+import com.mingyu.app.notification.config.NotificationCircuitBreakerProperties;
+import com.mingyu.app.notification.config.NotificationHedgeProperties;
+import com.mingyu.app.notification.config.NotificationPriorityProperties;
 import com.mingyu.app.notification.config.NotificationRetryProperties;
+import com.mingyu.app.notification.config.NotificationThrottleProperties;
+import com.mingyu.app.notification.exception.NotificationDeadlineExceededException;
 import com.mingyu.app.notification.exception.NotificationDeliveryException;
 import com.mingyu.app.notification.exception.NotificationDispatchException;
+import com.mingyu.app.notification.exception.NotificationThrottledException;
+import com.mingyu.app.notification.metrics.NotificationDispatchMetrics;
 import com.mingyu.app.notification.model.NotificationChannel;
 import com.mingyu.app.notification.model.NotificationDispatchRequest;
 import com.mingyu.app.notification.model.NotificationDispatchResult;
 import com.mingyu.app.notification.model.NotificationEventType;
 import com.mingyu.app.notification.model.NotificationRecipient;
+import com.mingyu.app.notification.provider.AsyncNotificationChannelProvider;
 import com.mingyu.app.notification.provider.NotificationChannelProvider;
-import com.mingyu.app.notification.support.Sleeper;
+import com.mingyu.app.notification.retry.NotificationRetryBudget;
+import com.mingyu.app.notification.scheduling.NotificationPriorityExecutor;
+import com.mingyu.app.notification.throttle.NotificationChannelThrottle;
+import com.mingyu.app.support.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
 
 @ExtendWith(MockitoExtension.class)
 class NotificationDispatcherServiceTest {
@@ -42,13 +72,16 @@ class NotificationDispatcherServiceTest {
     @Mock
     private NotificationChannelProvider webhookProvider;
 
-    @Mock
-    private Sleeper sleeper;
-
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
     private NotificationRetryProperties retryProperties;
     private Clock clock;
     private NotificationDispatcherService dispatcherService;
 
+    @AfterEach
+    void tearDown() {
+        dispatcherService.destroy();
+    }
+
     @BeforeEach
     void setUp() {
         retryProperties = new NotificationRetryProperties();
@@ -56,37 +89,16 @@ class NotificationDispatcherServiceTest {
         retryProperties.setInitialBackoffMillis(100);
         retryProperties.setMaxBackoffMillis(1_000);
         retryProperties.setMultiplier(2.0d);
+        retryProperties.setJitter(NotificationRetryProperties.Jitter.NONE);
 
         clock = Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneOffset.UTC);
-        dispatcherService =
-                new NotificationDispatcherService(List.of(pushProvider, webhookProvider), retryProperties, clock, sleeper);
-    }
-
-    @Test
-    void dispatchRetriesWithinBackoffWindow() throws Exception {
-        NotificationDispatchRequest request = buildRequest(clock.instant());
-
-        when(pushProvider.supports(any())).thenReturn(true);
-        when(pushProvider.getChannel()).thenReturn(NotificationChannel.PUSH);
-        doThrow(new NotificationDeliveryException("temporary outage"))
-                .doNothing()
-                .when(pushProvider)
-                .send(any(NotificationDispatchRequest.class), anyString());
-        doNothing().when(sleeper).sleep(100L);
-
-        NotificationDispatchResult result = dispatcherService.dispatch(request, "trace-retry");
-
-        assertEquals(NotificationChannel.PUSH, result.getChannel());
-        assertEquals(2, result.getAttempts());
-        verify(sleeper).sleep(100L);
-        verifyNoInteractions(webhookProvider);
+        dispatcherService = dispatcher(pushProvider, webhookProvider).build();
     }
 
     @Test
     void dispatchFallsBackToSecondaryChannelAfterFailures() throws Exception {
         retryProperties.setMaxAttempts(2);
-        dispatcherService =
-                new NotificationDispatcherService(List.of(pushProvider, webhookProvider), retryProperties, clock, sleeper);
+        dispatcherService = dispatcher(pushProvider, webhookProvider).build();
 
         NotificationDispatchRequest request = buildRequest(clock.instant());
 
@@ -98,7 +110,6 @@ class NotificationDispatcherServiceTest {
         when(webhookProvider.supports(any())).thenReturn(true);
         when(webhookProvider.getChannel()).thenReturn(NotificationChannel.WEBHOOK);
         doNothing().when(webhookProvider).send(any(NotificationDispatchRequest.class), anyString());
-        doNothing().when(sleeper).sleep(100L);
 
         NotificationDispatchResult result = dispatcherService.dispatch(request, "trace-fallback");
 
@@ -106,7 +117,7 @@ class NotificationDispatcherServiceTest {
         assertEquals(1, result.getAttempts());
         verify(pushProvider, times(2)).send(any(NotificationDispatchRequest.class), anyString());
         verify(webhookProvider).send(any(NotificationDispatchRequest.class), anyString());
-        verify(sleeper).sleep(100L);
+        assertEquals(100.0d, backoffMillis("push"));
     }
 
     @Test
@@ -121,7 +132,508 @@ class NotificationDispatcherServiceTest {
         verifyNoInteractions(webhookProvider);
     }
 
+    @Test
+    void dispatchAsyncSchedulesRetriesInsteadOfSleeping() throws Exception {
+        NotificationDispatchRequest request = buildRequest(clock.instant());
+
+        when(pushProvider.supports(any())).thenReturn(true);
+        when(pushProvider.getChannel()).thenReturn(NotificationChannel.PUSH);
+        doThrow(new NotificationDeliveryException("temporary outage"))
+                .doNothing()
+                .when(pushProvider)
+                .send(any(NotificationDispatchRequest.class), anyString());
+
+        CompletableFuture<NotificationDispatchResult> future = dispatcherService.dispatchAsync(request, "trace-async");
+
+        assertFalse(future.isDone());
+        NotificationDispatchResult result = future.get(5, TimeUnit.SECONDS);
+        assertEquals(NotificationChannel.PUSH, result.getChannel());
+        assertEquals(2, result.getAttempts());
+        assertEquals(100.0d, backoffMillis("push"));
+        verify(webhookProvider, never()).send(any(NotificationDispatchRequest.class), anyString());
+    }
+
+    @Test
+    void dispatchAsyncFallsBackAndFailsWhenEveryChannelIsExhausted() {
+        retryProperties.setMaxAttempts(2);
+        retryProperties.setInitialBackoffMillis(1);
+        dispatcherService = dispatcher(pushProvider, webhookProvider).build();
+        NotificationDispatchRequest request = buildRequest(clock.instant());
+
+        when(pushProvider.supports(any())).thenReturn(true);
+        when(pushProvider.getChannel()).thenReturn(NotificationChannel.PUSH);
+        doThrow(new NotificationDeliveryException("push down"))
+                .when(pushProvider)
+                .send(any(NotificationDispatchRequest.class), anyString());
+        when(webhookProvider.supports(any())).thenReturn(true);
+        when(webhookProvider.getChannel()).thenReturn(NotificationChannel.WEBHOOK);
+        doThrow(new NotificationDeliveryException("webhook down"))
+                .when(webhookProvider)
+                .send(any(NotificationDispatchRequest.class), anyString());
+
+        CompletableFuture<NotificationDispatchResult> future = dispatcherService.dispatchAsync(request, "trace-down");
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(NotificationDispatchException.class, failure.getCause());
+        assertEquals("webhook down", failure.getCause().getCause().getMessage());
+        verify(pushProvider, times(2)).send(any(NotificationDispatchRequest.class), anyString());
+        verify(webhookProvider, times(2)).send(any(NotificationDispatchRequest.class), anyString());
+    }
+
+    @Test
+    void dispatchAsyncReportsLateTriggerAsFailedFuture() {
+        CompletableFuture<NotificationDispatchResult> future =
+                dispatcherService.dispatchAsync(buildRequest(clock.instant().minusSeconds(61)), "trace-late");
+
+        assertTrue(future.isCompletedExceptionally());
+        verifyNoInteractions(pushProvider);
+    }
+
+    @Test
+    void hedgedDispatchStartsNextChannelWhenPrimaryIsSlow() throws Exception {
+        dispatcherService = hedgedDispatcher(50);
+        NotificationDispatchRequest request = buildRequest(clock.instant());
+        CountDownLatch pushReleased = new CountDownLatch(1);
+
+        when(pushProvider.supports(any())).thenReturn(true);
+        when(pushProvider.getChannel()).thenReturn(NotificationChannel.PUSH);
+        doAnswer(invocation -> {
+                    pushReleased.await(5, TimeUnit.SECONDS);
+                    return null;
+                })
+                .when(pushProvider)
+                .send(any(NotificationDispatchRequest.class), anyString());
+        when(webhookProvider.supports(any())).thenReturn(true);
+        when(webhookProvider.getChannel()).thenReturn(NotificationChannel.WEBHOOK);
+
+        try {
+            NotificationDispatchResult result =
+                    dispatcherService.dispatchAsync(request, "trace-hedge").get(5, TimeUnit.SECONDS);
+
+            assertEquals(NotificationChannel.WEBHOOK, result.getChannel());
+            assertEquals(1, result.getAttempts());
+        } finally {
+            pushReleased.countDown();
+        }
+    }
+
+    @Test
+    void hedgedDispatchDoesNotStartSecondChannelWhenPrimaryConfirmsInTime() throws Exception {
+        dispatcherService = hedgedDispatcher(200);
+        NotificationDispatchRequest request = buildRequest(clock.instant());
+
+        when(pushProvider.supports(any())).thenReturn(true);
+        when(pushProvider.getChannel()).thenReturn(NotificationChannel.PUSH);
+        when(webhookProvider.supports(any())).thenReturn(true);
+
+        NotificationDispatchResult result = dispatcherService.dispatch(request, "trace-hedge-fast");
+        Thread.sleep(300);
+
+        assertEquals(NotificationChannel.PUSH, result.getChannel());
+        verify(webhookProvider, never()).send(any(NotificationDispatchRequest.class), anyString());
+    }
+
+    @Test
+    void hedgedDispatchFailsOnlyAfterEveryLaneIsExhausted() {
+        retryProperties.setMaxAttempts(2);
+        retryProperties.setInitialBackoffMillis(20);
+        dispatcherService = hedgedDispatcher(5);
+        NotificationDispatchRequest request = buildRequest(clock.instant());
+
+        when(pushProvider.supports(any())).thenReturn(true);
+        when(pushProvider.getChannel()).thenReturn(NotificationChannel.PUSH);
+        doThrow(new NotificationDeliveryException("push down"))
+                .when(pushProvider)
+                .send(any(NotificationDispatchRequest.class), anyString());
+        when(webhookProvider.supports(any())).thenReturn(true);
+        when(webhookProvider.getChannel()).thenReturn(NotificationChannel.WEBHOOK);
+        doThrow(new NotificationDeliveryException("webhook down"))
+                .when(webhookProvider)
+                .send(any(NotificationDispatchRequest.class), anyString());
+
+        assertThrows(NotificationDispatchException.class, () -> dispatcherService.dispatch(request, "trace-hedge-down"));
+        verify(pushProvider, times(2)).send(any(NotificationDispatchRequest.class), anyString());
+        verify(webhookProvider, times(2)).send(any(NotificationDispatchRequest.class), anyString());
+    }
+
+    @Test
+    void openCircuitSkipsDownChannelAndProbesItBackAfterOneWindow() throws Exception {
+        MutableClock mutableClock = new MutableClock(clock.instant());
+        NotificationCircuitBreakerProperties breakerProperties = new NotificationCircuitBreakerProperties();
+        breakerProperties.setWindowSize(10);
+        breakerProperties.setMinimumCalls(4);
+        breakerProperties.setOpenMillis(30_000);
+        breakerProperties.setHalfOpenProbes(1);
+        ProviderCircuitBreakerRegistry circuitBreakers =
+                new ProviderCircuitBreakerRegistry(breakerProperties, mutableClock, new SimpleMeterRegistry());
+        dispatcherService.destroy();
+        dispatcherService = dispatcher(pushProvider, webhookProvider)
+                .circuitBreakers(circuitBreakers)
+                .clock(mutableClock)
+                .build();
+
+        AtomicBoolean pushDown = new AtomicBoolean(true);
+        when(pushProvider.supports(any())).thenReturn(true);
+        when(pushProvider.getChannel()).thenReturn(NotificationChannel.PUSH);
+        doAnswer(invocation -> {
+                    if (pushDown.get()) {
+                        throw new NotificationDeliveryException("push outage");
+                    }
+                    return null;
+                })
+                .when(pushProvider)
+                .send(any(NotificationDispatchRequest.class), anyString());
+        when(webhookProvider.supports(any())).thenReturn(true);
+        when(webhookProvider.getChannel()).thenReturn(NotificationChannel.WEBHOOK);
+
+        // Three failures and two backoffs, then the fourth failure trips the breaker without a backoff.
+        assertEquals(NotificationChannel.WEBHOOK,
+                dispatcherService.dispatch(buildRequest(mutableClock.instant()), "trace-outage-1").getChannel());
+        assertEquals(NotificationChannel.WEBHOOK,
+                dispatcherService.dispatch(buildRequest(mutableClock.instant()), "trace-outage-2").getChannel());
+        assertEquals(ProviderCircuitBreaker.State.OPEN, circuitBreakers.breakerFor(pushProvider).getState());
+        verify(pushProvider, times(4)).send(any(NotificationDispatchRequest.class), anyString());
+        assertEquals(2L, backoffs("push"));
+
+        // While open, the down channel costs nothing.
+        assertEquals(NotificationChannel.WEBHOOK,
+                dispatcherService.dispatch(buildRequest(mutableClock.instant()), "trace-outage-3").getChannel());
+        verify(pushProvider, times(4)).send(any(NotificationDispatchRequest.class), anyString());
+        assertEquals(2L, backoffs("push"));
+
+        pushDown.set(false);
+        mutableClock.advance(Duration.ofMillis(breakerProperties.getOpenMillis()));
+        NotificationDispatchResult recovered =
+                dispatcherService.dispatch(buildRequest(mutableClock.instant()), "trace-recovered");
+
+        assertEquals(NotificationChannel.PUSH, recovered.getChannel());
+        assertEquals(1, recovered.getAttempts());
+        assertEquals(ProviderCircuitBreaker.State.CLOSED, circuitBreakers.breakerFor(pushProvider).getState());
+        assertEquals(2L, backoffs("push"));
+    }
+
+    @Test
+    void emergencyPingIsNotQueuedBehindBusyWorkers() throws Exception {
+        NotificationPriorityProperties priorityProperties = new NotificationPriorityProperties();
+        priorityProperties.setWorkerThreads(1);
+        priorityProperties.setReservedEmergencyThreads(1);
+        NotificationPriorityExecutor priorityExecutor =
+                new NotificationPriorityExecutor(priorityProperties, new SimpleMeterRegistry());
+        dispatcherService.destroy();
+        dispatcherService = dispatcher(pushProvider).priorityExecutor(priorityExecutor).build();
+        CountDownLatch backlogReleased = new CountDownLatch(1);
+
+        when(pushProvider.supports(any())).thenReturn(true);
+        when(pushProvider.getChannel()).thenReturn(NotificationChannel.PUSH);
+        doAnswer(invocation -> {
+                    NotificationDispatchRequest sent = invocation.getArgument(0);
+                    if (sent.getEventType() != NotificationEventType.EMERGENCY_PING) {
+                        backlogReleased.await(5, TimeUnit.SECONDS);
+                    }
+                    return null;
+                })
+                .when(pushProvider)
+                .send(any(NotificationDispatchRequest.class), anyString());
+
+        try {
+            CompletableFuture<NotificationDispatchResult> busy =
+                    dispatcherService.dispatchAsync(buildRequest(clock.instant()), "trace-busy");
+            CompletableFuture<NotificationDispatchResult> queued =
+                    dispatcherService.dispatchAsync(buildRequest(clock.instant()), "trace-queued");
+            NotificationDispatchResult emergency = dispatcherService
+                    .dispatchAsync(buildRequest(clock.instant(), NotificationEventType.EMERGENCY_PING), "trace-sos")
+                    .get(1, TimeUnit.SECONDS);
+
+            assertEquals(NotificationChannel.PUSH, emergency.getChannel());
+            assertFalse(busy.isDone());
+            assertFalse(queued.isDone());
+        } finally {
+            backlogReleased.countDown();
+            priorityExecutor.destroy();
+        }
+    }
+
+    @Test
+    void throttledChannelIsSkippedWithoutSpendingAttempts() throws Exception {
+        dispatcherService = throttledDispatcher(new NotificationThrottleProperties.Limit(1, 1, Duration.ofHours(1)), 0);
+
+        when(pushProvider.supports(any())).thenReturn(true);
+        when(pushProvider.getChannel()).thenReturn(NotificationChannel.PUSH);
+        when(webhookProvider.supports(any())).thenReturn(true);
+        when(webhookProvider.getChannel()).thenReturn(NotificationChannel.WEBHOOK);
+
+        assertEquals(NotificationChannel.PUSH,
+                dispatcherService.dispatch(buildRequest(clock.instant()), "trace-quota-1").getChannel());
+        assertEquals(NotificationChannel.WEBHOOK,
+                dispatcherService.dispatch(buildRequest(clock.instant()), "trace-quota-2").getChannel());
+
+        when(webhookProvider.supports(any())).thenReturn(false);
+        CompletableFuture<NotificationDispatchResult> pushOnly =
+                dispatcherService.dispatchAsync(buildRequest(clock.instant()), "trace-quota-3");
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> pushOnly.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(NotificationThrottledException.class, failure.getCause().getCause());
+        verify(pushProvider, times(1)).send(any(NotificationDispatchRequest.class), anyString());
+        assertEquals(0L, backoffs("push"));
+    }
+
+    @Test
+    void asyncAttemptWaitsForNextTokenInsteadOfRetrying() throws Exception {
+        dispatcherService =
+                throttledDispatcher(new NotificationThrottleProperties.Limit(1, 1, Duration.ofMillis(100)), 1_000);
+
+        when(pushProvider.supports(any())).thenReturn(true);
+        when(pushProvider.getChannel()).thenReturn(NotificationChannel.PUSH);
+
+        long startedAt = System.nanoTime();
+        CompletableFuture<NotificationDispatchResult> first =
+                dispatcherService.dispatchAsync(buildRequest(clock.instant()), "trace-burst-1");
+        CompletableFuture<NotificationDispatchResult> second =
+                dispatcherService.dispatchAsync(buildRequest(clock.instant()), "trace-burst-2");
+
+        assertEquals(1, first.get(1, TimeUnit.SECONDS).getAttempts());
+        assertEquals(1, second.get(1, TimeUnit.SECONDS).getAttempts());
+        assertTrue(System.nanoTime() - startedAt >= TimeUnit.MILLISECONDS.toNanos(90));
+        verify(pushProvider, times(2)).send(any(NotificationDispatchRequest.class), anyString());
+        verify(webhookProvider, never()).send(any(NotificationDispatchRequest.class), anyString());
+    }
+
+    @Test
+    void recordsLatencyAttemptsBackoffAndWindowViolations() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        dispatcherService.destroy();
+        dispatcherService = dispatcher(pushProvider).metrics(new NotificationDispatchMetrics(meterRegistry)).build();
+
+        when(pushProvider.supports(any())).thenReturn(true);
+        when(pushProvider.getChannel()).thenReturn(NotificationChannel.PUSH);
+        doThrow(new NotificationDeliveryException("temporary outage"))
+                .doNothing()
+                .when(pushProvider)
+                .send(any(NotificationDispatchRequest.class), anyString());
+
+        dispatcherService.dispatch(buildRequest(clock.instant().minusSeconds(5)), "trace-metrics");
+        CompletableFuture<NotificationDispatchResult> late =
+                dispatcherService.dispatchAsync(buildRequest(clock.instant().minusSeconds(61)), "trace-late");
+
+        assertTrue(late.isCompletedExceptionally());
+        assertEquals(1L, meterRegistry.get("notification.dispatch.send.latency")
+                .tags("channel", "push", "outcome", "failure").timer().count());
+        assertEquals(1L, meterRegistry.get("notification.dispatch.send.latency")
+                .tags("channel", "push", "outcome", "success").timer().count());
+        assertEquals(2.0d, meterRegistry.get("notification.dispatch.attempts")
+                .tag("channel", "push").summary().totalAmount());
+        assertEquals(100.0d, meterRegistry.get("notification.dispatch.backoff")
+                .tag("channel", "push").timer().totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(5_000.0d, meterRegistry.get("notification.dispatch.delivery.lag")
+                .tag("event", "permission_loss").timer().totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(1.0d, meterRegistry.get("notification.dispatch.window.violations")
+                .tag("event", "permission_loss").counter().count());
+    }
+
+    @Test
+    void deliveryLagOfARestampedRequestRunsFromItsOriginalTrigger() {
+        when(pushProvider.supports(any())).thenReturn(true);
+        when(pushProvider.getChannel()).thenReturn(NotificationChannel.PUSH);
+        NotificationDispatchRequest recovered = buildRequest(clock.instant().minusSeconds(300))
+                .restampedIfOlderThan(NotificationDispatcherService.MAX_TRIGGER_DELAY, clock.instant());
+
+        dispatcherService.dispatch(recovered, "trace-recovered");
+
+        assertEquals(300_000.0d, meterRegistry.get("notification.dispatch.delivery.lag")
+                .tag("event", "permission_loss").timer().totalTime(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void asyncProviderIsHandedTheAttemptWithoutBatchingOrBlocking() throws Exception {
+        AsyncNotificationChannelProvider asyncProvider = mock(AsyncNotificationChannelProvider.class);
+        dispatcherService.destroy();
+        dispatcherService = dispatcher(asyncProvider).batchProperties(new NotificationBatchProperties()).build();
+        CompletableFuture<Void> pending = new CompletableFuture<>();
+        when(asyncProvider.supports(any())).thenReturn(true);
+        when(asyncProvider.getChannel()).thenReturn(NotificationChannel.WEBHOOK);
+        when(asyncProvider.sendAsync(any(), anyString())).thenReturn(pending);
+
+        CompletableFuture<NotificationDispatchResult> result =
+                dispatcherService.dispatchAsync(buildRequest(clock.instant()), "trace-async");
+
+        verify(asyncProvider, timeout(1_000)).sendAsync(any(NotificationDispatchRequest.class), anyString());
+        assertFalse(result.isDone());
+        pending.complete(null);
+        assertEquals(NotificationChannel.WEBHOOK, result.get(1, TimeUnit.SECONDS).getChannel());
+        verify(asyncProvider, never()).send(any(NotificationDispatchRequest.class), anyString());
+        verify(asyncProvider, never()).sendBatch(any());
+    }
+
+    @Test
+    void hungProviderIsCutOffAtTheDeadline() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(pushProvider.supports(any())).thenReturn(true);
+        when(webhookProvider.supports(any())).thenReturn(true);
+        when(pushProvider.getChannel()).thenReturn(NotificationChannel.PUSH);
+        doAnswer(hangUntilInterrupted(interrupted))
+                .when(pushProvider)
+                .send(any(NotificationDispatchRequest.class), anyString());
+        NotificationDispatchRequest request = buildRequest(withBudget(Duration.ofMillis(300)));
+
+        long startedAt = System.nanoTime();
+        assertThrows(NotificationDeadlineExceededException.class, () -> dispatcherService.dispatch(request, "trace-hung"));
+
+        assertTrue(System.nanoTime() - startedAt < TimeUnit.SECONDS.toNanos(2));
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+        verify(webhookProvider, never()).send(any(NotificationDispatchRequest.class), anyString());
+    }
+
+    @Test
+    void asyncDispatchFailsAtTheDeadlineWhenProviderHangs() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(pushProvider.supports(any())).thenReturn(true);
+        when(webhookProvider.supports(any())).thenReturn(true);
+        when(pushProvider.getChannel()).thenReturn(NotificationChannel.PUSH);
+        doAnswer(hangUntilInterrupted(interrupted))
+                .when(pushProvider)
+                .send(any(NotificationDispatchRequest.class), anyString());
+
+        CompletableFuture<NotificationDispatchResult> future =
+                dispatcherService.dispatchAsync(buildRequest(withBudget(Duration.ofMillis(300))), "trace-hung-async");
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> future.get(2, TimeUnit.SECONDS));
+        assertInstanceOf(NotificationDeadlineExceededException.class, failure.getCause());
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+        verify(webhookProvider, never()).send(any(NotificationDispatchRequest.class), anyString());
+    }
+
+    @Test
+    void batchedDispatchesFailAtTheDeadlineWhenProviderHangs() throws Exception {
+        dispatcherService.destroy();
+        // Default batching: the sends coalesce into one batch on the coalescer's flush threads.
+        dispatcherService = dispatcher(pushProvider, webhookProvider)
+                .batchProperties(new NotificationBatchProperties())
+                .build();
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(pushProvider.supports(any())).thenReturn(true);
+        when(webhookProvider.supports(any())).thenReturn(true);
+        when(pushProvider.getChannel()).thenReturn(NotificationChannel.PUSH);
+        when(pushProvider.sendBatch(any())).thenCallRealMethod();
+        doAnswer(hangUntilInterrupted(interrupted))
+                .when(pushProvider)
+                .send(any(NotificationDispatchRequest.class), anyString());
+
+        long startedAt = System.nanoTime();
+        List<CompletableFuture<NotificationDispatchResult>> futures = List.of(
+                dispatcherService.dispatchAsync(buildRequest(withBudget(Duration.ofMillis(300))), "trace-1"),
+                dispatcherService.dispatchAsync(buildRequest(withBudget(Duration.ofMillis(300))), "trace-2"),
+                dispatcherService.dispatchAsync(buildRequest(withBudget(Duration.ofMillis(300))), "trace-3"));
+
+        for (CompletableFuture<NotificationDispatchResult> future : futures) {
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> future.get(2, TimeUnit.SECONDS));
+            assertInstanceOf(NotificationDeadlineExceededException.class, failure.getCause());
+        }
+        assertTrue(System.nanoTime() - startedAt < TimeUnit.SECONDS.toNanos(2));
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+        verify(webhookProvider, never()).send(any(NotificationDispatchRequest.class), anyString());
+    }
+
+    @Test
+    void retryThatCannotStartInTimeFallsBackToNextChannel() {
+        retryProperties.setInitialBackoffMillis(1_000);
+        when(pushProvider.supports(any())).thenReturn(true);
+        when(webhookProvider.supports(any())).thenReturn(true);
+        when(pushProvider.getChannel()).thenReturn(NotificationChannel.PUSH);
+        when(webhookProvider.getChannel()).thenReturn(NotificationChannel.WEBHOOK);
+        doThrow(new NotificationDeliveryException("push down"))
+                .when(pushProvider)
+                .send(any(NotificationDispatchRequest.class), anyString());
+
+        NotificationDispatchResult result =
+                dispatcherService.dispatch(buildRequest(withBudget(Duration.ofMillis(500))), "trace-tight");
+
+        assertEquals(NotificationChannel.WEBHOOK, result.getChannel());
+        verify(pushProvider, times(1)).send(any(NotificationDispatchRequest.class), anyString());
+        assertEquals(0L, backoffs("push"));
+    }
+
+    @Test
+    void spentRetryBudgetFallsBackToNextChannelWithoutRetrying() {
+        dispatcherService.destroy();
+        retryProperties.getBudget().setPercent(0.0d);
+        retryProperties.getBudget().setMinRetriesPerSecond(0);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        dispatcherService = dispatcher(pushProvider, webhookProvider)
+                .retryBudget(new NotificationRetryBudget(retryProperties, clock, meterRegistry))
+                .build();
+        when(pushProvider.supports(any())).thenReturn(true);
+        when(webhookProvider.supports(any())).thenReturn(true);
+        when(pushProvider.getChannel()).thenReturn(NotificationChannel.PUSH);
+        when(webhookProvider.getChannel()).thenReturn(NotificationChannel.WEBHOOK);
+        doThrow(new NotificationDeliveryException("push down"))
+                .when(pushProvider)
+                .send(any(NotificationDispatchRequest.class), anyString());
+
+        NotificationDispatchResult result = dispatcherService.dispatch(buildRequest(clock.instant()), "trace-budget");
+
+        assertEquals(NotificationChannel.WEBHOOK, result.getChannel());
+        verify(pushProvider, times(1)).send(any(NotificationDispatchRequest.class), anyString());
+        assertEquals(0L, backoffs("push"));
+        assertEquals(1.0d, meterRegistry.get("notification.retry.budget.exhausted").counter().count());
+    }
+
+    private NotificationDispatcherService throttledDispatcher(
+            NotificationThrottleProperties.Limit pushLimit, long maxWaitMillis) {
+        dispatcherService.destroy();
+        NotificationThrottleProperties throttleProperties = new NotificationThrottleProperties();
+        throttleProperties.getChannels().clear();
+        throttleProperties.getChannels().put(NotificationChannel.PUSH, pushLimit);
+        throttleProperties.setMaxWaitMillis(maxWaitMillis);
+        NotificationChannelThrottle throttle =
+                new NotificationChannelThrottle(throttleProperties, Clock.systemUTC(), new SimpleMeterRegistry());
+        return dispatcher(pushProvider, webhookProvider).throttle(throttle).build();
+    }
+
+    private NotificationDispatcherService hedgedDispatcher(long delayMillis) {
+        dispatcherService.destroy();
+        NotificationHedgeProperties hedgeProperties = new NotificationHedgeProperties();
+        hedgeProperties.setEnabled(true);
+        hedgeProperties.setDelayMillis(delayMillis);
+        return dispatcher(pushProvider, webhookProvider).hedgeProperties(hedgeProperties).build();
+    }
+
+    private NotificationDispatcherBuilder dispatcher(NotificationChannelProvider... providers) {
+        return NotificationDispatcherBuilder.dispatcher(List.of(providers))
+                .retryProperties(retryProperties)
+                .metrics(new NotificationDispatchMetrics(meterRegistry))
+                .clock(clock);
+    }
+
+    private long backoffs(String channel) {
+        return meterRegistry.get("notification.dispatch.backoff").tag("channel", channel).timer().count();
+    }
+
+    private double backoffMillis(String channel) {
+        return meterRegistry.get("notification.dispatch.backoff").tag("channel", channel).timer()
+                .totalTime(TimeUnit.MILLISECONDS);
+    }
+
+    private Instant withBudget(Duration remaining) {
+        return clock.instant().minus(NotificationDispatcherService.MAX_TRIGGER_DELAY).plus(remaining);
+    }
+
+    private static Answer<Void> hangUntilInterrupted(CountDownLatch interrupted) {
+        return invocation -> {
+            try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException ex) {
+                interrupted.countDown();
+                throw new NotificationDeliveryException("interrupted", ex);
+            }
+            return null;
+        };
+    }
+
     private NotificationDispatchRequest buildRequest(Instant triggeredAt) {
+        return buildRequest(triggeredAt, NotificationEventType.PERMISSION_LOSS);
+    }
+
+    private NotificationDispatchRequest buildRequest(Instant triggeredAt, NotificationEventType eventType) {
         NotificationRecipient recipient = NotificationRecipient.builder()
                 .monitorUserId(10L)
                 .monitoredUserId(20L)
@@ -130,11 +642,11 @@ class NotificationDispatcherServiceTest {
                 .webhookUrl("https://hook.mingyu.com/notify")
                 .build();
         return NotificationDispatchRequest.builder()
-                .eventType(NotificationEventType.PERMISSION_LOSS)
+                .eventType(eventType)
                 .recipient(recipient)
                 .triggeredAt(triggeredAt)
                 .message("Permission revoked")
                 .attribute("priority", "critical")
                 .build();
     }
-}
\ No newline at end of file
+}
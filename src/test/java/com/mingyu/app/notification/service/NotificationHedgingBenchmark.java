@@ -0,0 +1,144 @@
+package com.mingyu.app.notification.service;
+
+// Implements 2.权限引导与存活看板
+
+import com.mingyu.app.notification.config.NotificationHedgeProperties;
+import com.mingyu.app.notification.config.NotificationRetryProperties;
+import com.mingyu.app.notification.exception.NotificationDeliveryException;
+import com.mingyu.app.notification.model.NotificationChannel;
+import com.mingyu.app.notification.model.NotificationDispatchRequest;
+import com.mingyu.app.notification.model.NotificationDispatchResult;
+import com.mingyu.app.notification.model.NotificationEventType;
+import com.mingyu.app.notification.model.NotificationRecipient;
+import com.mingyu.app.notification.provider.NotificationChannelProvider;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Time-to-delivery distribution (read p50/p99 from the sample-time percentiles) for one
+ * notification, sequential fallback versus hedged fan-out. PUSH usually confirms in ~10 ms but has a
+ * 10% tail of 300 ms and fails outright {@code pushFailureRate} of the time; SMS steadily takes
+ * ~25 ms. Latencies are scaled down from seconds to milliseconds so a trial stays short.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotificationHedgingBenchmark {
+
+    @Param({"sequential", "hedged"})
+    public String mode;
+
+    @Param({"0.0", "0.2"})
+    public double pushFailureRate;
+
+    @Param({"50"})
+    public long hedgeDelayMillis;
+
+    private NotificationDispatcherService dispatcher;
+    private NotificationDispatchRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        NotificationRetryProperties retryProperties = new NotificationRetryProperties();
+        retryProperties.setMaxAttempts(2);
+        retryProperties.setInitialBackoffMillis(20);
+        retryProperties.setMaxBackoffMillis(20);
+        retryProperties.setSchedulerThreads(4);
+        NotificationHedgeProperties hedgeProperties = new NotificationHedgeProperties();
+        hedgeProperties.setEnabled("hedged".equals(mode));
+        hedgeProperties.setDelayMillis(hedgeDelayMillis);
+        List<NotificationChannelProvider> providers = List.of(
+                new SimulatedProvider(NotificationChannel.PUSH, 10, 300, 0.1, pushFailureRate),
+                new SimulatedProvider(NotificationChannel.SMS, 25, 25, 0.0, 0.0));
+        dispatcher = NotificationDispatcherBuilder.dispatcher(providers)
+                .retryProperties(retryProperties)
+                .hedgeProperties(hedgeProperties)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dispatcher.destroy();
+    }
+
+    @Setup(Level.Iteration)
+    public void refreshTrigger() {
+        // The dispatcher refuses triggers older than the 60 s window.
+        NotificationRecipient recipient = NotificationRecipient.builder()
+                .monitorUserId(10L)
+                .monitoredUserId(20L)
+                .deviceToken("ios-token")
+                .phoneNumber("+15555550123")
+                .build();
+        request = NotificationDispatchRequest.builder()
+                .eventType(NotificationEventType.PERMISSION_LOSS)
+                .recipient(recipient)
+                .triggeredAt(Instant.now())
+                .message("Permission revoked")
+                .build();
+    }
+
+    @Benchmark
+    public NotificationDispatchResult timeToDelivery() {
+        return dispatcher.dispatchAsync(request, null).join();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(NotificationHedgingBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static final class SimulatedProvider implements NotificationChannelProvider {
+
+        private final NotificationChannel channel;
+        private final long typicalMillis;
+        private final long tailMillis;
+        private final double tailRate;
+        private final double failureRate;
+
+        private SimulatedProvider(
+                NotificationChannel channel, long typicalMillis, long tailMillis, double tailRate, double failureRate) {
+            this.channel = channel;
+            this.typicalMillis = typicalMillis;
+            this.tailMillis = tailMillis;
+            this.tailRate = tailRate;
+            this.failureRate = failureRate;
+        }
+
+        @Override
+        public NotificationChannel getChannel() {
+            return channel;
+        }
+
+        @Override
+        public void send(NotificationDispatchRequest request, String traceId) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long latency = random.nextDouble() < tailRate ? tailMillis : typicalMillis;
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(latency));
+            if (random.nextDouble() < failureRate) {
+                throw new NotificationDeliveryException("simulated " + channel + " failure");
+            }
+        }
+    }
+}
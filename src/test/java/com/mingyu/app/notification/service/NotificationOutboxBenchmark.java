@@ -0,0 +1,185 @@
+package com.mingyu.app.notification.service;
+
+// Implements 2.权限引导与存活看板
+
+import static com.mingyu.app.notification.support.NotificationRequests.deviceHeartbeatLost;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mingyu.app.notification.config.NotificationDeadLetterProperties;
+import com.mingyu.app.notification.config.NotificationDedupProperties;
+import com.mingyu.app.notification.config.NotificationOutboxProperties;
+import com.mingyu.app.notification.config.NotificationRetryProperties;
+import com.mingyu.app.notification.deadletter.NotificationDeadLetterQueue;
+import com.mingyu.app.notification.model.NotificationChannel;
+import com.mingyu.app.notification.model.NotificationDispatchRequest;
+import com.mingyu.app.notification.model.NotificationOutboxEntity;
+import com.mingyu.app.notification.provider.NotificationChannelProvider;
+import com.mingyu.app.notification.repository.NotificationOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Time from committing {@code burst} outbox rows to the provider receiving all of them, with
+ * {@code relayThreads} relay workers polling the table. Divide {@code burst} by the mean for relay
+ * throughput; with {@code burst = 1} the percentiles are the end-to-end latency of one escalation.
+ * Runs against in-memory H2 in MySQL mode by default; pass {@code -Doutbox.bench.url},
+ * {@code -Doutbox.bench.driver}, {@code -Doutbox.bench.user} and {@code -Doutbox.bench.password}
+ * to point it at MySQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotificationOutboxBenchmark {
+
+    @Param({"1", "4"})
+    public int relayThreads;
+
+    @Param({"1", "200"})
+    public int burst;
+
+    private final Semaphore received = new Semaphore(0);
+    private ConfigurableApplicationContext context;
+    private NotificationOutboxService outboxService;
+    private TransactionTemplate transactionTemplate;
+    private NotificationDispatcherService dispatcher;
+    private NotificationOutboxRelay relay;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(OutboxBenchmarkConfiguration.class)
+                .web(WebApplicationType.NONE)
+                // Skip application.yml: the benchmark only wires the outbox against the given database.
+                .run(
+                        "--spring.config.name=notification-outbox-benchmark",
+                        "--spring.datasource.url=" + System.getProperty(
+                                "outbox.bench.url", "jdbc:h2:mem:outbox;MODE=MySQL;DB_CLOSE_DELAY=-1"),
+                        "--spring.datasource.driver-class-name="
+                                + System.getProperty("outbox.bench.driver", "org.h2.Driver"),
+                        "--spring.datasource.username=" + System.getProperty("outbox.bench.user", "sa"),
+                        "--spring.datasource.password=" + System.getProperty("outbox.bench.password", ""),
+                        "--spring.datasource.hikari.maximum-pool-size=8",
+                        "--spring.jpa.hibernate.ddl-auto=update",
+                        "--logging.level.root=WARN");
+        outboxService = context.getBean(NotificationOutboxService.class);
+        context.getBean(NotificationOutboxRepository.class).deleteAllInBatch();
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        NotificationRetryProperties retryProperties = new NotificationRetryProperties();
+        retryProperties.setSchedulerThreads(4);
+        dispatcher = NotificationDispatcherBuilder.dispatcher(List.of(new CountingProvider(received)))
+                .retryProperties(retryProperties)
+                .build();
+        NotificationOutboxProperties relayProperties = new NotificationOutboxProperties();
+        relayProperties.setRelayThreads(relayThreads);
+        relayProperties.setBatchSize(50);
+        relayProperties.setPollIntervalMillis(5);
+        // Every iteration reuses the same recipients; dedup would collapse later bursts into the first.
+        NotificationDedupProperties dedupProperties = new NotificationDedupProperties();
+        dedupProperties.setEnabled(false);
+        NotificationDeduplicator deduplicator = new NotificationDeduplicator(
+                dispatcher, dedupProperties, Clock.systemUTC(), new SimpleMeterRegistry());
+        NotificationDeadLetterQueue deadLetters = new NotificationDeadLetterQueue(new NotificationDeadLetterProperties(),
+                context.getBean(NotificationRequestCodec.class), new ObjectMapper(), Clock.systemUTC(),
+                new SimpleMeterRegistry());
+        relay = new NotificationOutboxRelay(
+                outboxService, deduplicator, deadLetters, null, relayProperties, Clock.systemUTC());
+        relay.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        relay.stop();
+        dispatcher.destroy();
+        context.close();
+    }
+
+    @Benchmark
+    public void enqueueAndAwaitDelivery() throws InterruptedException {
+        transactionTemplate.executeWithoutResult(status -> {
+            Instant now = Instant.now();
+            for (int i = 0; i < burst; i++) {
+                outboxService.enqueue(deviceHeartbeatLost(now, i), null);
+            }
+        });
+        received.acquire(burst);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(NotificationOutboxBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /**
+     * A {@link TestConfiguration}, so the application's component scan in other tests skips it; it
+     * only ever bootstraps the benchmark's own context.
+     */
+    @TestConfiguration(proxyBeanMethods = false)
+    @EnableAutoConfiguration(exclude = {
+            FlywayAutoConfiguration.class, RedisAutoConfiguration.class, RedisRepositoriesAutoConfiguration.class
+    })
+    @EntityScan(basePackageClasses = NotificationOutboxEntity.class)
+    @EnableJpaRepositories(basePackageClasses = NotificationOutboxRepository.class)
+    @Import({NotificationOutboxService.class, NotificationRequestCodec.class, NotificationOutboxProperties.class})
+    static class OutboxBenchmarkConfiguration {
+
+        @Bean
+        Clock clock() {
+            return Clock.systemUTC();
+        }
+    }
+
+    private static final class CountingProvider implements NotificationChannelProvider {
+
+        private final Semaphore received;
+
+        private CountingProvider(Semaphore received) {
+            this.received = received;
+        }
+
+        @Override
+        public NotificationChannel getChannel() {
+            return NotificationChannel.PUSH;
+        }
+
+        @Override
+        public void send(NotificationDispatchRequest request, String traceId) {
+            received.release();
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.mingyu.app.notification.service;
+
+// Implements 2.权限引导与存活看板
+
+import static com.mingyu.app.notification.support.NotificationRequests.heartbeatLost;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mingyu.app.notification.config.NotificationDeadLetterProperties;
+import com.mingyu.app.notification.config.NotificationOutboxProperties;
+import com.mingyu.app.notification.config.NotificationQueueProperties;
+import com.mingyu.app.notification.deadletter.NotificationDeadLetter;
+import com.mingyu.app.notification.deadletter.NotificationDeadLetterQueue;
+import com.mingyu.app.notification.exception.NotificationDispatchException;
+import com.mingyu.app.notification.model.NotificationChannel;
+import com.mingyu.app.notification.model.NotificationDispatchRequest;
+import com.mingyu.app.notification.model.NotificationDispatchResult;
+import com.mingyu.app.notification.model.NotificationEventType;
+import com.mingyu.app.notification.model.NotificationOutboxEntity;
+import com.mingyu.app.notification.model.NotificationOutboxStatus;
+import com.mingyu.app.notification.queue.InMemoryNotificationStream;
+import com.mingyu.app.notification.queue.NotificationStreamEntry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationOutboxRelayTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T10:00:00Z");
+
+    @Mock
+    private NotificationOutboxService outboxService;
+
+    @Mock
+    private NotificationDeduplicator deduplicator;
+
+    private final NotificationRequestCodec codec = new NotificationRequestCodec(new ObjectMapper());
+    private NotificationDeadLetterQueue deadLetters;
+    private NotificationOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        deadLetters = new NotificationDeadLetterQueue(new NotificationDeadLetterProperties(), codec, new ObjectMapper(),
+                Clock.fixed(NOW, ZoneOffset.UTC), new SimpleMeterRegistry());
+        relay = new NotificationOutboxRelay(outboxService, deduplicator, deadLetters, null,
+                new NotificationOutboxProperties(), Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void deliveredRowsAreMarkedTogetherAndFailuresRescheduled() throws Exception {
+        stubDecode();
+        NotificationOutboxEntity ok = row(1L, "trace-ok", NOW.minusSeconds(1));
+        NotificationOutboxEntity down = row(2L, "trace-down", NOW.minusSeconds(1));
+        when(outboxService.claimDue(eq("relay-test"), eq(50))).thenReturn(List.of(ok, down));
+        when(deduplicator.dispatchAsync(any(), eq("trace-ok"))).thenReturn(CompletableFuture.completedFuture(
+                NotificationDispatchResult.success(NotificationChannel.PUSH, 1, "trace-ok", NOW)));
+        when(deduplicator.dispatchAsync(any(), eq("trace-down"))).thenReturn(CompletableFuture.failedFuture(
+                new NotificationDispatchException("Unable to deliver notification for trace trace-down", null)));
+
+        assertEquals(2, relay.relayOnce("relay-test"));
+
+        verify(outboxService).markDelivered(List.of(1L));
+        verify(outboxService).markFailed(2L, "Unable to deliver notification for trace trace-down", true);
+    }
+
+    @Test
+    void rowGivenUpAfterItsLastAttemptIsDeadLettered() throws Exception {
+        stubDecode();
+        NotificationOutboxEntity last = row(5L, "trace-last", NOW.minusSeconds(1));
+        when(outboxService.claimDue(anyString(), eq(50))).thenReturn(List.of(last));
+        when(deduplicator.dispatchAsync(any(), eq("trace-last"))).thenReturn(CompletableFuture.failedFuture(
+                new NotificationDispatchException("Unable to deliver notification for trace trace-last", null)));
+        when(outboxService.markFailed(5L, "Unable to deliver notification for trace trace-last", true))
+                .thenReturn(true);
+
+        relay.relayOnce("relay-test");
+
+        NotificationDeadLetter letter = deadLetters.poll();
+        assertEquals("trace-last", letter.traceId());
+        assertEquals("Unable to deliver notification for trace trace-last", letter.lastError());
+        assertEquals("device-b", deadLetters.decode(letter).getAttributes().get("deviceIdentifier"));
+    }
+
+    @Test
+    void rowsStillInFlightAfterTheLeaseKeepItAndAreRecordedWhenTheyFinish() throws Exception {
+        stubDecode();
+        NotificationOutboxProperties properties = new NotificationOutboxProperties();
+        properties.setLeaseSeconds(1);
+        relay = new NotificationOutboxRelay(outboxService, deduplicator, deadLetters, null,
+                properties, Clock.fixed(NOW, ZoneOffset.UTC));
+        NotificationOutboxEntity slow = row(6L, "trace-slow", NOW);
+        NotificationOutboxEntity stuck = row(7L, "trace-stuck", NOW);
+        when(outboxService.claimDue(anyString(), eq(50))).thenReturn(List.of(slow, stuck));
+        CompletableFuture<NotificationDispatchResult> slowOutcome = new CompletableFuture<>();
+        CompletableFuture<NotificationDispatchResult> stuckOutcome = new CompletableFuture<>();
+        when(deduplicator.dispatchAsync(any(), eq("trace-slow"))).thenReturn(slowOutcome);
+        when(deduplicator.dispatchAsync(any(), eq("trace-stuck"))).thenReturn(stuckOutcome);
+        when(outboxService.markFailed(7L, "Unable to deliver notification for trace trace-stuck", true))
+                .thenReturn(true);
+
+        assertEquals(2, relay.relayOnce("relay-test"));
+
+        verify(outboxService).extendLease(List.of(6L, 7L), "relay-test");
+        verify(outboxService).markDelivered(List.of());
+        verify(outboxService, never()).markFailed(any(), any(), anyBoolean());
+
+        slowOutcome.complete(NotificationDispatchResult.success(NotificationChannel.PUSH, 1, "trace-slow", NOW));
+        stuckOutcome.completeExceptionally(
+                new NotificationDispatchException("Unable to deliver notification for trace trace-stuck", null));
+
+        verify(outboxService).markDelivered(List.of(6L));
+        assertEquals("trace-stuck", deadLetters.poll().traceId());
+    }
+
+    @Test
+    void withAStreamRowsAreAppendedInsteadOfDispatched() throws Exception {
+        NotificationQueueProperties queueProperties = new NotificationQueueProperties();
+        InMemoryNotificationStream stream =
+                new InMemoryNotificationStream(queueProperties, Clock.fixed(NOW, ZoneOffset.UTC));
+        stream.createGroup(queueProperties.getGroup());
+        relay = new NotificationOutboxRelay(outboxService, deduplicator, deadLetters, stream,
+                new NotificationOutboxProperties(), Clock.fixed(NOW, ZoneOffset.UTC));
+        NotificationOutboxEntity first = row(1L, "trace-1", NOW);
+        NotificationOutboxEntity second = row(2L, "trace-2", NOW);
+        when(outboxService.claimDue(anyString(), eq(50))).thenReturn(List.of(first, second));
+
+        assertEquals(2, relay.relayOnce("relay-test"));
+
+        verify(deduplicator, never()).dispatchAsync(any(), any());
+        verify(outboxService).markDelivered(List.of(1L, 2L));
+        List<NotificationStreamEntry> appended = stream.read(queueProperties.getGroup(), "worker", 10, Duration.ZERO);
+        assertEquals(List.of("trace-1", "trace-2"), appended.stream().map(NotificationStreamEntry::traceId).toList());
+        assertEquals(first.getPayloadJson(), appended.get(0).payload());
+    }
+
+    @Test
+    void emptyClaimDispatchesNothing() throws Exception {
+        when(outboxService.claimDue(anyString(), eq(50))).thenReturn(List.of());
+
+        assertEquals(0, relay.relayOnce("relay-test"));
+
+        verify(deduplicator, never()).dispatchAsync(any(), any());
+        verify(outboxService, never()).markDelivered(any());
+    }
+
+    @Test
+    void unreadablePayloadIsGivenUpWithoutDispatching() throws Exception {
+        stubDecode();
+        NotificationOutboxEntity broken = row(3L, "trace-broken", NOW);
+        broken.setPayloadJson("{not json");
+        when(outboxService.claimDue(anyString(), eq(50))).thenReturn(List.of(broken));
+
+        relay.relayOnce("relay-test");
+
+        verify(outboxService).markFailed(eq(3L), anyString(), eq(false));
+        verify(deduplicator, never()).dispatchAsync(any(), any());
+    }
+
+    @Test
+    void rowRecoveredAfterTheInvocationWindowIsRestampedInsteadOfRefused() throws Exception {
+        stubDecode();
+        Instant triggeredAt = NOW.minusSeconds(600);
+        NotificationOutboxEntity stale = row(4L, "trace-stale", triggeredAt);
+        when(outboxService.claimDue(anyString(), eq(50))).thenReturn(List.of(stale));
+        when(deduplicator.dispatchAsync(any(), eq("trace-stale"))).thenReturn(CompletableFuture.completedFuture(
+                NotificationDispatchResult.success(NotificationChannel.PUSH, 1, "trace-stale", NOW)));
+
+        relay.relayOnce("relay-test");
+
+        ArgumentCaptor<NotificationDispatchRequest> captor = ArgumentCaptor.forClass(NotificationDispatchRequest.class);
+        verify(deduplicator).dispatchAsync(captor.capture(), eq("trace-stale"));
+        assertEquals(NOW, captor.getValue().getTriggeredAt());
+        assertEquals(triggeredAt.toString(), captor.getValue().getAttributes().get("originallyTriggeredAt"));
+        assertEquals("device-b", captor.getValue().getAttributes().get("deviceIdentifier"));
+        verify(outboxService, never()).markFailed(any(), any(), anyBoolean());
+    }
+
+    @Test
+    void codecRoundTripsRequests() {
+        NotificationDispatchRequest request = request(NOW);
+
+        NotificationDispatchRequest decoded = codec.decode(codec.encode(request));
+
+        assertEquals(request.getEventType(), decoded.getEventType());
+        assertEquals(request.getTriggeredAt(), decoded.getTriggeredAt());
+        assertEquals(request.getMessage(), decoded.getMessage());
+        assertEquals(10L, decoded.getRecipient().getMonitorUserId());
+        assertEquals(20L, decoded.getRecipient().getMonitoredUserId());
+        assertEquals("ios-token", decoded.getRecipient().getDeviceToken());
+        assertEquals(request.getAttributes(), decoded.getAttributes());
+    }
+
+    private void stubDecode() {
+        when(outboxService.decode(any())).thenAnswer(invocation ->
+                codec.decode(invocation.<NotificationOutboxEntity>getArgument(0).getPayloadJson()));
+    }
+
+    private NotificationOutboxEntity row(Long id, String traceId, Instant triggeredAt) {
+        NotificationOutboxEntity row = new NotificationOutboxEntity();
+        row.setId(id);
+        row.setTraceId(traceId);
+        row.setEventType(NotificationEventType.HEARTBEAT_FAILURE);
+        row.setStatus(NotificationOutboxStatus.PENDING);
+        row.setAttempts(1);
+        row.setPayloadJson(codec.encode(request(triggeredAt)));
+        return row;
+    }
+
+    private static NotificationDispatchRequest request(Instant triggeredAt) {
+        return heartbeatLost(triggeredAt)
+                .message("Heartbeat lost for device device-b")
+                .attribute("deviceIdentifier", "device-b")
+                .attribute("lastSeenAt", "2024-01-01T09:50:00Z")
+                .build();
+    }
+}
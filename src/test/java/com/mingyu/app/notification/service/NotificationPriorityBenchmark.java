@@ -0,0 +1,120 @@
+package com.mingyu.app.notification.service;
+
+// Implements 2.权限引导与存活看板
+
+import static com.mingyu.app.notification.support.NotificationRequests.heartbeatLost;
+
+import com.mingyu.app.notification.config.NotificationPriorityProperties;
+import com.mingyu.app.notification.config.NotificationRetryProperties;
+import com.mingyu.app.notification.model.NotificationChannel;
+import com.mingyu.app.notification.model.NotificationDispatchRequest;
+import com.mingyu.app.notification.model.NotificationDispatchResult;
+import com.mingyu.app.notification.model.NotificationEventType;
+import com.mingyu.app.notification.provider.NotificationChannelProvider;
+import com.mingyu.app.notification.scheduling.NotificationPriorityExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Latency of one emergency ping while {@code backlog} heartbeat alerts are waiting to be sent
+ * through a push gateway that costs {@value #SEND_MICROS} µs per call. Before every ping the
+ * backlog is topped back up. {@code fifo} runs attempts on the dispatcher's own scheduler,
+ * {@code priority} on the {@link NotificationPriorityExecutor} with one reserved emergency worker.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class NotificationPriorityBenchmark {
+
+    private static final long SEND_MICROS = 200;
+    private static final int WORKERS = 4;
+
+    @Param({"fifo", "priority"})
+    public String mode;
+
+    @Param({"0", "10000"})
+    public int backlog;
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private NotificationPriorityExecutor priorityExecutor;
+    private NotificationDispatcherService dispatcher;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        NotificationRetryProperties retryProperties = new NotificationRetryProperties();
+        retryProperties.setSchedulerThreads(WORKERS);
+        NotificationPriorityProperties priorityProperties = new NotificationPriorityProperties();
+        priorityProperties.setEnabled("priority".equals(mode));
+        priorityProperties.setWorkerThreads(WORKERS);
+        priorityProperties.setReservedEmergencyThreads(1);
+        priorityExecutor = new NotificationPriorityExecutor(priorityProperties, new SimpleMeterRegistry());
+        dispatcher = NotificationDispatcherBuilder.dispatcher(List.of(new StubGateway()))
+                .retryProperties(retryProperties)
+                .priorityExecutor(priorityExecutor)
+                .build();
+    }
+
+    @Setup(Level.Invocation)
+    public void topUpBacklog() {
+        NotificationDispatchRequest alert = request(NotificationEventType.HEARTBEAT_FAILURE);
+        while (outstanding.get() < backlog) {
+            outstanding.incrementAndGet();
+            dispatcher.dispatchAsync(alert, null).whenComplete((result, error) -> outstanding.decrementAndGet());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dispatcher.destroy();
+        priorityExecutor.destroy();
+    }
+
+    @Benchmark
+    public NotificationDispatchResult emergencyPing() {
+        return dispatcher.dispatchAsync(request(NotificationEventType.EMERGENCY_PING), null).join();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(NotificationPriorityBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static NotificationDispatchRequest request(NotificationEventType eventType) {
+        return heartbeatLost(Instant.now()).eventType(eventType).build();
+    }
+
+    private static final class StubGateway implements NotificationChannelProvider {
+
+        @Override
+        public NotificationChannel getChannel() {
+            return NotificationChannel.PUSH;
+        }
+
+        @Override
+        public void send(NotificationDispatchRequest request, String traceId) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(SEND_MICROS));
+        }
+    }
+}
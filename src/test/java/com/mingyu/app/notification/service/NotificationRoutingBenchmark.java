@@ -0,0 +1,153 @@
+package com.mingyu.app.notification.service;
+
+// Implements 2.权限引导与存活看板
+
+import com.mingyu.app.notification.model.NotificationChannel;
+import com.mingyu.app.notification.model.NotificationDispatchRequest;
+import com.mingyu.app.notification.model.NotificationEventType;
+import com.mingyu.app.notification.model.NotificationRecipient;
+import com.mingyu.app.notification.model.NotificationRecipientCapability;
+import com.mingyu.app.notification.provider.NotificationChannelProvider;
+import com.mingyu.app.notification.provider.RoutableNotificationChannelProvider;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Cost of picking the providers for one request out of {@code providers} registered ones, each
+ * handling one event type through one channel. {@code scan} is the old loop asking every provider
+ * {@code supports}, {@code indexed} is {@link NotificationRoutingTable} with the same providers
+ * declared as {@link RoutableNotificationChannelProvider}s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotificationRoutingBenchmark {
+
+    private static final NotificationChannel[] CHANNELS = NotificationChannel.values();
+    private static final NotificationEventType[] EVENT_TYPES = NotificationEventType.values();
+
+    @Param({"3", "30", "300"})
+    public int providers;
+
+    @Param({"scan", "indexed"})
+    public String mode;
+
+    private List<NotificationChannelProvider> registered;
+    private NotificationRoutingTable routingTable;
+    private NotificationDispatchRequest[] requests;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        registered = new ArrayList<>(providers);
+        for (int i = 0; i < providers; i++) {
+            registered.add(new StubProvider(CHANNELS[i % CHANNELS.length], EVENT_TYPES[i % EVENT_TYPES.length]));
+        }
+        routingTable = new NotificationRoutingTable(registered);
+        requests = new NotificationDispatchRequest[EVENT_TYPES.length];
+        NotificationRecipient recipient = NotificationRecipient.builder()
+                .monitorUserId(10L)
+                .monitoredUserId(20L)
+                .deviceToken("ios-token")
+                .phoneNumber("+15555550123")
+                .build();
+        for (int i = 0; i < EVENT_TYPES.length; i++) {
+            requests[i] = NotificationDispatchRequest.builder()
+                    .eventType(EVENT_TYPES[i])
+                    .recipient(recipient)
+                    .triggeredAt(Instant.now())
+                    .message("Permission revoked")
+                    .build();
+        }
+    }
+
+    @Benchmark
+    public List<NotificationChannelProvider> select(Cursor cursor) {
+        NotificationDispatchRequest request = requests[cursor.next(requests.length)];
+        if ("indexed".equals(mode)) {
+            return routingTable.select(request);
+        }
+        List<NotificationChannelProvider> candidates = new ArrayList<>();
+        for (NotificationChannelProvider provider : registered) {
+            if (provider.supports(request)) {
+                candidates.add(provider);
+            }
+        }
+        return candidates;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(NotificationRoutingBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int position;
+
+        int next(int bound) {
+            position = position + 1 == bound ? 0 : position + 1;
+            return position;
+        }
+    }
+
+    private static final class StubProvider implements RoutableNotificationChannelProvider {
+
+        private final NotificationChannel channel;
+        private final NotificationEventType eventType;
+        private final NotificationRecipientCapability capability;
+
+        private StubProvider(NotificationChannel channel, NotificationEventType eventType) {
+            this.channel = channel;
+            this.eventType = eventType;
+            this.capability = switch (channel) {
+                case PUSH -> NotificationRecipientCapability.DEVICE_TOKEN;
+                case SMS -> NotificationRecipientCapability.PHONE_NUMBER;
+                case WEBHOOK -> NotificationRecipientCapability.WEBHOOK_URL;
+            };
+        }
+
+        @Override
+        public NotificationChannel getChannel() {
+            return channel;
+        }
+
+        @Override
+        public Set<NotificationEventType> getSupportedEventTypes() {
+            return Set.of(eventType);
+        }
+
+        @Override
+        public Set<NotificationRecipientCapability> getRequiredCapabilities() {
+            return Set.of(capability);
+        }
+
+        @Override
+        public boolean supports(NotificationDispatchRequest request) {
+            return request.getEventType() == eventType && capability.isPresentOn(request.getRecipient());
+        }
+
+        @Override
+        public void send(NotificationDispatchRequest request, String traceId) {}
+    }
+}
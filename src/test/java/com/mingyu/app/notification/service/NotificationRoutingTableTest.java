@@ -0,0 +1,158 @@
+package com.mingyu.app.notification.service;
+
+// Implements 2.权限引导与存活看板
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.mingyu.app.notification.model.NotificationChannel;
+import com.mingyu.app.notification.model.NotificationDispatchRequest;
+import com.mingyu.app.notification.model.NotificationEventType;
+import com.mingyu.app.notification.model.NotificationRecipient;
+import com.mingyu.app.notification.model.NotificationRecipientCapability;
+import com.mingyu.app.notification.provider.NotificationChannelProvider;
+import com.mingyu.app.notification.provider.RoutableNotificationChannelProvider;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class NotificationRoutingTableTest {
+
+    @Test
+    void declaredProvidersAreRoutedByEventTypeWithoutAskingSupports() {
+        StubProvider push = new StubProvider(
+                NotificationChannel.PUSH, Set.of(NotificationEventType.PERMISSION_LOSS), Set.of());
+        StubProvider sms = new StubProvider(
+                NotificationChannel.SMS, Set.of(NotificationEventType.HEARTBEAT_FAILURE), Set.of());
+        NotificationRoutingTable table = new NotificationRoutingTable(List.of(push, sms));
+
+        assertEquals(List.of(push), table.select(request(NotificationEventType.PERMISSION_LOSS, "token", null)));
+        assertEquals(List.of(sms), table.select(request(NotificationEventType.HEARTBEAT_FAILURE, "token", null)));
+        assertTrue(table.select(request(NotificationEventType.BEHAVIOR_ALERT, "token", null)).isEmpty());
+        assertEquals(0, push.supportsCalls.get() + sms.supportsCalls.get());
+    }
+
+    @Test
+    void providersNeedingMissingContactDetailsAreSkipped() {
+        StubProvider push = new StubProvider(NotificationChannel.PUSH,
+                Set.of(NotificationEventType.PERMISSION_LOSS), Set.of(NotificationRecipientCapability.DEVICE_TOKEN));
+        StubProvider sms = new StubProvider(NotificationChannel.SMS,
+                Set.of(NotificationEventType.PERMISSION_LOSS), Set.of(NotificationRecipientCapability.PHONE_NUMBER));
+        NotificationRoutingTable table = new NotificationRoutingTable(List.of(push, sms));
+
+        assertEquals(List.of(sms), table.select(request(NotificationEventType.PERMISSION_LOSS, " ", "+15555550123")));
+        assertEquals(List.of(push, sms),
+                table.select(request(NotificationEventType.PERMISSION_LOSS, "token", "+15555550123")));
+    }
+
+    @Test
+    void undeclaredProvidersFallBackToSupportsInPlace() {
+        StubProvider push = new StubProvider(
+                NotificationChannel.PUSH, Set.of(NotificationEventType.PERMISSION_LOSS), Set.of());
+        PlainProvider declining = new PlainProvider(NotificationChannel.WEBHOOK, false);
+        PlainProvider accepting = new PlainProvider(NotificationChannel.SMS, true);
+        NotificationRoutingTable table = new NotificationRoutingTable(List.of(accepting, push, declining));
+
+        assertEquals(List.of(accepting, push), table.select(request(NotificationEventType.PERMISSION_LOSS, "token", null)));
+        assertEquals(1, accepting.supportsCalls.get());
+        assertEquals(1, declining.supportsCalls.get());
+        assertEquals(0, push.supportsCalls.get());
+    }
+
+    @Test
+    void fullyDeclaredBucketsAreReturnedAsIs() {
+        StubProvider push = new StubProvider(
+                NotificationChannel.PUSH, Set.of(NotificationEventType.PERMISSION_LOSS), Set.of());
+        NotificationRoutingTable table = new NotificationRoutingTable(List.of(push));
+
+        assertSame(
+                table.select(request(NotificationEventType.PERMISSION_LOSS, "token", null)),
+                table.select(request(NotificationEventType.PERMISSION_LOSS, "other-token", null)));
+    }
+
+    private static NotificationDispatchRequest request(
+            NotificationEventType eventType, String deviceToken, String phoneNumber) {
+        NotificationRecipient recipient = NotificationRecipient.builder()
+                .monitorUserId(10L)
+                .monitoredUserId(20L)
+                .deviceToken(deviceToken)
+                .phoneNumber(phoneNumber)
+                .build();
+        return NotificationDispatchRequest.builder()
+                .eventType(eventType)
+                .recipient(recipient)
+                .triggeredAt(Instant.parse("2024-01-01T10:00:00Z"))
+                .message("Permission revoked")
+                .build();
+    }
+
+    private static final class StubProvider implements RoutableNotificationChannelProvider {
+
+        private final NotificationChannel channel;
+        private final Set<NotificationEventType> eventTypes;
+        private final Set<NotificationRecipientCapability> capabilities;
+        private final AtomicInteger supportsCalls = new AtomicInteger();
+
+        private StubProvider(
+                NotificationChannel channel,
+                Set<NotificationEventType> eventTypes,
+                Set<NotificationRecipientCapability> capabilities) {
+            this.channel = channel;
+            this.eventTypes = eventTypes;
+            this.capabilities = capabilities;
+        }
+
+        @Override
+        public NotificationChannel getChannel() {
+            return channel;
+        }
+
+        @Override
+        public Set<NotificationEventType> getSupportedEventTypes() {
+            return eventTypes;
+        }
+
+        @Override
+        public Set<NotificationRecipientCapability> getRequiredCapabilities() {
+            return capabilities;
+        }
+
+        @Override
+        public boolean supports(NotificationDispatchRequest request) {
+            supportsCalls.incrementAndGet();
+            return false;
+        }
+
+        @Override
+        public void send(NotificationDispatchRequest request, String traceId) {}
+    }
+
+    private static final class PlainProvider implements NotificationChannelProvider {
+
+        private final NotificationChannel channel;
+        private final boolean supports;
+        private final AtomicInteger supportsCalls = new AtomicInteger();
+
+        private PlainProvider(NotificationChannel channel, boolean supports) {
+            this.channel = channel;
+            this.supports = supports;
+        }
+
+        @Override
+        public NotificationChannel getChannel() {
+            return channel;
+        }
+
+        @Override
+        public boolean supports(NotificationDispatchRequest request) {
+            supportsCalls.incrementAndGet();
+            return supports;
+        }
+
+        @Override
+        public void send(NotificationDispatchRequest request, String traceId) {}
+    }
+}
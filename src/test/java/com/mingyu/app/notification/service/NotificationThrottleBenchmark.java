@@ -0,0 +1,158 @@
+package com.mingyu.app.notification.service;
+
+// Implements 2.权限引导与存活看板
+
+import com.mingyu.app.common.ratelimit.BucketSpec;
+import com.mingyu.app.common.ratelimit.TokenBucketRateLimiter;
+import com.mingyu.app.notification.config.NotificationRetryProperties;
+import com.mingyu.app.notification.config.NotificationThrottleProperties;
+import com.mingyu.app.notification.exception.NotificationDeliveryException;
+import com.mingyu.app.notification.model.NotificationChannel;
+import com.mingyu.app.notification.model.NotificationDispatchRequest;
+import com.mingyu.app.notification.model.NotificationEventType;
+import com.mingyu.app.notification.model.NotificationRecipient;
+import com.mingyu.app.notification.provider.NotificationChannelProvider;
+import com.mingyu.app.notification.throttle.NotificationChannelThrottle;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * A burst of {@value #BURST} SMS notifications against a local gateway stub that answers 429 once
+ * its own quota of {@value #GATEWAY_PER_SECOND}/s is used up. Reports the time until every
+ * dispatch has settled, plus how many were delivered, how many failed outright and how many
+ * gateway rejections the burst provoked, with the channel throttle {@code off} and {@code on}
+ * (set to the gateway's quota).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class NotificationThrottleBenchmark {
+
+    private static final int BURST = 300;
+    private static final int GATEWAY_PER_SECOND = 100;
+
+    @Param({"off", "on"})
+    public String throttle;
+
+    private QuotaGateway gateway;
+    private NotificationDispatcherService dispatcher;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        gateway = new QuotaGateway();
+        NotificationRetryProperties retryProperties = new NotificationRetryProperties();
+        retryProperties.setMaxAttempts(3);
+        retryProperties.setInitialBackoffMillis(250);
+        retryProperties.setSchedulerThreads(4);
+        NotificationThrottleProperties throttleProperties = new NotificationThrottleProperties();
+        throttleProperties.setEnabled("on".equals(throttle));
+        throttleProperties.setMaxWaitMillis(10_000);
+        throttleProperties.getChannels().put(NotificationChannel.SMS, new NotificationThrottleProperties.Limit(
+                GATEWAY_PER_SECOND, GATEWAY_PER_SECOND, Duration.ofSeconds(1)));
+        NotificationChannelThrottle throttle =
+                new NotificationChannelThrottle(throttleProperties, Clock.systemUTC(), new SimpleMeterRegistry());
+        dispatcher = NotificationDispatcherBuilder.dispatcher(List.of(gateway))
+                .retryProperties(retryProperties)
+                .throttle(throttle)
+                .build();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        dispatcher.destroy();
+    }
+
+    @Benchmark
+    public void burst(Outcome outcome) {
+        NotificationRecipient recipient = NotificationRecipient.builder()
+                .monitorUserId(10L)
+                .monitoredUserId(20L)
+                .phoneNumber("+15555550123")
+                .build();
+        NotificationDispatchRequest request = NotificationDispatchRequest.builder()
+                .eventType(NotificationEventType.PERMISSION_LOSS)
+                .recipient(recipient)
+                .triggeredAt(Instant.now())
+                .message("Permission revoked")
+                .build();
+        CompletableFuture<?>[] dispatches = new CompletableFuture<?>[BURST];
+        for (int i = 0; i < BURST; i++) {
+            dispatches[i] = dispatcher.dispatchAsync(request, "burst-" + i).handle((result, error) -> {
+                if (error == null) {
+                    outcome.delivered++;
+                } else {
+                    outcome.failed++;
+                }
+                return null;
+            });
+        }
+        CompletableFuture.allOf(dispatches).join();
+        outcome.gatewayRejections += gateway.rejections.getAndSet(0);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(NotificationThrottleBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcome {
+
+        public long delivered;
+        public long failed;
+        public long gatewayRejections;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            delivered = 0;
+            failed = 0;
+            gatewayRejections = 0;
+        }
+    }
+
+    private static final class QuotaGateway implements NotificationChannelProvider {
+
+        private final TokenBucketRateLimiter quota = new TokenBucketRateLimiter(
+                new BucketSpec(GATEWAY_PER_SECOND, GATEWAY_PER_SECOND, Duration.ofSeconds(1)), Clock.systemUTC());
+        private final AtomicLong rejections = new AtomicLong();
+
+        @Override
+        public NotificationChannel getChannel() {
+            return NotificationChannel.SMS;
+        }
+
+        @Override
+        public void send(NotificationDispatchRequest request, String traceId) {
+            if (!quota.tryAcquire("sms")) {
+                rejections.incrementAndGet();
+                throw new NotificationDeliveryException("429 Too Many Requests");
+            }
+        }
+    }
+}
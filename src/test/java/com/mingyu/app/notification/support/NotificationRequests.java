@@ -0,0 +1,41 @@
+package com.mingyu.app.notification.support;
+
+// Implements 2.权限引导与存活看板
+
+import com.mingyu.app.notification.model.NotificationDispatchRequest;
+import com.mingyu.app.notification.model.NotificationEventType;
+import com.mingyu.app.notification.model.NotificationRecipient;
+import java.time.Instant;
+
+/** Request fixtures shared by the notification tests and benchmarks. */
+public final class NotificationRequests {
+
+    private NotificationRequests() {}
+
+    /** Monitor 10 watching {@code monitoredUserId}, reachable by push only. */
+    public static NotificationRecipient pushRecipient(long monitoredUserId) {
+        return NotificationRecipient.builder()
+                .monitorUserId(10L)
+                .monitoredUserId(monitoredUserId)
+                .deviceToken("ios-token")
+                .build();
+    }
+
+    /** A heartbeat-lost push about user 20; callers refine it through the returned builder. */
+    public static NotificationDispatchRequest.Builder heartbeatLost(Instant triggeredAt) {
+        return NotificationDispatchRequest.builder()
+                .eventType(NotificationEventType.HEARTBEAT_FAILURE)
+                .recipient(pushRecipient(20L))
+                .triggeredAt(triggeredAt)
+                .message("Heartbeat lost");
+    }
+
+    /** Heartbeat lost for the {@code index}-th device, so bulk loads do not share one dedup key. */
+    public static NotificationDispatchRequest deviceHeartbeatLost(Instant triggeredAt, int index) {
+        return heartbeatLost(triggeredAt)
+                .recipient(pushRecipient(20L + index))
+                .message("Heartbeat lost for device device-" + index)
+                .attribute("deviceIdentifier", "device-" + index)
+                .build();
+    }
+}
@@ -0,0 +1,75 @@
+package com.mingyu.app.notification.throttle;
+
+// Implements 2.权限引导与存活看板
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.mingyu.app.notification.config.NotificationThrottleProperties;
+import com.mingyu.app.notification.exception.NotificationThrottledException;
+import com.mingyu.app.notification.model.NotificationChannel;
+import com.mingyu.app.support.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NotificationChannelThrottleTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+    private NotificationThrottleProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new NotificationThrottleProperties();
+        properties.getChannels().clear();
+        properties.getChannels().put(
+                NotificationChannel.SMS, new NotificationThrottleProperties.Limit(2, 1, Duration.ofMillis(500)));
+        properties.setMaxWaitMillis(1_000);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void defersWithinBudgetThenRejects() {
+        NotificationChannelThrottle throttle = new NotificationChannelThrottle(properties, clock, meterRegistry);
+
+        assertEquals(0L, throttle.acquire(NotificationChannel.SMS, 0L));
+        assertEquals(0L, throttle.acquire(NotificationChannel.SMS, 0L));
+        long wait = throttle.acquire(NotificationChannel.SMS, 0L);
+        assertEquals(Duration.ofMillis(500).toNanos(), wait);
+
+        NotificationThrottledException rejected = assertThrows(
+                NotificationThrottledException.class, () -> throttle.acquire(NotificationChannel.SMS, wait * 2));
+        assertEquals(NotificationChannel.SMS, rejected.getChannel());
+        assertEquals(501L, rejected.getRetryAfterMillis());
+
+        clock.advance(Duration.ofMillis(500));
+        assertEquals(0L, throttle.acquire(NotificationChannel.SMS, wait));
+
+        assertEquals(3.0d, count("notification.throttle.admitted", "sms", null));
+        assertEquals(1.0d, count("notification.throttle.throttled", "sms", "deferred"));
+        assertEquals(1.0d, count("notification.throttle.throttled", "sms", "rejected"));
+    }
+
+    @Test
+    void channelsWithoutLimitAndDisabledThrottleAdmitEverything() {
+        NotificationChannelThrottle throttle = new NotificationChannelThrottle(properties, clock, meterRegistry);
+        NotificationThrottleProperties disabledProperties = new NotificationThrottleProperties();
+        disabledProperties.setEnabled(false);
+        NotificationChannelThrottle unlimited =
+                new NotificationChannelThrottle(disabledProperties, clock, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0L, throttle.acquire(NotificationChannel.PUSH, 0L));
+            assertEquals(0L, unlimited.acquire(NotificationChannel.SMS, 0L));
+        }
+        assertEquals(100.0d, count("notification.throttle.admitted", "push", null));
+    }
+
+    private double count(String name, String channel, String outcome) {
+        var search = meterRegistry.get(name).tag("channel", channel);
+        return (outcome == null ? search : search.tag("outcome", outcome)).counter().count();
+    }
+}
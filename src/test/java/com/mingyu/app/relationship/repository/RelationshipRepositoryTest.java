@@ -1,27 +1,48 @@
 package com.mingyu.app.relationship.repository;
 
 // Implements 1.账号与关系管理
+// Implements 6.开发者核心逻辑
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.mingyu.app.relationship.model.DeviceEntity;
+import com.mingyu.app.relationship.model.DeviceHeartbeatState;
+import com.mingyu.app.relationship.model.MonitoredDevice;
 import com.mingyu.app.relationship.model.RelationshipEntity;
 import com.mingyu.app.relationship.model.RelationshipStatus;
 import com.mingyu.app.relationship.model.UserEntity;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Map;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
 
-@DataJpaTest
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:relationships;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(H2MigrationConfiguration.class)
 class RelationshipRepositoryTest {
 
+    private static final Instant NOW = Instant.parse("2024-01-01T10:00:00Z");
+
     @Autowired
     private RelationshipRepository relationshipRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private DeviceRepository deviceRepository;
+
     @Test
     void persistsLifecycleAndActiveLookup() {
         Instant baseTime = Instant.parse("2024-01-01T00:00:00Z");
@@ -54,6 +75,67 @@ class RelationshipRepositoryTest {
         assertTrue(relationshipRepository.findActiveRelationshipForUser(partner.getId()).isEmpty());
     }
 
+    @Test
+    void findsDevicesChangingStateOnEitherSideOfActiveRelationships() {
+        Instant staleBefore = NOW.minus(Duration.ofMinutes(5));
+        UserEntity neverSeen = persistUser("+8613722222201", "Never seen");
+        UserEntity stale = persistUser("+8613722222202", "Stale");
+        persistRelationship(neverSeen, stale, "100001", false);
+        persistDevice(neverSeen, "device-never-seen", DeviceHeartbeatState.HEALTHY, null);
+        persistDevice(stale, "device-stale", DeviceHeartbeatState.HEALTHY, NOW.minus(Duration.ofMinutes(10)));
+
+        UserEntity fresh = persistUser("+8613722222203", "Fresh");
+        UserEntity recovered = persistUser("+8613722222204", "Recovered");
+        persistRelationship(fresh, recovered, "100002", false);
+        persistDevice(fresh, "device-fresh", DeviceHeartbeatState.HEALTHY, NOW.minusSeconds(30));
+        persistDevice(recovered, "device-recovered", DeviceHeartbeatState.LOST, NOW.minusSeconds(30));
+
+        UserEntity stillLost = persistUser("+8613722222205", "Still lost");
+        UserEntity withoutDevice = persistUser("+8613722222206", "Without device");
+        persistRelationship(stillLost, withoutDevice, "100003", false);
+        persistDevice(stillLost, "device-still-lost", DeviceHeartbeatState.LOST, NOW.minus(Duration.ofMinutes(10)));
+
+        UserEntity formerInitiator = persistUser("+8613722222207", "Former initiator");
+        UserEntity formerPartner = persistUser("+8613722222208", "Former partner");
+        persistRelationship(formerInitiator, formerPartner, "100004", true);
+        persistDevice(formerInitiator, "device-former-initiator", DeviceHeartbeatState.HEALTHY, null);
+        persistDevice(formerPartner, "device-former-partner", DeviceHeartbeatState.LOST, NOW.minusSeconds(30));
+
+        Map<String, Long> monitorsByDevice = relationshipRepository.findMonitoredDevicesChangingState(staleBefore)
+                .stream()
+                .collect(Collectors.toMap(
+                        monitored -> monitored.device().getDeviceIdentifier(), MonitoredDevice::monitorUserId));
+
+        assertEquals(Map.of(
+                "device-never-seen", stale.getId(),
+                "device-stale", neverSeen.getId(),
+                "device-recovered", fresh.getId()), monitorsByDevice);
+    }
+
+    private void persistRelationship(UserEntity initiator, UserEntity partner, String bindingCode, boolean ended) {
+        RelationshipEntity relationship = new RelationshipEntity();
+        relationship.setInitiator(initiator);
+        relationship.setPartner(partner);
+        relationship.setBindingCode(bindingCode);
+        relationship.setRequestedDeviceIdentifier("requested-" + bindingCode);
+        relationship.setRequestedAt(NOW.minus(Duration.ofDays(1)));
+        relationship.markActive("confirmed-" + bindingCode, NOW.minus(Duration.ofDays(1)));
+        if (ended) {
+            relationship.terminate("partner left", NOW.minus(Duration.ofHours(1)));
+        }
+        relationshipRepository.save(relationship);
+    }
+
+    private void persistDevice(UserEntity user, String identifier, DeviceHeartbeatState state, Instant lastSeenAt) {
+        DeviceEntity device = new DeviceEntity();
+        device.setUserId(user.getId());
+        device.setDeviceIdentifier(identifier);
+        device.setPlatform("ANDROID");
+        device.setHeartbeatState(state);
+        device.setLastSeenAt(lastSeenAt);
+        deviceRepository.save(device);
+    }
+
     private UserEntity persistUser(String phone, String name) {
         UserEntity user = new UserEntity();
         user.setPhoneNumber(phone);
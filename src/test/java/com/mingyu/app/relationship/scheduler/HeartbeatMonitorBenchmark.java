@@ -0,0 +1,224 @@
+package com.mingyu.app.relationship.scheduler;
+
+// Implements 6.开发者核心逻辑
+
+import com.mingyu.app.notification.config.NotificationOutboxProperties;
+import com.mingyu.app.notification.model.NotificationOutboxEntity;
+import com.mingyu.app.notification.repository.NotificationOutboxRepository;
+import com.mingyu.app.notification.service.NotificationOutboxService;
+import com.mingyu.app.notification.service.NotificationRequestCodec;
+import com.mingyu.app.relationship.model.DeviceEntity;
+import com.mingyu.app.relationship.model.DeviceHeartbeatState;
+import com.mingyu.app.relationship.model.RelationshipEntity;
+import com.mingyu.app.relationship.repository.DeviceRepository;
+import com.mingyu.app.relationship.repository.H2MigrationConfiguration;
+import com.mingyu.app.relationship.repository.RelationshipRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * One heartbeat monitor tick over {@code relationships} active relationships, one device per user,
+ * of which {@code staleDevicePercent} have gone quiet. {@code perRelationshipLookups} is the lookup
+ * the tick used to do, every active relationship then a device select for each side, without the
+ * handling that follows and in a read-only transaction: in the old read-write tick every select
+ * also auto-flushed, dirty checking everything loaded so far, so this is a lower bound.
+ * {@code joinedTick} is the whole current tick, escalations included, flushed and then rolled
+ * back so every tick sees the same stale devices. The
+ * statements prepared per tick are printed when a trial ends. Runs against in-memory H2 in MySQL
+ * mode, migrated by Flyway so the indexes are the real ones; give the fork {@code -Xmx3g} or more
+ * for a million.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class HeartbeatMonitorBenchmark {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T10:00:00Z");
+
+    @Param({"10000", "100000", "1000000"})
+    public int relationships;
+
+    @Param({"0", "1"})
+    public int staleDevicePercent;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private TransactionTemplate readOnlyTemplate;
+    private RelationshipRepository relationshipRepository;
+    private DeviceRepository deviceRepository;
+    private HeartbeatMonitorScheduler scheduler;
+    private Statistics statistics;
+    private long ticks;
+    private long statements;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(HeartbeatBenchmarkConfiguration.class)
+                .web(WebApplicationType.NONE)
+                // Skip application.yml: the benchmark only wires the heartbeat tick against H2.
+                .run(
+                        "--spring.config.name=heartbeat-monitor-benchmark",
+                        "--spring.datasource.url=jdbc:h2:mem:heartbeat;MODE=MySQL",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.jpa.properties.hibernate.generate_statistics=true",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.mingyu=ERROR");
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate.setReadOnly(true);
+        relationshipRepository = context.getBean(RelationshipRepository.class);
+        deviceRepository = context.getBean(DeviceRepository.class);
+        scheduler = new HeartbeatMonitorScheduler(relationshipRepository, deviceRepository,
+                context.getBean(NotificationOutboxService.class), Clock.fixed(NOW, ZoneOffset.UTC));
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n%d relationships: %d statement(s) per tick%n", relationships,
+                ticks == 0 ? 0 : statements / ticks);
+        context.close();
+    }
+
+    @Benchmark
+    public int perRelationshipLookups() {
+        return inRolledBackTick(readOnlyTemplate, () -> {
+            Instant staleBefore = NOW.minus(Duration.ofMinutes(5));
+            int changing = 0;
+            for (RelationshipEntity relationship : relationshipRepository.findAllActiveRelationships()) {
+                changing += changing(deviceRepository.findByUserId(relationship.getInitiatorUserId()), staleBefore);
+                changing += changing(deviceRepository.findByUserId(relationship.getPartnerUserId()), staleBefore);
+            }
+            return changing;
+        });
+    }
+
+    @Benchmark
+    public int joinedTick() {
+        return inRolledBackTick(transactionTemplate, () -> {
+            scheduler.monitorHeartbeats();
+            // The LOST updates would otherwise be skipped along with the rollback.
+            deviceRepository.flush();
+            return 0;
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(HeartbeatMonitorBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private int inRolledBackTick(TransactionTemplate template, IntSupplier tick) {
+        long before = statistics.getPrepareStatementCount();
+        Integer result = template.execute(status -> {
+            status.setRollbackOnly();
+            return tick.getAsInt();
+        });
+        statements += statistics.getPrepareStatementCount() - before;
+        ticks++;
+        return result;
+    }
+
+    private static int changing(Optional<DeviceEntity> device, Instant staleBefore) {
+        if (device.isEmpty()) {
+            return 0;
+        }
+        Instant lastSeenAt = device.get().getLastSeenAt();
+        boolean stale = lastSeenAt == null || lastSeenAt.isBefore(staleBefore);
+        return stale == (device.get().getHeartbeatState() == DeviceHeartbeatState.HEALTHY) ? 1 : 0;
+    }
+
+    /**
+     * Users 2i-1 and 2i form relationship i. Every user has a device, and one in
+     * {@code 100 / staleDevicePercent} has gone quiet.
+     */
+    private void seed(JdbcTemplate jdbcTemplate) {
+        Timestamp now = Timestamp.from(NOW);
+        Timestamp fresh = Timestamp.from(NOW.minusSeconds(30));
+        Timestamp stale = Timestamp.from(NOW.minus(Duration.ofMinutes(10)));
+        int users = relationships * 2;
+        int staleEvery = staleDevicePercent == 0 ? users + 1 : Math.max(1, 100 / staleDevicePercent);
+        jdbcTemplate.update("""
+                INSERT INTO users (id, phone_number, display_name, active, created_at, updated_at)
+                SELECT X, CONCAT('+86', X), CONCAT('user-', X), TRUE, ?, ? FROM SYSTEM_RANGE(1, ?)
+                """, now, now, users);
+        jdbcTemplate.update("""
+                INSERT INTO devices (id, user_id, device_identifier, platform, push_token, active, bound_at,
+                                     last_seen_at, heartbeat_state, created_at, updated_at)
+                SELECT X, X, CONCAT('device-', X), 'ANDROID', CONCAT('push-', X), TRUE, ?,
+                       CASEWHEN(MOD(X, ?) = 0, ?, ?), 'HEALTHY', ?, ?
+                FROM SYSTEM_RANGE(1, ?)
+                """, now, staleEvery, stale, fresh, now, now, users);
+        jdbcTemplate.update("""
+                INSERT INTO relationships (id, initiator_user_id, partner_user_id, binding_code, status,
+                                           requested_device_identifier, requested_at, created_at, updated_at)
+                SELECT X, 2 * X - 1, 2 * X, LPAD(CAST(X - 1 AS VARCHAR), 6, '0'), 'ACTIVE',
+                       CONCAT('device-', 2 * X - 1), ?, ?, ?
+                FROM SYSTEM_RANGE(1, ?)
+                """, now, now, now, relationships);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    /** Kept out of the application's component scan in other tests, like the outbox benchmark's. */
+    @TestConfiguration(proxyBeanMethods = false)
+    @EnableAutoConfiguration(exclude = {RedisAutoConfiguration.class, RedisRepositoriesAutoConfiguration.class})
+    @EntityScan(basePackageClasses = {RelationshipEntity.class, NotificationOutboxEntity.class})
+    @EnableJpaRepositories(basePackageClasses = {RelationshipRepository.class, NotificationOutboxRepository.class})
+    @Import({
+            H2MigrationConfiguration.class,
+            NotificationOutboxService.class,
+            NotificationRequestCodec.class,
+            NotificationOutboxProperties.class
+    })
+    static class HeartbeatBenchmarkConfiguration {
+
+        @Bean
+        Clock clock() {
+            return Clock.fixed(NOW, ZoneOffset.UTC);
+        }
+    }
+}
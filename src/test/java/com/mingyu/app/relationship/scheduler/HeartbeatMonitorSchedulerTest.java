@@ -11,18 +11,16 @@ import static org.mockito.Mockito.when;
 
 import com.mingyu.app.notification.model.NotificationDispatchRequest;
 import com.mingyu.app.notification.model.NotificationEventType;
-import com.mingyu.app.notification.service.NotificationDispatcherService;
+import com.mingyu.app.notification.service.NotificationOutboxService;
 import com.mingyu.app.relationship.model.DeviceEntity;
 import com.mingyu.app.relationship.model.DeviceHeartbeatState;
-import com.mingyu.app.relationship.model.RelationshipEntity;
-import com.mingyu.app.relationship.model.RelationshipStatus;
+import com.mingyu.app.relationship.model.MonitoredDevice;
 import com.mingyu.app.relationship.repository.DeviceRepository;
 import com.mingyu.app.relationship.repository.RelationshipRepository;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
-import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -40,7 +38,7 @@ class HeartbeatMonitorSchedulerTest {
     private DeviceRepository deviceRepository;
 
     @Mock
-    private NotificationDispatcherService notificationDispatcherService;
+    private NotificationOutboxService notificationOutboxService;
 
     @Mock
     private Clock clock;
@@ -50,7 +48,7 @@ class HeartbeatMonitorSchedulerTest {
     @BeforeEach
     void setUp() {
         scheduler = new HeartbeatMonitorScheduler(
-                relationshipRepository, deviceRepository, notificationDispatcherService, clock);
+                relationshipRepository, deviceRepository, notificationOutboxService, clock);
     }
 
     @Test
@@ -58,11 +56,6 @@ class HeartbeatMonitorSchedulerTest {
         Instant now = Instant.parse("2024-01-01T10:00:00Z");
         when(clock.instant()).thenReturn(now);
 
-        RelationshipEntity relationship = new RelationshipEntity();
-        relationship.setStatus(RelationshipStatus.ACTIVE);
-        relationship.setInitiatorUserId(1L);
-        relationship.setPartnerUserId(2L);
-
         DeviceEntity monitoredDevice = new DeviceEntity();
         monitoredDevice.setUserId(2L);
         monitoredDevice.setDeviceIdentifier("device-b");
@@ -70,9 +63,8 @@ class HeartbeatMonitorSchedulerTest {
         monitoredDevice.setHeartbeatState(DeviceHeartbeatState.HEALTHY);
         monitoredDevice.setLastSeenAt(now.minus(6, ChronoUnit.MINUTES));
 
-        when(relationshipRepository.findAllActiveRelationships()).thenReturn(List.of(relationship));
-        when(deviceRepository.findByUserId(1L)).thenReturn(Optional.empty());
-        when(deviceRepository.findByUserId(2L)).thenReturn(Optional.of(monitoredDevice));
+        when(relationshipRepository.findMonitoredDevicesChangingState(now.minus(5, ChronoUnit.MINUTES)))
+                .thenReturn(List.of(new MonitoredDevice(monitoredDevice, 1L)));
 
         scheduler.monitorHeartbeats();
 
@@ -81,7 +73,7 @@ class HeartbeatMonitorSchedulerTest {
 
         ArgumentCaptor<NotificationDispatchRequest> requestCaptor =
                 ArgumentCaptor.forClass(NotificationDispatchRequest.class);
-        verify(notificationDispatcherService).dispatch(requestCaptor.capture(), isNull());
+        verify(notificationOutboxService).enqueue(requestCaptor.capture(), isNull());
 
         NotificationDispatchRequest request = requestCaptor.getValue();
         assertEquals(NotificationEventType.HEARTBEAT_FAILURE, request.getEventType());
@@ -91,14 +83,30 @@ class HeartbeatMonitorSchedulerTest {
     }
 
     @Test
-    void skipsEscalationForFreshHeartbeat() {
+    void recoversLostDeviceSeenAgainWithoutEscalating() {
         Instant now = Instant.parse("2024-01-01T10:00:00Z");
         when(clock.instant()).thenReturn(now);
 
-        RelationshipEntity relationship = new RelationshipEntity();
-        relationship.setStatus(RelationshipStatus.ACTIVE);
-        relationship.setInitiatorUserId(1L);
-        relationship.setPartnerUserId(2L);
+        DeviceEntity monitoredDevice = new DeviceEntity();
+        monitoredDevice.setUserId(2L);
+        monitoredDevice.setDeviceIdentifier("device-b");
+        monitoredDevice.setHeartbeatState(DeviceHeartbeatState.LOST);
+        monitoredDevice.setLastSeenAt(now.minus(1, ChronoUnit.MINUTES));
+
+        when(relationshipRepository.findMonitoredDevicesChangingState(now.minus(5, ChronoUnit.MINUTES)))
+                .thenReturn(List.of(new MonitoredDevice(monitoredDevice, 1L)));
+
+        scheduler.monitorHeartbeats();
+
+        verify(deviceRepository).save(monitoredDevice);
+        assertEquals(DeviceHeartbeatState.HEALTHY, monitoredDevice.getHeartbeatState());
+        verify(notificationOutboxService, never()).enqueue(any(), any());
+    }
+
+    @Test
+    void skipsEscalationForFreshHeartbeat() {
+        Instant now = Instant.parse("2024-01-01T10:00:00Z");
+        when(clock.instant()).thenReturn(now);
 
         DeviceEntity monitoredDevice = new DeviceEntity();
         monitoredDevice.setUserId(2L);
@@ -106,13 +114,12 @@ class HeartbeatMonitorSchedulerTest {
         monitoredDevice.setHeartbeatState(DeviceHeartbeatState.HEALTHY);
         monitoredDevice.setLastSeenAt(now.minus(2, ChronoUnit.MINUTES));
 
-        when(relationshipRepository.findAllActiveRelationships()).thenReturn(List.of(relationship));
-        when(deviceRepository.findByUserId(1L)).thenReturn(Optional.empty());
-        when(deviceRepository.findByUserId(2L)).thenReturn(Optional.of(monitoredDevice));
+        when(relationshipRepository.findMonitoredDevicesChangingState(now.minus(5, ChronoUnit.MINUTES)))
+                .thenReturn(List.of(new MonitoredDevice(monitoredDevice, 1L)));
 
         scheduler.monitorHeartbeats();
 
         verify(deviceRepository, never()).save(any());
-        verify(notificationDispatcherService, never()).dispatch(any(), any());
+        verify(notificationOutboxService, never()).enqueue(any(), any());
     }
 }
\ No newline at end of file
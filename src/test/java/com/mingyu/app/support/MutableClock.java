@@ -0,0 +1,42 @@
+package com.mingyu.app.support;
+
+// Implements System
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/** UTC clock that only moves when a test advances or sets it; safe to read from other threads. */
+public final class MutableClock extends Clock {
+
+    private volatile Instant instant;
+
+    public MutableClock(Instant instant) {
+        this.instant = instant;
+    }
+
+    public void advance(Duration duration) {
+        instant = instant.plus(duration);
+    }
+
+    public void set(Instant instant) {
+        this.instant = instant;
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return this;
+    }
+
+    @Override
+    public Instant instant() {
+        return instant;
+    }
+}